@@ -0,0 +1,110 @@
+package com.sap.ase.poker;
+
+import com.sap.ase.poker.data.history.CorruptHandHistoryException;
+import com.sap.ase.poker.data.history.HandCursor;
+import com.sap.ase.poker.data.history.HandFilters;
+import com.sap.ase.poker.data.history.HandHistoryReader;
+import com.sap.ase.poker.data.history.HandHistoryWriter;
+import com.sap.ase.poker.data.history.HandHistoryStats;
+import com.sap.ase.poker.model.GameState;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/*
+ * Offline aggregation over hand history files, without starting the server:
+ *
+ *   java -cp poker.jar -Dloader.main=com.sap.ase.poker.HandHistoryTool org.springframework.boot.loader.PropertiesLauncher \
+ *       [--player=<id>] [--from=<yyyy-mm-dd>] [--to=<yyyy-mm-dd>] [--fold=<game state>] <file or directory>...
+ *
+ * Dates are UTC days, both inclusive. Directories are scanned for hand history segments in the order they
+ * were written.
+ */
+public class HandHistoryTool {
+
+	static final String USAGE = "usage: HandHistoryTool [--player=<id>] [--from=<yyyy-mm-dd>] [--to=<yyyy-mm-dd>]"
+			+ " [--fold=<game state>] <file or directory>...";
+
+	public static void main(String[] args) {
+		System.exit(run(args, System.out));
+	}
+
+	static int run(String[] args, PrintStream out) {
+		Predicate<HandCursor> filter = HandFilters.all();
+		String player = null;
+		LocalDate from = LocalDate.EPOCH;
+		LocalDate to = LocalDate.of(9999, 12, 31);
+		List<Path> paths = new ArrayList<>();
+		try {
+			for (String arg : args) {
+				if (arg.startsWith("--player=")) {
+					player = value(arg);
+					filter = filter.and(HandFilters.player(player));
+				} else if (arg.startsWith("--from=")) {
+					from = LocalDate.parse(value(arg));
+				} else if (arg.startsWith("--to=")) {
+					to = LocalDate.parse(value(arg));
+				} else if (arg.startsWith("--fold=")) {
+					filter = filter.and(HandFilters.foldIn(GameState.valueOf(value(arg).toUpperCase(Locale.ROOT))));
+				} else if (arg.startsWith("--")) {
+					throw new IllegalArgumentException("Unknown option " + arg);
+				} else {
+					paths.add(Path.of(arg));
+				}
+			}
+			if (paths.isEmpty()) {
+				throw new IllegalArgumentException("No hand history given");
+			}
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			out.println(e.getMessage());
+			out.println(USAGE);
+			return 2;
+		}
+		filter = filter.and(HandFilters.startedBetween(from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+				to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+
+		HandHistoryStats stats = new HandHistoryStats();
+		long hands;
+		try {
+			hands = new HandHistoryReader(files(paths)).forEach(filter, stats);
+		} catch (IOException | CorruptHandHistoryException e) {
+			out.println("Can't read hand history: " + e.getMessage());
+			return 1;
+		}
+
+		out.printf(Locale.ROOT, "%d hands%n", hands);
+		out.printf(Locale.ROOT, "%-24s %8s %8s %9s %7s%n", "player", "hands", "won", "win rate", "vpip");
+		for (String playerId : stats.getPlayerIds()) {
+			if (player == null || player.equals(playerId)) {
+				out.printf(Locale.ROOT, "%-24s %8d %8d %8.1f%% %6.1f%%%n", playerId, stats.getHands(playerId),
+						stats.getWins(playerId), 100 * stats.getWinRate(playerId), 100 * stats.getVpip(playerId));
+			}
+		}
+		return 0;
+	}
+
+	private static String value(String arg) {
+		return arg.substring(arg.indexOf('=') + 1);
+	}
+
+	private static List<Path> files(List<Path> paths) throws IOException {
+		List<Path> files = new ArrayList<>();
+		for (Path path : paths) {
+			if (Files.isDirectory(path)) {
+				files.addAll(HandHistoryWriter.segments(path));
+			} else {
+				files.add(path);
+			}
+		}
+		return files;
+	}
+}
@@ -0,0 +1,110 @@
+package com.sap.ase.poker.config;
+
+import com.sap.ase.poker.data.bankroll.Bankroll;
+import com.sap.ase.poker.data.bankroll.FileBankroll;
+import com.sap.ase.poker.data.events.AsyncGameEventLog;
+import com.sap.ase.poker.data.events.GameEvent;
+import com.sap.ase.poker.data.events.GameEventTranslator;
+import com.sap.ase.poker.data.events.JsonLinesSink;
+import com.sap.ase.poker.data.history.HandHistoryWriter;
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.data.recovery.FileTableStore;
+import com.sap.ase.poker.data.recovery.TableStore;
+import com.sap.ase.poker.model.equity.EquityCalculator;
+import com.sap.ase.poker.model.equity.PreflopEquity;
+import com.sap.ase.poker.model.events.TableEvent;
+import com.sap.ase.poker.service.TableEventBus;
+import com.sap.ase.poker.service.TableRegistry;
+import com.sap.ase.poker.service.TableService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+@Configuration
+public class TableConfig {
+
+    // the single table behind the original /api/v1 endpoints
+    @Bean
+    public TableService tableService(TableRegistry tableRegistry) {
+        return tableRegistry.getDefaultTable();
+    }
+
+    // finished hands are only kept when poker.hand-history.directory is set, closed on shutdown
+    @Bean
+    public Consumer<HandRecord> handHistory(@Value("${poker.hand-history.directory:}") String directory,
+                                            @Value("${poker.hand-history.segment-bytes:"
+                                                    + HandHistoryWriter.DEFAULT_SEGMENT_BYTES + "}") long segmentBytes,
+                                            @Value("${poker.hand-history.capacity:"
+                                                    + HandHistoryWriter.DEFAULT_CAPACITY + "}") int capacity,
+                                            MeterRegistry meterRegistry)
+            throws IOException {
+        if (directory.isEmpty()) {
+            return record -> { };
+        }
+        return new HandHistoryWriter(Path.of(directory), segmentBytes, capacity, meterRegistry);
+    }
+
+    // tables only survive a restart when poker.recovery.directory is set
+    @Bean
+    public TableStore tableStore(@Value("${poker.recovery.directory:}") String directory,
+                                 @Value("${poker.recovery.snapshot-interval:1000}") int snapshotInterval)
+            throws IOException {
+        if (directory.isEmpty()) {
+            return TableStore.none();
+        }
+        return new FileTableStore(Path.of(directory), snapshotInterval);
+    }
+
+    // without poker.bankroll.file every player joins with the buy-in of the table
+    @Bean
+    public Bankroll bankroll(@Value("${poker.bankroll.file:}") String file,
+                             @Value("${poker.bankroll.flush-interval-millis:1000}") long flushIntervalMillis)
+            throws IOException {
+        if (file.isEmpty()) {
+            return Bankroll.none();
+        }
+        return new FileBankroll(Path.of(file), flushIntervalMillis);
+    }
+
+    // simulations get a few threads of their own, so they can't hold up the tables or the web server
+    @Bean(destroyMethod = "close")
+    public EquityCalculator equityCalculator(
+            @Value("${poker.equity.threads:" + EquityCalculator.DEFAULT_THREADS + "}") int threads) {
+        return new EquityCalculator(new ForkJoinPool(threads));
+    }
+
+    // read once from the jar when the application starts
+    @Bean
+    public PreflopEquity preflopEquity() {
+        return PreflopEquity.load(PreflopEquity.RESOURCE);
+    }
+
+    // shared by all tables, so a subscriber gets the events of every table
+    @Bean
+    public TableEventBus tableEventBus() {
+        return new TableEventBus();
+    }
+
+    // what happens at the tables is only logged when poker.game-events.file is set, closed on shutdown
+    @Bean
+    public Consumer<GameEvent> gameEvents(TableEventBus tableEventBus,
+                                          @Value("${poker.game-events.file:}") String file,
+                                          @Value("${poker.game-events.capacity:8192}") int capacity,
+                                          MeterRegistry meterRegistry)
+            throws IOException {
+        if (file.isEmpty()) {
+            return event -> { };
+        }
+        AsyncGameEventLog log = new AsyncGameEventLog(JsonLinesSink.toFile(Path.of(file)), capacity, meterRegistry);
+        // the log drops what it can't keep up with on its own
+        tableEventBus.subscribe(TableEvent.class, new GameEventTranslator(log), capacity,
+                TableEventBus.Overflow.DROP);
+        return log;
+    }
+}
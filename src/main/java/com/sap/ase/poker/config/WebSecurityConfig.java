@@ -2,8 +2,12 @@ package com.sap.ase.poker.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sap.ase.poker.security.JsonUsernamePasswordAuthenticationFilter;
+import com.sap.ase.poker.security.JwtCache;
 import com.sap.ase.poker.security.JwtAuthenticationRequestFilter;
 import com.sap.ase.poker.security.JwtTools;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -61,14 +65,25 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public JwtCache jwtCache() {
+        return new JwtCache(new JwtTools(JwtTools.SECRET));
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, MeterRegistry meterRegistry,
+                                           @Value("${management.server.port:-1}") int managementPort)
+            throws Exception {
         JwtTools jwtTools = new JwtTools(JwtTools.SECRET);
         http.csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(request -> request
+                    // server-sent events and long polls finish in an async dispatch that carries no JWT
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/table/**").authenticated()
                     .requestMatchers("/login/**").permitAll()
+                    // actuator only answers on the management port, which Prometheus scrapes without a player's cookie
+                    .requestMatchers(scrape -> scrape.getLocalPort() == managementPort).permitAll()
                     .anyRequest().authenticated())
-            .addFilter(new JwtAuthenticationRequestFilter(authenticationManager(), jwtTools))
+            .addFilter(new JwtAuthenticationRequestFilter(authenticationManager(), jwtCache(), meterRegistry))
             .addFilter(new JsonUsernamePasswordAuthenticationFilter(authenticationManager(), objectMapper, jwtTools))
             .formLogin(form -> form.loginPage("/login/index.html").permitAll())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -0,0 +1,83 @@
+package com.sap.ase.poker.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+ * A bounded queue and the one background thread that empties it. The thread hands whatever has
+ * queued up since its last batch, up to maxBatch items, to the batch writer at once, so a slow
+ * disk costs one write per batch instead of one per item. Offering never waits: when the queue
+ * is full the item is refused and the caller decides what that costs. Closing lets the thread
+ * write everything offered before and then stops it. The batch writer runs on the thread only
+ * and must not keep the list it gets; whatever it throws goes to the failure handler with the
+ * batch, and the thread goes on with the next one.
+ */
+public class BatchingWriter<T> {
+
+    // tells the thread to stop once everything before it is written
+    private static final Object CLOSE = new Object();
+    private static final long CLOSE_POLL_MILLIS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private final int maxBatch;
+    private final Consumer<List<T>> batchWriter;
+    private final BiConsumer<List<T>, RuntimeException> failureHandler;
+    private final Thread thread;
+
+    public BatchingWriter(String threadName, int capacity, int maxBatch, Consumer<List<T>> batchWriter,
+                          BiConsumer<List<T>, RuntimeException> failureHandler) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.batchWriter = batchWriter;
+        this.failureHandler = failureHandler;
+        thread = new Thread(this::writeBatches, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // false if the queue is full
+    public boolean offer(T item) {
+        return queue.offer(item);
+    }
+
+    // returns once everything offered before is written, or right away if the thread is gone; called once
+    public void close() {
+        try {
+            // the only place that waits for room in the queue, and only while the thread is there to make it
+            while (thread.isAlive() && !queue.offer(CLOSE, CLOSE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                // the thread is still writing
+            }
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBatches() {
+        List<Object> batch = new ArrayList<>(maxBatch);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // only close stops the thread, it must not lose queued items
+                continue;
+            }
+            queue.drainTo(batch, maxBatch - 1);
+            closing = batch.remove(CLOSE);
+            List<T> items = (List<T>) (List<?>) batch;
+            try {
+                batchWriter.accept(items);
+            } catch (RuntimeException e) {
+                failureHandler.accept(items, e);
+            }
+            batch.clear();
+        }
+    }
+}
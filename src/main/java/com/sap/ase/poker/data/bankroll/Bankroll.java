@@ -0,0 +1,63 @@
+package com.sap.ase.poker.data.bankroll;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+
+/*
+ * The cash of every player across tables and restarts, keyed by player id. What a player takes to
+ * a table is moved out of their balance to a seat at that table and only comes back when they
+ * leave it, so a player sitting at two tables at once can't bring the same chips to both. Tables
+ * report the cash at their seats after every change.
+ */
+public interface Bankroll {
+
+    // what the player has away from the tables, the initial amount for a player never seen before
+    int getBalance(String playerId, int initialAmount);
+
+    // moves the whole balance of the player to a seat at the table and returns it, called by the writer of the table
+    int buyIn(String playerId, String tableId, int initialAmount);
+
+    // may be kept in memory for a while, called by the writer of a table
+    void update(String playerId, String tableId, int cash);
+
+    // moves the cash at the seat back to the balance of the player, when the table is retired
+    void cashOut(String playerId, String tableId);
+
+    // once the tables are recovered after a restart, every seat with seated(playerId, tableId) false is cashed out
+    void cashOutUnless(BiPredicate<String, String> seated);
+
+    // writes every update so far to disk without waiting for it, the future completes once it is durable;
+    // called when a hand ended
+    CompletableFuture<Void> commit();
+
+    static Bankroll none() {
+        return new Bankroll() {
+            @Override
+            public int getBalance(String playerId, int initialAmount) {
+                return initialAmount;
+            }
+
+            @Override
+            public int buyIn(String playerId, String tableId, int initialAmount) {
+                return initialAmount;
+            }
+
+            @Override
+            public void update(String playerId, String tableId, int cash) {
+            }
+
+            @Override
+            public void cashOut(String playerId, String tableId) {
+            }
+
+            @Override
+            public void cashOutUnless(BiPredicate<String, String> seated) {
+            }
+
+            @Override
+            public CompletableFuture<Void> commit() {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package com.sap.ase.poker.data.bankroll;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.zip.CRC32;
+
+/*
+ * Keeps balances and seats in memory and writes them behind to an append-only file. Updates only
+ * mark the account as changed, so a player betting ten times between two writes costs one record,
+ * and a buy-in or cash-out changes both accounts in the same batch. Only a background thread
+ * writes: it appends the changed accounts as one batch every flush interval without forcing it to
+ * disk, and when a table commits it appends what is left and forces the file. The writer of the
+ * table never waits for the disk, only whoever waits for the commit does. Every batch has a length and a checksum, a batch cut off by a crash is dropped
+ * when the file is read. The file is rewritten with one record per account when it is opened and
+ * whenever it grew to a multiple of that.
+ */
+public class FileBankroll implements Bankroll, Closeable {
+
+    // length and checksum in front of every batch
+    private static final int BATCH_HEADER_SIZE = 8;
+    // records appended before the file is compacted, on top of one per account
+    private static final int COMPACT_SLACK = 1024;
+    // the table id of what a player has away from the tables
+    private static final String AWAY = "";
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileBankroll.class);
+
+    private final Path file;
+    // guarded by this, which is never held while the file is written
+    private final Map<Account, Integer> balances = new HashMap<>();
+    private Map<Account, Integer> changed = new HashMap<>();
+    // the commit waiting for the flusher, commits that come in meanwhile are written with it
+    private CompletableFuture<Void> pendingCommit;
+    // completes once close wrote what is left, commits that come in after the flusher stopped wait for it
+    private final CompletableFuture<Void> closed = new CompletableFuture<>();
+    private final ScheduledExecutorService flusher;
+    // only used by the flusher, and by close once the flusher stopped
+    private FileChannel channel;
+    private long records;
+
+    public FileBankroll(Path file, long flushIntervalMillis) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        read();
+        compact(balances);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bankroll-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> flush(false), flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void read() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        while (bytes.remaining() >= BATCH_HEADER_SIZE) {
+            int length = bytes.getInt();
+            int checksum = bytes.getInt();
+            if (length < 0 || length > bytes.remaining() || checksum(bytes.array(), bytes.position(), length) != checksum) {
+                // cut off by a crash while it was written, compact drops it
+                break;
+            }
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes.array(), bytes.position(), length));
+            while (in.available() > 0) {
+                Account account = new Account(in.readUTF(), in.readUTF());
+                int cash = in.readInt();
+                if (account.isSeat() && cash == 0) {
+                    balances.remove(account);
+                } else {
+                    balances.put(account, cash);
+                }
+            }
+            bytes.position(bytes.position() + length);
+        }
+    }
+
+    @Override
+    public synchronized int getBalance(String playerId, int initialAmount) {
+        return balances.getOrDefault(new Account(playerId, AWAY), initialAmount);
+    }
+
+    @Override
+    public synchronized int buyIn(String playerId, String tableId, int initialAmount) {
+        int cash = getBalance(playerId, initialAmount);
+        Account seat = new Account(playerId, tableId);
+        set(new Account(playerId, AWAY), 0);
+        set(seat, balances.getOrDefault(seat, 0) + cash);
+        return cash;
+    }
+
+    @Override
+    public synchronized void update(String playerId, String tableId, int cash) {
+        set(new Account(playerId, tableId), cash);
+    }
+
+    @Override
+    public synchronized void cashOut(String playerId, String tableId) {
+        Integer cash = balances.get(new Account(playerId, tableId));
+        if (cash != null) {
+            Account away = new Account(playerId, AWAY);
+            set(away, balances.getOrDefault(away, 0) + cash);
+            set(new Account(playerId, tableId), 0);
+        }
+    }
+
+    @Override
+    public synchronized void cashOutUnless(BiPredicate<String, String> seated) {
+        for (Account account : new ArrayList<>(balances.keySet())) {
+            if (account.isSeat() && !seated.test(account.playerId, account.tableId)) {
+                cashOut(account.playerId, account.tableId);
+            }
+        }
+    }
+
+    // a seat without cash is the same as no seat, a player without cash away from the tables isn't new
+    private void set(Account account, int cash) {
+        Integer previous = account.isSeat() && cash == 0 ? balances.remove(account) : balances.put(account, cash);
+        boolean unchanged = previous != null ? previous == cash : account.isSeat() && cash == 0;
+        if (!unchanged) {
+            changed.put(account, cash);
+        }
+    }
+
+    // fails if the forced write fails, what it didn't write stays for the next one
+    @Override
+    public CompletableFuture<Void> commit() {
+        CompletableFuture<Void> commit;
+        synchronized (this) {
+            if (pendingCommit != null) {
+                return pendingCommit;
+            }
+            commit = new CompletableFuture<>();
+            pendingCommit = commit;
+        }
+        try {
+            flusher.execute(() -> {
+                synchronized (this) {
+                    // updates from here on need a commit of their own
+                    pendingCommit = null;
+                }
+                try {
+                    write(true);
+                    commit.complete(null);
+                } catch (IOException e) {
+                    LOG.warn("Committing bankroll {} failed, the next flush tries again", file, e);
+                    commit.completeExceptionally(new UncheckedIOException(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                pendingCommit = null;
+            }
+            closed.whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    commit.completeExceptionally(failure);
+                } else {
+                    commit.complete(null);
+                }
+            });
+        }
+        return commit;
+    }
+
+    private void flush(boolean force) {
+        try {
+            write(force);
+        } catch (IOException e) {
+            LOG.warn("Writing bankroll {} failed, the next flush tries again", file, e);
+        }
+    }
+
+    private void write(boolean force) throws IOException {
+        Map<Account, Integer> batch;
+        Map<Account, Integer> all = null;
+        synchronized (this) {
+            if (changed.isEmpty() && !force) {
+                return;
+            }
+            batch = changed;
+            changed = new HashMap<>();
+            if (records + batch.size() > 2L * balances.size() + COMPACT_SLACK) {
+                all = new HashMap<>(balances);
+            }
+        }
+        try {
+            if (all != null) {
+                compact(all);
+                return;
+            }
+            if (!batch.isEmpty()) {
+                append(channel, encode(batch));
+                records += batch.size();
+            }
+            if (force) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                // newer changes win, the rest is written with the next batch
+                batch.forEach(changed::putIfAbsent);
+            }
+            throw e;
+        }
+    }
+
+    private static byte[] encode(Map<Account, Integer> accounts) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (Map.Entry<Account, Integer> account : accounts.entrySet()) {
+            out.writeUTF(account.getKey().playerId);
+            out.writeUTF(account.getKey().tableId);
+            out.writeInt(account.getValue());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void append(FileChannel channel, byte[] batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH_HEADER_SIZE + batch.length);
+        buffer.putInt(batch.length).putInt(checksum(batch, 0, batch.length)).put(batch).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // one record per account, replaces the file atomically
+    private void compact(Map<Account, Integer> accounts) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            append(compacted, encode(accounts));
+            compacted.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        records = accounts.size();
+    }
+
+    // writes what is left once the flusher stopped, the balances stay in the file for the next start
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            write(true);
+            closed.complete(null);
+        } catch (IOException e) {
+            closed.completeExceptionally(new UncheckedIOException(e));
+            throw e;
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    // the balance of a player away from the tables, or their seat at a table
+    private static final class Account {
+
+        private final String playerId;
+        private final String tableId;
+
+        private Account(String playerId, String tableId) {
+            this.playerId = playerId;
+            this.tableId = tableId;
+        }
+
+        private boolean isSeat() {
+            return !AWAY.equals(tableId);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Account && ((Account) other).playerId.equals(playerId)
+                    && ((Account) other).tableId.equals(tableId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(playerId, tableId);
+        }
+    }
+}
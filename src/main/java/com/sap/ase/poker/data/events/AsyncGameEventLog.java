@@ -0,0 +1,114 @@
+package com.sap.ase.poker.data.events;
+
+import com.sap.ase.poker.data.BatchingWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/*
+ * Hands game events to a sink on a background thread. Tables only offer the event to a bounded
+ * queue, which never waits: when the sink can't keep up the queue fills and further events are
+ * dropped and counted instead of stalling the table. The thread writes whatever has queued up
+ * since its last write as one batch and flushes the sink once per batch. Closing writes the
+ * remaining events before it closes the sink. After a failed write, an exception of the sink
+ * included, the log is broken: the failure is logged and counted at once, later events are
+ * dropped and close rethrows it.
+ */
+public class AsyncGameEventLog implements Consumer<GameEvent>, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    static final int MAX_BATCH = 1024;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncGameEventLog.class);
+
+    private final GameEventSink sink;
+    private final BatchingWriter<GameEvent> writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter failures;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public AsyncGameEventLog(GameEventSink sink) {
+        this(sink, DEFAULT_CAPACITY);
+    }
+
+    public AsyncGameEventLog(GameEventSink sink, int capacity) {
+        this(sink, capacity, new SimpleMeterRegistry());
+    }
+
+    public AsyncGameEventLog(GameEventSink sink, int capacity, MeterRegistry meterRegistry) {
+        this.sink = sink;
+        droppedCounter = Counter.builder("poker.events.dropped")
+                .description("Game events that were not written to the event log")
+                .register(meterRegistry);
+        failures = Counter.builder("poker.events.failures")
+                .description("Writes to the event log that failed")
+                .register(meterRegistry);
+        writer = new BatchingWriter<>("game-event-writer", capacity, MAX_BATCH, this::write,
+                (batch, e) -> fail(batch, new IOException("Can't write game events", e)));
+    }
+
+    @Override
+    public void accept(GameEvent event) {
+        if (closed || failure != null || !writer.offer(event)) {
+            drop(1);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+            sink.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void write(List<GameEvent> batch) {
+        if (failure != null) {
+            drop(batch.size());
+            return;
+        }
+        try {
+            for (GameEvent event : batch) {
+                sink.write(event);
+            }
+            sink.flush();
+        } catch (IOException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void fail(List<GameEvent> batch, IOException e) {
+        failure = e;
+        failures.increment();
+        drop(batch.size());
+        LOG.error("Writing game events failed, events are dropped until a restart", e);
+    }
+
+    private void drop(int events) {
+        dropped.addAndGet(events);
+        droppedCounter.increment(events);
+    }
+}
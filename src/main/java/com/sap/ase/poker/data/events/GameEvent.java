@@ -0,0 +1,89 @@
+package com.sap.ase.poker.data.events;
+
+import com.sap.ase.poker.model.GameState;
+
+/*
+ * Something that happened at a table, published by the writer of the table as it happens.
+ * Fields that don't apply to the type of the event are null.
+ */
+public class GameEvent {
+
+    public enum Type {
+        PLAYER_JOINED, ACTION, STREET, WINNER
+    }
+
+    private final Type type;
+    private final String tableId;
+    private final long timestamp;
+    private final String playerId;
+    private final String playerName;
+    private final String action;
+    private final GameState state;
+    private final int amount;
+
+    GameEvent(Type type, String tableId, long timestamp, String playerId, String playerName, String action,
+              GameState state, int amount) {
+        this.type = type;
+        this.tableId = tableId;
+        this.timestamp = timestamp;
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.action = action;
+        this.state = state;
+        this.amount = amount;
+    }
+
+    // the player sat down with the given cash
+    public static GameEvent playerJoined(String tableId, long timestamp, String playerId, String playerName,
+                                         int cash) {
+        return new GameEvent(Type.PLAYER_JOINED, tableId, timestamp, playerId, playerName, null, null, cash);
+    }
+
+    // an action the table accepted, state is the street it was taken on
+    public static GameEvent action(String tableId, long timestamp, String playerId, String action, GameState state,
+                                   int amount) {
+        return new GameEvent(Type.ACTION, tableId, timestamp, playerId, null, action, state, amount);
+    }
+
+    // a hand started with PRE_FLOP, ENDED after the last street
+    public static GameEvent street(String tableId, long timestamp, GameState state) {
+        return new GameEvent(Type.STREET, tableId, timestamp, null, null, null, state, 0);
+    }
+
+    // one per player paid out of the pots
+    public static GameEvent winner(String tableId, long timestamp, String playerId, int payout) {
+        return new GameEvent(Type.WINNER, tableId, timestamp, playerId, null, null, null, payout);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sap.ase.poker.data.events;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/*
+ * Where the game event log writes to. Only ever called by the thread of the log, events arrive
+ * in batches followed by a flush.
+ */
+public interface GameEventSink extends Closeable {
+
+    void write(GameEvent event) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.sap.ase.poker.data.events;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.events.ActionApplied;
+import com.sap.ase.poker.model.events.HandStarted;
+import com.sap.ase.poker.model.events.PlayerJoined;
+import com.sap.ase.poker.model.events.ShowdownResolved;
+import com.sap.ase.poker.model.events.StreetDealt;
+import com.sap.ase.poker.model.events.TableEvent;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+// subscribes the game event log to the events of the tables, one log line per fact
+public class GameEventTranslator implements Consumer<TableEvent> {
+
+    private final Consumer<GameEvent> log;
+
+    public GameEventTranslator(Consumer<GameEvent> log) {
+        this.log = log;
+    }
+
+    @Override
+    public void accept(TableEvent event) {
+        String tableId = event.getTableId();
+        long timestamp = event.getTimestamp();
+        if (event instanceof PlayerJoined joined) {
+            log.accept(GameEvent.playerJoined(tableId, timestamp, joined.getPlayerId(), joined.getPlayerName(),
+                    joined.getCash()));
+        } else if (event instanceof HandStarted) {
+            log.accept(GameEvent.street(tableId, timestamp, GameState.PRE_FLOP));
+        } else if (event instanceof ActionApplied action) {
+            log.accept(GameEvent.action(tableId, timestamp, action.getPlayerId(), action.getAction(),
+                    action.getStreet(), action.getAmount()));
+        } else if (event instanceof StreetDealt street) {
+            log.accept(GameEvent.street(tableId, timestamp, street.getStreet()));
+        } else if (event instanceof ShowdownResolved showdown) {
+            for (Map.Entry<String, Integer> payout : showdown.getPayouts().entrySet()) {
+                log.accept(GameEvent.winner(tableId, timestamp, payout.getKey(), payout.getValue()));
+            }
+            log.accept(GameEvent.street(tableId, timestamp, GameState.ENDED));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sap.ase.poker.data.events;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Writes every event as one JSON object per line, fields that don't apply are left out:
+ * {"timestamp":1700000000000,"table":"default","type":"ACTION","player":"01","action":"raise","state":"FLOP","amount":20}
+ */
+public class JsonLinesSink implements GameEventSink {
+
+    private final Writer writer;
+    private final JsonGenerator generator;
+
+    public JsonLinesSink(Writer writer) throws IOException {
+        this.writer = writer;
+        this.generator = new JsonFactory().createGenerator(writer);
+    }
+
+    // appends to the file, events of earlier runs are kept
+    public static JsonLinesSink toFile(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new JsonLinesSink(Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND));
+    }
+
+    @Override
+    public void write(GameEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("timestamp", event.getTimestamp());
+        generator.writeStringField("table", event.getTableId());
+        generator.writeStringField("type", event.getType().name());
+        if (event.getPlayerId() != null) {
+            generator.writeStringField("player", event.getPlayerId());
+        }
+        if (event.getPlayerName() != null) {
+            generator.writeStringField("name", event.getPlayerName());
+        }
+        if (event.getAction() != null) {
+            generator.writeStringField("action", event.getAction());
+        }
+        if (event.getState() != null) {
+            generator.writeStringField("state", event.getState().name());
+        }
+        if (event.getType() != GameEvent.Type.STREET) {
+            generator.writeNumberField("amount", event.getAmount());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+        writer.close();
+    }
+}
@@ -0,0 +1,13 @@
+package com.sap.ase.poker.data.history;
+
+public class CorruptHandHistoryException extends RuntimeException {
+    private static final long serialVersionUID = 4385709125236612082L;
+
+    public CorruptHandHistoryException(String message) {
+        super(message);
+    }
+
+    public CorruptHandHistoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
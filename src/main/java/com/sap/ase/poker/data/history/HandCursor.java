@@ -0,0 +1,223 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ * Moves over the records of one mapped hand history segment. Moving on only finds out where the
+ * fields of the next record are and decodes its numbers into arrays that are reused for every
+ * record, so a scan allocates nothing per hand; strings stay in the mapped file until someone
+ * asks for them.
+ */
+public class HandCursor {
+
+    private static final GameState[] STATES = GameState.values();
+    private static final HandRecord.Action.Type[] TYPES = HandRecord.Action.Type.values();
+
+    private final ByteBuffer segment;
+    private int recordStart;
+    private int next;
+    private int position;
+
+    private long handNumber;
+    private long startedAt;
+    private int tableIdOffset;
+    private int tableIdLength;
+    private int seats;
+    private int[] idOffsets = new int[10];
+    private int[] idLengths = new int[10];
+    private int[] nameOffsets = new int[10];
+    private int[] nameLengths = new int[10];
+    private int[] stacks = new int[10];
+    private int[] payouts = new int[10];
+    private int actions;
+    private int[] actionSeats = new int[64];
+    private byte[] actionStatesAndTypes = new byte[64];
+    private int[] actionAmounts = new int[64];
+    private int boardSize;
+
+    // the segment is read with absolute gets only, it may be shared with other cursors
+    HandCursor(ByteBuffer segment) {
+        this.segment = segment;
+        this.next = HandRecordCodec.HEADER.length;
+    }
+
+    boolean next() {
+        if (next >= segment.limit()) {
+            return false;
+        }
+        recordStart = next;
+        position = next;
+        int length;
+        try {
+            length = (int) varLong();
+        } catch (IndexOutOfBoundsException e) {
+            return cutOff();
+        }
+        if (length > segment.limit() - position) {
+            return cutOff();
+        }
+        next = position + length;
+        try {
+            parse();
+        } catch (IndexOutOfBoundsException e) {
+            throw new CorruptHandHistoryException("Broken record at " + recordStart, e);
+        }
+        return true;
+    }
+
+    // a crash while the last record was appended leaves it incomplete, the segment ends before it
+    private boolean cutOff() {
+        next = segment.limit();
+        return false;
+    }
+
+    private void parse() {
+        tableIdLength = (int) varLong();
+        tableIdOffset = position;
+        position += tableIdLength;
+        handNumber = varLong();
+        startedAt = varLong();
+
+        seats = (int) varLong();
+        if (seats > idOffsets.length) {
+            idOffsets = Arrays.copyOf(idOffsets, seats);
+            idLengths = Arrays.copyOf(idLengths, seats);
+            nameOffsets = Arrays.copyOf(nameOffsets, seats);
+            nameLengths = Arrays.copyOf(nameLengths, seats);
+            stacks = Arrays.copyOf(stacks, seats);
+            payouts = Arrays.copyOf(payouts, seats);
+        }
+        for (int seat = 0; seat < seats; seat++) {
+            idLengths[seat] = (int) varLong();
+            idOffsets[seat] = position;
+            position += idLengths[seat];
+            nameLengths[seat] = (int) varLong();
+            nameOffsets[seat] = position;
+            position += nameLengths[seat];
+            stacks[seat] = HandRecordCodec.unzigzag(varLong());
+            position += 1 + segment.get(position);
+        }
+
+        actions = (int) varLong();
+        if (actions > actionSeats.length) {
+            actionSeats = Arrays.copyOf(actionSeats, actions);
+            actionStatesAndTypes = Arrays.copyOf(actionStatesAndTypes, actions);
+            actionAmounts = Arrays.copyOf(actionAmounts, actions);
+        }
+        for (int action = 0; action < actions; action++) {
+            actionSeats[action] = (int) varLong();
+            actionStatesAndTypes[action] = segment.get(position++);
+            actionAmounts[action] = HandRecordCodec.unzigzag(varLong());
+        }
+        boardSize = segment.get(position);
+        position += 1 + boardSize;
+        for (int seat = 0; seat < seats; seat++) {
+            payouts[seat] = HandRecordCodec.unzigzag(varLong());
+        }
+        if (position != next) {
+            throw new CorruptHandHistoryException("Record length doesn't match its content at " + recordStart);
+        }
+    }
+
+    private long varLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = segment.get(position++);
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new CorruptHandHistoryException("Varint longer than 64 bits at " + recordStart);
+    }
+
+    public String getTableId() {
+        return string(tableIdOffset, tableIdLength);
+    }
+
+    public long getHandNumber() {
+        return handNumber;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public String getPlayerId(int seat) {
+        return string(idOffsets[seat], idLengths[seat]);
+    }
+
+    public String getName(int seat) {
+        return string(nameOffsets[seat], nameLengths[seat]);
+    }
+
+    // seat of the player with the given UTF-8 encoded id, -1 if the player wasn't dealt in
+    public int seatOf(byte[] playerId) {
+        for (int seat = 0; seat < seats; seat++) {
+            if (idLengths[seat] == playerId.length && bytesEqual(idOffsets[seat], playerId)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    public int getStack(int seat) {
+        return stacks[seat];
+    }
+
+    public int getPayout(int seat) {
+        return payouts[seat];
+    }
+
+    public int getActions() {
+        return actions;
+    }
+
+    public int getActionSeat(int action) {
+        return actionSeats[action];
+    }
+
+    public GameState getActionState(int action) {
+        return STATES[actionStatesAndTypes[action] >> HandRecordCodec.TYPE_BITS];
+    }
+
+    public HandRecord.Action.Type getActionType(int action) {
+        return TYPES[actionStatesAndTypes[action] & HandRecordCodec.TYPE_MASK];
+    }
+
+    public int getActionAmount(int action) {
+        return actionAmounts[action];
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    // decodes the whole record, e.g. to replay it
+    public HandRecord toRecord() {
+        return HandRecordCodec.decode(segment.duplicate().position(recordStart));
+    }
+
+    private boolean bytesEqual(int offset, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (segment.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        segment.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
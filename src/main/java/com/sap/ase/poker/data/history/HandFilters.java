@@ -0,0 +1,43 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Predicate;
+
+// filters for HandHistoryReader, combine them with Predicate.and
+public class HandFilters {
+
+    private HandFilters() {
+    }
+
+    public static Predicate<HandCursor> all() {
+        return cursor -> true;
+    }
+
+    public static Predicate<HandCursor> player(String playerId) {
+        byte[] id = playerId.getBytes(StandardCharsets.UTF_8);
+        return cursor -> cursor.seatOf(id) >= 0;
+    }
+
+    // hands started from (inclusive) until (exclusive)
+    public static Predicate<HandCursor> startedBetween(Instant from, Instant until) {
+        long fromMillis = from.toEpochMilli();
+        long untilMillis = until.toEpochMilli();
+        return cursor -> cursor.getStartedAt() >= fromMillis && cursor.getStartedAt() < untilMillis;
+    }
+
+    // hands in which somebody folded while the table was in the given state
+    public static Predicate<HandCursor> foldIn(GameState state) {
+        return cursor -> {
+            for (int action = 0; action < cursor.getActions(); action++) {
+                if (cursor.getActionType(action) == HandRecord.Action.Type.FOLD
+                        && cursor.getActionState(action) == state) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.sap.ase.poker.data.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/*
+ * Scans hand history segments without reading them onto the heap: one segment file after the
+ * other is memory mapped and walked with a HandCursor, the operating system pages the file in as
+ * the cursor moves on. Segments are scanned in the order they were given, e.g. as listed by
+ * HandHistoryWriter.segments.
+ */
+public class HandHistoryReader {
+
+    private final List<Path> segments = new ArrayList<>();
+
+    public HandHistoryReader(List<Path> files) throws IOException {
+        for (Path file : files) {
+            checkHeader(map(file), file);
+            segments.add(file);
+        }
+    }
+
+    // returns the number of hands that matched the filter
+    public long forEach(Predicate<HandCursor> filter, Consumer<HandCursor> action) throws IOException {
+        long matched = 0;
+        for (Path file : segments) {
+            HandCursor cursor = new HandCursor(map(file));
+            while (cursor.next()) {
+                if (filter.test(cursor)) {
+                    action.accept(cursor);
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the writer rotates segments long before this
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segment larger than 2 GB, split it: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void checkHeader(ByteBuffer segment, Path file) {
+        byte[] header = HandRecordCodec.HEADER;
+        boolean valid = segment.limit() >= header.length;
+        for (int i = 0; valid && i < header.length; i++) {
+            valid = segment.get(i) == header[i];
+        }
+        if (!valid) {
+            throw new CorruptHandHistoryException("Not a hand history of version " + header[header.length - 1]
+                    + ": " + file);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/*
+ * Per player aggregates over the scanned hands: how many hands the player was dealt, won (got
+ * anything paid out, split pots included) and voluntarily put money in before the flop (VPIP,
+ * a call or raise; the game has no blinds, so every bet is voluntary).
+ */
+public class HandHistoryStats implements Consumer<HandCursor> {
+
+    private static final int HANDS = 0;
+    private static final int WINS = 1;
+    private static final int VOLUNTARY = 2;
+
+    private final Map<String, long[]> counters = new HashMap<>();
+    // scratch space of accept, one flag per seat
+    private boolean[] voluntary = new boolean[10];
+
+    @Override
+    public void accept(HandCursor hand) {
+        if (hand.getSeats() > voluntary.length) {
+            voluntary = new boolean[hand.getSeats()];
+        }
+        for (int seat = 0; seat < hand.getSeats(); seat++) {
+            voluntary[seat] = false;
+        }
+        for (int action = 0; action < hand.getActions(); action++) {
+            if (hand.getActionState(action) == GameState.PRE_FLOP
+                    && hand.getActionType(action) != HandRecord.Action.Type.CHECK
+                    && hand.getActionType(action) != HandRecord.Action.Type.FOLD) {
+                voluntary[hand.getActionSeat(action)] = true;
+            }
+        }
+        for (int seat = 0; seat < hand.getSeats(); seat++) {
+            long[] player = counters.computeIfAbsent(hand.getPlayerId(seat), id -> new long[3]);
+            player[HANDS]++;
+            player[WINS] += hand.getPayout(seat) > 0 ? 1 : 0;
+            player[VOLUNTARY] += voluntary[seat] ? 1 : 0;
+        }
+    }
+
+    public List<String> getPlayerIds() {
+        List<String> playerIds = new ArrayList<>(counters.keySet());
+        playerIds.sort(null);
+        return playerIds;
+    }
+
+    public long getHands(String playerId) {
+        return counter(playerId, HANDS);
+    }
+
+    public long getWins(String playerId) {
+        return counter(playerId, WINS);
+    }
+
+    public double getWinRate(String playerId) {
+        return ratio(getWins(playerId), getHands(playerId));
+    }
+
+    public double getVpip(String playerId) {
+        return ratio(counter(playerId, VOLUNTARY), getHands(playerId));
+    }
+
+    private long counter(String playerId, int counter) {
+        long[] player = counters.get(playerId);
+        return player == null ? 0 : player[counter];
+    }
+
+    private static double ratio(long count, long hands) {
+        return hands == 0 ? 0 : (double) count / hands;
+    }
+}
@@ -0,0 +1,189 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.data.BatchingWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Appends finished hands to the segments of a hand history directory. Tables only offer the
+ * record to a bounded queue; a single background thread encodes whatever has queued up since its
+ * last write into one buffer, appends it with one write and forces it to disk, so a busy server
+ * pays one sync per batch instead of one per hand. When the disk can't keep up the queue fills
+ * and further hands are dropped and counted instead of stalling the tables.
+ *
+ * A segment is closed once it holds segmentBytes and every writer starts a new one, so a record
+ * cut off by a crash can only be the last of its segment. After a failed write, a hand that can't
+ * be encoded included, the writer is broken: the failure is logged and counted at once, later
+ * hands are dropped and close rethrows it.
+ */
+public class HandHistoryWriter implements Consumer<HandRecord>, Closeable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    // a batch may go past the limit, segments stay far below the 2 GB a reader can map
+    public static final long MAX_SEGMENT_BYTES = 1L << 30;
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    static final int MAX_BATCH = 1024;
+
+    // name order is the order the segments were written in
+    private static final Pattern SEGMENT = Pattern.compile("hands-(\\d+)\\.bin");
+    private static final String SEGMENT_NAME = "hands-%08d.bin";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HandHistoryWriter.class);
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final HandRecordCodec codec = new HandRecordCodec();
+    private final BatchingWriter<HandRecord> writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter failures;
+    // only used by the writer thread once it runs
+    private FileChannel channel;
+    private long segment;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    public HandHistoryWriter(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_CAPACITY);
+    }
+
+    public HandHistoryWriter(Path directory, long segmentBytes, int capacity) throws IOException {
+        this(directory, segmentBytes, capacity, new SimpleMeterRegistry());
+    }
+
+    public HandHistoryWriter(Path directory, long segmentBytes, int capacity, MeterRegistry meterRegistry)
+            throws IOException {
+        if (segmentBytes < 1 || segmentBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("A segment holds 1 to " + MAX_SEGMENT_BYTES + " bytes: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.droppedCounter = Counter.builder("poker.hand.history.dropped")
+                .description("Finished hands that were not written to the hand history")
+                .register(meterRegistry);
+        this.failures = Counter.builder("poker.hand.history.failures")
+                .description("Writes to the hand history that failed")
+                .register(meterRegistry);
+        Files.createDirectories(directory);
+        for (Path existing : segments(directory)) {
+            segment = Math.max(segment, number(existing));
+        }
+        openNextSegment();
+        writer = new BatchingWriter<>("hand-history-writer", capacity, MAX_BATCH, this::write,
+                (batch, e) -> fail(batch, new IOException("Can't encode finished hands", e)));
+    }
+
+    // the segments of a hand history directory in the order they were written
+    public static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT.matcher(file.getFileName().toString()).matches())
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long number(Path segment) {
+        Matcher matcher = SEGMENT.matcher(segment.getFileName().toString());
+        matcher.matches();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private void openNextSegment() throws IOException {
+        segment++;
+        channel = FileChannel.open(directory.resolve(String.format(SEGMENT_NAME, segment)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        channel.write(ByteBuffer.wrap(HandRecordCodec.HEADER));
+    }
+
+    @Override
+    public void accept(HandRecord record) {
+        if (closed) {
+            throw new IllegalStateException("Hand history is closed");
+        }
+        if (failure != null || !writer.offer(record)) {
+            drop(1);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            writer.close();
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void write(List<HandRecord> batch) {
+        // close alone must not rotate into an empty segment
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (failure != null) {
+            drop(batch.size());
+            return;
+        }
+        buffer.clear();
+        for (HandRecord record : batch) {
+            buffer = codec.encode(record, buffer);
+        }
+        buffer.flip();
+        try {
+            if (channel.size() >= segmentBytes && channel.size() > HandRecordCodec.HEADER.length) {
+                channel.close();
+                openNextSegment();
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void fail(List<HandRecord> batch, IOException e) {
+        failure = e;
+        failures.increment();
+        drop(batch.size());
+        LOG.error("Writing the hand history to {} failed, finished hands are dropped until a restart",
+                directory, e);
+    }
+
+    private void drop(int hands) {
+        dropped.addAndGet(hands);
+        droppedCounter.increment(hands);
+    }
+}
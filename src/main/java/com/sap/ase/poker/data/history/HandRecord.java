@@ -0,0 +1,134 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.List;
+
+/*
+ * Everything needed to audit or replay one finished hand: the seats with their stacks and hole
+ * cards when the hand started, every accepted action in order, the board and what every seat
+ * was paid out at the end.
+ */
+public class HandRecord {
+
+    private final String tableId;
+    private final long handNumber;
+    private final long startedAt;
+    private final List<Seat> seats;
+    private final List<Action> actions;
+    private final List<Card> board;
+    // one entry per seat
+    private final List<Integer> payouts;
+
+    public HandRecord(String tableId, long handNumber, long startedAt, List<Seat> seats, List<Action> actions,
+                      List<Card> board, List<Integer> payouts) {
+        if (payouts.size() != seats.size()) {
+            throw new IllegalArgumentException("Every seat needs a payout");
+        }
+        this.tableId = tableId;
+        this.handNumber = handNumber;
+        this.startedAt = startedAt;
+        this.seats = List.copyOf(seats);
+        this.actions = List.copyOf(actions);
+        this.board = List.copyOf(board);
+        this.payouts = List.copyOf(payouts);
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    public long getHandNumber() {
+        return handNumber;
+    }
+
+    // epoch milliseconds
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public List<Seat> getSeats() {
+        return seats;
+    }
+
+    public List<Action> getActions() {
+        return actions;
+    }
+
+    public List<Card> getBoard() {
+        return board;
+    }
+
+    public List<Integer> getPayouts() {
+        return payouts;
+    }
+
+    public static class Seat {
+
+        private final String playerId;
+        private final String name;
+        private final int stack;
+        private final List<Card> holeCards;
+
+        public Seat(String playerId, String name, int stack, List<Card> holeCards) {
+            this.playerId = playerId;
+            this.name = name;
+            this.stack = stack;
+            this.holeCards = List.copyOf(holeCards);
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStack() {
+            return stack;
+        }
+
+        public List<Card> getHoleCards() {
+            return holeCards;
+        }
+    }
+
+    public static class Action {
+
+        public enum Type {
+            CHECK, CALL, RAISE, FOLD
+        }
+
+        private final int seat;
+        private final GameState state;
+        private final Type type;
+        private final int amount;
+
+        public Action(int seat, GameState state, Type type, int amount) {
+            this.seat = seat;
+            this.state = state;
+            this.type = type;
+            this.amount = amount;
+        }
+
+        public int getSeat() {
+            return seat;
+        }
+
+        // the betting round the action was taken in
+        public GameState getState() {
+            return state;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        // the total bet for a raise, the chips put into the pot for a call, fewer than the bet when all-in
+        public int getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Binary layout of the hand history. A file starts with HEADER and is followed by records, each
+ * one the varint length of its body and the body itself:
+ *
+ *   table id, hand number, start time,
+ *   seats:   count, then per seat player id, name, stack, hole card count and cards,
+ *   actions: count, then per action seat, state and type in one byte, amount,
+ *   board:   count and cards,
+ *   payouts: one per seat.
+ *
+ * Numbers are unsigned LEB128 varints, amounts zigzag encoded first, strings a varint length
+ * followed by UTF-8, cards and types a single byte. A typical hand takes well under 200 bytes.
+ */
+public class HandRecordCodec {
+
+    public static final byte[] HEADER = {'P', 'K', 'H', 'H', 2};
+
+    // the type of an action takes the lower bits of its byte, the game state the upper ones
+    static final int TYPE_BITS = 2;
+    static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private ByteBuffer body = ByteBuffer.allocate(512);
+
+    // appends the record with its length to out, returns out or a bigger copy of it
+    public ByteBuffer encode(HandRecord record, ByteBuffer out) {
+        body.clear();
+        putString(record.getTableId());
+        putVarLong(record.getHandNumber());
+        putVarLong(record.getStartedAt());
+        putVarLong(record.getSeats().size());
+        for (HandRecord.Seat seat : record.getSeats()) {
+            putString(seat.getPlayerId());
+            putString(seat.getName());
+            putVarLong(zigzag(seat.getStack()));
+            putCards(seat.getHoleCards());
+        }
+        putVarLong(record.getActions().size());
+        for (HandRecord.Action action : record.getActions()) {
+            putVarLong(action.getSeat());
+            ensureBody(1);
+            body.put((byte) (action.getState().ordinal() << TYPE_BITS | action.getType().ordinal()));
+            putVarLong(zigzag(action.getAmount()));
+        }
+        putCards(record.getBoard());
+        for (int payout : record.getPayouts()) {
+            putVarLong(zigzag(payout));
+        }
+        body.flip();
+
+        ByteBuffer target = ensure(out, MAX_VARINT_BYTES + body.remaining());
+        putVarLong(target, body.remaining());
+        target.put(body);
+        return target;
+    }
+
+    // reads the record at the position of in and moves behind it
+    public static HandRecord decode(ByteBuffer in) {
+        try {
+            int length = (int) getVarLong(in);
+            int end = in.position() + length;
+            String tableId = getString(in);
+            long handNumber = getVarLong(in);
+            long startedAt = getVarLong(in);
+            int seatCount = (int) getVarLong(in);
+            List<HandRecord.Seat> seats = new ArrayList<>(seatCount);
+            for (int i = 0; i < seatCount; i++) {
+                seats.add(new HandRecord.Seat(getString(in), getString(in), unzigzag(getVarLong(in)),
+                        getCards(in)));
+            }
+            int actionCount = (int) getVarLong(in);
+            List<HandRecord.Action> actions = new ArrayList<>(actionCount);
+            for (int i = 0; i < actionCount; i++) {
+                int seat = (int) getVarLong(in);
+                int stateAndType = in.get();
+                actions.add(new HandRecord.Action(seat, GameState.values()[stateAndType >> TYPE_BITS],
+                        HandRecord.Action.Type.values()[stateAndType & TYPE_MASK], unzigzag(getVarLong(in))));
+            }
+            List<Card> board = getCards(in);
+            List<Integer> payouts = new ArrayList<>(seatCount);
+            for (int i = 0; i < seatCount; i++) {
+                payouts.add(unzigzag(getVarLong(in)));
+            }
+            if (in.position() != end) {
+                throw new CorruptHandHistoryException("Record length doesn't match its content");
+            }
+            return new HandRecord(tableId, handNumber, startedAt, seats, actions, board, payouts);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new CorruptHandHistoryException("Broken record at " + in.position(), e);
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarLong(bytes.length);
+        ensureBody(bytes.length);
+        body.put(bytes);
+    }
+
+    private void putCards(List<Card> cards) {
+        ensureBody(1 + cards.size());
+        body.put((byte) cards.size());
+        for (Card card : cards) {
+            body.put((byte) card.getIndex());
+        }
+    }
+
+    private void putVarLong(long value) {
+        ensureBody(MAX_VARINT_BYTES);
+        putVarLong(body, value);
+    }
+
+    private void ensureBody(int bytes) {
+        body = ensure(body, bytes);
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new CorruptHandHistoryException("Varint longer than 64 bits");
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[(int) getVarLong(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<Card> getCards(ByteBuffer buffer) {
+        int count = buffer.get();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.fromIndex(buffer.get()));
+        }
+        return cards;
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static int unzigzag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sap.ase.poker.data.recovery;
+
+public class CorruptJournalException extends RuntimeException {
+    private static final long serialVersionUID = -2817354028161907355L;
+
+    public CorruptJournalException(String message) {
+        super(message);
+    }
+
+    public CorruptJournalException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,234 @@
+package com.sap.ase.poker.data.recovery;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+ * Keeps the journal of one table in its own directory: a snapshot file and a write-ahead log of
+ * the commands applied since. Every entry carries a sequence number and a checksum, so recovery
+ * skips entries the snapshot already contains and stops at an entry a crash cut off. Entries are
+ * written without forcing them to disk, which survives a crash of the JVM but not of the machine;
+ * snapshots are forced and replace the previous one atomically, after that the log is emptied.
+ * At most snapshotInterval commands have to be replayed, however many hands the table played.
+ * Who created the table is kept in a file of its own, written once when the table is created.
+ */
+public class FileTableJournal implements TableJournal, Closeable {
+
+    static final byte[] SNAPSHOT_HEADER = {'P', 'K', 'T', 'S', 1};
+    static final String SNAPSHOT_FILE = "snapshot";
+    static final String LOG_FILE = "log";
+    static final String CREATOR_FILE = "creator";
+
+    // length and checksum in front of every log entry
+    private static final int ENTRY_HEADER_SIZE = 8;
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final FileChannel log;
+    private final String creator;
+    private final Consumer<FileTableJournal> onDelete;
+    private TableState recoveredState;
+    private final List<TableCommand> recoveredCommands = new ArrayList<>();
+    // of the last journaled command
+    private long sequence;
+    private int commandsSinceSnapshot;
+
+    // the journal of a table that is already there, or of a new one without a creator
+    public FileTableJournal(Path directory, int snapshotInterval) throws IOException {
+        this(directory, snapshotInterval, null);
+    }
+
+    // the journal of a new table created by the given player
+    public FileTableJournal(Path directory, int snapshotInterval, String creator) throws IOException {
+        this(directory, snapshotInterval, creator, journal -> { });
+    }
+
+    // onDelete runs once the journal is closed for good, so whoever holds on to it can let go
+    FileTableJournal(Path directory, int snapshotInterval, String creator,
+                     Consumer<FileTableJournal> onDelete) throws IOException {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least 1");
+        }
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.onDelete = onDelete;
+        Files.createDirectories(directory);
+        Path creatorFile = directory.resolve(CREATOR_FILE);
+        if (creator != null) {
+            writeAtomically(creatorFile, StandardCharsets.UTF_8.encode(creator));
+        }
+        this.creator = Files.exists(creatorFile) ? Files.readString(creatorFile) : null;
+        readSnapshot();
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        readLog();
+        commandsSinceSnapshot = recoveredCommands.size();
+    }
+
+    private void readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        // header, sequence, state, checksum of everything before it
+        int state = SNAPSHOT_HEADER.length + Long.BYTES;
+        int end = bytes.length - Long.BYTES;
+        if (end < state || !Arrays.equals(bytes, 0, SNAPSHOT_HEADER.length, SNAPSHOT_HEADER, 0, SNAPSHOT_HEADER.length)
+                || checksum(bytes, 0, end) != ByteBuffer.wrap(bytes).getLong(end)) {
+            throw new CorruptJournalException("Broken table snapshot " + file);
+        }
+        sequence = ByteBuffer.wrap(bytes).getLong(SNAPSHOT_HEADER.length);
+        recoveredState = TableStateCodec.readState(
+                new DataInputStream(new ByteArrayInputStream(bytes, state, end - state)));
+    }
+
+    private void readLog() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate((int) log.size());
+        while (bytes.hasRemaining() && log.read(bytes, bytes.position()) >= 0) {
+            // reads until the buffer is full
+        }
+        bytes.flip();
+        int valid = 0;
+        while (bytes.remaining() >= ENTRY_HEADER_SIZE) {
+            int length = bytes.getInt();
+            int checksum = bytes.getInt();
+            if (length < Long.BYTES || length > bytes.remaining()
+                    || (int) checksum(bytes.array(), bytes.position(), length) != checksum) {
+                // cut off by a crash while it was written
+                break;
+            }
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes.array(), bytes.position(), length));
+            long entrySequence = in.readLong();
+            TableCommand command = TableStateCodec.readCommand(in);
+            if (entrySequence > sequence) {
+                recoveredCommands.add(command);
+                sequence = entrySequence;
+            }
+            bytes.position(bytes.position() + length);
+            valid = bytes.position();
+        }
+        log.truncate(valid);
+        log.position(valid);
+    }
+
+    @Override
+    public void append(TableCommand command) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            // room for length and checksum, filled in below
+            out.writeLong(0);
+            out.writeLong(sequence + 1);
+            TableStateCodec.writeCommand(out, command);
+            ByteBuffer entry = ByteBuffer.wrap(bytes.toByteArray());
+            int length = entry.limit() - ENTRY_HEADER_SIZE;
+            entry.putInt(0, length).putInt(4, (int) checksum(entry.array(), ENTRY_HEADER_SIZE, length));
+            while (entry.hasRemaining()) {
+                log.write(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't journal command of table " + directory.getFileName(), e);
+        }
+        sequence++;
+        commandsSinceSnapshot++;
+    }
+
+    @Override
+    public boolean isSnapshotDue() {
+        return commandsSinceSnapshot >= snapshotInterval;
+    }
+
+    @Override
+    public void snapshot(TableState state) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.write(SNAPSHOT_HEADER);
+            out.writeLong(sequence);
+            TableStateCodec.writeState(out, state);
+            out.writeLong(checksum(bytes.toByteArray(), 0, bytes.size()));
+
+            writeAtomically(directory.resolve(SNAPSHOT_FILE), ByteBuffer.wrap(bytes.toByteArray()));
+            // a crash before this only leaves entries behind that recovery skips
+            log.truncate(0);
+            log.position(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't snapshot table " + directory.getFileName(), e);
+        }
+        commandsSinceSnapshot = 0;
+    }
+
+    // forced to disk and then moved over the previous file, so a crash leaves one or the other
+    private static void writeAtomically(Path target, ByteBuffer buffer) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public Optional<String> getCreator() {
+        return Optional.ofNullable(creator);
+    }
+
+    @Override
+    public Optional<TableState> getRecoveredState() {
+        return Optional.ofNullable(recoveredState);
+    }
+
+    @Override
+    public List<TableCommand> getRecoveredCommands() {
+        return recoveredCommands;
+    }
+
+    @Override
+    public void delete() {
+        try {
+            close();
+            Files.deleteIfExists(directory.resolve(LOG_FILE));
+            Files.deleteIfExists(directory.resolve(SNAPSHOT_FILE));
+            Files.deleteIfExists(directory.resolve(CREATOR_FILE));
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't delete journal of table " + directory.getFileName(), e);
+        } finally {
+            onDelete.accept(this);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private static long checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,65 @@
+package com.sap.ase.poker.data.recovery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// one directory per table below the given one, table ids are generated and safe as file names
+public class FileTableStore implements TableStore, Closeable {
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final Map<String, FileTableJournal> journals = new ConcurrentHashMap<>();
+
+    public FileTableStore(Path directory, int snapshotInterval) throws IOException {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public List<String> getTableIds() {
+        try (Stream<Path> children = Files.list(directory)) {
+            return children.filter(Files::isDirectory).map(child -> child.getFileName().toString()).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't list tables in " + directory, e);
+        }
+    }
+
+    @Override
+    public TableJournal open(String tableId) {
+        return create(tableId, null);
+    }
+
+    @Override
+    public TableJournal create(String tableId, String creator) {
+        try {
+            FileTableJournal journal = new FileTableJournal(directory.resolve(tableId), snapshotInterval, creator,
+                    deleted -> journals.remove(tableId, deleted));
+            journals.put(tableId, journal);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open journal of table " + tableId, e);
+        }
+    }
+
+    // of the tables whose journal is open and not deleted yet
+    Set<String> getOpenTableIds() {
+        return Set.copyOf(journals.keySet());
+    }
+
+    // the journals stay on disk for the next start
+    @Override
+    public void close() throws IOException {
+        for (FileTableJournal journal : journals.values()) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sap.ase.poker.data.recovery;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.List;
+
+/*
+ * A change requested of a table. Tables journal every command they applied, failed ones
+ * included since a command may change state before it fails, and replay them after a restart.
+ * A hand is journaled with the deck it was dealt from, so the replay deals the same cards.
+ */
+public class TableCommand {
+
+    public enum Type {
+        JOIN, START, ACTION, DEAL, NEXT_PLAYER, CLEAR_BETS
+    }
+
+    // the cash of a join the table hasn't bought the player in for yet
+    private static final int BUYING_IN = -1;
+
+    private final Type type;
+    private final String playerId;
+    private final String name;
+    private final String action;
+    private final int amount;
+    private final List<Card> deck;
+    private final long startedAt;
+
+    TableCommand(Type type, String playerId, String name, String action, int amount, List<Card> deck,
+                 long startedAt) {
+        this.type = type;
+        this.playerId = playerId;
+        this.name = name;
+        this.action = action;
+        this.amount = amount;
+        this.deck = deck == null ? null : List.copyOf(deck);
+        this.startedAt = startedAt;
+    }
+
+    // the player buys in with their balance, the table journals join(playerId, name, cash) instead
+    public static TableCommand join(String playerId, String name) {
+        return new TableCommand(Type.JOIN, playerId, name, null, BUYING_IN, null, 0);
+    }
+
+    // the player sits down with the given cash
+    public static TableCommand join(String playerId, String name, int cash) {
+        return new TableCommand(Type.JOIN, playerId, name, null, cash, null, 0);
+    }
+
+    // a new hand, the table shuffles and journals start(deck, startedAt) instead
+    public static TableCommand start() {
+        return new TableCommand(Type.START, null, null, null, 0, null, 0);
+    }
+
+    public static TableCommand start(List<Card> deck, long startedAt) {
+        return new TableCommand(Type.START, null, null, null, 0, deck, startedAt);
+    }
+
+    public static TableCommand action(String action, int amount) {
+        return new TableCommand(Type.ACTION, null, null, action, amount, null, 0);
+    }
+
+    public static TableCommand deal(String playerId) {
+        return new TableCommand(Type.DEAL, playerId, null, null, 0, null, 0);
+    }
+
+    public static TableCommand nextPlayer() {
+        return new TableCommand(Type.NEXT_PLAYER, null, null, null, 0, null, 0);
+    }
+
+    public static TableCommand clearBets() {
+        return new TableCommand(Type.CLEAR_BETS, null, null, null, 0, null, 0);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    // of an action, or the cash a player joins with
+    public int getAmount() {
+        return amount;
+    }
+
+    public boolean isBuyingIn() {
+        return type == Type.JOIN && amount == BUYING_IN;
+    }
+
+    // the cards in the order they are drawn, null if the hand isn't dealt yet
+    public List<Card> getDeck() {
+        return deck;
+    }
+
+    // epoch milliseconds
+    public long getStartedAt() {
+        return startedAt;
+    }
+}
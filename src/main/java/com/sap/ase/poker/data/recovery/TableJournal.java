@@ -0,0 +1,65 @@
+package com.sap.ase.poker.data.recovery;
+
+import java.util.List;
+import java.util.Optional;
+
+/*
+ * Where a table keeps what it needs to survive a restart: a snapshot of its state now and then
+ * and the commands it applied since. Called by the writer of the table only.
+ */
+public interface TableJournal {
+
+    void append(TableCommand command);
+
+    boolean isSnapshotDue();
+
+    // replaces the previous snapshot and the commands journaled before it
+    void snapshot(TableState state);
+
+    // the player who created the table, empty for the default table
+    Optional<String> getCreator();
+
+    // what was journaled before the table was created, restore the state and replay the commands
+    Optional<TableState> getRecoveredState();
+
+    List<TableCommand> getRecoveredCommands();
+
+    // forgets the table, e.g. once it is retired
+    void delete();
+
+    static TableJournal none() {
+        return new TableJournal() {
+            @Override
+            public void append(TableCommand command) {
+            }
+
+            @Override
+            public boolean isSnapshotDue() {
+                return false;
+            }
+
+            @Override
+            public void snapshot(TableState state) {
+            }
+
+            @Override
+            public Optional<String> getCreator() {
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<TableState> getRecoveredState() {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<TableCommand> getRecoveredCommands() {
+                return List.of();
+            }
+
+            @Override
+            public void delete() {
+            }
+        };
+    }
+}
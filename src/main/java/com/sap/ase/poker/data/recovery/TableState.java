@@ -0,0 +1,172 @@
+package com.sap.ase.poker.data.recovery;
+
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Everything a table needs to continue exactly where it was: the players with their cash, the
+ * cards left in the deck in the order they will be drawn, the board, the bets and pots of the
+ * current round and the hand recorded so far.
+ */
+public class TableState {
+
+    private final long version;
+    private final GameState gameState;
+    private final List<PlayerState> players;
+    private final int currentPlayerIndex;
+    private final List<Card> deck;
+    private final List<Card> communityCards;
+    private final Map<String, Integer> bets;
+    private final int currentBet;
+    private final int pot;
+    // what every player put into the hand, in seat order
+    private final Map<String, Integer> contributions;
+    private final Set<String> folded;
+    private final int checks;
+    private final int folds;
+    private final int actions;
+    private final String winnerPlayerId;
+    private final List<Card> winnerCards;
+    private final HandRecord hand;
+
+    public TableState(long version, GameState gameState, List<PlayerState> players, int currentPlayerIndex,
+                      List<Card> deck, List<Card> communityCards, Map<String, Integer> bets, int currentBet,
+                      int pot, Map<String, Integer> contributions, Set<String> folded, int checks, int folds,
+                      int actions, String winnerPlayerId, List<Card> winnerCards, HandRecord hand) {
+        this.version = version;
+        this.gameState = gameState;
+        this.players = List.copyOf(players);
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.deck = List.copyOf(deck);
+        this.communityCards = List.copyOf(communityCards);
+        this.bets = Map.copyOf(bets);
+        this.currentBet = currentBet;
+        this.pot = pot;
+        this.contributions = Collections.unmodifiableMap(new LinkedHashMap<>(contributions));
+        this.folded = Set.copyOf(folded);
+        this.checks = checks;
+        this.folds = folds;
+        this.actions = actions;
+        this.winnerPlayerId = winnerPlayerId;
+        this.winnerCards = List.copyOf(winnerCards);
+        this.hand = hand;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public List<PlayerState> getPlayers() {
+        return players;
+    }
+
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+
+    public List<Card> getDeck() {
+        return deck;
+    }
+
+    public List<Card> getCommunityCards() {
+        return communityCards;
+    }
+
+    public Map<String, Integer> getBets() {
+        return bets;
+    }
+
+    public int getCurrentBet() {
+        return currentBet;
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    public Map<String, Integer> getContributions() {
+        return contributions;
+    }
+
+    public Set<String> getFolded() {
+        return folded;
+    }
+
+    public int getChecks() {
+        return checks;
+    }
+
+    public int getFolds() {
+        return folds;
+    }
+
+    public int getActions() {
+        return actions;
+    }
+
+    public String getWinnerPlayerId() {
+        return winnerPlayerId;
+    }
+
+    public List<Card> getWinnerCards() {
+        return winnerCards;
+    }
+
+    public HandRecord getHand() {
+        return hand;
+    }
+
+    public static class PlayerState {
+
+        private final String id;
+        private final String name;
+        private final int cash;
+        private final int bet;
+        private final boolean active;
+        private final List<Card> handCards;
+
+        public PlayerState(String id, String name, int cash, int bet, boolean active, List<Card> handCards) {
+            this.id = id;
+            this.name = name;
+            this.cash = cash;
+            this.bet = bet;
+            this.active = active;
+            this.handCards = List.copyOf(handCards);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCash() {
+            return cash;
+        }
+
+        public int getBet() {
+            return bet;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public List<Card> getHandCards() {
+            return handCards;
+        }
+    }
+}
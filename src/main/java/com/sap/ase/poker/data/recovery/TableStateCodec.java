@@ -0,0 +1,179 @@
+package com.sap.ase.poker.data.recovery;
+
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.data.history.HandRecordCodec;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Binary layout of table snapshots and journaled commands. Cards are one byte each, the hand
+ * recorded so far is embedded as a hand history record. Strings are modified UTF-8 as written
+ * by DataOutput.writeUTF, optional ones prefixed with a presence flag.
+ */
+class TableStateCodec {
+
+    private static final GameState[] STATES = GameState.values();
+    private static final TableCommand.Type[] TYPES = TableCommand.Type.values();
+
+    private TableStateCodec() {
+    }
+
+    static void writeState(DataOutput out, TableState state) throws IOException {
+        out.writeLong(state.getVersion());
+        out.writeByte(state.getGameState().ordinal());
+        out.writeShort(state.getPlayers().size());
+        for (TableState.PlayerState player : state.getPlayers()) {
+            out.writeUTF(player.getId());
+            out.writeUTF(player.getName());
+            out.writeInt(player.getCash());
+            out.writeInt(player.getBet());
+            out.writeBoolean(player.isActive());
+            writeCards(out, player.getHandCards());
+        }
+        out.writeInt(state.getCurrentPlayerIndex());
+        writeCards(out, state.getDeck());
+        writeCards(out, state.getCommunityCards());
+        writeAmounts(out, state.getBets());
+        out.writeInt(state.getCurrentBet());
+        out.writeInt(state.getPot());
+        writeAmounts(out, state.getContributions());
+        out.writeShort(state.getFolded().size());
+        for (String playerId : state.getFolded()) {
+            out.writeUTF(playerId);
+        }
+        out.writeInt(state.getChecks());
+        out.writeInt(state.getFolds());
+        out.writeInt(state.getActions());
+        out.writeUTF(state.getWinnerPlayerId());
+        writeCards(out, state.getWinnerCards());
+
+        ByteBuffer hand = new HandRecordCodec().encode(state.getHand(), ByteBuffer.allocate(512));
+        out.writeInt(hand.position());
+        out.write(hand.array(), 0, hand.position());
+    }
+
+    static TableState readState(DataInput in) throws IOException {
+        long version = in.readLong();
+        GameState gameState = STATES[in.readByte()];
+        int playerCount = in.readShort();
+        List<TableState.PlayerState> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(new TableState.PlayerState(in.readUTF(), in.readUTF(), in.readInt(), in.readInt(),
+                    in.readBoolean(), readCards(in)));
+        }
+        int currentPlayerIndex = in.readInt();
+        List<Card> deck = readCards(in);
+        List<Card> communityCards = readCards(in);
+        Map<String, Integer> bets = readAmounts(in);
+        int currentBet = in.readInt();
+        int pot = in.readInt();
+        Map<String, Integer> contributions = readAmounts(in);
+        int foldedCount = in.readShort();
+        Set<String> folded = new HashSet<>();
+        for (int i = 0; i < foldedCount; i++) {
+            folded.add(in.readUTF());
+        }
+        int checks = in.readInt();
+        int folds = in.readInt();
+        int actions = in.readInt();
+        String winnerPlayerId = in.readUTF();
+        List<Card> winnerCards = readCards(in);
+
+        byte[] hand = new byte[in.readInt()];
+        in.readFully(hand);
+        return new TableState(version, gameState, players, currentPlayerIndex, deck, communityCards, bets,
+                currentBet, pot, contributions, folded, checks, folds, actions, winnerPlayerId, winnerCards,
+                HandRecordCodec.decode(ByteBuffer.wrap(hand)));
+    }
+
+    static void writeCommand(DataOutput out, TableCommand command) throws IOException {
+        out.writeByte(command.getType().ordinal());
+        switch (command.getType()) {
+            case JOIN:
+                out.writeUTF(command.getPlayerId());
+                out.writeUTF(command.getName());
+                out.writeInt(command.getAmount());
+                break;
+            case START:
+                // a start that failed before the deck was shuffled has no deck
+                out.writeBoolean(command.getDeck() != null);
+                if (command.getDeck() != null) {
+                    writeCards(out, command.getDeck());
+                    out.writeLong(command.getStartedAt());
+                }
+                break;
+            case ACTION:
+                out.writeUTF(command.getAction());
+                out.writeInt(command.getAmount());
+                break;
+            case DEAL:
+                out.writeUTF(command.getPlayerId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    static TableCommand readCommand(DataInput in) throws IOException {
+        TableCommand.Type type = TYPES[in.readByte()];
+        switch (type) {
+            case JOIN:
+                return TableCommand.join(in.readUTF(), in.readUTF(), in.readInt());
+            case START:
+                return in.readBoolean() ? TableCommand.start(readCards(in), in.readLong()) : TableCommand.start();
+            case ACTION:
+                return TableCommand.action(in.readUTF(), in.readInt());
+            case DEAL:
+                return TableCommand.deal(in.readUTF());
+            case NEXT_PLAYER:
+                return TableCommand.nextPlayer();
+            default:
+                return TableCommand.clearBets();
+        }
+    }
+
+    private static void writeCards(DataOutput out, List<Card> cards) throws IOException {
+        out.writeByte(cards.size());
+        for (Card card : cards) {
+            out.writeByte(card.getIndex());
+        }
+    }
+
+    private static List<Card> readCards(DataInput in) throws IOException {
+        int count = in.readUnsignedByte();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.fromIndex(in.readByte()));
+        }
+        return cards;
+    }
+
+    private static void writeAmounts(DataOutput out, Map<String, Integer> amounts) throws IOException {
+        out.writeShort(amounts.size());
+        for (Map.Entry<String, Integer> amount : amounts.entrySet()) {
+            out.writeUTF(amount.getKey());
+            out.writeInt(amount.getValue());
+        }
+    }
+
+    // keeps the order they were written in
+    private static Map<String, Integer> readAmounts(DataInput in) throws IOException {
+        int count = in.readShort();
+        Map<String, Integer> amounts = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            amounts.put(in.readUTF(), in.readInt());
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,35 @@
+package com.sap.ase.poker.data.recovery;
+
+import java.util.List;
+
+// the journals of all tables
+public interface TableStore {
+
+    // tables that have a journal, e.g. because they were open when the server stopped
+    List<String> getTableIds();
+
+    // the journal of the table, with whatever it recovered
+    TableJournal open(String tableId);
+
+    // the journal of a table the player just created, which keeps who that was
+    TableJournal create(String tableId, String creator);
+
+    static TableStore none() {
+        return new TableStore() {
+            @Override
+            public List<String> getTableIds() {
+                return List.of();
+            }
+
+            @Override
+            public TableJournal open(String tableId) {
+                return TableJournal.none();
+            }
+
+            @Override
+            public TableJournal create(String tableId, String creator) {
+                return TableJournal.none();
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.sap.ase.poker.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EquityResponseDto {
+
+	private List<PlayerEquityDto> players = new ArrayList<>();
+	private long showdowns;
+	private boolean exact;
+
+	public List<PlayerEquityDto> getPlayers() {
+		return players;
+	}
+
+	public void setPlayers(List<PlayerEquityDto> players) {
+		this.players = players;
+	}
+
+	public long getShowdowns() {
+		return showdowns;
+	}
+
+	public void setShowdowns(long showdowns) {
+		this.showdowns = showdowns;
+	}
+
+	public boolean isExact() {
+		return exact;
+	}
+
+	public void setExact(boolean exact) {
+		this.exact = exact;
+	}
+}
@@ -15,6 +15,12 @@ public class PlayerDto {
         this.cash = player.getCash();
     }
 
+    public PlayerDto(com.sap.ase.poker.model.PlayerSnapshot player) {
+        this.id = player.getId();
+        this.name = player.getName();
+        this.cash = player.getCash();
+    }
+
     public String getId() {
         return id;
     }
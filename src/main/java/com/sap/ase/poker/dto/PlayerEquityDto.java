@@ -0,0 +1,61 @@
+package com.sap.ase.poker.dto;
+
+public class PlayerEquityDto {
+
+	private String id;
+	private String name;
+	private double win;
+	private double tie;
+	private double equity;
+
+	public PlayerEquityDto() {
+	}
+
+	public PlayerEquityDto(String id, String name, double win, double tie, double equity) {
+		this.id = id;
+		this.name = name;
+		this.win = win;
+		this.tie = tie;
+		this.equity = equity;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public double getWin() {
+		return win;
+	}
+
+	public void setWin(double win) {
+		this.win = win;
+	}
+
+	public double getTie() {
+		return tie;
+	}
+
+	public void setTie(double tie) {
+		this.tie = tie;
+	}
+
+	public double getEquity() {
+		return equity;
+	}
+
+	public void setEquity(double equity) {
+		this.equity = equity;
+	}
+}
@@ -0,0 +1,39 @@
+package com.sap.ase.poker.model;
+
+// immutable copy of a player as seen in a TableSnapshot
+public class PlayerSnapshot {
+
+    private final String id;
+    private final String name;
+    private final int cash;
+    private final int bet;
+    private final boolean active;
+
+    public PlayerSnapshot(Player player) {
+        this.id = player.getId();
+        this.name = player.getName();
+        this.cash = player.getCash();
+        this.bet = player.getBet();
+        this.active = player.isActive();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCash() {
+        return cash;
+    }
+
+    public int getBet() {
+        return bet;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sap.ase.poker.model;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+ * Immutable state of a table after one command was applied. The version increases with every
+ * published snapshot, so readers can tell whether anything changed since they last looked. It
+ * starts over when a table is created again, e.g. after a restart, so what clients hold on to is
+ * the version tag: the version together with the epoch of the table, which differs every time.
+ */
+public class TableSnapshot {
+
+    private final String epoch;
+    private final long version;
+    private final GameState state;
+    private final List<PlayerSnapshot> players;
+    private final PlayerSnapshot currentPlayer;
+    private final int pot;
+    private final Map<String, Integer> bets;
+    private final List<Card> communityCards;
+    private final Map<String, List<Card>> playerCards;
+    private final PlayerSnapshot winner;
+    private final List<Card> winnerHand;
+
+    public TableSnapshot(String epoch, long version, GameState state, List<PlayerSnapshot> players,
+                         PlayerSnapshot currentPlayer, int pot, Map<String, Integer> bets, List<Card> communityCards,
+                         Map<String, List<Card>> playerCards, PlayerSnapshot winner, List<Card> winnerHand) {
+        this.epoch = epoch;
+        this.version = version;
+        this.state = state;
+        this.players = List.copyOf(players);
+        this.currentPlayer = currentPlayer;
+        this.pot = pot;
+        this.bets = Map.copyOf(bets);
+        this.communityCards = List.copyOf(communityCards);
+        this.playerCards = Map.copyOf(playerCards);
+        this.winner = winner;
+        this.winnerHand = List.copyOf(winnerHand);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    // equal for two snapshots only if they are the same snapshot of the same table
+    public String getVersionTag() {
+        return epoch + "-" + version;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public List<PlayerSnapshot> getPlayers() {
+        return players;
+    }
+
+    public Optional<PlayerSnapshot> getCurrentPlayer() {
+        return Optional.ofNullable(currentPlayer);
+    }
+
+    public int getPot() {
+        return pot;
+    }
+
+    public Map<String, Integer> getBets() {
+        return bets;
+    }
+
+    public List<Card> getCommunityCards() {
+        return communityCards;
+    }
+
+    public List<Card> getPlayerCards(String playerId) {
+        return playerCards.getOrDefault(playerId, List.of());
+    }
+
+    public Optional<PlayerSnapshot> getWinner() {
+        return Optional.ofNullable(winner);
+    }
+
+    public List<Card> getWinnerHand() {
+        return winnerHand;
+    }
+}
@@ -1,14 +1,51 @@
 package com.sap.ase.poker.model.deck;
 
+import java.util.Collection;
+
 public class Card implements Comparable<Card> {
 
+    public static final int DECK_SIZE = 52;
+
+    private static final int KINDS_PER_SUIT = 13;
+
+    // index = suit ordinal * 13 + kind ordinal, so bits 13 * s .. 13 * s + 12 of a mask hold the kinds of suit s
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Kind kind : Kind.values()) {
+                Card card = new Card(kind, suit);
+                CARDS[card.index] = card;
+            }
+        }
+    }
+
     private final Kind kind;
 
     private final Suit suit;
 
+    private final int index;
+
     public Card(Kind kind, Suit suit) {
         this.kind = kind;
         this.suit = suit;
+        this.index = suit.ordinal() * KINDS_PER_SUIT + kind.ordinal();
+    }
+
+    public static Card of(Kind kind, Suit suit) {
+        return CARDS[suit.ordinal() * KINDS_PER_SUIT + kind.ordinal()];
+    }
+
+    public static Card fromIndex(int index) {
+        return CARDS[index];
+    }
+
+    public static long toMask(Collection<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= card.getMask();
+        }
+        return mask;
     }
 
     @Override
@@ -23,11 +60,7 @@ public class Card implements Comparable<Card> {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((kind == null) ? 0 : kind.hashCode());
-        result = prime * result + ((suit == null) ? 0 : suit.hashCode());
-        return result;
+        return index;
     }
 
     @Override
@@ -41,14 +74,7 @@ public class Card implements Comparable<Card> {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        Card other = (Card) obj;
-        if (kind != other.kind) {
-            return false;
-        }
-        if (suit != other.suit) {
-            return false;
-        }
-        return true;
+        return index == ((Card) obj).index;
     }
 
     public Kind getKind() {
@@ -59,6 +85,14 @@ public class Card implements Comparable<Card> {
         return suit;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
+    public long getMask() {
+        return 1L << index;
+    }
+
     public boolean notEquals(Card card) {
         return !this.equals(card);
     }
@@ -3,5 +3,6 @@ package com.sap.ase.poker.model.deck;
 import java.util.List;
 
 public interface CardShuffler {
+    // may permute the given list in place and return it, or return a new list
     List<Card> shuffle(List<Card> cards);
 }
@@ -1,31 +1,60 @@
 package com.sap.ase.poker.model.deck;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class Deck {
-    private List<Card> cards;
+    private final Card[] pokerCardsSupply;
+    private final Card[] cards;
+    // fixed-size list backed by cards, so shufflers can permute the deck in place
+    private final List<Card> cardsView;
     private final CardShuffler cardShuffler;
-    private final List<Card> pokerCardsSupply;
+    private int size;
+    private int nextCard;
 
     public Deck(List<Card> pokerCardsSupply, CardShuffler cardShuffler) {
-        this.pokerCardsSupply = new ArrayList<>(pokerCardsSupply);
-        this.cards = new ArrayList<>(pokerCardsSupply);
+        this.pokerCardsSupply = pokerCardsSupply.toArray(new Card[0]);
+        this.cards = this.pokerCardsSupply.clone();
+        this.cardsView = Arrays.asList(cards);
+        this.size = cards.length;
         this.cardShuffler = cardShuffler;
     }
 
     public List<Card> getCards() {
-        return cards;
+        return Collections.unmodifiableList(cardsView.subList(nextCard, size));
     }
 
     public Card draw() {
-        if (cards.isEmpty()) {
+        if (nextCard == size) {
             throw new OutOfCardsException("No cards left to draw.");
         }
-        return cards.remove(0);
+        return cards[nextCard++];
+    }
+
+    // continues with the given cards, in the order they will be drawn; shuffle starts over with the full deck
+    public void restore(List<Card> remaining) {
+        if (remaining.size() > pokerCardsSupply.length) {
+            throw new IllegalArgumentException("More cards than the deck has: " + remaining.size());
+        }
+        size = remaining.size();
+        nextCard = 0;
+        for (int i = 0; i < size; i++) {
+            cards[i] = remaining.get(i);
+        }
     }
 
     public void shuffle() {
-        cards = cardShuffler.shuffle(pokerCardsSupply);
+        System.arraycopy(pokerCardsSupply, 0, cards, 0, pokerCardsSupply.length);
+        size = pokerCardsSupply.length;
+        nextCard = 0;
+
+        List<Card> shuffled = cardShuffler.shuffle(cardsView);
+        if (shuffled != cardsView) {
+            size = shuffled.size();
+            for (int i = 0; i < size; i++) {
+                cards[i] = shuffled.get(i);
+            }
+        }
     }
 }
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -12,17 +13,24 @@ import static com.sap.ase.poker.model.deck.Suit.*;
 
 @Component
 public class PokerCardsSupplier implements Supplier<List<Card>> {
+
+    private static final List<Card> POKER_CARDS = createPokerCards();
+
     public List<Card> get() {
+        return POKER_CARDS;
+    }
+
+    private static List<Card> createPokerCards() {
         List<Card> pokerCards = new ArrayList<>();
         List<Suit> suits = Arrays.asList(DIAMONDS, SPADES, CLUBS, HEARTS);
         List<Kind> kinds = Arrays.asList(TWO, THREE, FOUR, FIVE, SIX, SEVEN, EIGHT, NINE, TEN, JACK, QUEEN, KING, ACE);
 
         for (Suit suit : suits) {
             for (Kind kind : kinds) {
-                pokerCards.add(new Card(kind, suit));
+                pokerCards.add(Card.of(kind, suit));
             }
         }
 
-        return pokerCards;
+        return Collections.unmodifiableList(pokerCards);
     }
 }
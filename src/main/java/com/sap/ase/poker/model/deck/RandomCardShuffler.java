@@ -2,17 +2,17 @@ package com.sap.ase.poker.model.deck;
 
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class RandomCardShuffler implements CardShuffler {
 
     @Override
     public List<Card> shuffle(List<Card> cards) {
-        ArrayList<Card> shuffled = new ArrayList<>(cards);
-        Collections.shuffle(shuffled);
-        return new ArrayList<>(shuffled);
+        // Fisher-Yates swaps on the list itself; ThreadLocalRandom avoids a Random shared by all tables
+        Collections.shuffle(cards, ThreadLocalRandom.current());
+        return cards;
     }
 }
@@ -0,0 +1,119 @@
+package com.sap.ase.poker.model.deck;
+
+/*
+ * Cards that only differ by a permutation of the suits are worth the same: AhKh on Qh7c2d wins
+ * exactly as often as AsKs on Qs7d2c. This maps groups of cards, e.g. hole cards and board as
+ * Card.getMask() masks, to one representative of all their suit permutations, so results can be
+ * cached or precomputed once per representative instead of once per permutation, up to 24 times
+ * fewer. Suits are ordered by the kinds they hold in the first group, then in the second and so
+ * on, the suit with the highest kinds becomes the first suit of the representative.
+ */
+public class SuitIsomorphism {
+
+    public static final int SUITS = 4;
+    public static final int PERMUTATIONS = 24;
+
+    private static final int KINDS_PER_SUIT = 13;
+    private static final long SUIT_MASK = (1L << KINDS_PER_SUIT) - 1;
+    private static final int INDEXED_CARDS = Long.SIZE - Card.DECK_SIZE;
+
+    private SuitIsomorphism() {
+    }
+
+    // canonicalSuits(...)[suit] is where the cards of suit end up in the representative
+    public static int[] canonicalSuits(long... groups) {
+        int[] bySize = {0, 1, 2, 3};
+        // insertion sort, four suits
+        for (int i = 1; i < SUITS; i++) {
+            int suit = bySize[i];
+            int j = i;
+            for (; j > 0 && compare(groups, suit, bySize[j - 1]) > 0; j--) {
+                bySize[j] = bySize[j - 1];
+            }
+            bySize[j] = suit;
+        }
+        int[] canonicalSuits = new int[SUITS];
+        for (int i = 0; i < SUITS; i++) {
+            canonicalSuits[bySize[i]] = i;
+        }
+        return canonicalSuits;
+    }
+
+    private static int compare(long[] groups, int suit, int other) {
+        for (long group : groups) {
+            int difference = Long.compare(kinds(group, suit), kinds(group, other));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    private static long kinds(long cards, int suit) {
+        return cards >>> suit * KINDS_PER_SUIT & SUIT_MASK;
+    }
+
+    public static long permute(long cards, int[] canonicalSuits) {
+        long permuted = 0;
+        for (int suit = 0; suit < SUITS; suit++) {
+            permuted |= kinds(cards, suit) << canonicalSuits[suit] * KINDS_PER_SUIT;
+        }
+        return permuted;
+    }
+
+    public static long canonical(long cards) {
+        return permute(cards, canonicalSuits(cards));
+    }
+
+    // every group moved by the same permutation, so the representative keeps e.g. flush draws intact
+    public static long[] canonical(long... groups) {
+        int[] canonicalSuits = canonicalSuits(groups);
+        long[] canonical = new long[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            canonical[i] = permute(groups[i], canonicalSuits);
+        }
+        return canonical;
+    }
+
+    // how many different groups of cards map to the same representative as these
+    public static int permutations(long... groups) {
+        int[] canonicalSuits = canonicalSuits(groups);
+        int[] bySize = new int[SUITS];
+        for (int suit = 0; suit < SUITS; suit++) {
+            bySize[canonicalSuits[suit]] = suit;
+        }
+        int permutations = PERMUTATIONS;
+        int same = 1;
+        for (int i = 1; i < SUITS; i++) {
+            // suits holding the same kinds in every group are next to each other after sorting
+            same = compare(groups, bySize[i], bySize[i - 1]) == 0 ? same + 1 : 1;
+            permutations /= same;
+        }
+        return permutations;
+    }
+
+    /*
+     * A single long that is the same for all suit permutations of hole cards and board and differs
+     * otherwise: the cards of the representative in the lower 52 bits, and which of them are hole
+     * cards in the upper 12, bit i standing for the i-th lowest card. Up to 12 cards in all.
+     */
+    public static long index(long holeCards, long board) {
+        if ((holeCards & board) != 0) {
+            throw new IllegalArgumentException("A card can't be in two places");
+        }
+        if (Long.bitCount(holeCards | board) > INDEXED_CARDS) {
+            throw new IllegalArgumentException("At most " + INDEXED_CARDS + " cards can be indexed");
+        }
+        int[] canonicalSuits = canonicalSuits(holeCards, board);
+        long hole = permute(holeCards, canonicalSuits);
+        long cards = hole | permute(board, canonicalSuits);
+        long holeBits = 0;
+        int position = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1, position++) {
+            if ((hole & Long.lowestOneBit(rest)) != 0) {
+                holeBits |= 1L << position;
+            }
+        }
+        return cards | holeBits << Card.DECK_SIZE;
+    }
+}
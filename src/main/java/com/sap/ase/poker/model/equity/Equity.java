@@ -0,0 +1,72 @@
+package com.sap.ase.poker.model.equity;
+
+import java.util.Arrays;
+
+/*
+ * Outcome of an equity calculation for the hands in the order they were passed in. The equity of
+ * a hand is its share of the pot over all showdowns, a tie between two hands counts half for each.
+ * An exact outcome counts every possible runout once, otherwise the runouts were sampled. An outcome
+ * looked up in a table has no showdowns; its wins and ties count in fractions of a fixed total.
+ */
+public class Equity {
+
+    private final long showdowns;
+    private final long total;
+    private final long[] wins;
+    private final long[] ties;
+    private final double[] shares;
+    private final boolean exact;
+
+    Equity(long showdowns, long[] wins, long[] ties, double[] shares, boolean exact) {
+        this(showdowns, showdowns, wins, ties, shares, exact);
+    }
+
+    Equity(long showdowns, long total, long[] wins, long[] ties, double[] shares, boolean exact) {
+        this.showdowns = showdowns;
+        this.total = total;
+        this.wins = Arrays.copyOf(wins, wins.length);
+        this.ties = Arrays.copyOf(ties, ties.length);
+        this.shares = Arrays.copyOf(shares, shares.length);
+        this.exact = exact;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public long getShowdowns() {
+        return showdowns;
+    }
+
+    public int getPlayers() {
+        return wins.length;
+    }
+
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+    public long getTies(int player) {
+        return ties[player];
+    }
+
+    public long getLosses(int player) {
+        return total - wins[player] - ties[player];
+    }
+
+    public double getWinProbability(int player) {
+        return ratio(wins[player]);
+    }
+
+    public double getTieProbability(int player) {
+        return ratio(ties[player]);
+    }
+
+    public double getEquity(int player) {
+        return ratio(shares[player]);
+    }
+
+    private double ratio(double count) {
+        return total == 0 ? 0 : count / total;
+    }
+}
@@ -0,0 +1,304 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Calculates how often each hand wins or ties against the others by dealing the missing board
+ * cards from the cards nobody holds. Runouts are enumerated exactly once at most two board cards
+ * are missing, otherwise they are sampled. Both run in parallel on a fork-join pool, a sampling
+ * task with its own copy of the remaining deck and the random generator of its thread.
+ * Opponents whose cards are hidden can be dealt random hands from the same deck instead, every
+ * hand they can hold is walked along with the runouts when there are few enough deals.
+ * Cards are handled as Card.getMask() bits, so a showdown allocates nothing. The pool is the
+ * calculator's own and closed with it, so calculations never take threads from anything else.
+ */
+public class EquityCalculator implements AutoCloseable {
+
+    public static final long MAX_ITERATIONS = 1_000_000;
+    public static final Duration MAX_BUDGET = Duration.ofSeconds(1);
+    public static final int DEFAULT_THREADS = 2;
+
+    // from the flop on there are at most 1081 runouts, few enough to walk them all
+    public static final int MAX_ENUMERATED_CARDS = 2;
+    // hidden hands are walked when that takes no more showdowns than the largest sample,
+    // heads-up on the turn and river, not on the flop
+    public static final long MAX_ENUMERATED_SHOWDOWNS = MAX_ITERATIONS;
+
+    private static final int BOARD_SIZE = 5;
+    // how often a task looks at the clock
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final ForkJoinPool pool;
+
+    public EquityCalculator() {
+        this(new ForkJoinPool(DEFAULT_THREADS));
+    }
+
+    public EquityCalculator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // exact for the flop, turn and river, sampled within the given limits before the flop
+    public Equity calculate(List<List<Card>> hands, List<Card> board, List<Card> deadCards, long iterations,
+                            Duration budget) {
+        if (BOARD_SIZE - board.size() <= MAX_ENUMERATED_CARDS) {
+            return enumerate(hands, board, deadCards);
+        }
+        return sample(hands, board, deadCards, iterations, budget);
+    }
+
+    // walks every runout of the missing board cards, one task per first card of the runout
+    public Equity enumerate(List<List<Card>> hands, List<Card> board, List<Card> deadCards) {
+        long[] handMasks = toHandMasks(hands);
+        long boardMask = Card.toMask(board);
+        int[] deck = remainingDeck(handMasks, boardMask, board.size(), Card.toMask(deadCards));
+        int missing = BOARD_SIZE - board.size();
+        if (missing > MAX_ENUMERATED_CARDS) {
+            throw new IllegalArgumentException("Too many runouts to enumerate, " + missing + " board cards missing");
+        }
+
+        EquityTally total = new EquityTally(handMasks.length);
+        if (missing == 0) {
+            total.record(handMasks, boardMask);
+            return total.toEquity(true);
+        }
+        List<ForkJoinTask<EquityTally>> tasks = new ArrayList<>(deck.length);
+        for (int first = 0; first < deck.length; first++) {
+            long runout = boardMask | 1L << deck[first];
+            int next = first + 1;
+            tasks.add(pool.submit(() -> {
+                EquityTally tally = new EquityTally(handMasks.length);
+                enumerateRunouts(handMasks, runout, deck, next, missing - 1, 0, tally);
+                return tally;
+            }));
+        }
+        for (ForkJoinTask<EquityTally> task : tasks) {
+            total.add(task.join());
+        }
+        return total.toEquity(true);
+    }
+
+    // cards in dealt are in the deck but already held by somebody
+    private static void enumerateRunouts(long[] hands, long runout, int[] deck, int from, int missing, long dealt,
+                                         EquityTally tally) {
+        if (missing == 0) {
+            tally.record(hands, runout);
+            return;
+        }
+        for (int i = from; i < deck.length; i++) {
+            if ((dealt & 1L << deck[i]) == 0) {
+                enumerateRunouts(hands, runout | 1L << deck[i], deck, i + 1, missing - 1, dealt, tally);
+            }
+        }
+    }
+
+    // exact when every deal of the opponents' hands and the runout can be walked, sampled otherwise
+    public Equity calculateAgainstRandomHands(List<Card> hand, int opponents, List<Card> board, long iterations,
+                                              Duration budget) {
+        int unknown = Card.DECK_SIZE - hand.size() - board.size();
+        if (countDeals(unknown, opponents, BOARD_SIZE - board.size()) <= MAX_ENUMERATED_SHOWDOWNS) {
+            return enumerateAgainstRandomHands(hand, opponents, board);
+        }
+        return sampleAgainstRandomHands(hand, opponents, board, iterations, budget);
+    }
+
+    // showdowns of dealing each opponent every two unknown cards in turn and the board every runout of the rest
+    static long countDeals(int unknown, int opponents, int missing) {
+        long deals = 1;
+        // stops early, more opponents would only overflow
+        for (int opponent = 0; opponent < opponents && deals <= MAX_ENUMERATED_SHOWDOWNS; opponent++) {
+            deals *= (long) unknown * (unknown - 1) / 2;
+            unknown -= 2;
+        }
+        for (int card = 0; card < missing; card++) {
+            deals = deals * (unknown - card) / (card + 1);
+        }
+        return deals;
+    }
+
+    /*
+     * Equity of one hand against every hand the opponents can hold and every runout. The opponents
+     * are dealt in turn, so each of them gets every hand once for each deal of the others; with one
+     * task per hand of the first opponent.
+     */
+    public Equity enumerateAgainstRandomHands(List<Card> hand, int opponents, List<Card> board) {
+        int[] deck = unknownCards(hand, opponents, board);
+        long[] handMasks = new long[1 + opponents];
+        handMasks[0] = Card.toMask(hand);
+        long boardMask = Card.toMask(board);
+        int missing = BOARD_SIZE - board.size();
+
+        List<ForkJoinTask<EquityTally>> tasks = new ArrayList<>(deck.length * (deck.length - 1) / 2);
+        for (int first = 0; first < deck.length; first++) {
+            for (int second = first + 1; second < deck.length; second++) {
+                long opponentHand = 1L << deck[first] | 1L << deck[second];
+                tasks.add(pool.submit(() -> {
+                    long[] hands = handMasks.clone();
+                    hands[1] = opponentHand;
+                    EquityTally tally = new EquityTally(hands.length);
+                    enumerateOpponents(hands, 2, opponentHand, boardMask, deck, missing, tally);
+                    return tally;
+                }));
+            }
+        }
+        EquityTally total = new EquityTally(handMasks.length);
+        for (ForkJoinTask<EquityTally> task : tasks) {
+            total.add(task.join());
+        }
+        return total.toEquity(true);
+    }
+
+    // deals the opponents from the given one on two cards nobody holds yet, then walks the runouts
+    private static void enumerateOpponents(long[] hands, int opponent, long dealt, long board, int[] deck,
+                                           int missing, EquityTally tally) {
+        if (opponent == hands.length) {
+            enumerateRunouts(hands, board, deck, 0, missing, dealt, tally);
+            return;
+        }
+        for (int first = 0; first < deck.length; first++) {
+            if ((dealt & 1L << deck[first]) != 0) {
+                continue;
+            }
+            for (int second = first + 1; second < deck.length; second++) {
+                if ((dealt & 1L << deck[second]) != 0) {
+                    continue;
+                }
+                long hand = 1L << deck[first] | 1L << deck[second];
+                hands[opponent] = hand;
+                enumerateOpponents(hands, opponent + 1, dealt | hand, board, deck, missing, tally);
+            }
+        }
+    }
+
+    // stops after the given number of showdowns or when the time budget is used up, whatever comes first
+    public Equity sample(List<List<Card>> hands, List<Card> board, List<Card> deadCards, long iterations,
+                         Duration budget) {
+        long[] handMasks = toHandMasks(hands);
+        long boardMask = Card.toMask(board);
+        int[] deck = remainingDeck(handMasks, boardMask, board.size(), Card.toMask(deadCards));
+        return sample(handMasks, 0, boardMask, BOARD_SIZE - board.size(), deck, iterations, budget);
+    }
+
+    // equity of one hand against opponents holding any two of the cards that are not known to anybody
+    public Equity sampleAgainstRandomHands(List<Card> hand, int opponents, List<Card> board, long iterations,
+                                           Duration budget) {
+        int[] deck = unknownCards(hand, opponents, board);
+        return sample(new long[]{Card.toMask(hand)}, opponents, Card.toMask(board), BOARD_SIZE - board.size(), deck,
+                iterations, budget);
+    }
+
+    // the cards the opponents and the rest of the board are dealt from
+    private static int[] unknownCards(List<Card> hand, int opponents, List<Card> board) {
+        if (opponents < 1) {
+            throw new IllegalArgumentException("Equity needs at least one opponent");
+        }
+        if (hand.size() != 2) {
+            throw new IllegalArgumentException("A hand needs two cards: " + hand);
+        }
+        int[] deck = remainingDeck(new long[]{Card.toMask(hand)}, Card.toMask(board), board.size(), 0);
+        if (deck.length < 2 * opponents + BOARD_SIZE - board.size()) {
+            throw new IllegalArgumentException("Not enough cards left for " + opponents + " opponents");
+        }
+        return deck;
+    }
+
+    private Equity sample(long[] handMasks, int opponents, long boardMask, int missing, int[] deck, long iterations,
+                          Duration budget) {
+        long deadline = System.nanoTime() + Math.min(budget.toNanos(), MAX_BUDGET.toNanos());
+        long showdowns = Math.min(iterations, MAX_ITERATIONS);
+
+        int chunks = pool.getParallelism() * 4;
+        List<ForkJoinTask<EquityTally>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            long chunkShowdowns = showdowns / chunks + (chunk < showdowns % chunks ? 1 : 0);
+            tasks.add(pool.submit(() -> sampleChunk(handMasks, opponents, boardMask, deck, missing, chunkShowdowns,
+                    deadline)));
+        }
+        EquityTally total = new EquityTally(handMasks.length + opponents);
+        for (ForkJoinTask<EquityTally> task : tasks) {
+            total.add(task.join());
+        }
+        return total.toEquity(false);
+    }
+
+    // the opponents' hands follow the known ones and are dealt anew for every showdown
+    private static EquityTally sampleChunk(long[] knownHands, int opponents, long board, int[] deck, int missing,
+                                           long showdowns, long deadline) {
+        int[] cards = deck.clone();
+        long[] hands = Arrays.copyOf(knownHands, knownHands.length + opponents);
+        int dealt = 2 * opponents + missing;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        EquityTally tally = new EquityTally(hands.length);
+        for (long showdown = 0; showdown < showdowns; showdown++) {
+            if (showdown % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                break;
+            }
+            // partial Fisher-Yates shuffle, the first cards go to the opponents, the next ones are the runout
+            for (int i = 0; i < dealt; i++) {
+                int j = i + random.nextInt(cards.length - i);
+                int card = cards[j];
+                cards[j] = cards[i];
+                cards[i] = card;
+            }
+            for (int opponent = 0; opponent < opponents; opponent++) {
+                hands[knownHands.length + opponent] = 1L << cards[2 * opponent] | 1L << cards[2 * opponent + 1];
+            }
+            long runout = board;
+            for (int i = 2 * opponents; i < dealt; i++) {
+                runout |= 1L << cards[i];
+            }
+            tally.record(hands, runout);
+        }
+        return tally;
+    }
+
+    static long[] toHandMasks(List<List<Card>> hands) {
+        if (hands.size() < 2) {
+            throw new IllegalArgumentException("Equity needs at least two hands");
+        }
+        long[] masks = new long[hands.size()];
+        for (int i = 0; i < masks.length; i++) {
+            if (hands.get(i).size() != 2) {
+                throw new IllegalArgumentException("A hand needs two cards: " + hands.get(i));
+            }
+            masks[i] = Card.toMask(hands.get(i));
+        }
+        return masks;
+    }
+
+    // indices of the cards that can still come on the board
+    static int[] remainingDeck(long[] hands, long board, int boardSize, long dead) {
+        if (boardSize > BOARD_SIZE || Long.bitCount(board) != boardSize) {
+            throw new IllegalArgumentException("A board has up to five different cards");
+        }
+        long used = board;
+        for (long hand : hands) {
+            if (Long.bitCount(hand) != 2 || (used & hand) != 0) {
+                throw new IllegalArgumentException("A card can't be in two places");
+            }
+            used |= hand;
+        }
+        used |= dead;
+        int[] deck = new int[Card.DECK_SIZE - Long.bitCount(used)];
+        int next = 0;
+        for (int index = 0; index < Card.DECK_SIZE; index++) {
+            if ((used & 1L << index) == 0) {
+                deck[next++] = index;
+            }
+        }
+        return deck;
+    }
+}
@@ -0,0 +1,60 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.rules.HandEvaluator;
+
+// mutable counters of one calculation task, merged into an Equity at the end
+class EquityTally {
+
+    private long showdowns;
+    private final long[] wins;
+    private final long[] ties;
+    private final double[] shares;
+    // scratch space of record, so a showdown allocates nothing
+    private final int[] values;
+
+    EquityTally(int players) {
+        wins = new long[players];
+        ties = new long[players];
+        shares = new double[players];
+        values = new int[players];
+    }
+
+    void record(long[] hands, long board) {
+        int best = -1;
+        int winners = 0;
+        for (int player = 0; player < hands.length; player++) {
+            int value = HandEvaluator.evaluate(hands[player] | board);
+            values[player] = value;
+            if (value > best) {
+                best = value;
+                winners = 1;
+            } else if (value == best) {
+                winners++;
+            }
+        }
+        showdowns++;
+        for (int player = 0; player < hands.length; player++) {
+            if (values[player] == best) {
+                if (winners == 1) {
+                    wins[player]++;
+                } else {
+                    ties[player]++;
+                }
+                shares[player] += 1.0 / winners;
+            }
+        }
+    }
+
+    void add(EquityTally other) {
+        showdowns += other.showdowns;
+        for (int player = 0; player < wins.length; player++) {
+            wins[player] += other.wins[player];
+            ties[player] += other.ties[player];
+            shares[player] += other.shares[player];
+        }
+    }
+
+    Equity toEquity(boolean exact) {
+        return new Equity(showdowns, wins, ties, shares, exact);
+    }
+}
@@ -0,0 +1,158 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/*
+ * Heads-up equity of every starting hand class against every other one before the flop, counted
+ * over every board and every suit combination of both classes. PreflopEquityGenerator computes
+ * it once, the jar ships it as a resource: a header and then win and tie probability of each
+ * pair of classes as unsigned 16 bit fractions of 65535, 114 KB in all. Loading also sums up each
+ * class against every hand an opponent can hold. Lookups are array reads; they ignore which suits
+ * the actual cards have and cards that are known to be dead.
+ */
+public class PreflopEquity {
+
+    public static final String RESOURCE = "equity/preflop-headsup.bin";
+
+    // "PKPE"
+    static final int MAGIC = 0x504B5045;
+    static final int VERSION = 1;
+    static final int SCALE = 0xFFFF;
+
+    private static final int CLASSES = StartingHands.CLASSES;
+
+    // hands an opponent can hold besides two known cards, 50 * 49 / 2
+    static final long RANDOM_HANDS = (Card.DECK_SIZE - 2) * (Card.DECK_SIZE - 3) / 2;
+
+    private final char[] wins;
+    private final char[] ties;
+    // per class, summed over every hand a random opponent can hold
+    private final long[] randomWins = new long[CLASSES];
+    private final long[] randomOpponentWins = new long[CLASSES];
+    private final long[] randomTies = new long[CLASSES];
+
+    PreflopEquity(char[] wins, char[] ties) {
+        this.wins = wins;
+        this.ties = ties;
+        sumRandomHands();
+    }
+
+    // every hand of a class has the same sums, the suits only swap which opponents are which
+    private void sumRandomHands() {
+        boolean[] summed = new boolean[CLASSES];
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                int handClass = StartingHands.classOf(first, second);
+                if (!summed[handClass]) {
+                    summed[handClass] = true;
+                    sumRandomHands(handClass, 1L << first | 1L << second);
+                }
+            }
+        }
+    }
+
+    private void sumRandomHands(int handClass, long known) {
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                if ((known & (1L << first | 1L << second)) != 0) {
+                    continue;
+                }
+                int opponentClass = StartingHands.classOf(first, second);
+                randomWins[handClass] += wins[handClass * CLASSES + opponentClass];
+                randomOpponentWins[handClass] += wins[opponentClass * CLASSES + handClass];
+                randomTies[handClass] += ties[handClass * CLASSES + opponentClass];
+            }
+        }
+    }
+
+    public static PreflopEquity load(String name) {
+        InputStream resource = PreflopEquity.class.getClassLoader().getResourceAsStream(name);
+        if (resource == null) {
+            throw new IllegalStateException(name + " is missing, run PreflopEquityGenerator");
+        }
+        try (InputStream in = new BufferedInputStream(resource)) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static PreflopEquity read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION || data.readInt() != CLASSES) {
+            throw new IOException("Not a preflop equity table of version " + VERSION);
+        }
+        char[] wins = new char[CLASSES * CLASSES];
+        char[] ties = new char[CLASSES * CLASSES];
+        for (int cell = 0; cell < wins.length; cell++) {
+            wins[cell] = data.readChar();
+            ties[cell] = data.readChar();
+        }
+        return new PreflopEquity(wins, ties);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(CLASSES);
+        for (int cell = 0; cell < wins.length; cell++) {
+            data.writeChar(wins[cell]);
+            data.writeChar(ties[cell]);
+        }
+        data.flush();
+    }
+
+    static char toShare(double probability) {
+        return (char) Math.round(probability * SCALE);
+    }
+
+    public double getWinProbability(int handClass, int opponentClass) {
+        return (double) wins[handClass * CLASSES + opponentClass] / SCALE;
+    }
+
+    public double getTieProbability(int handClass, int opponentClass) {
+        return (double) ties[handClass * CLASSES + opponentClass] / SCALE;
+    }
+
+    public double getEquity(int handClass, int opponentClass) {
+        return getWinProbability(handClass, opponentClass) + getTieProbability(handClass, opponentClass) / 2;
+    }
+
+    // the result has no showdowns, wins and ties are in 1/65535 of the runouts
+    public Equity lookup(List<Card> hand, List<Card> opponent) {
+        if (hand.size() != 2 || opponent.size() != 2) {
+            throw new IllegalArgumentException("A hand needs two cards");
+        }
+        int handClass = StartingHands.classOf(hand.get(0), hand.get(1));
+        int opponentClass = StartingHands.classOf(opponent.get(0), opponent.get(1));
+        long[] winCounts = {wins[handClass * CLASSES + opponentClass], wins[opponentClass * CLASSES + handClass]};
+        long tie = ties[handClass * CLASSES + opponentClass];
+        return lookedUp(SCALE, winCounts, tie);
+    }
+
+    // against every hand the opponent can hold besides these cards, all of them equally likely
+    public Equity lookupAgainstRandomHand(List<Card> hand) {
+        if (hand.size() != 2) {
+            throw new IllegalArgumentException("A hand needs two cards");
+        }
+        int handClass = StartingHands.classOf(hand.get(0), hand.get(1));
+        long[] winCounts = {randomWins[handClass], randomOpponentWins[handClass]};
+        return lookedUp(RANDOM_HANDS * SCALE, winCounts, randomTies[handClass]);
+    }
+
+    private static Equity lookedUp(long total, long[] winCounts, long tie) {
+        long[] tieCounts = {tie, tie};
+        double[] shares = {winCounts[0] + tie / 2.0, winCounts[1] + tie / 2.0};
+        return new Equity(0, total, winCounts, tieCounts, shares, false);
+    }
+}
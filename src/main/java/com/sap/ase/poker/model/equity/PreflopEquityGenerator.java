@@ -0,0 +1,100 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.SuitIsomorphism;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+ * Computes the PreflopEquity resource by walking every board, exactly. Boards that only differ
+ * by a permutation of the suits give every pair of hand classes the same counts, so only one
+ * board of each of the 134,459 such groups is walked, weighted with the size of its group. The
+ * boards are split into tasks on a fork-join pool, each with a PreflopTally of its own.
+ *
+ * mvn -q exec:java -Dexec.mainClass=com.sap.ase.poker.model.equity.PreflopEquityGenerator
+ * or java -cp target/classes com.sap.ase.poker.model.equity.PreflopEquityGenerator [file]
+ */
+public class PreflopEquityGenerator {
+
+    private static final int BOARD_SIZE = 5;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : "src/main/resources/" + PreflopEquity.RESOURCE);
+        long start = System.nanoTime();
+        PreflopEquity equity = generate(ForkJoinPool.commonPool());
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            equity.write(out);
+        }
+        System.out.printf("Wrote %s in %d s%n", file, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    public static PreflopEquity generate(ForkJoinPool pool) {
+        return tally(pool, canonicalBoards()).toPreflopEquity();
+    }
+
+    static PreflopTally tally(ForkJoinPool pool, Map<Long, Integer> boards) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(boards.entrySet());
+        int chunks = pool.getParallelism() * 4;
+        List<ForkJoinTask<PreflopTally>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            List<Map.Entry<Long, Integer>> part = entries.subList(entries.size() * chunk / chunks,
+                    entries.size() * (chunk + 1) / chunks);
+            tasks.add(pool.submit(() -> {
+                PreflopTally tally = new PreflopTally();
+                for (Map.Entry<Long, Integer> board : part) {
+                    tally.record(board.getKey(), board.getValue());
+                }
+                return tally;
+            }));
+        }
+        PreflopTally total = new PreflopTally();
+        for (ForkJoinTask<PreflopTally> task : tasks) {
+            total.add(task.join());
+        }
+        return total;
+    }
+
+    // one board of every group of boards that only differ in their suits, with the size of its group
+    static Map<Long, Integer> canonicalBoards() {
+        Map<Long, Integer> boards = new HashMap<>();
+        int[] cards = new int[BOARD_SIZE];
+        for (int i = 0; i < BOARD_SIZE; i++) {
+            cards[i] = i;
+        }
+        do {
+            long board = 0;
+            for (int card : cards) {
+                board |= 1L << card;
+            }
+            boards.merge(SuitIsomorphism.canonical(board), 1, Integer::sum);
+        } while (next(cards));
+        return boards;
+    }
+
+    // the next combination of card indices in lexicographic order, false after the last one
+    private static boolean next(int[] cards) {
+        int i = cards.length - 1;
+        while (i >= 0 && cards[i] == Card.DECK_SIZE - cards.length + i) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        cards[i]++;
+        for (int j = i + 1; j < cards.length; j++) {
+            cards[j] = cards[j - 1] + 1;
+        }
+        return true;
+    }
+}
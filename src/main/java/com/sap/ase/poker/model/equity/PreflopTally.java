@@ -0,0 +1,140 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.rules.HandEvaluator;
+
+import java.util.Arrays;
+
+/*
+ * Counts how often every starting hand class wins or ties against every other one, one board at
+ * a time. A board ranks each of the two card combinations left once and sorts them by value;
+ * walking up the sorted combinations, every combination beats everything below it and ties its
+ * own group. Pairs of combinations that share a card can't meet and are taken out again. Costs
+ * a class row per combination instead of one showdown per pair of combinations.
+ */
+class PreflopTally {
+
+    static final int COMBOS = Card.DECK_SIZE * (Card.DECK_SIZE - 1) / 2;
+
+    private static final int COMBO_BITS = 11;
+    private static final long COMBO_MASK = (1L << COMBO_BITS) - 1;
+    private static final int CLASSES = StartingHands.CLASSES;
+
+    private static final long[] COMBO_CARDS = new long[COMBOS];
+    private static final int[] COMBO_CLASSES = new int[COMBOS];
+    // the 51 combinations every card is part of
+    private static final int[][] COMBOS_WITH_CARD = new int[Card.DECK_SIZE][Card.DECK_SIZE - 1];
+
+    static {
+        int[] filled = new int[Card.DECK_SIZE];
+        int combo = 0;
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                COMBO_CARDS[combo] = 1L << first | 1L << second;
+                COMBO_CLASSES[combo] = StartingHands.classOf(first, second);
+                COMBOS_WITH_CARD[first][filled[first]++] = combo;
+                COMBOS_WITH_CARD[second][filled[second]++] = combo;
+                combo++;
+            }
+        }
+    }
+
+    // [hand class * CLASSES + opponent class], runouts weighted by how many boards they stand for
+    private final long[] wins = new long[CLASSES * CLASSES];
+    private final long[] ties = new long[CLASSES * CLASSES];
+    // scratch space of record
+    private final int[] values = new int[COMBOS];
+    private final long[] sorted = new long[COMBOS];
+    private final int[] below = new int[CLASSES];
+    private final int[] group = new int[CLASSES];
+    private final int[] groupClasses = new int[CLASSES];
+
+    void record(long board, long weight) {
+        int live = 0;
+        for (int combo = 0; combo < COMBOS; combo++) {
+            if ((COMBO_CARDS[combo] & board) == 0) {
+                values[combo] = HandEvaluator.evaluate(COMBO_CARDS[combo] | board);
+                sorted[live++] = (long) values[combo] << COMBO_BITS | combo;
+            } else {
+                values[combo] = -1;
+            }
+        }
+        Arrays.sort(sorted, 0, live);
+        Arrays.fill(below, 0);
+
+        for (int start = 0, end; start < live; start = end) {
+            int value = (int) (sorted[start] >>> COMBO_BITS);
+            int distinct = 0;
+            for (end = start; end < live && (int) (sorted[end] >>> COMBO_BITS) == value; end++) {
+                int handClass = COMBO_CLASSES[(int) (sorted[end] & COMBO_MASK)];
+                if (group[handClass]++ == 0) {
+                    groupClasses[distinct++] = handClass;
+                }
+            }
+            for (int i = start; i < end; i++) {
+                int combo = (int) (sorted[i] & COMBO_MASK);
+                int row = COMBO_CLASSES[combo] * CLASSES;
+                for (int opponent = 0; opponent < CLASSES; opponent++) {
+                    wins[row + opponent] += weight * below[opponent];
+                }
+                for (int g = 0; g < distinct; g++) {
+                    ties[row + groupClasses[g]] += weight * group[groupClasses[g]];
+                }
+                removeBlocked(combo, row, value, weight);
+            }
+            for (int g = 0; g < distinct; g++) {
+                below[groupClasses[g]] += group[groupClasses[g]];
+                group[groupClasses[g]] = 0;
+            }
+        }
+    }
+
+    // the combination itself and those sharing a card with it were counted above, but never meet it
+    private void removeBlocked(int combo, int row, int value, long weight) {
+        ties[row + COMBO_CLASSES[combo]] -= weight;
+        for (long cards = COMBO_CARDS[combo]; cards != 0; cards &= cards - 1) {
+            for (int other : COMBOS_WITH_CARD[Long.numberOfTrailingZeros(cards)]) {
+                int otherValue = values[other];
+                if (other == combo || otherValue < 0) {
+                    continue;
+                }
+                if (otherValue < value) {
+                    wins[row + COMBO_CLASSES[other]] -= weight;
+                } else if (otherValue == value) {
+                    ties[row + COMBO_CLASSES[other]] -= weight;
+                }
+            }
+        }
+    }
+
+    void add(PreflopTally other) {
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+            ties[i] += other.ties[i];
+        }
+    }
+
+    long getWins(int handClass, int opponentClass) {
+        return wins[handClass * CLASSES + opponentClass];
+    }
+
+    long getTies(int handClass, int opponentClass) {
+        return ties[handClass * CLASSES + opponentClass];
+    }
+
+    PreflopEquity toPreflopEquity() {
+        char[] winShares = new char[CLASSES * CLASSES];
+        char[] tieShares = new char[CLASSES * CLASSES];
+        for (int hand = 0; hand < CLASSES; hand++) {
+            for (int opponent = 0; opponent < CLASSES; opponent++) {
+                int cell = hand * CLASSES + opponent;
+                long win = wins[cell];
+                long tie = ties[cell];
+                double showdowns = win + tie + wins[opponent * CLASSES + hand];
+                winShares[cell] = PreflopEquity.toShare(win / showdowns);
+                tieShares[cell] = PreflopEquity.toShare(tie / showdowns);
+            }
+        }
+        return new PreflopEquity(winShares, tieShares);
+    }
+}
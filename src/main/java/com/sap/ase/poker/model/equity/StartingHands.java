@@ -0,0 +1,49 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+
+/*
+ * The 169 classes of two hole cards that only differ in their suits. A class is a cell of the
+ * usual 13 x 13 grid with the kinds as Kind ordinals: pairs on the diagonal, suited hands at
+ * [high][low] and offsuit hands at [low][high].
+ */
+public class StartingHands {
+
+    public static final int CLASSES = 169;
+
+    private static final int KINDS = 13;
+    private static final String KIND_NAMES = "23456789TJQKA";
+
+    private StartingHands() {
+    }
+
+    public static int classOf(Card first, Card second) {
+        return classOf(first.getIndex(), second.getIndex());
+    }
+
+    // for Card.getIndex() values
+    public static int classOf(int first, int second) {
+        if (first == second) {
+            throw new IllegalArgumentException("Two different cards needed");
+        }
+        int high = Math.max(first % KINDS, second % KINDS);
+        int low = Math.min(first % KINDS, second % KINDS);
+        if (first / KINDS == second / KINDS) {
+            return high * KINDS + low;
+        }
+        return low * KINDS + high;
+    }
+
+    // e.g. AA, AKs, T9o
+    public static String name(int handClass) {
+        int row = handClass / KINDS;
+        int column = handClass % KINDS;
+        if (row == column) {
+            return "" + KIND_NAMES.charAt(row) + KIND_NAMES.charAt(row);
+        }
+        if (row > column) {
+            return "" + KIND_NAMES.charAt(row) + KIND_NAMES.charAt(column) + "s";
+        }
+        return "" + KIND_NAMES.charAt(column) + KIND_NAMES.charAt(row) + "o";
+    }
+}
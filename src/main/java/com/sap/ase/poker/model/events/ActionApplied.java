@@ -0,0 +1,37 @@
+package com.sap.ase.poker.model.events;
+
+import com.sap.ase.poker.model.GameState;
+
+// an action the table accepted, street is the one it was taken on
+public class ActionApplied extends TableEvent {
+
+    private final String playerId;
+    private final String action;
+    private final GameState street;
+    private final int amount;
+
+    public ActionApplied(String tableId, long timestamp, String playerId, String action, GameState street,
+                         int amount) {
+        super(tableId, timestamp);
+        this.playerId = playerId;
+        this.action = action;
+        this.street = street;
+        this.amount = amount;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public GameState getStreet() {
+        return street;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sap.ase.poker.model.events;
+
+import java.util.List;
+
+// the hole cards are dealt, playerIds are in the order the players act
+public class HandStarted extends TableEvent {
+
+    private final List<String> playerIds;
+
+    public HandStarted(String tableId, long timestamp, List<String> playerIds) {
+        super(tableId, timestamp);
+        this.playerIds = List.copyOf(playerIds);
+    }
+
+    public List<String> getPlayerIds() {
+        return playerIds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sap.ase.poker.model.events;
+
+public class PlayerJoined extends TableEvent {
+
+    private final String playerId;
+    private final String playerName;
+    private final int cash;
+
+    public PlayerJoined(String tableId, long timestamp, String playerId, String playerName, int cash) {
+        super(tableId, timestamp);
+        this.playerId = playerId;
+        this.playerName = playerName;
+        this.cash = cash;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getCash() {
+        return cash;
+    }
+}
@@ -0,0 +1,40 @@
+package com.sap.ase.poker.model.events;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The hand ended and the pots are paid out. A hand everybody else folded ends the same way,
+ * with the last player as the only winner and no winning cards.
+ */
+public class ShowdownResolved extends TableEvent {
+
+    private final List<String> winnerIds;
+    private final List<Card> winningCards;
+    private final Map<String, Integer> payouts;
+
+    public ShowdownResolved(String tableId, long timestamp, List<String> winnerIds, List<Card> winningCards,
+                            Map<String, Integer> payouts) {
+        super(tableId, timestamp);
+        this.winnerIds = List.copyOf(winnerIds);
+        this.winningCards = List.copyOf(winningCards);
+        this.payouts = Collections.unmodifiableMap(new LinkedHashMap<>(payouts));
+    }
+
+    public List<String> getWinnerIds() {
+        return winnerIds;
+    }
+
+    public List<Card> getWinningCards() {
+        return winningCards;
+    }
+
+    // chips paid to every player that won a pot, in the order the pots were settled
+    public Map<String, Integer> getPayouts() {
+        return payouts;
+    }
+}
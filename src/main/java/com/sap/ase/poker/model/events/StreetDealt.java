@@ -0,0 +1,27 @@
+package com.sap.ase.poker.model.events;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.List;
+
+// the flop, turn or river was dealt, board holds every community card so far
+public class StreetDealt extends TableEvent {
+
+    private final GameState street;
+    private final List<Card> board;
+
+    public StreetDealt(String tableId, long timestamp, GameState street, List<Card> board) {
+        super(tableId, timestamp);
+        this.street = street;
+        this.board = List.copyOf(board);
+    }
+
+    public GameState getStreet() {
+        return street;
+    }
+
+    public List<Card> getBoard() {
+        return board;
+    }
+}
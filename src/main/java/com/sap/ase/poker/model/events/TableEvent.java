@@ -0,0 +1,24 @@
+package com.sap.ase.poker.model.events;
+
+/*
+ * Something that happened at a table, published on the writer of the table right after the
+ * change. Events are immutable and may be handed to other threads as they are.
+ */
+public abstract class TableEvent {
+
+    private final String tableId;
+    private final long timestamp;
+
+    protected TableEvent(String tableId, long timestamp) {
+        this.tableId = tableId;
+        this.timestamp = timestamp;
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
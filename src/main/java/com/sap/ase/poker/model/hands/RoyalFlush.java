@@ -39,11 +39,11 @@ public class RoyalFlush extends Hand {
         Suit suit = relevantCards.get(0).getSuit();
 
         return relevantCards.containsAll(Arrays.asList(
-                new Card(Kind.ACE, suit),
-                new Card(Kind.KING, suit),
-                new Card(Kind.QUEEN, suit),
-                new Card(Kind.JACK, suit),
-                new Card(Kind.TEN, suit)
+                Card.of(Kind.ACE, suit),
+                Card.of(Kind.KING, suit),
+                Card.of(Kind.QUEEN, suit),
+                Card.of(Kind.JACK, suit),
+                Card.of(Kind.TEN, suit)
         ));
     }
 
@@ -0,0 +1,29 @@
+package com.sap.ase.poker.model.pot;
+
+import java.util.List;
+
+// a main or side pot: every eligible player put in at least level chips
+public class Pot {
+
+    private final int amount;
+    private final int level;
+    private final List<String> eligiblePlayerIds;
+
+    public Pot(int amount, int level, List<String> eligiblePlayerIds) {
+        this.amount = amount;
+        this.level = level;
+        this.eligiblePlayerIds = List.copyOf(eligiblePlayerIds);
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public List<String> getEligiblePlayerIds() {
+        return eligiblePlayerIds;
+    }
+}
@@ -0,0 +1,160 @@
+package com.sap.ase.poker.model.pot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Chips every player put into the current hand. A player that is all-in for less than the others
+ * can only win from each of them as much as they put in themselves, so the chips are split into a
+ * main pot and side pots, one per all-in level. Settling sorts the players once by their contribution and
+ * hands every pot, from the highest level down, to the best of the hands eligible so far.
+ */
+public class Pots {
+
+    // in seat order, odd chips of a split pot go to the first winner
+    private final Map<String, Integer> contributions = new LinkedHashMap<>();
+    private final Set<String> folded = new HashSet<>();
+
+    public Pots(List<String> playerIds) {
+        for (String playerId : playerIds) {
+            contributions.put(playerId, 0);
+        }
+    }
+
+    // e.g. a hand restored after a restart
+    public Pots(Map<String, Integer> contributions, Set<String> folded) {
+        this.contributions.putAll(contributions);
+        this.folded.addAll(folded);
+    }
+
+    public void contribute(String playerId, int amount) {
+        contributions.merge(playerId, amount, Integer::sum);
+    }
+
+    public void fold(String playerId) {
+        folded.add(playerId);
+    }
+
+    public Map<String, Integer> getContributions() {
+        return Collections.unmodifiableMap(contributions);
+    }
+
+    public Set<String> getFolded() {
+        return Collections.unmodifiableSet(folded);
+    }
+
+    public int getContribution(String playerId) {
+        return contributions.getOrDefault(playerId, 0);
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int contribution : contributions.values()) {
+            total += contribution;
+        }
+        return total;
+    }
+
+    // main pot first; chips of folded players above the highest level go to the last pot
+    public List<Pot> getPots() {
+        List<Integer> sorted = new ArrayList<>(contributions.values());
+        sorted.sort(null);
+        List<String> live = livePlayersByContribution();
+        List<Pot> pots = new ArrayList<>();
+        int next = 0;
+        int below = 0;
+        int previousCapped = 0;
+        int previousLevel = 0;
+        for (int i = live.size() - 1; i >= 0; i--) {
+            int level = contributions.get(live.get(i));
+            if (level == previousLevel) {
+                continue;
+            }
+            while (next < sorted.size() && sorted.get(next) <= level) {
+                below += sorted.get(next++);
+            }
+            // what all players together put in, counting at most level chips of each
+            int capped = below + level * (sorted.size() - next);
+            pots.add(new Pot(capped - previousCapped, level, live.subList(0, i + 1)));
+            previousCapped = capped;
+            previousLevel = level;
+        }
+        int dead = getTotal() - previousCapped;
+        if (pots.isEmpty()) {
+            pots.add(new Pot(dead, 0, live));
+        } else if (dead > 0) {
+            Pot last = pots.remove(pots.size() - 1);
+            pots.add(new Pot(last.getAmount() + dead, last.getLevel(), last.getEligiblePlayerIds()));
+        }
+        return pots;
+    }
+
+    // handValues holds a comparable value for the hand of every player that did not fold
+    public Map<String, Integer> settle(Map<String, Integer> handValues) {
+        List<String> live = livePlayersByContribution();
+        for (String playerId : live) {
+            if (!handValues.containsKey(playerId)) {
+                throw new IllegalArgumentException("No hand value for player " + playerId);
+            }
+        }
+        List<Pot> pots = getPots();
+        Map<String, Integer> seats = new HashMap<>();
+        for (String playerId : contributions.keySet()) {
+            seats.put(playerId, seats.size());
+        }
+
+        Map<String, Integer> payouts = new LinkedHashMap<>();
+        List<String> winners = new ArrayList<>();
+        int best = Integer.MIN_VALUE;
+        int next = 0;
+        for (int i = pots.size() - 1; i >= 0; i--) {
+            Pot pot = pots.get(i);
+            // the eligible players of a pot are also eligible for every pot below it
+            int eligible = pot.getEligiblePlayerIds().size();
+            for (; next < eligible; next++) {
+                String playerId = live.get(next);
+                int value = handValues.get(playerId);
+                if (value > best) {
+                    best = value;
+                    winners.clear();
+                }
+                if (value == best) {
+                    winners.add(playerId);
+                }
+            }
+            split(pot.getAmount(), winners, seats, payouts);
+        }
+        return payouts;
+    }
+
+    private static void split(int amount, List<String> winners, Map<String, Integer> seats,
+                              Map<String, Integer> payouts) {
+        int share = amount / winners.size();
+        int oddChips = amount % winners.size();
+        List<String> bySeat = new ArrayList<>(winners);
+        bySeat.sort(Comparator.comparing(seats::get));
+        for (String winner : bySeat) {
+            int payout = share + (oddChips-- > 0 ? 1 : 0);
+            payouts.merge(winner, payout, Integer::sum);
+        }
+    }
+
+    // highest contribution first, ties in seat order
+    private List<String> livePlayersByContribution() {
+        List<String> live = new ArrayList<>();
+        for (String playerId : contributions.keySet()) {
+            if (!folded.contains(playerId)) {
+                live.add(playerId);
+            }
+        }
+        live.sort(Comparator.comparing(contributions::get).reversed());
+        return live;
+    }
+}
@@ -0,0 +1,161 @@
+package com.sap.ase.poker.model.rules;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.List;
+
+/*
+ * Evaluates up to seven cards into a single comparable int without building Hand objects.
+ * The cards are passed as a mask of Card.getMask() bits, which splits into four 13 bit rank
+ * masks (one per suit); straights and the five highest ranks of a mask are looked up in
+ * precomputed tables. The category in the upper bits uses the same numbers as
+ * Hand.getRank(), the lower 20 bits hold up to five ranks (4 bits each) that break ties
+ * within the category.
+ */
+public class HandEvaluator {
+
+    public static final int HIGH_CARD = 1;
+    public static final int PAIR = 2;
+    public static final int TWO_PAIRS = 3;
+    public static final int THREE_OF_A_KIND = 4;
+    public static final int STRAIGHT = 5;
+    public static final int FLUSH = 6;
+    public static final int FULL_HOUSE = 7;
+    public static final int FOUR_OF_A_KIND = 8;
+    public static final int STRAIGHT_FLUSH = 9;
+    public static final int ROYAL_FLUSH = 10;
+
+    private static final int CATEGORY_SHIFT = 20;
+    private static final int KINDS_PER_SUIT = 13;
+    private static final int RANK_MASK = (1 << KINDS_PER_SUIT) - 1;
+    private static final int ACE = 12;
+    private static final int NONE = -1;
+
+    private static final int[] STRAIGHT_HIGH = new int[RANK_MASK + 1];
+    private static final int[] TOP_FIVE = new int[RANK_MASK + 1];
+
+    static {
+        for (int mask = 0; mask <= RANK_MASK; mask++) {
+            STRAIGHT_HIGH[mask] = findStraightHigh(mask);
+            TOP_FIVE[mask] = findTopFive(mask);
+        }
+    }
+
+    private HandEvaluator() {
+    }
+
+    public static int evaluate(List<Card> cards) {
+        return evaluate(Card.toMask(cards));
+    }
+
+    public static int evaluate(long cards) {
+        int s0 = (int) cards & RANK_MASK;
+        int s1 = (int) (cards >>> KINDS_PER_SUIT) & RANK_MASK;
+        int s2 = (int) (cards >>> 2 * KINDS_PER_SUIT) & RANK_MASK;
+        int s3 = (int) (cards >>> 3 * KINDS_PER_SUIT) & RANK_MASK;
+
+        int flush = flushMask(s0, s1, s2, s3);
+        if (flush != 0) {
+            int straightHigh = STRAIGHT_HIGH[flush];
+            if (straightHigh == ACE) {
+                return value(ROYAL_FLUSH, ACE << 16);
+            }
+            if (straightHigh != NONE) {
+                return value(STRAIGHT_FLUSH, straightHigh << 16);
+            }
+        }
+
+        int all = s0 | s1 | s2 | s3;
+        int quads = s0 & s1 & s2 & s3;
+        if (quads != 0) {
+            int quad = highest(quads);
+            return value(FOUR_OF_A_KIND, quad << 16 | highest(all & ~(1 << quad)) << 12);
+        }
+
+        int threesOrMore = (s0 & s1 & s2) | (s0 & s1 & s3) | (s0 & s2 & s3) | (s1 & s2 & s3);
+        int pairsOrMore = (s0 & s1) | (s0 & s2) | (s0 & s3) | (s1 & s2) | (s1 & s3) | (s2 & s3);
+        int pairs = pairsOrMore & ~threesOrMore;
+        int singles = all & ~pairsOrMore;
+
+        int trip = highest(threesOrMore);
+        if (trip != NONE) {
+            int pairCandidates = (threesOrMore & ~(1 << trip)) | pairs;
+            if (pairCandidates != 0) {
+                return value(FULL_HOUSE, trip << 16 | highest(pairCandidates) << 12);
+            }
+        }
+        if (flush != 0) {
+            return value(FLUSH, TOP_FIVE[flush]);
+        }
+        int straightHigh = STRAIGHT_HIGH[all];
+        if (straightHigh != NONE) {
+            return value(STRAIGHT, straightHigh << 16);
+        }
+        if (trip != NONE) {
+            return value(THREE_OF_A_KIND, trip << 16 | topRanks(singles, 2) << 8);
+        }
+        if (Integer.bitCount(pairs) >= 2) {
+            int highPair = highest(pairs);
+            int lowPair = highest(pairs & ~(1 << highPair));
+            int kicker = highest(all & ~(1 << highPair) & ~(1 << lowPair));
+            return value(TWO_PAIRS, highPair << 16 | lowPair << 12 | kicker << 8);
+        }
+        if (pairs != 0) {
+            return value(PAIR, highest(pairs) << 16 | topRanks(singles, 3) << 4);
+        }
+        return value(HIGH_CARD, TOP_FIVE[all]);
+    }
+
+    public static int category(int value) {
+        return value >>> CATEGORY_SHIFT;
+    }
+
+    private static int value(int category, int ranks) {
+        return category << CATEGORY_SHIFT | ranks;
+    }
+
+    private static int flushMask(int s0, int s1, int s2, int s3) {
+        if (Integer.bitCount(s0) >= 5) {
+            return s0;
+        }
+        if (Integer.bitCount(s1) >= 5) {
+            return s1;
+        }
+        if (Integer.bitCount(s2) >= 5) {
+            return s2;
+        }
+        return Integer.bitCount(s3) >= 5 ? s3 : 0;
+    }
+
+    // NONE for an empty mask
+    private static int highest(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int topRanks(int mask, int amount) {
+        return TOP_FIVE[mask] >>> 4 * (5 - amount);
+    }
+
+    // like Straight, an ace only counts as the highest card of a straight
+    private static int findStraightHigh(int mask) {
+        for (int high = ACE; high >= 4; high--) {
+            int straight = 0x1F << (high - 4);
+            if ((mask & straight) == straight) {
+                return high;
+            }
+        }
+        return NONE;
+    }
+
+    private static int findTopFive(int mask) {
+        int packed = 0;
+        int amount = 0;
+        for (int rank = ACE; rank >= 0 && amount < 5; rank--) {
+            if ((mask & (1 << rank)) != 0) {
+                packed = packed << 4 | rank;
+                amount++;
+            }
+        }
+        return packed << 4 * (5 - amount);
+    }
+}
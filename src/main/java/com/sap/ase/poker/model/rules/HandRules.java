@@ -1,6 +1,5 @@
 package com.sap.ase.poker.model.rules;
 
-import com.sap.ase.poker.model.InvalidHandException;
 import com.sap.ase.poker.model.deck.Card;
 import com.sap.ase.poker.model.hands.*;
 import org.springframework.stereotype.Component;
@@ -12,34 +11,34 @@ import java.util.function.Function;
 @Component
 public class HandRules {
 
+    // indexed by Hand.getRank(), which is also the category of HandEvaluator values
     public static final List<Function<List<Card>, Hand>> CREATION_FUNCTIONS =
             Arrays.asList(
-                    RoyalFlush::new,
-                    StraightFlush::new,
-                    FourOfAKind::new,
-                    FullHouse::new,
-                    Flush::new,
-                    Straight::new,
-                    ThreeOfAKind::new,
+                    null,
+                    HighCard::new,
+                    Pair::new,
                     TwoPairs::new,
-                    Pair::new);
+                    ThreeOfAKind::new,
+                    Straight::new,
+                    Flush::new,
+                    FullHouse::new,
+                    FourOfAKind::new,
+                    StraightFlush::new,
+                    RoyalFlush::new);
 
     public Hand findBestHand(List<Card> handCards) {
+        return createHand(evaluate(handCards), handCards);
+    }
+
+    public int evaluate(List<Card> handCards) {
         if (handCards.size() != 7) {
             throw new InvalidAmountOfCardsException("7 cards needed");
         }
 
-        return findHandCombinations(handCards);
+        return HandEvaluator.evaluate(handCards);
     }
 
-    private Hand findHandCombinations(List<Card> cards) {
-
-        for (Function<List<Card>, Hand> createHand : CREATION_FUNCTIONS) {
-            try {
-                return createHand.apply(cards);
-            } catch (InvalidHandException ignored) {
-            }
-        }
-        return new HighCard(cards);
+    public Hand createHand(int value, List<Card> handCards) {
+        return CREATION_FUNCTIONS.get(HandEvaluator.category(value)).apply(handCards);
     }
 }
@@ -0,0 +1,64 @@
+package com.sap.ase.poker.model.rules;
+
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * The value of every player's hand while a hand is played. Hole cards and community cards are
+ * added as they are dealt and kept as Card.getMask() bits; from the flop on every street adds
+ * only its new cards to the board and ranks each player once, with 5, 6 and then 7 cards. The
+ * values of the showdown are known as soon as the river is dealt.
+ */
+public class HandStrengths {
+
+    // before the flop, or for a player without cards
+    public static final int UNRANKED = -1;
+
+    private static final int MIN_CARDS = 5;
+
+    private final Map<String, Long> holeCards = new HashMap<>();
+    private final Map<String, Integer> values = new HashMap<>();
+    private final Map<String, Integer> readOnlyValues = Collections.unmodifiableMap(values);
+    private long board;
+
+    // a new hand, nobody has cards yet
+    public void clear() {
+        holeCards.clear();
+        values.clear();
+        board = 0;
+    }
+
+    // also when the cards of a player are dealt again
+    public void deal(String playerId, List<Card> cards) {
+        long hole = Card.toMask(cards);
+        holeCards.put(playerId, hole);
+        rank(playerId, hole);
+    }
+
+    public void addToBoard(List<Card> cards) {
+        board |= Card.toMask(cards);
+        for (Map.Entry<String, Long> hole : holeCards.entrySet()) {
+            rank(hole.getKey(), hole.getValue());
+        }
+    }
+
+    private void rank(String playerId, long hole) {
+        long cards = hole | board;
+        if (Long.bitCount(cards) >= MIN_CARDS) {
+            values.put(playerId, HandEvaluator.evaluate(cards));
+        }
+    }
+
+    public int getValue(String playerId) {
+        return values.getOrDefault(playerId, UNRANKED);
+    }
+
+    // HandEvaluator values by player id, for every player that is ranked already
+    public Map<String, Integer> getValues() {
+        return readOnlyValues;
+    }
+}
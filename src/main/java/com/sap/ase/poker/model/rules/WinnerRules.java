@@ -6,13 +6,18 @@ import com.sap.ase.poker.model.hands.Hand;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 @Component
 public class WinnerRules {
 
+    public static final int BOARD_SIZE = 5;
+    // as many as one deck can deal to, which also leaves a bit per player in a winner mask
+    public static final int MAX_BATCH_PLAYERS = (Card.DECK_SIZE - BOARD_SIZE) / 2;
+
     private final HandRules handRules;
 
     public WinnerRules(HandRules handRules) {
@@ -21,27 +26,111 @@ public class WinnerRules {
 
 
     public Winners findWinners(List<Card> communityCards, List<Player> activePlayers) {
-        Map.Entry<Hand, List<Player>> bestHand = mapPlayersToBestHand(activePlayers, communityCards);
+        Map<String, Integer> handValues = new HashMap<>();
+        for (Player player : activePlayers) {
+            handValues.put(player.getId(), handRules.evaluate(combineCards(communityCards, player.getHandCards())));
+        }
+        return findWinners(communityCards, activePlayers, handValues);
+    }
+
+    // with the values a table tracked street by street in HandStrengths, no hand is ranked again
+    public Winners findWinners(List<Card> communityCards, List<Player> activePlayers,
+                               Map<String, Integer> trackedValues) {
+        int bestValue = -1;
+        Player bestPlayer = null;
+        List<Player> winners = new ArrayList<>();
+        Map<String, Integer> handValues = new HashMap<>();
+        for (Player player : activePlayers) {
+            Integer value = trackedValues.get(player.getId());
+            if (value == null) {
+                throw new IllegalArgumentException("No hand value for player " + player.getId());
+            }
+            handValues.put(player.getId(), value);
+            if (value > bestValue) {
+                bestValue = value;
+                bestPlayer = player;
+                winners.clear();
+            }
+            if (value == bestValue) {
+                winners.add(player);
+            }
+        }
+        // only the winning hand is needed as Hand object, e.g. to display its cards
+        Hand winningHand = bestPlayer == null ? null
+                : handRules.createHand(bestValue, combineCards(communityCards, bestPlayer.getHandCards()));
+        return new Winners(winners, winningHand, handValues);
+    }
+
+    /*
+     * Showdowns of many deals at once, for simulations that would drown in Player and List objects.
+     * Cards are Card.getIndex() values: deal d has the board boards[5d .. 5d+4] and player p of it
+     * the hole cards holeCards[2(d*players+p)] and the one after. The result has one mask per deal
+     * with bit p set for every player that wins or splits the pot.
+     */
+    public int[] findWinnerMasks(int players, int[] boards, int[] holeCards) {
+        int[] winners = new int[deals(players, boards, holeCards)];
+        Arrays.setAll(winners, deal -> winnerMask(players, boards, holeCards, deal));
+        return winners;
+    }
 
-        return new Winners(bestHand.getValue(), bestHand.getKey());
+    // same as findWinnerMasks, the deals are split across the common fork-join pool
+    public int[] parallelFindWinnerMasks(int players, int[] boards, int[] holeCards) {
+        int[] winners = new int[deals(players, boards, holeCards)];
+        Arrays.parallelSetAll(winners, deal -> winnerMask(players, boards, holeCards, deal));
+        return winners;
     }
 
-    public List<Card> getCombineCard(Player player, List<Card> communityCards){
-        Hand bestHand = handRules.findBestHand(combineCards(communityCards, player.getHandCards()));
-        return bestHand.getCards();
+    private static int deals(int players, int[] boards, int[] holeCards) {
+        if (players < 1 || players > MAX_BATCH_PLAYERS) {
+            throw new IllegalArgumentException("A deal has 1 to " + MAX_BATCH_PLAYERS + " players: " + players);
+        }
+        if (boards.length % BOARD_SIZE != 0) {
+            throw new IllegalArgumentException("Every board needs " + BOARD_SIZE + " cards");
+        }
+        int deals = boards.length / BOARD_SIZE;
+        if (holeCards.length != deals * players * 2) {
+            throw new IllegalArgumentException("Every player of the " + deals + " deals needs two hole cards");
+        }
+        // a card outside the deck or dealt twice would silently be evaluated as some other hand
+        for (int deal = 0; deal < deals; deal++) {
+            long dealt = dealCards(boards, deal * BOARD_SIZE, BOARD_SIZE, deal, 0);
+            dealCards(holeCards, deal * players * 2, players * 2, deal, dealt);
+        }
+        return deals;
     }
 
-    private Map.Entry<Hand, List<Player>> mapPlayersToBestHand(List<Player> players,
-                                                               List<Card> communityCards) {
-        TreeMap<Hand, List<Player>> playerHands = new TreeMap<>();
-        for (Player player : players) {
-            Hand bestHand = handRules.findBestHand(combineCards(communityCards, player.getHandCards()));
-            if (!playerHands.containsKey(bestHand)) {
-                playerHands.put(bestHand, new ArrayList<>());
+    private static long dealCards(int[] cards, int from, int count, int deal, long dealt) {
+        for (int i = from; i < from + count; i++) {
+            if (cards[i] < 0 || cards[i] >= Card.DECK_SIZE) {
+                throw new IllegalArgumentException("Deal " + deal + " has a card index outside the deck: " + cards[i]);
+            }
+            long card = 1L << cards[i];
+            if ((dealt & card) != 0) {
+                throw new IllegalArgumentException("Deal " + deal + " has " + Card.fromIndex(cards[i]) + " twice");
+            }
+            dealt |= card;
+        }
+        return dealt;
+    }
+
+    private static int winnerMask(int players, int[] boards, int[] holeCards, int deal) {
+        long board = 0;
+        for (int i = deal * BOARD_SIZE; i < (deal + 1) * BOARD_SIZE; i++) {
+            board |= 1L << boards[i];
+        }
+        int best = -1;
+        int winners = 0;
+        for (int player = 0, card = deal * players * 2; player < players; player++, card += 2) {
+            int value = HandEvaluator.evaluate(board | 1L << holeCards[card] | 1L << holeCards[card + 1]);
+            if (value > best) {
+                best = value;
+                winners = 0;
+            }
+            if (value == best) {
+                winners |= 1 << player;
             }
-            playerHands.get(bestHand).add(player);
         }
-        return playerHands.pollLastEntry();
+        return winners;
     }
 
     private List<Card> combineCards(List<Card> communityCards, List<Card> handCards) {
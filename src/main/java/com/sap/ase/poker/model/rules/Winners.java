@@ -5,16 +5,24 @@ import com.sap.ase.poker.model.hands.Hand;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class Winners {
 
     List<Player> winners = new ArrayList<>();
     Hand winningHand;
+    Map<String, Integer> handValues;
 
-    public Winners(List<Player> winners, Hand winningHand) {
+    public Winners(List<Player> winners, Hand winningHand, Map<String, Integer> handValues) {
         this.winners.addAll(winners);
         this.winningHand = winningHand;
+        this.handValues = Map.copyOf(handValues);
+    }
+
+    // value of the hand of every player at the showdown by player id, see HandEvaluator
+    public Map<String, Integer> getHandValues() {
+        return handValues;
     }
 
     public Optional<Hand> getWinningHand() {
@@ -7,9 +7,14 @@ import com.sap.ase.poker.dto.GetTableResponseDto;
 import com.sap.ase.poker.dto.PlayerDto;
 import com.sap.ase.poker.model.IllegalActionException;
 import com.sap.ase.poker.model.IllegalAmountException;
+import com.sap.ase.poker.model.TableSnapshot;
 import com.sap.ase.poker.service.TableService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 import java.util.stream.Collectors;
@@ -24,25 +29,57 @@ public class TableController {
 
 	private final PlayerNamesRepository playerNamesRepository;
 
-	public TableController(TableService tableService, PlayerNamesRepository playerNamesRepository) {
+	private final TableUpdates tableUpdates;
+
+	public TableController(TableService tableService, PlayerNamesRepository playerNamesRepository,
+			TableUpdates tableUpdates) {
 		this.tableService = tableService;
 		this.playerNamesRepository = playerNamesRepository;
+		this.tableUpdates = tableUpdates;
 	}
 
 	@GetMapping
-	public GetTableResponseDto getTable(Principal principal) {
-		String playerId = principal.getName();
+	public ResponseEntity<GetTableResponseDto> getTable(Principal principal, WebRequest request) {
+		return toConditionalResponse(tableService.getSnapshot(), principal.getName(), request);
+	}
+
+	@GetMapping(params = "sinceVersion")
+	public DeferredResult<ResponseEntity<GetTableResponseDto>> pollTable(@RequestParam String sinceVersion,
+			Principal principal) {
+		return tableUpdates.poll(tableService, principal.getName(), sinceVersion);
+	}
+
+	@GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe(Principal principal) {
+		return tableUpdates.subscribe(tableService, principal.getName());
+	}
+
+	static ResponseEntity<GetTableResponseDto> toConditionalResponse(TableSnapshot snapshot, String playerId,
+			WebRequest request) {
+		if (request.checkNotModified(eTag(snapshot))) {
+			// the client already has this version, the response is a 304 without body
+			return null;
+		}
+		return ResponseEntity.ok().eTag(eTag(snapshot)).body(toGetTableResponse(snapshot, playerId));
+	}
+
+	// a table created again, e.g. after a restart, counts versions from the start with a new epoch
+	static String eTag(TableSnapshot snapshot) {
+		return snapshot.getVersionTag();
+	}
+
+	static GetTableResponseDto toGetTableResponse(TableSnapshot snapshot, String playerId) {
 		GetTableResponseDto tableStatus = new GetTableResponseDto();
 
-		tableStatus.setPlayers(tableService.getPlayers().stream().map(PlayerDto::new).collect(Collectors.toList()));
-		tableStatus.setCurrentPlayer(tableService.getCurrentPlayer().map(PlayerDto::new).orElse(null));
-		tableStatus.setPot(tableService.getPot());
-		tableStatus.setPlayerCards(tableService.getPlayerCards(playerId).stream().map(CardDto::new).collect(Collectors.toList()));
-		tableStatus.setCommunityCards(tableService.getCommunityCards().stream().map(CardDto::new).collect(Collectors.toList()));
-		tableStatus.setBets(tableService.getBets());
-		tableStatus.setState(tableService.getState().getValue());
-		tableStatus.setWinner(tableService.getWinner().map(PlayerDto::new).orElse(null));
-		tableStatus.setWinnerHand(tableService.getWinnerHand().stream().map(CardDto::new).collect(Collectors.toList()));
+		tableStatus.setPlayers(snapshot.getPlayers().stream().map(PlayerDto::new).collect(Collectors.toList()));
+		tableStatus.setCurrentPlayer(snapshot.getCurrentPlayer().map(PlayerDto::new).orElse(null));
+		tableStatus.setPot(snapshot.getPot());
+		tableStatus.setPlayerCards(snapshot.getPlayerCards(playerId).stream().map(CardDto::new).collect(Collectors.toList()));
+		tableStatus.setCommunityCards(snapshot.getCommunityCards().stream().map(CardDto::new).collect(Collectors.toList()));
+		tableStatus.setBets(snapshot.getBets());
+		tableStatus.setState(snapshot.getState().getValue());
+		tableStatus.setWinner(snapshot.getWinner().map(PlayerDto::new).orElse(null));
+		tableStatus.setWinnerHand(snapshot.getWinnerHand().stream().map(CardDto::new).collect(Collectors.toList()));
 		return tableStatus;
 	}
 
@@ -56,6 +93,10 @@ public class TableController {
 
 	@PostMapping("/actions")
 	public void placeBet(@RequestBody BetRequestDto betRequest) throws IllegalAmountException,IllegalActionException{
+		performAction(tableService, betRequest);
+	}
+
+	static void performAction(TableService tableService, BetRequestDto betRequest) {
 		int amount = betRequest.getArgs().length == 0 ? 0 : betRequest.getArgs()[0];
 		tableService.performAction(betRequest.getType(), amount);
 	}
@@ -0,0 +1,166 @@
+package com.sap.ase.poker.rest;
+
+import com.sap.ase.poker.dto.GetTableResponseDto;
+import com.sap.ase.poker.model.TableSnapshot;
+import com.sap.ase.poker.service.TableService;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/*
+ * Pushes the table to subscribed clients as server-sent events whenever the table publishes a
+ * new snapshot, and answers long polls once the table moved past the version the client has.
+ * Events are sent on the task executor, never on the writer of the table; a client that cannot
+ * keep up skips intermediate snapshots and only gets the latest one. Once the table is retired,
+ * streams are completed and polls answered with 404.
+ */
+@Component
+public class TableUpdates {
+
+	public static final String EVENT_NAME = "table";
+
+	// clients reconnect on their own, this only bounds how long a dead connection is kept
+	static final long TIMEOUT_MILLIS = 5 * 60 * 1000;
+
+	static final long POLL_TIMEOUT_MILLIS = 30 * 1000;
+
+	private final TaskExecutor taskExecutor;
+
+	public TableUpdates(TaskExecutor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	public SseEmitter subscribe(TableService table, String playerId) {
+		return subscribe(table, playerId, new SseEmitter(TIMEOUT_MILLIS));
+	}
+
+	SseEmitter subscribe(TableService table, String playerId, SseEmitter emitter) {
+		Subscription subscription = new Subscription(table, emitter, playerId);
+		Runnable complete = emitter::complete;
+		Runnable unsubscribe = () -> {
+			table.removeSnapshotListener(subscription);
+			table.removeRetireListener(complete);
+		};
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(unsubscribe);
+		emitter.onError(e -> unsubscribe.run());
+		table.addSnapshotListener(subscription);
+		subscription.accept(table.getSnapshot());
+		table.addRetireListener(complete);
+		return emitter;
+	}
+
+	// answers once the table moved past the version tag the client has, or with 304 once the poll timed out;
+	// a tag of another epoch or one the table never published is answered right away
+	public DeferredResult<ResponseEntity<GetTableResponseDto>> poll(TableService table, String playerId,
+			String sinceVersion) {
+		ResponseEntity<GetTableResponseDto> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.eTag(sinceVersion).build();
+		DeferredResult<ResponseEntity<GetTableResponseDto>> result = new DeferredResult<>(POLL_TIMEOUT_MILLIS,
+				notModified);
+		Poll poll = new Poll(table, playerId, sinceVersion, result);
+		result.onCompletion(poll::close);
+		table.addSnapshotListener(poll);
+		table.addRetireListener(poll.retired);
+		poll.accept(table.getSnapshot());
+		return result;
+	}
+
+	private static class Poll implements Consumer<TableSnapshot> {
+
+		private final TableService table;
+		private final String playerId;
+		private final String sinceVersion;
+		private final DeferredResult<ResponseEntity<GetTableResponseDto>> result;
+		private final Runnable retired = this::retired;
+
+		Poll(TableService table, String playerId, String sinceVersion,
+				DeferredResult<ResponseEntity<GetTableResponseDto>> result) {
+			this.table = table;
+			this.playerId = playerId;
+			this.sinceVersion = sinceVersion;
+			this.result = result;
+		}
+
+		@Override
+		public void accept(TableSnapshot snapshot) {
+			// versions only grow within an epoch, so any other tag is newer than the client's
+			if (!snapshot.getVersionTag().equals(sinceVersion)) {
+				result.setResult(ResponseEntity.ok().eTag(TableController.eTag(snapshot))
+						.body(TableController.toGetTableResponse(snapshot, playerId)));
+				close();
+			}
+		}
+
+		private void retired() {
+			result.setResult(ResponseEntity.notFound().build());
+			close();
+		}
+
+		// answered, timed out or retired, the table doesn't need to call it any more
+		private void close() {
+			table.removeSnapshotListener(this);
+			table.removeRetireListener(retired);
+		}
+	}
+
+	private class Subscription implements Consumer<TableSnapshot> {
+
+		private final TableService table;
+		private final SseEmitter emitter;
+		private final String playerId;
+		private final AtomicReference<TableSnapshot> latest = new AtomicReference<>();
+		// snapshots offered but not yet looked at by sendLatest, only the first one schedules it
+		private final AtomicInteger pending = new AtomicInteger();
+		private long sentVersion;
+
+		Subscription(TableService table, SseEmitter emitter, String playerId) {
+			this.table = table;
+			this.emitter = emitter;
+			this.playerId = playerId;
+		}
+
+		@Override
+		public void accept(TableSnapshot snapshot) {
+			// the first snapshot is offered by subscribe and may arrive after a newer one
+			latest.accumulateAndGet(snapshot, (current, offered) ->
+					current == null || offered.getVersion() > current.getVersion() ? offered : current);
+			if (pending.getAndIncrement() == 0) {
+				taskExecutor.execute(this::sendLatest);
+			}
+		}
+
+		private void sendLatest() {
+			int seen = pending.get();
+			do {
+				TableSnapshot snapshot = latest.get();
+				if (snapshot.getVersion() > sentVersion) {
+					sentVersion = snapshot.getVersion();
+					send(snapshot);
+				}
+				seen = pending.addAndGet(-seen);
+			} while (seen != 0);
+		}
+
+		private void send(TableSnapshot snapshot) {
+			try {
+				emitter.send(SseEmitter.event()
+						.id(snapshot.getVersionTag())
+						.name(EVENT_NAME)
+						.data(TableController.toGetTableResponse(snapshot, playerId), MediaType.APPLICATION_JSON));
+			} catch (IOException | IllegalStateException e) {
+				// the client is gone, it will reconnect with a new subscription if it is still around
+				table.removeSnapshotListener(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.sap.ase.poker.rest;
+
+import com.sap.ase.poker.data.PlayerNamesRepository;
+import com.sap.ase.poker.dto.BetRequestDto;
+import com.sap.ase.poker.dto.EquityResponseDto;
+import com.sap.ase.poker.dto.GetTableResponseDto;
+import com.sap.ase.poker.dto.LobbyEntryDto;
+import com.sap.ase.poker.dto.PlayerEquityDto;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.IllegalActionException;
+import com.sap.ase.poker.model.IllegalAmountException;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.TableSnapshot;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.equity.Equity;
+import com.sap.ase.poker.model.equity.EquityCalculator;
+import com.sap.ase.poker.model.equity.PreflopEquity;
+import com.sap.ase.poker.service.TableRegistry;
+import com.sap.ase.poker.service.TableService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(TablesController.PATH)
+public class TablesController {
+
+	public static final String PATH = TableController.PATH + "/tables";
+
+	// what a single equity request may cost the server, not up to the client
+	public static final long EQUITY_ITERATIONS = 100_000;
+	public static final long EQUITY_MILLIS = 200;
+
+	private final TableRegistry tableRegistry;
+
+	private final PlayerNamesRepository playerNamesRepository;
+
+	private final TableUpdates tableUpdates;
+
+	private final EquityCalculator equityCalculator;
+
+	private final PreflopEquity preflopEquity;
+
+	private final long equityIterations;
+
+	private final Duration equityBudget;
+
+	public TablesController(TableRegistry tableRegistry, PlayerNamesRepository playerNamesRepository,
+			TableUpdates tableUpdates, EquityCalculator equityCalculator, PreflopEquity preflopEquity,
+			@Value("${poker.equity.iterations:" + EQUITY_ITERATIONS + "}") long equityIterations,
+			@Value("${poker.equity.millis:" + EQUITY_MILLIS + "}") long equityMillis) {
+		this.tableRegistry = tableRegistry;
+		this.playerNamesRepository = playerNamesRepository;
+		this.tableUpdates = tableUpdates;
+		this.equityCalculator = equityCalculator;
+		this.preflopEquity = preflopEquity;
+		this.equityIterations = equityIterations;
+		this.equityBudget = Duration.ofMillis(equityMillis);
+	}
+
+	@GetMapping
+	public List<LobbyEntryDto> getLobby() {
+		return tableRegistry.getTables().stream()
+				.sorted(Comparator.comparing(TableService::getId))
+				.map(TablesController::toLobbyEntry)
+				.collect(Collectors.toList());
+	}
+
+	@PostMapping
+	public ResponseEntity<LobbyEntryDto> createTable(Principal principal) {
+		TableService table = tableRegistry.create(principal.getName());
+		return ResponseEntity.created(URI.create(PATH + "/" + table.getId())).body(toLobbyEntry(table));
+	}
+
+	@DeleteMapping("/{tableId}")
+	public ResponseEntity<Void> retireTable(@PathVariable String tableId, Principal principal) {
+		tableRegistry.retire(tableId, principal.getName());
+		return ResponseEntity.noContent().build();
+	}
+
+	@GetMapping("/{tableId}")
+	public ResponseEntity<GetTableResponseDto> getTable(@PathVariable String tableId, Principal principal,
+			WebRequest request) {
+		return TableController.toConditionalResponse(tableRegistry.get(tableId).getSnapshot(), principal.getName(),
+				request);
+	}
+
+	@GetMapping(path = "/{tableId}", params = "sinceVersion")
+	public DeferredResult<ResponseEntity<GetTableResponseDto>> pollTable(@PathVariable String tableId,
+			@RequestParam String sinceVersion, Principal principal) {
+		return tableUpdates.poll(tableRegistry.get(tableId), principal.getName(), sinceVersion);
+	}
+
+	@GetMapping(path = "/{tableId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter subscribe(@PathVariable String tableId, Principal principal) {
+		return tableUpdates.subscribe(tableRegistry.get(tableId), principal.getName());
+	}
+
+	/*
+	 * Equity of the caller's own hand only: the other players' cards are hidden, so the opponents
+	 * still in the hand get random hands and nothing but the board and the caller's cards is known.
+	 * On the turn and river every hand they can hold is walked, so the result is exact.
+	 */
+	@GetMapping("/{tableId}/equity")
+	public EquityResponseDto getEquity(@PathVariable String tableId, Principal principal) {
+		TableSnapshot snapshot = tableRegistry.get(tableId).getSnapshot();
+		String playerId = principal.getName();
+		PlayerSnapshot caller = null;
+		int opponents = 0;
+		for (PlayerSnapshot player : snapshot.getPlayers()) {
+			if (!player.isActive()) {
+				continue;
+			}
+			if (player.getId().equals(playerId)) {
+				caller = player;
+			} else {
+				opponents++;
+			}
+		}
+		List<Card> hand = snapshot.getPlayerCards(playerId);
+		if (caller == null || hand.size() != 2) {
+			throw new IllegalActionException("Equity is only shown to players in the hand");
+		}
+		if (opponents == 0) {
+			throw new IllegalActionException("Equity needs at least two players in the hand");
+		}
+
+		Equity equity;
+		if (snapshot.getState() == GameState.PRE_FLOP && opponents == 1) {
+			// heads-up before the flop the precomputed table answers without simulating anything
+			equity = preflopEquity.lookupAgainstRandomHand(hand);
+		} else {
+			equity = equityCalculator.calculateAgainstRandomHands(hand, opponents, snapshot.getCommunityCards(),
+					equityIterations, equityBudget);
+		}
+		EquityResponseDto response = new EquityResponseDto();
+		response.setShowdowns(equity.getShowdowns());
+		response.setExact(equity.isExact());
+		response.getPlayers().add(new PlayerEquityDto(caller.getId(), caller.getName(), equity.getWinProbability(0),
+				equity.getTieProbability(0), equity.getEquity(0)));
+		return response;
+	}
+
+	@PostMapping("/{tableId}/players")
+	public ResponseEntity<Void> joinTable(@PathVariable String tableId, Principal principal) {
+		TableService table = tableRegistry.get(tableId);
+		String playerId = principal.getName();
+		table.addPlayer(playerId, playerNamesRepository.getNameForId(playerId));
+		return ResponseEntity.noContent().build();
+	}
+
+	@PostMapping("/{tableId}/actions")
+	public void placeBet(@PathVariable String tableId, @RequestBody BetRequestDto betRequest)
+			throws IllegalAmountException, IllegalActionException {
+		TableController.performAction(tableRegistry.get(tableId), betRequest);
+	}
+
+	@PostMapping("/{tableId}/start")
+	public ResponseEntity<Void> start(@PathVariable String tableId) {
+		tableRegistry.get(tableId).start();
+		return ResponseEntity.noContent().build();
+	}
+
+	private static LobbyEntryDto toLobbyEntry(TableService table) {
+		return new LobbyEntryDto(table.getId(), String.valueOf(table.getSnapshot().getPlayers().size()),
+				String.valueOf(table.getBuyIn()));
+	}
+}
@@ -2,6 +2,8 @@ package com.sap.ase.poker.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -15,14 +17,22 @@ import org.springframework.security.web.authentication.www.BasicAuthenticationFi
 import java.io.IOException;
 import java.net.URLDecoder;
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 public class JwtAuthenticationRequestFilter extends BasicAuthenticationFilter {
 
-    private final JwtTools jwtTools;
+    private final JwtCache jwtCache;
+    // every authenticated request pays this, cached or not
+    private final Timer verifications;
 
-    public JwtAuthenticationRequestFilter(AuthenticationManager authenticationManager, JwtTools jwtTools) {
+    public JwtAuthenticationRequestFilter(AuthenticationManager authenticationManager, JwtCache jwtCache,
+                                          MeterRegistry meterRegistry) {
         super(authenticationManager);
-        this.jwtTools = jwtTools;
+        this.jwtCache = jwtCache;
+        this.verifications = Timer.builder("poker.jwt.verification")
+                .description("JWT cookies verified, cache lookups included")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
@@ -37,7 +47,13 @@ public class JwtAuthenticationRequestFilter extends BasicAuthenticationFilter {
                 }
                 try {
                     String cookieValue = URLDecoder.decode(cookie.getValue(), "UTF-8");
-                    DecodedJWT decodedJwt = jwtTools.verifyAndDecode(cookieValue);
+                    long start = System.nanoTime();
+                    DecodedJWT decodedJwt;
+                    try {
+                        decodedJwt = jwtCache.verifyAndDecode(cookieValue);
+                    } finally {
+                        verifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
                     String userId = decodedJwt.getClaim("user_id").asString();
                     String userName = decodedJwt.getClaim("user_name").asString();
 
@@ -0,0 +1,108 @@
+package com.sap.ase.poker.security;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Remembers tokens that passed verification, so a client polling with the same cookie is only
+ * verified once per ttl. Holds at most maxSize tokens and evicts the least recently used one;
+ * an entry never outlives the expiry of its token. Tokens that fail verification are not cached.
+ */
+public class JwtCache implements MeterBinder {
+
+	public static final int DEFAULT_MAX_SIZE = 10_000;
+	public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+	private final JwtTools jwtTools;
+	private final int maxSize;
+	private final Duration ttl;
+	private final Clock clock;
+	private final Map<String, Entry> entries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public JwtCache(JwtTools jwtTools) {
+		this(jwtTools, DEFAULT_MAX_SIZE, DEFAULT_TTL, Clock.systemUTC());
+	}
+
+	public JwtCache(JwtTools jwtTools, int maxSize, Duration ttl, Clock clock) {
+		this.jwtTools = jwtTools;
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > JwtCache.this.maxSize;
+			}
+		};
+	}
+
+	public DecodedJWT verifyAndDecode(String jwt) throws JWTVerificationException {
+		Instant now = clock.instant();
+		synchronized (entries) {
+			Entry entry = entries.get(jwt);
+			if (entry != null && now.isBefore(entry.expiresAt)) {
+				hits.incrementAndGet();
+				return entry.decoded;
+			}
+		}
+		misses.incrementAndGet();
+		DecodedJWT decoded = jwtTools.verifyAndDecode(jwt);
+		Instant expiresAt = now.plus(ttl);
+		if (decoded.getExpiresAtAsInstant() != null && decoded.getExpiresAtAsInstant().isBefore(expiresAt)) {
+			expiresAt = decoded.getExpiresAtAsInstant();
+		}
+		synchronized (entries) {
+			entries.put(jwt, new Entry(decoded, expiresAt));
+		}
+		return decoded;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public int getSize() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	// bound by Spring Boot as the cache is a bean
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("poker.jwt.cache", this, JwtCache::getHits).tag("result", "hit")
+				.description("Token lookups in the JWT cache").register(registry);
+		FunctionCounter.builder("poker.jwt.cache", this, JwtCache::getMisses).tag("result", "miss")
+				.description("Token lookups in the JWT cache").register(registry);
+		Gauge.builder("poker.jwt.cache.size", this, JwtCache::getSize)
+				.description("Tokens in the JWT cache").register(registry);
+	}
+
+	private static class Entry {
+
+		private final DecodedJWT decoded;
+		private final Instant expiresAt;
+
+		Entry(DecodedJWT decoded, Instant expiresAt) {
+			this.decoded = decoded;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.deck.Card;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// collects the hand a table is playing, only used by the writer of the table
+class HandRecorder {
+
+    private final String tableId;
+    private long handNumber;
+    private long startedAt;
+    private final List<HandRecord.Seat> seats = new ArrayList<>();
+    private final Map<String, Integer> seatOfPlayer = new HashMap<>();
+    private final List<HandRecord.Action> actions = new ArrayList<>();
+    private int[] payouts = new int[0];
+
+    HandRecorder(String tableId) {
+        this.tableId = tableId;
+    }
+
+    // the players as dealt, before anybody acted
+    void start(List<Player> players, long now) {
+        handNumber++;
+        startedAt = now;
+        seats.clear();
+        seatOfPlayer.clear();
+        actions.clear();
+        for (Player player : players) {
+            seatOfPlayer.put(player.getId(), seats.size());
+            seats.add(new HandRecord.Seat(player.getId(), player.getName(), player.getCash(), player.getHandCards()));
+        }
+        payouts = new int[seats.size()];
+    }
+
+    // continues a hand recorded before a restart
+    void restore(HandRecord hand) {
+        handNumber = hand.getHandNumber();
+        startedAt = hand.getStartedAt();
+        seats.clear();
+        seatOfPlayer.clear();
+        actions.clear();
+        for (HandRecord.Seat seat : hand.getSeats()) {
+            seatOfPlayer.put(seat.getPlayerId(), seats.size());
+            seats.add(seat);
+        }
+        actions.addAll(hand.getActions());
+        payouts = new int[seats.size()];
+        for (int seat = 0; seat < payouts.length; seat++) {
+            payouts[seat] = hand.getPayouts().get(seat);
+        }
+    }
+
+    void action(int seat, GameState state, HandRecord.Action.Type type, int amount) {
+        actions.add(new HandRecord.Action(seat, state, type, amount));
+    }
+
+    void payout(String playerId, int amount) {
+        payouts[seatOfPlayer.get(playerId)] += amount;
+    }
+
+    // the hand so far, once it ended with the board it ended with
+    HandRecord toRecord(List<Card> board) {
+        List<Integer> payoutList = new ArrayList<>(payouts.length);
+        for (int payout : payouts) {
+            payoutList.add(payout);
+        }
+        return new HandRecord(tableId, handNumber, startedAt, seats, actions, board, payoutList);
+    }
+}
@@ -0,0 +1,18 @@
+package com.sap.ase.poker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+ * Thrown when a player asks for something only another player may do with
+ * a table, e.g. retiring a table somebody else created.
+ */
+
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class TableAccessDeniedException extends RuntimeException {
+    private static final long serialVersionUID = 4620177349718833652L;
+
+    public TableAccessDeniedException(String message) {
+        super(message);
+    }
+}
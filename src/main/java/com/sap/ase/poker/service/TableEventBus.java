@@ -0,0 +1,146 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.model.events.TableEvent;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/*
+ * Hands the events of tables to whoever subscribed to their type. Publishing only puts the event
+ * into the bounded queue of every interested subscriber; each queue is drained by at most one
+ * thread of the delivery executor at a time, so a slow subscriber neither delays the table nor
+ * the other subscribers. When a queue is full the subscriber loses the event (DROP, counted) or
+ * the table waits until there is room again (BLOCK), which is meant for subscribers that must
+ * not miss anything and keep up on average.
+ */
+public class TableEventBus {
+
+    public enum Overflow {
+        DROP, BLOCK
+    }
+
+    // events delivered before a subscriber gives its delivery thread back
+    private static final int MAX_BATCH = 64;
+
+    // threads are only started for subscribers with queued events and end when they are idle;
+    // not the common pool, a table waiting for a BLOCK subscriber may run on it
+    private static final Executor DELIVERY = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "table-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor executor;
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    public TableEventBus() {
+        this(DELIVERY);
+    }
+
+    public TableEventBus(Executor executor) {
+        this.executor = executor;
+    }
+
+    public <T extends TableEvent> Subscription<T> subscribe(Class<T> type, Consumer<? super T> subscriber,
+                                                           int capacity, Overflow overflow) {
+        Subscription<T> subscription = new Subscription<>(type, subscriber, capacity, overflow);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    // called on the writer of a table
+    public void publish(TableEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public class Subscription<T extends TableEvent> implements AutoCloseable {
+
+        private final Class<T> type;
+        private final Consumer<? super T> subscriber;
+        private final BlockingQueue<T> queue;
+        private final Overflow overflow;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        Subscription(Class<T> type, Consumer<? super T> subscriber, int capacity, Overflow overflow) {
+            this.type = type;
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.overflow = overflow;
+        }
+
+        private void offer(TableEvent event) {
+            if (!type.isInstance(event)) {
+                return;
+            }
+            T typed = type.cast(event);
+            if (!queue.offer(typed) && (overflow == Overflow.DROP || !put(typed))) {
+                dropped.incrementAndGet();
+                return;
+            }
+            schedule();
+        }
+
+        private boolean put(T event) {
+            // the queue is full, so a delivery is already scheduled that makes room
+            try {
+                queue.put(event);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            try {
+                T event;
+                for (int i = 0; i < MAX_BATCH && (event = queue.poll()) != null; i++) {
+                    try {
+                        subscriber.accept(event);
+                    } catch (RuntimeException e) {
+                        // only this subscriber misses the event
+                        failed.incrementAndGet();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        // events lost because the queue was full
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        // events the subscriber threw on
+        public long getFailed() {
+            return failed.get();
+        }
+
+        // events already queued are still delivered
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+}
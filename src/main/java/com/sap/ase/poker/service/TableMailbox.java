@@ -0,0 +1,101 @@
+package com.sap.ase.poker.service;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * Single writer for the state of one table. Commands are queued and applied one after the
+ * other by at most one thread of the shared executor at a time, so a table needs no locks and
+ * many tables can still run on all cores. Callers block until their command was applied and
+ * get its result or exception back.
+ */
+public class TableMailbox {
+
+    // commands applied before the table gives its executor thread back to other tables
+    private static final int MAX_BATCH = 64;
+
+    // for tables built without an executor of their own, e.g. in tests
+    public static final Executor SHARED_EXECUTOR = newExecutor(Runtime.getRuntime().availableProcessors());
+
+    private final Executor executor;
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile Thread writer;
+
+    public TableMailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    // daemon threads, so tables that were never shut down don't keep the JVM alive
+    public static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, command -> {
+            Thread thread = new Thread(command, "table-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void run(Runnable command) {
+        call(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    public <T> T call(Supplier<T> command) {
+        if (Thread.currentThread() == writer) {
+            // issued by a command that is already being applied
+            return command.get();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        commands.add(() -> {
+            try {
+                result.complete(command.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return await(result);
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        writer = Thread.currentThread();
+        try {
+            Runnable command;
+            for (int i = 0; i < MAX_BATCH && (command = commands.poll()) != null; i++) {
+                command.run();
+            }
+        } finally {
+            writer = null;
+            scheduled.set(false);
+        }
+        if (!commands.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            // rethrow e.g. IllegalActionException unwrapped, so REST error mapping keeps working
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.model.TableSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/*
+ * Gauges over all open tables. They are read from the published snapshots when the registry is
+ * scraped, so the tables themselves do no extra work for them.
+ */
+@Component
+public class TableMetrics implements MeterBinder {
+
+    private final TableRegistry tableRegistry;
+
+    public TableMetrics(TableRegistry tableRegistry) {
+        this.tableRegistry = tableRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("poker.tables", tableRegistry, tables -> tables.getTables().size())
+                .description("Open tables")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("poker.players", this, TableMetrics::countPlayers)
+                .description("Players seated at all tables")
+                .strongReference(true)
+                .register(registry);
+        Gauge.builder("poker.table.chips", this, TableMetrics::countChips)
+                .description("Chips in the pots and bets of all tables")
+                .strongReference(true)
+                .register(registry);
+    }
+
+    double countPlayers() {
+        int players = 0;
+        for (TableService table : tableRegistry.getTables()) {
+            players += table.getSnapshot().getPlayers().size();
+        }
+        return players;
+    }
+
+    double countChips() {
+        long chips = 0;
+        for (TableService table : tableRegistry.getTables()) {
+            TableSnapshot snapshot = table.getSnapshot();
+            chips += snapshot.getPot();
+            for (int bet : snapshot.getBets().values()) {
+                chips += bet;
+            }
+        }
+        return chips;
+    }
+}
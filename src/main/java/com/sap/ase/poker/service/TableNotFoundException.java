@@ -0,0 +1,18 @@
+package com.sap.ase.poker.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/*
+ * Thrown when a request refers to a table id that was never created or has
+ * already been retired.
+ */
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TableNotFoundException extends RuntimeException {
+    private static final long serialVersionUID = 7311516840395514127L;
+
+    public TableNotFoundException(String id) {
+        super("No table with id " + id);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sap.ase.poker.service;
+
+/*
+ * Thrown when a table can't continue from its journal, e.g. because a journaled command fails
+ * in a way it couldn't have failed before the restart. The journal is left as it is.
+ */
+public class TableRecoveryException extends RuntimeException {
+    private static final long serialVersionUID = 4182907361155802271L;
+
+    public TableRecoveryException(String id, Throwable cause) {
+        super("Can't recover table " + id, cause);
+    }
+}
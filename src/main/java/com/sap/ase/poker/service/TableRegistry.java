@@ -0,0 +1,216 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.data.bankroll.Bankroll;
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.data.recovery.TableJournal;
+import com.sap.ase.poker.data.recovery.TableStore;
+import com.sap.ase.poker.model.IllegalActionException;
+import com.sap.ase.poker.model.deck.Deck;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+@Service
+public class TableRegistry implements AutoCloseable {
+
+    public static final String DEFAULT_TABLE_ID = "default";
+
+    // every table holds a mailbox, a journal and its subscribers, so players can't open them without limit
+    public static final int MAX_TABLES = 100;
+    public static final int MAX_TABLES_PER_PLAYER = 3;
+
+    private static final String TABLE_ID_PREFIX = "table-";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableRegistry.class);
+
+    private final Supplier<Deck> deckSupplier;
+    private final Consumer<HandRecord> handHistory;
+    private final TableStore tableStore;
+    private final Bankroll bankroll;
+    private final TableEventBus events;
+    private final Executor tableExecutor;
+    private final MeterRegistry meterRegistry;
+    // shut down on close, unless the executor was passed in
+    private final ExecutorService ownExecutor;
+    private final int maxTables;
+    private final int maxTablesPerPlayer;
+    private final Map<String, TableService> tables = new ConcurrentHashMap<>();
+    // who created which table, kept in the journal of the table; unknown for the default table
+    private final Map<String, String> creators = new ConcurrentHashMap<>();
+    // tables whose journal couldn't be replayed, their players keep the seats until it is looked at
+    private final Set<String> unrecovered = ConcurrentHashMap.newKeySet();
+    private final AtomicLong tableCounter = new AtomicLong();
+
+    public TableRegistry(Supplier<Deck> deckSupplier) {
+        this(deckSupplier, record -> { });
+    }
+
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory) {
+        this(deckSupplier, handHistory, TableStore.none());
+    }
+
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore) {
+        this(deckSupplier, handHistory, tableStore, Bankroll.none());
+    }
+
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                         Bankroll bankroll) {
+        this(deckSupplier, handHistory, tableStore, bankroll, new TableEventBus());
+    }
+
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                         Bankroll bankroll, TableEventBus events) {
+        this(deckSupplier, handHistory, tableStore, bankroll, events, MAX_TABLES, MAX_TABLES_PER_PLAYER);
+    }
+
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                         Bankroll bankroll, TableEventBus events, int maxTables, int maxTablesPerPlayer) {
+        this(deckSupplier, handHistory, tableStore, bankroll, events, TableMailbox.SHARED_EXECUTOR, maxTables,
+                maxTablesPerPlayer);
+    }
+
+    // the mailboxes of all tables apply their commands on threads of their own, a thread per core by default
+    @Autowired
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                         Bankroll bankroll, TableEventBus events,
+                         @Value("${poker.tables.threads:0}") int threads,
+                         @Value("${poker.tables.max:" + MAX_TABLES + "}") int maxTables,
+                         @Value("${poker.tables.max-per-player:" + MAX_TABLES_PER_PLAYER + "}") int maxTablesPerPlayer,
+                         MeterRegistry meterRegistry) {
+        this(deckSupplier, handHistory, tableStore, bankroll, events,
+                TableMailbox.newExecutor(threads > 0 ? threads : Runtime.getRuntime().availableProcessors()),
+                maxTables, maxTablesPerPlayer, true, meterRegistry);
+    }
+
+    // the meters of the tables are kept in a registry of their own
+    public TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                         Bankroll bankroll, TableEventBus events, Executor tableExecutor, int maxTables,
+                         int maxTablesPerPlayer) {
+        this(deckSupplier, handHistory, tableStore, bankroll, events, tableExecutor, maxTables, maxTablesPerPlayer,
+                false, new SimpleMeterRegistry());
+    }
+
+    private TableRegistry(Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory, TableStore tableStore,
+                          Bankroll bankroll, TableEventBus events, Executor tableExecutor, int maxTables,
+                          int maxTablesPerPlayer, boolean ownsExecutor, MeterRegistry meterRegistry) {
+        this.deckSupplier = deckSupplier;
+        this.handHistory = handHistory;
+        this.tableStore = tableStore;
+        this.bankroll = bankroll;
+        this.events = events;
+        this.tableExecutor = tableExecutor;
+        this.meterRegistry = meterRegistry;
+        this.ownExecutor = ownsExecutor ? (ExecutorService) tableExecutor : null;
+        this.maxTables = maxTables;
+        this.maxTablesPerPlayer = maxTablesPerPlayer;
+        // tables that were open when the server stopped continue where they were
+        for (String id : tableStore.getTableIds()) {
+            if (id.startsWith(TABLE_ID_PREFIX)) {
+                tableCounter.accumulateAndGet(Long.parseLong(id.substring(TABLE_ID_PREFIX.length())), Math::max);
+            }
+            TableJournal journal = tableStore.open(id);
+            try {
+                tables.put(id, newTable(id, journal));
+            } catch (TableRecoveryException e) {
+                if (DEFAULT_TABLE_ID.equals(id)) {
+                    throw e;
+                }
+                LOG.error("Table {} is left out, its journal stays for a closer look", id, e);
+                unrecovered.add(id);
+                continue;
+            }
+            journal.getCreator().ifPresent(creator -> creators.put(id, creator));
+        }
+        tables.computeIfAbsent(DEFAULT_TABLE_ID, id -> newTable(id, tableStore.open(id)));
+        // the recovered tables reported their seats, the others went away with the restart
+        bankroll.cashOutUnless(this::isSeated);
+    }
+
+    private boolean isSeated(String playerId, String tableId) {
+        if (unrecovered.contains(tableId)) {
+            return true;
+        }
+        TableService table = tables.get(tableId);
+        return table != null && table.getSnapshot().getPlayers().stream()
+                .anyMatch(player -> player.getId().equals(playerId));
+    }
+
+    private TableService newTable(String id, TableJournal journal) {
+        return new TableService(id, deckSupplier, handHistory, journal, bankroll, events, tableExecutor,
+                meterRegistry);
+    }
+
+    public TableService getDefaultTable() {
+        return tables.get(DEFAULT_TABLE_ID);
+    }
+
+    // synchronized with the checks of retire, so the limits hold for concurrent requests
+    public synchronized TableService create(String playerId) {
+        if (tables.size() - 1 >= maxTables) {
+            throw new IllegalActionException("No more than " + maxTables + " tables can be open at once");
+        }
+        if (creators.values().stream().filter(playerId::equals).count() >= maxTablesPerPlayer) {
+            throw new IllegalActionException("A player can't have more than " + maxTablesPerPlayer + " tables open");
+        }
+        String id = TABLE_ID_PREFIX + tableCounter.incrementAndGet();
+        TableService table = newTable(id, tableStore.create(id, playerId));
+        tables.put(id, table);
+        creators.put(id, playerId);
+        return table;
+    }
+
+    public TableService get(String id) {
+        TableService table = tables.get(id);
+        if (table == null) {
+            throw new TableNotFoundException(id);
+        }
+        return table;
+    }
+
+    public List<TableService> getTables() {
+        return new ArrayList<>(tables.values());
+    }
+
+    // by the player who created the table, a hand in progress is called off and the pot given back;
+    // a table journaled before creators were kept has no known creator and stays
+    public void retire(String id, String playerId) {
+        TableService table;
+        synchronized (this) {
+            if (DEFAULT_TABLE_ID.equals(id)) {
+                throw new IllegalActionException("The default table can't be retired");
+            }
+            table = get(id);
+            String creator = creators.get(id);
+            if (creator == null || !creator.equals(playerId)) {
+                throw new TableAccessDeniedException("Only the player who created table " + id + " can retire it");
+            }
+            tables.remove(id);
+            creators.remove(id);
+        }
+        // waits for the writer of the table and the bankroll on disk, so creating other tables mustn't wait for it
+        table.retire();
+    }
+
+    // stops the threads of the mailboxes if the registry started them
+    @Override
+    public void close() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+}
@@ -1,24 +1,51 @@
 package com.sap.ase.poker.service;
 
+import com.sap.ase.poker.data.bankroll.Bankroll;
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.data.recovery.TableCommand;
+import com.sap.ase.poker.data.recovery.TableJournal;
+import com.sap.ase.poker.data.recovery.TableState;
 import com.sap.ase.poker.model.GameState;
 import com.sap.ase.poker.model.IllegalActionException;
 import com.sap.ase.poker.model.IllegalAmountException;
 import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.TableSnapshot;
 import com.sap.ase.poker.model.deck.Card;
 import com.sap.ase.poker.model.deck.Deck;
+import com.sap.ase.poker.model.events.ActionApplied;
+import com.sap.ase.poker.model.events.HandStarted;
+import com.sap.ase.poker.model.events.PlayerJoined;
+import com.sap.ase.poker.model.events.ShowdownResolved;
+import com.sap.ase.poker.model.events.StreetDealt;
+import com.sap.ase.poker.model.events.TableEvent;
+import com.sap.ase.poker.model.pot.Pots;
 import com.sap.ase.poker.model.rules.HandRules;
+import com.sap.ase.poker.model.rules.HandStrengths;
 import com.sap.ase.poker.model.rules.WinnerRules;
 import com.sap.ase.poker.model.rules.Winners;
-import org.springframework.stereotype.Service;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-@Service
 public class TableService {
 
-    private final Supplier<Deck> deckSupplier;
-    private Deck deck;
+    private final String id;
+    // every access to the fields below goes through the mailbox
+    private final TableMailbox mailbox;
+    private final Deck deck;
     private List<Player> playerList;
     private GameState gameState;
 //    private Player currentPlayer;
@@ -27,6 +54,8 @@ public class TableService {
     private final int initial_Amount = 100;
     private boolean isCheck;
     private int potAmount;
+    // what every player put into the current hand, potAmount only follows it at the end of a round
+    private Pots pots;
     private Map<String, Integer> betMap;
     private int currentBetAmount;
     private int numberOfCheckPlayer;
@@ -34,18 +63,81 @@ public class TableService {
     private int numberOfAction;
     private String winnerPlayerId;
     private Winners winnersList;
+    // ranked on every street, so the showdown only compares values
+    private final HandStrengths handStrengths = new HandStrengths();
     private List<Card> winnerCard;
+    private long version;
+    // a new one every time the table is created, versions of an earlier epoch say nothing about this one
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private volatile TableSnapshot snapshot;
+    private final List<Consumer<TableSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> retireListeners = new CopyOnWriteArrayList<>();
+    // set by the writer, commands that come in afterwards are refused
+    private volatile boolean retired;
+    private final HandRecorder handRecorder;
+    // gets every finished hand on the writer of the table
+    private final Consumer<HandRecord> handHistory;
+    private final TableJournal journal;
+    // gets the cash of the players after every command
+    private final Bankroll bankroll;
+    // gets what happens at the table, subscribers are called on threads of their own
+    private final TableEventBus events;
+    // while commands journaled before a restart are applied again
+    private boolean replaying;
+    private final MeterRegistry meterRegistry;
+    // latency as seen by the caller, waiting for the writer of the table included; one timer per command
+    private final Map<String, Timer> commandTimers = new ConcurrentHashMap<>();
+    private final DistributionSummary potSizes;
+    // ranking the hands of a showdown
+    private final Timer showdowns;
 
-    public Winners getWinnersList() {
-        return winnersList;
+    public TableService(Supplier<Deck> deckSupplier) {
+        this(TableRegistry.DEFAULT_TABLE_ID, deckSupplier);
     }
 
-//    public void setWinnersList(Winners winnersList) {
-//        this.winnersList = winnersList;
-//    }
+    public TableService(String id, Supplier<Deck> deckSupplier) {
+        this(id, deckSupplier, record -> { });
+    }
 
-    public TableService(Supplier<Deck> deckSupplier) {
-        this.deckSupplier = deckSupplier;
+    public TableService(String id, Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory) {
+        this(id, deckSupplier, handHistory, TableJournal.none());
+    }
+
+    public TableService(String id, Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory,
+                        TableJournal journal) {
+        this(id, deckSupplier, handHistory, journal, Bankroll.none());
+    }
+
+    public TableService(String id, Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory,
+                        TableJournal journal, Bankroll bankroll) {
+        this(id, deckSupplier, handHistory, journal, bankroll, new TableEventBus());
+    }
+
+    public TableService(String id, Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory,
+                        TableJournal journal, Bankroll bankroll, TableEventBus events) {
+        this(id, deckSupplier, handHistory, journal, bankroll, events, TableMailbox.SHARED_EXECUTOR,
+                new SimpleMeterRegistry());
+    }
+
+    // continues with whatever the journal recovered, applies commands on threads of the executor
+    public TableService(String id, Supplier<Deck> deckSupplier, Consumer<HandRecord> handHistory,
+                        TableJournal journal, Bankroll bankroll, TableEventBus events, Executor executor,
+                        MeterRegistry meterRegistry) {
+        this.id = id;
+        this.meterRegistry = meterRegistry;
+        this.potSizes = DistributionSummary.builder("poker.hand.pot")
+                .description("Chips paid out per hand")
+                .register(meterRegistry);
+        this.showdowns = Timer.builder("poker.showdown")
+                .description("Showdowns ranked at the tables")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.handRecorder = new HandRecorder(id);
+        this.handHistory = handHistory;
+        this.journal = journal;
+        this.bankroll = bankroll;
+        this.events = events;
+        this.mailbox = new TableMailbox(executor);
         this.playerList = new ArrayList<>();
         this.gameState = GameState.OPEN;
         this.currentPlayerIndex = -1;
@@ -55,50 +147,115 @@ public class TableService {
         betMap = new HashMap<>();
         currentBetAmount = 0;
         this.potAmount = 0;
+        this.pots = new Pots(new ArrayList<>());
         this.numberOfCheckPlayer=0;
         this.numberOfFoldPlayer=0;
         this.numberOfAction=0;
         this.winnerPlayerId ="";
         this.winnerCard = new ArrayList<>();
+        recover();
+        updateBankroll();
+        publishSnapshot();
+    }
+
+    private void recover() {
+        Optional<TableState> state = journal.getRecoveredState();
+        state.ifPresent(this::restore);
+        List<TableCommand> commands = journal.getRecoveredCommands();
+        replaying = true;
+        for (TableCommand command : commands) {
+            try {
+                apply(command);
+            } catch (IllegalActionException | IllegalAmountException e) {
+                // it failed the same way before the restart
+            } catch (RuntimeException e) {
+                // anything else would continue with a table other than the one before the restart
+                throw new TableRecoveryException(id, e);
+            }
+            version++;
+        }
+        replaying = false;
+        if (state.isPresent() || !commands.isEmpty()) {
+            journal.snapshot(toState());
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getBuyIn() {
+        return initial_Amount;
+    }
+
+    // never blocks, the snapshot is replaced as a whole after every command
+    public TableSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // listeners are called on the writer of the table and must hand slow work off to another thread
+    public void addSnapshotListener(Consumer<TableSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+
+    public void removeSnapshotListener(Consumer<TableSnapshot> listener) {
+        snapshotListeners.remove(listener);
+    }
+
+    // called once when the table is retired, right away if it already is
+    public void addRetireListener(Runnable listener) {
+        retireListeners.add(listener);
+        if(retired){
+            runRetireListener(listener);
+        }
+    }
+
+    public void removeRetireListener(Runnable listener) {
+        retireListeners.remove(listener);
+    }
+
+    // whoever removes the listener runs it, so it runs once however retire and add interleave
+    private void runRetireListener(Runnable listener) {
+        if(retireListeners.remove(listener)){
+            listener.run();
+        }
     }
 
     public GameState getState() {
-        return gameState;
+        return snapshot.getState();
     }
 
-    public List<Player> getPlayers() {
-        return playerList;
+    private boolean handInProgress() {
+        return gameState != GameState.OPEN && gameState != GameState.ENDED;
+    }
+
+    // the accessors read the published snapshot, the players and cards themselves never leave the writer
+    public List<PlayerSnapshot> getPlayers() {
+        return snapshot.getPlayers();
     }
 
     public List<Card> getPlayerCards(String playerId) {
-        for(Player player:playerList){
-            if(player.getId().equals(playerId)){
-                return player.getHandCards();
-            }
-        }
-        return new ArrayList<Card>();
+        return snapshot.getPlayerCards(playerId);
     }
 
     public List<Card> getCommunityCards() {
-        return communityCard;
+        return snapshot.getCommunityCards();
     }
 
-    public Optional<Player> getCurrentPlayer() {
-        if(currentPlayerIndex != -1)
-            return Optional.of(playerList.get(currentPlayerIndex));
-        return Optional.empty();
+    public Optional<PlayerSnapshot> getCurrentPlayer() {
+        return snapshot.getCurrentPlayer();
     }
 
     public Map<String, Integer> getBets() {
-        return betMap;
+        return snapshot.getBets();
     }
 
     public int getPot() {
-        return potAmount;
+        return snapshot.getPot();
     }
 
-    public Player getPlayerWithId(String id){
-        for(Player player:playerList){
+    public PlayerSnapshot getPlayerWithId(String id){
+        for(PlayerSnapshot player:snapshot.getPlayers()){
             if(player.getId().equals(id)){
                 return player;
             }
@@ -106,105 +263,406 @@ public class TableService {
         return null;
     }
 
-    public Optional<Player> getWinner() {
-        // TODO: implement me
-        if(!winnerPlayerId.isEmpty()){
-            return Optional.of(getPlayerWithId(winnerPlayerId));
+    private Player findPlayer(String id) {
+        for(Player player:playerList){
+            if(player.getId().equals(id)){
+                return player;
+            }
         }
-        return Optional.empty();
+        return null;
     }
 
-//    public List<Card> getWinnerHand() {
-//        WinnerRules winnerRules = new WinnerRules(new HandRules());
-//        winnersList = winnerRules.findWinners(getCommunityCards(), getActivePlayer());
-//        winnersList.getWinningHand();
-//        if(!winnerPlayerId.isEmpty() && getActivePlayer().size()!=1){
-////            return getPlayerWithId(winnerPlayerId).getHandCards();
-//            return winnersList.getWinningHand().get().getCards();
-//        }
-//        return new ArrayList<>();
-//    }
+    public Optional<PlayerSnapshot> getWinner() {
+        return snapshot.getWinner();
+    }
 
     public List<Card> getWinnerHand() {
-        return winnerCard;
+        return snapshot.getWinnerHand();
     }
 
     public void start() {
-            if(playerList.size() < 2){
-                throw new IllegalActionException("Number of player should be greater than 2");
-            }
-
-        setParameterToInitial();
+        update(TableCommand.start());
+    }
 
+    private TableCommand startHand(TableCommand command) {
+        if(playerList.size() < 2){
+            throw new IllegalActionException("Number of player should be greater than 2");
+        }
+        if(command.getDeck() == null){
+            deck.shuffle();
+            command = TableCommand.start(deck.getCards(), System.currentTimeMillis());
+        } else {
+            deck.restore(command.getDeck());
+        }
+        setParameterToInitial(command.getStartedAt());
+        List<String> playerIds = new ArrayList<>(playerList.size());
+        for(Player player:playerList){
+            playerIds.add(player.getId());
+        }
+        publishEvent(new HandStarted(id, command.getStartedAt(), playerIds));
+        return command;
     }
 
-    private void setParameterToInitial() {
+    private void setParameterToInitial(long startedAt) {
         gameState = GameState.PRE_FLOP;
         currentPlayerIndex = 0;
         this.communityCard.clear();
+        this.handStrengths.clear();
         this.betMap.clear();
         this.winnerPlayerId="";
+        List<String> playerIds = new ArrayList<>();
         for(Player player:playerList){
-            initializePlayer(player);
+            // whatever a player bet in the last hand was settled with it
+            player.clearBet();
+            dealHandCards(player);
             betMap.put(player.getId(), 0);
+            playerIds.add(player.getId());
+        }
+        this.pots = new Pots(playerIds);
+        handRecorder.start(playerList, startedAt);
+    }
+
+    private void update(TableCommand command) {
+        long start = System.nanoTime();
+        try {
+            awaitCommit(mailbox.call(() -> {
+                if(retired){
+                    throw new TableNotFoundException(id);
+                }
+                return applyAndPublish(command);
+            }));
+        } finally {
+            commandTimer(command).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // the caller waits until the cash of an ended hand is on disk, the writer of the table goes on meanwhile
+    private static void awaitCommit(CompletableFuture<Void> committed) {
+        try {
+            committed.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    // a command may change state before it fails, so it is journaled and the snapshot is published either way,
+    // also when the journal fails; returns the commit of the bankroll if the command ended the hand
+    private CompletableFuture<Void> applyAndPublish(TableCommand command) {
+        GameState before = gameState;
+        CompletableFuture<Void> committed = CompletableFuture.completedFuture(null);
+        try {
+            applyAndJournal(command);
+        } finally {
+            updateBankroll();
+            if(before != GameState.ENDED && gameState == GameState.ENDED){
+                committed = bankroll.commit();
+                potSizes.record(pots.getTotal());
+            }
+            publishSnapshot();
+        }
+        return committed;
+    }
+
+    // a journal that fails as well must not hide why the command failed
+    private void applyAndJournal(TableCommand command) {
+        TableCommand applied;
+        try {
+            applied = apply(command);
+        } catch (RuntimeException e) {
+            try {
+                journal(command);
+            } catch (RuntimeException journalFailure) {
+                e.addSuppressed(journalFailure);
+            }
+            throw e;
+        }
+        journal(applied);
+    }
+
+    private Timer commandTimer(TableCommand command) {
+        String name = command.getType() == TableCommand.Type.ACTION ? command.getAction()
+                : command.getType().name().toLowerCase(Locale.ROOT);
+        return commandTimers.computeIfAbsent(name, key -> Timer.builder("poker.table.commands")
+                .description("Commands applied to tables")
+                .tag("command", key)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // anything a client sends ends up in one of a few tags
+    private static String actionName(String action) {
+        String name = action.toLowerCase(Locale.ROOT);
+        switch(name){
+            case "check":
+            case "raise":
+            case "fold":
+            case "call":
+                return name;
+            default:
+                return "unknown";
         }
     }
 
-    public void initializePlayer(Player player) {
+    private void updateBankroll() {
+        for(Player player:playerList){
+            bankroll.update(player.getId(), id, player.getCash());
+        }
+    }
+
+    // returns the command as it has to be journaled, a new hand with the deck it is dealt from
+    private TableCommand apply(TableCommand command) {
+        switch(command.getType()){
+            case JOIN:
+                return seatPlayer(command);
+            case START:
+                return startHand(command);
+            case ACTION:
+                applyAction(command.getAction(), command.getAmount());
+                break;
+            case DEAL:
+                dealHandCards(seatedPlayer(command.getPlayerId()));
+                break;
+            case NEXT_PLAYER:
+                moveToNextActivePlayer();
+                break;
+            case CLEAR_BETS:
+                resetBets();
+                break;
+        }
+        return command;
+    }
+
+    private void journal(TableCommand command) {
+        journal.append(command);
+        if(journal.isSnapshotDue()){
+            journal.snapshot(toState());
+        }
+    }
+
+    private TableState toState() {
+        List<TableState.PlayerState> players = new ArrayList<>(playerList.size());
+        for(Player player:playerList){
+            players.add(new TableState.PlayerState(player.getId(), player.getName(), player.getCash(),
+                    player.getBet(), player.isActive(), player.getHandCards()));
+        }
+        return new TableState(version, gameState, players, currentPlayerIndex, deck.getCards(), communityCard,
+                betMap, currentBetAmount, potAmount, pots.getContributions(), pots.getFolded(),
+                numberOfCheckPlayer, numberOfFoldPlayer, numberOfAction, winnerPlayerId, winnerCard,
+                handRecorder.toRecord(communityCard));
+    }
+
+    private void restore(TableState state) {
+        version = state.getVersion();
+        gameState = state.getGameState();
+        playerList = new ArrayList<>();
+        for(TableState.PlayerState playerState:state.getPlayers()){
+            // bet() takes the bet from the cash
+            Player player = new Player(playerState.getId(), playerState.getName(),
+                    playerState.getCash() + playerState.getBet());
+            player.bet(playerState.getBet());
+            if(playerState.isActive()){
+                player.setActive();
+            }
+            player.setHandCards(new ArrayList<>(playerState.getHandCards()));
+            playerList.add(player);
+        }
+        currentPlayerIndex = state.getCurrentPlayerIndex();
+        deck.restore(state.getDeck());
+        communityCard = new ArrayList<>(state.getCommunityCards());
+        betMap = new HashMap<>(state.getBets());
+        currentBetAmount = state.getCurrentBet();
+        potAmount = state.getPot();
+        pots = new Pots(state.getContributions(), state.getFolded());
+        numberOfCheckPlayer = state.getChecks();
+        numberOfFoldPlayer = state.getFolds();
+        numberOfAction = state.getActions();
+        winnerPlayerId = state.getWinnerPlayerId();
+        winnerCard = new ArrayList<>(state.getWinnerCards());
+        handRecorder.restore(state.getHand());
+        handStrengths.clear();
+        for(Player player:playerList){
+            if(!player.getHandCards().isEmpty()){
+                handStrengths.deal(player.getId(), player.getHandCards());
+            }
+        }
+        handStrengths.addToBoard(communityCard);
+        if(gameState == GameState.ENDED && activePlayers().size() > 1){
+            // ended in a showdown, ranking the hands again is cheaper than keeping the result
+            winnersList = new WinnerRules(new HandRules()).findWinners(communityCard, activePlayers(),
+                    handStrengths.getValues());
+        }
+    }
+
+    // calls off a hand in progress, forgets the journal and lets subscribers know the table is gone
+    void retire() {
+        CompletableFuture<Void> committed = mailbox.call(() -> {
+            if(handInProgress()){
+                refundPot();
+                updateBankroll();
+                publishSnapshot();
+            }
+            // without the journal the table isn't recovered, so a crash from here on cashes out on the next start
+            journal.delete();
+            for(Player player:playerList){
+                bankroll.cashOut(player.getId(), id);
+            }
+            retired = true;
+            return bankroll.commit();
+        });
+        snapshotListeners.clear();
+        for(Runnable listener:retireListeners){
+            runRetireListener(listener);
+        }
+        awaitCommit(committed);
+    }
+
+    // a hand that isn't played out has no winner, everybody gets back what they put in
+    private void refundPot() {
+        for(Player player:playerList){
+            player.addCash(pots.getContribution(player.getId()));
+            player.clearBet();
+        }
+        pots = new Pots(new ArrayList<>());
+        resetHandVariable();
+        currentPlayerIndex = -1;
+        gameState = GameState.ENDED;
+    }
+
+    private void publishSnapshot() {
+        List<PlayerSnapshot> players = new ArrayList<>(playerList.size());
+        Map<String, List<Card>> playerCards = new HashMap<>();
+        PlayerSnapshot winner = null;
+        for (Player player : playerList) {
+            PlayerSnapshot playerSnapshot = new PlayerSnapshot(player);
+            players.add(playerSnapshot);
+            playerCards.put(player.getId(), List.copyOf(player.getHandCards()));
+            if (player.getId().equals(winnerPlayerId)) {
+                winner = playerSnapshot;
+            }
+        }
+        PlayerSnapshot currentPlayer = currentPlayerIndex != -1 ? players.get(currentPlayerIndex) : null;
+        snapshot = new TableSnapshot(epoch, ++version, gameState, players, currentPlayer, potAmount, betMap,
+                communityCard, playerCards, winner, winnerCard);
+        for (Consumer<TableSnapshot> listener : snapshotListeners) {
+            listener.accept(snapshot);
+        }
+    }
+
+    // replayed commands happened before the restart and were published back then
+    private void publishEvent(TableEvent event) {
+        if(!replaying){
+            events.publish(event);
+        }
+    }
+
+    public void initializePlayer(String playerId) {
+        update(TableCommand.deal(playerId));
+    }
+
+    private Player seatedPlayer(String playerId) {
+        Player player = findPlayer(playerId);
+        if(player == null){
+            throw new IllegalActionException("Player " + playerId + " isn't at the table");
+        }
+        return player;
+    }
+
+    private void dealHandCards(Player player) {
         player.setActive();
         List<Card> handCard = new ArrayList<Card>();
         handCard.add(drawCard());
         handCard.add(drawCard());
         player.setHandCards(handCard);
+        handStrengths.deal(player.getId(), handCard);
     }
 
+    // the player brings their balance, which stays at the table until it is retired
     public void addPlayer(String playerId, String playerName) {
-        // TODO: implement me
-        System.out.printf("Player joined the table: %s%n", playerId);
-        Player player = new Player(playerId, playerName, initial_Amount);
+        update(TableCommand.join(playerId, playerName));
+    }
+
+    // buys the player in on the writer, so a player already at the table or a retired table costs no cash
+    private TableCommand seatPlayer(TableCommand command) {
+        String playerId = command.getPlayerId();
+        if(findPlayer(playerId) != null){
+            throw new IllegalActionException("Player " + playerId + " is already at the table");
+        }
+        if(command.isBuyingIn()){
+            command = TableCommand.join(playerId, command.getName(), bankroll.buyIn(playerId, id, initial_Amount));
+        }
+        int cash = command.getAmount();
+        publishEvent(new PlayerJoined(id, System.currentTimeMillis(), playerId, command.getName(), cash));
+        Player player = new Player(playerId, command.getName(), cash);
         playerList.add(player);
         betMap.put(playerId, 0);
         player.setInactive();
+        return command;
     }
 
+    // journaled as one of the actions the table knows, not as whatever the client sent
     public void performAction(String action, int amount) throws IllegalAmountException {
+        update(TableCommand.action(actionName(action), amount));
+    }
+
+    private void applyAction(String action, int amount) {
         numberOfAction++;
-        if(getState() == GameState.OPEN || getState() == GameState.ENDED){
+        if(gameState == GameState.OPEN || gameState == GameState.ENDED){
             return;
         }
-        switch(action.toLowerCase()){
+        int seat = currentPlayerIndex;
+        String playerId = playerList.get(seat).getId();
+        GameState state = gameState;
+        // commands journaled before actions were reduced to the known ones carry what the client sent
+        switch(actionName(action)){
             case  "check":
                 performCheckAction();
+                handRecorder.action(seat, state, HandRecord.Action.Type.CHECK, amount);
+                publishEvent(new ActionApplied(id, System.currentTimeMillis(), playerId, "check", state, amount));
                 break;
             case "raise":
                 performRaiseAction(amount);
+                handRecorder.action(seat, state, HandRecord.Action.Type.RAISE, amount);
+                publishEvent(new ActionApplied(id, System.currentTimeMillis(), playerId, "raise", state, amount));
                 break;
             case "fold":
+                // a fold can't fail and may end the hand, the winner comes after it
+                publishEvent(new ActionApplied(id, System.currentTimeMillis(), playerId, "fold", state, amount));
                 performFoldAction();
+                handRecorder.action(seat, state, HandRecord.Action.Type.FOLD, amount);
                 break;
             case "call":
-                performCallAction();
+                // history and event keep what the call put into the pot, the request carries no amount
+                int called = performCallAction();
+                handRecorder.action(seat, state, HandRecord.Action.Type.CALL, called);
+                publishEvent(new ActionApplied(id, System.currentTimeMillis(), playerId, "call", state, called));
         }
         if(numberOfCheckPlayer+numberOfFoldPlayer == playerList.size()) {
             advanceToNextRound();
         }
-        if(isRoundEnded()){
-            for(Map.Entry<String, Integer> mp:betMap.entrySet()){
-                potAmount += mp.getValue();
-            }
+        if(allActivePlayersMatchedBet()){
+            potAmount = pots.getTotal();
             advanceToNextRound();
-            for(Player player:getPlayers()){
+            for(Player player:playerList){
                 player.clearBet();
             }
-            clearBetMap();
+            resetBets();
+        }
+        // a replayed hand was passed on before the restart
+        if(gameState == GameState.ENDED && !replaying){
+            handHistory.accept(handRecorder.toRecord(communityCard));
         }
     }
     public void clearBetMap(){
+        update(TableCommand.clearBets());
+    }
+
+    private void resetBets() {
         for (Map.Entry<String, Integer> entry : betMap.entrySet()) {
             entry.setValue(0);
         }
     }
     private void advanceToNextRound(){
+        GameState previous = gameState;
         switch(gameState){
             case PRE_FLOP :
                 gameState = GameState.FLOP;
@@ -212,11 +670,11 @@ public class TableService {
                 break;
             case FLOP :
                 gameState = GameState.TURN;
-                communityCard.add(drawCard());
+                dealCommunityCards(1);
                 break;
             case TURN:
                 gameState = GameState.RIVER;
-                communityCard.add(drawCard());
+                dealCommunityCards(1);
                 break;
             case RIVER:
                 gameState = GameState.ENDED;
@@ -224,21 +682,35 @@ public class TableService {
                 resetHandVariable();
                 break;
         }
+        // the end of the hand is published by verifyWinner
+        if(gameState != previous && gameState != GameState.ENDED){
+            publishEvent(new StreetDealt(id, System.currentTimeMillis(), gameState, communityCard));
+        }
         currentBetAmount = 0;
         numberOfCheckPlayer = 0;
-//        System.out.println(deck.getCards().size());
     }
 
     private void verifyWinner() {
         WinnerRules winnerRules = new WinnerRules(new HandRules());
-        winnersList = winnerRules.findWinners(getCommunityCards(), getActivePlayer());
+        long start = System.nanoTime();
+        winnersList = winnerRules.findWinners(communityCard, activePlayers(), handStrengths.getValues());
+        showdowns.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         winnerPlayerId = winnersList.getWinners().get(0).getId();
-        winnerCard = winnerRules.getCombineCard(getPlayerWithId(winnerPlayerId), getCommunityCards());
-        getPlayerWithId(winnerPlayerId).addCash(potAmount);
+        winnerCard = winnersList.getWinningHand().get().getCards();
+        // the pots are settled with the hand values of the showdown, no hand is ranked twice
+        Map<String, Integer> payouts = pots.settle(winnersList.getHandValues());
+        for (Map.Entry<String, Integer> payout : payouts.entrySet()) {
+            findPlayer(payout.getKey()).addCash(payout.getValue());
+            handRecorder.payout(payout.getKey(), payout.getValue());
+        }
+        List<String> winnerIds = new ArrayList<>();
+        for (Player winner : winnersList.getWinners()) {
+            winnerIds.add(winner.getId());
+        }
+        publishEvent(new ShowdownResolved(id, System.currentTimeMillis(), winnerIds, winnerCard, payouts));
     }
 
     private void resetHandVariable() {
-        this.deck = deckSupplier.get();
         this.potAmount = 0;
         this.betMap.clear();
         this.currentBetAmount = 0;
@@ -246,70 +718,85 @@ public class TableService {
         this.numberOfFoldPlayer = 0;
     }
 
-    private void performCallAction() {
+    private int performCallAction() {
 
         if(currentBetAmount == 0){
             throw new IllegalActionException("Call only can be performed if one of the previous players performed a raise action");
         }
-        setBetForCall();
-        determineNextActivePlayer();
-
+        int called = setBetForCall();
+        moveToNextActivePlayer();
+        return called;
     }
 
-    private void setBetForCall() {
-        int playerBet = playerList.get(currentPlayerIndex).getBet();
-        playerList.get(currentPlayerIndex).bet(currentBetAmount-playerBet);
-        betMap.put(playerList.get(currentPlayerIndex).getId(), currentBetAmount);
+    private int setBetForCall() {
+        Player player = playerList.get(currentPlayerIndex);
+        // without enough cash the call is all-in, Pots limits what the player can win
+        int additionalBet = Math.min(currentBetAmount - player.getBet(), player.getCash());
+        player.bet(additionalBet);
+        pots.contribute(player.getId(), additionalBet);
+        betMap.put(player.getId(), player.getBet());
+        return additionalBet;
     }
 
     private void performFoldAction() {
         numberOfFoldPlayer++;
         playerList.get(currentPlayerIndex).setInactive();
+        pots.fold(playerList.get(currentPlayerIndex).getId());
         checkGameEndedinFoldAction();
-        determineNextActivePlayer();
+        moveToNextActivePlayer();
     }
 
     private void checkGameEndedinFoldAction() {
-        List<Player> activePlayerList = getActivePlayer();
+        List<Player> activePlayerList = activePlayers();
         if(activePlayerList.size()==1){
-            System.out.println("Winner "+activePlayerList.get(0).getName());
-            winnerPlayerId = playerList.get(currentPlayerIndex).getId();
+            winnerPlayerId = activePlayerList.get(0).getId();
+            activePlayerList.get(0).addCash(pots.getTotal());
+            handRecorder.payout(winnerPlayerId, pots.getTotal());
+            publishEvent(new ShowdownResolved(id, System.currentTimeMillis(), List.of(winnerPlayerId), List.of(),
+                    Map.of(winnerPlayerId, pots.getTotal())));
+            for(Player player:playerList){
+                player.clearBet();
+            }
+            resetHandVariable();
             gameState = GameState.ENDED;
         }
     }
 
     private void performRaiseAction(int amount) {
-        int minCash = getMinimumCash();
         int additionalBet = amount - playerList.get(currentPlayerIndex).getBet();
 
-        handleExceptionInRaised(amount, additionalBet, minCash);
+        handleExceptionInRaised(amount, additionalBet);
         setPlayerBet(amount, additionalBet);
-        determineNextActivePlayer();
+        moveToNextActivePlayer();
     }
 
     private void setPlayerBet(int amount, int additionalBet) {
         playerList.get(currentPlayerIndex).bet(additionalBet);
+        pots.contribute(playerList.get(currentPlayerIndex).getId(), additionalBet);
         currentBetAmount = amount;
         betMap.put(playerList.get(currentPlayerIndex).getId(), amount);
     }
 
-    private void handleExceptionInRaised(int amount, int additionalBet, int minCash) {
+    private void handleExceptionInRaised(int amount, int additionalBet) {
         if(amount <= currentBetAmount){
             throw new IllegalAmountException("Raised amount should be greater than current bet amount");
         }
         if(additionalBet > playerList.get(currentPlayerIndex).getCash()){
             throw new IllegalAmountException("Raised amount should be less than available cash");
         }
-        if(minCash < additionalBet){
-            throw new IllegalAmountException("Raised amount should not be greater than minimum cash of other player");
-        }
     }
 
-    public int getMinimumCash(){
-        return getPlayers().stream().mapToInt(Player::getCash).min().getAsInt();
+    public List<PlayerSnapshot> getActivePlayer(){
+        List<PlayerSnapshot> activePlayer = new ArrayList<>();
+        for(PlayerSnapshot player:snapshot.getPlayers()){
+            if(player.isActive()){
+                activePlayer.add(player);
+            }
+        }
+        return activePlayer;
     }
 
-    public List<Player> getActivePlayer(){
+    private List<Player> activePlayers() {
         List<Player> activePlayer = new ArrayList<>();
         for(Player player:playerList){
             if(player.isActive()){
@@ -320,9 +807,16 @@ public class TableService {
     }
 
     private void drawInitialCommunityCard() {
-        communityCard.add(drawCard());
-        communityCard.add(drawCard());
-        communityCard.add(drawCard());
+        dealCommunityCards(3);
+    }
+
+    private void dealCommunityCards(int amount) {
+        List<Card> cards = new ArrayList<>(amount);
+        for(int i=0;i<amount;i++){
+            cards.add(drawCard());
+        }
+        communityCard.addAll(cards);
+        handStrengths.addToBoard(cards);
     }
 
     private Card drawCard() {
@@ -334,12 +828,15 @@ public class TableService {
                 throw new IllegalActionException("You can't check since someone already bet");
             }
             numberOfCheckPlayer++;
-            determineNextActivePlayer();
+            moveToNextActivePlayer();
 
     }
 
     public void determineNextActivePlayer() {
-//        int currentPlayerIndex = playerList.indexOf(currentPlayer);
+        update(TableCommand.nextPlayer());
+    }
+
+    private void moveToNextActivePlayer() {
         int i=1;
         while(!playerList.get((currentPlayerIndex+i)%playerList.size()).isActive()){
             i++;
@@ -347,11 +844,12 @@ public class TableService {
         currentPlayerIndex = (currentPlayerIndex+i)%playerList.size();
     }
 
-    public boolean isRoundEnded(){
+    private boolean allActivePlayersMatchedBet() {
         if(currentBetAmount > 0){
-            List<Player> activePlayer = getActivePlayer();
+            List<Player> activePlayer = activePlayers();
             for(Player player:activePlayer){
-                if(betMap.get(player.getId()) != currentBetAmount){
+                // all-in players can't match the bet any more
+                if(betMap.get(player.getId()) != currentBetAmount && player.getCash() > 0){
                     return false;
                 }
             }
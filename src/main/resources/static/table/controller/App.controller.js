@@ -20,8 +20,28 @@ sap.ui.define([
       await this._updateModel()
       // join table if not already joined
       await this._joinTable()
-      // start polling for table updates
-      setInterval(() => this._updateModel(), 1000)
+      // receive table updates as they happen, long-poll if that's not possible
+      const source = table.subscribe(data => this._setTable(data), () => this._startPolling())
+      if (!source) {
+        this._startPolling()
+      }
+    },
+
+    async _startPolling() {
+      // no tag yet, the first poll answers right away
+      let version = 'none'
+      for (;;) {
+        try {
+          const update = await table.poll(version)
+          version = update.version
+          if (update.table) {
+            this._setTable(update.table)
+          }
+        } catch ({ stack }) {
+          console.error(stack)
+          await new Promise(resolve => setTimeout(resolve, 1000))
+        }
+      }
     },
 
     _getPlayer() {
@@ -38,38 +58,41 @@ sap.ui.define([
 
     async _updateModel() {
       try {
-        const player = this._getPlayer()
-        const { state, currentPlayer, players, bets, pot, communityCards, playerCards, winner, winnerHand } = await table.fetch()
-        const view = this.getView()
-        const model = view.getModel()
-        model.setProperty('/', Object.assign({}, model.getProperty('/'), {
-          state,
-          player,
-          currentPlayer,
-          players,
-          bets: bets ? Object.entries(bets).map(([id, bet]) => {
-            const name = players.find(p => p.id === id)?.name
-            return { name, bet }
-          }) : [],
-          pot,
-          communityCards,
-          playerCards,
-          winner,
-          winnerHand,
-          start: {
-            visible: player.id === players?.[0]?.id,
-            enabled: (state === 0 || state === 5) && (players.length > 1)
-          },
-          actions: {
-            enabled: currentPlayer?.id === player.id
-          }
-        }))
+        this._setTable(await table.fetch())
       } catch ({ message, stack }) {
         console.error(stack)
         MessageBox.error(message)
       }
     },
 
+    _setTable({ state, currentPlayer, players, bets, pot, communityCards, playerCards, winner, winnerHand }) {
+      const player = this._getPlayer()
+      const view = this.getView()
+      const model = view.getModel()
+      model.setProperty('/', Object.assign({}, model.getProperty('/'), {
+        state,
+        player,
+        currentPlayer,
+        players,
+        bets: bets ? Object.entries(bets).map(([id, bet]) => {
+          const name = players.find(p => p.id === id)?.name
+          return { name, bet }
+        }) : [],
+        pot,
+        communityCards,
+        playerCards,
+        winner,
+        winnerHand,
+        start: {
+          visible: player.id === players?.[0]?.id,
+          enabled: (state === 0 || state === 5) && (players.length > 1)
+        },
+        actions: {
+          enabled: currentPlayer?.id === player.id
+        }
+      }))
+    },
+
     async _joinTable() {
       try {
         const view = this.getView()
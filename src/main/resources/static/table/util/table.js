@@ -3,7 +3,7 @@ sap.ui.define([], () => {
 
   const _fetch = async (path, options) => {
     const response = await fetch(path, options)
-    if (!response.ok) {
+    if (!response.ok && response.status !== 304) {
       const message = await response.text()
       throw new Error(message)
     }
@@ -17,6 +17,33 @@ sap.ui.define([], () => {
       return table
     },
 
+    // waits until the table moved past the version tag sinceVersion, table is missing if nothing changed in time
+    async poll(sinceVersion) {
+      const response = await _fetch(`${API_PATH}?sinceVersion=${encodeURIComponent(sinceVersion)}`)
+      if (response.status === 304) {
+        return { version: sinceVersion }
+      }
+      const version = response.headers.get('ETag').replace(/"/g, '')
+      const table = await response.json()
+      return { version, table }
+    },
+
+    // calls onTable with every new table state, returns null if the browser can't receive server-sent events
+    subscribe(onTable, onClosed) {
+      if (!window.EventSource) {
+        return null
+      }
+      const source = new EventSource(`${API_PATH}/events`)
+      source.addEventListener('table', ({ data }) => onTable(JSON.parse(data)))
+      source.onerror = () => {
+        // the browser reconnects by itself unless the server refused the stream
+        if (source.readyState === EventSource.CLOSED) {
+          onClosed()
+        }
+      }
+      return source
+    },
+
     async join() {
       await _fetch(`${API_PATH}/players`, {
         method: 'POST',
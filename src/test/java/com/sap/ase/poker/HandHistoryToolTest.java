@@ -0,0 +1,95 @@
+package com.sap.ase.poker;
+
+import com.sap.ase.poker.data.history.HandHistoryWriter;
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.model.GameState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandHistoryToolTest {
+
+	@TempDir
+	Path directory;
+
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+	@BeforeEach
+	void writeHistory() throws IOException {
+		Files.createDirectory(directory.resolve("history"));
+		try (HandHistoryWriter writer = new HandHistoryWriter(directory.resolve("history"))) {
+			writer.accept(hand(1, "2023-11-14T10:00:00Z", GameState.PRE_FLOP));
+			writer.accept(hand(2, "2023-11-15T10:00:00Z", GameState.FLOP));
+		}
+		try (HandHistoryWriter writer = new HandHistoryWriter(directory.resolve("history"))) {
+			writer.accept(hand(3, "2023-11-16T10:00:00Z", GameState.FLOP));
+		}
+		Files.createDirectory(directory.resolve("history/archive"));
+	}
+
+	private static HandRecord hand(long handNumber, String startedAt, GameState bobFolds) {
+		return new HandRecord("table-1", handNumber, Instant.parse(startedAt).toEpochMilli(),
+				List.of(new HandRecord.Seat("al", "Al", 100, List.of()),
+						new HandRecord.Seat("bob", "Bob", 100, List.of())),
+				List.of(new HandRecord.Action(0, GameState.PRE_FLOP, HandRecord.Action.Type.RAISE, 10),
+						new HandRecord.Action(1, bobFolds, HandRecord.Action.Type.FOLD, 0)),
+				List.of(), List.of(10, 0));
+	}
+
+	private int run(String... args) {
+		return HandHistoryTool.run(args, new PrintStream(output, true, StandardCharsets.UTF_8));
+	}
+
+	private String output() {
+		return output.toString(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void run_aggregatesAllHandsOfDirectory() {
+		assertThat(run(directory.resolve("history").toString())).isZero();
+
+		assertThat(output()).startsWith("3 hands").contains("al", "bob");
+		assertThat(output()).containsPattern("al +3 +3 +100.0% +100.0%");
+		assertThat(output()).containsPattern("bob +3 +0 +0.0% +0.0%");
+	}
+
+	@Test
+	void run_filtersHands() {
+		assertThat(run("--player=bob", "--from=2023-11-15", "--to=2023-11-15", "--fold=flop",
+				directory.resolve("history/hands-00000001.bin").toString(), directory.resolve("history/hands-00000002.bin").toString()))
+				.isZero();
+
+		assertThat(output()).startsWith("1 hands").contains("bob").doesNotContain("al ");
+	}
+
+	@Test
+	void run_rejectsWrongArguments() {
+		assertThat(run("--color=red", "history")).isEqualTo(2);
+		assertThat(run("--from=yesterday", "history")).isEqualTo(2);
+		assertThat(run("--fold=later", "history")).isEqualTo(2);
+		assertThat(run("--player=bob")).isEqualTo(2);
+
+		assertThat(output()).contains("Unknown option --color=red", "No hand history given", HandHistoryTool.USAGE);
+	}
+
+	@Test
+	void run_reportsUnreadableHistory() throws IOException {
+		Path other = Files.writeString(directory.resolve("other.txt"), "no hands in here");
+
+		assertThat(run(directory.resolve("missing.bin").toString())).isEqualTo(1);
+		assertThat(run(other.toString())).isEqualTo(1);
+
+		assertThat(output()).contains("Can't read hand history");
+	}
+}
@@ -0,0 +1,93 @@
+package com.sap.ase.poker.benchmarks;
+
+import com.sap.ase.poker.fixtures.HandFixtures;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.Suit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// 7 card inputs for the benchmarks, per hand category or random
+public class BenchmarkHands {
+
+    public static final int RANDOM_HANDS = 1024;
+
+    public static List<List<Card>> of(String category) {
+        switch (category) {
+            case "HIGH_CARD":
+                return Arrays.asList(HandFixtures.highCardOfAce(), HandFixtures.highCardOfKing(),
+                        HandFixtures.highCardOfJack());
+            case "PAIR":
+                return Arrays.asList(HandFixtures.pairOfNines(), HandFixtures.pairOfSevens(),
+                        HandFixtures.pairOfRedJacks());
+            case "TWO_PAIRS":
+                return Arrays.asList(HandFixtures.twoPairsOfSevensAndAces(), HandFixtures.twoPairsOfAcesAndTwos(),
+                        HandFixtures.twoPairsOfSevensAndKingsHearts());
+            case "THREE_OF_A_KIND":
+                return Arrays.asList(HandFixtures.threeOfAKindOfAces(), HandFixtures.threeOfAKindOfSevens());
+            case "STRAIGHT":
+                return Arrays.asList(HandFixtures.straightWithSeven(), HandFixtures.straightWithAce());
+            case "FLUSH":
+                return Arrays.asList(HandFixtures.FlushWithSeven(), HandFixtures.FlushWithKing());
+            case "FULL_HOUSE":
+                return Arrays.asList(HandFixtures.fullHouseWithAces(), HandFixtures.fullHouseWithSevens());
+            case "FOUR_OF_A_KIND":
+                return Arrays.asList(HandFixtures.fourOfAKindOfAces(), HandFixtures.fourOfAKindOfSevens());
+            case "STRAIGHT_FLUSH":
+                return Arrays.asList(HandFixtures.straightFlushWithSeven(), HandFixtures.straightFlushWithKing());
+            case "ROYAL_FLUSH":
+                return Collections.singletonList(HandFixtures.royalFlush());
+            case "ADVERSARIAL":
+                return adversarial();
+            case "RANDOM":
+                return random(new Random(42));
+            default:
+                throw new IllegalArgumentException("Unknown category " + category);
+        }
+    }
+
+    // hands that look like a better category than they are, so every check has to run to the end
+    private static List<List<Card>> adversarial() {
+        return Arrays.asList(
+                // straight with four cards of one suit
+                Arrays.asList(Card.of(Kind.FIVE, Suit.HEARTS), Card.of(Kind.SIX, Suit.HEARTS),
+                        Card.of(Kind.SEVEN, Suit.HEARTS), Card.of(Kind.EIGHT, Suit.HEARTS),
+                        Card.of(Kind.NINE, Suit.CLUBS), Card.of(Kind.KING, Suit.SPADES),
+                        Card.of(Kind.TWO, Suit.DIAMONDS)),
+                // flush next to a straight that is not a straight flush
+                Arrays.asList(Card.of(Kind.FIVE, Suit.HEARTS), Card.of(Kind.SIX, Suit.HEARTS),
+                        Card.of(Kind.SEVEN, Suit.HEARTS), Card.of(Kind.EIGHT, Suit.HEARTS),
+                        Card.of(Kind.NINE, Suit.CLUBS), Card.of(Kind.KING, Suit.HEARTS),
+                        Card.of(Kind.TWO, Suit.DIAMONDS)),
+                // two three of a kinds
+                Arrays.asList(Card.of(Kind.SEVEN, Suit.HEARTS), Card.of(Kind.SEVEN, Suit.CLUBS),
+                        Card.of(Kind.SEVEN, Suit.SPADES), Card.of(Kind.TWO, Suit.HEARTS),
+                        Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.TWO, Suit.SPADES),
+                        Card.of(Kind.JACK, Suit.HEARTS)),
+                // three pairs
+                Arrays.asList(Card.of(Kind.SEVEN, Suit.HEARTS), Card.of(Kind.SEVEN, Suit.CLUBS),
+                        Card.of(Kind.NINE, Suit.SPADES), Card.of(Kind.NINE, Suit.HEARTS),
+                        Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.TWO, Suit.SPADES),
+                        Card.of(Kind.JACK, Suit.HEARTS)),
+                // ace, two, three, four, five is no straight here
+                Arrays.asList(Card.of(Kind.ACE, Suit.DIAMONDS), Card.of(Kind.TWO, Suit.HEARTS),
+                        Card.of(Kind.THREE, Suit.CLUBS), Card.of(Kind.FOUR, Suit.SPADES),
+                        Card.of(Kind.FIVE, Suit.DIAMONDS), Card.of(Kind.NINE, Suit.HEARTS),
+                        Card.of(Kind.JACK, Suit.CLUBS)));
+    }
+
+    public static List<List<Card>> random(Random random) {
+        List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+        List<List<Card>> hands = new ArrayList<>(RANDOM_HANDS);
+        for (int i = 0; i < RANDOM_HANDS; i++) {
+            Collections.shuffle(deck, random);
+            hands.add(new ArrayList<>(deck.subList(0, 7)));
+        }
+        return hands;
+    }
+}
@@ -0,0 +1,82 @@
+package com.sap.ase.poker.benchmarks;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.hands.Hand;
+import com.sap.ase.poker.model.rules.HandEvaluator;
+import com.sap.ase.poker.model.rules.HandRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Evaluation of one 7 card hand per category. Every invocation takes the next input of the
+ * category, so the JIT can't fold a single hand into a constant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandRulesBenchmark {
+
+    @Param({"HIGH_CARD", "PAIR", "TWO_PAIRS", "THREE_OF_A_KIND", "STRAIGHT", "FLUSH", "FULL_HOUSE",
+            "FOUR_OF_A_KIND", "STRAIGHT_FLUSH", "ROYAL_FLUSH", "ADVERSARIAL", "RANDOM"})
+    public String category;
+
+    private final HandRules handRules = new HandRules();
+    private List<List<Card>> hands;
+    private long[] masks;
+    private int[] values;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        hands = BenchmarkHands.of(category);
+        masks = new long[hands.size()];
+        values = new int[hands.size()];
+        for (int i = 0; i < hands.size(); i++) {
+            masks[i] = Card.toMask(hands.get(i));
+            values[i] = HandEvaluator.evaluate(masks[i]);
+        }
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == hands.size() ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public Hand findBestHand() {
+        return handRules.findBestHand(hands.get(nextIndex()));
+    }
+
+    @Benchmark
+    public int evaluateCards() {
+        return HandEvaluator.evaluate(hands.get(nextIndex()));
+    }
+
+    @Benchmark
+    public int evaluateMask() {
+        return HandEvaluator.evaluate(masks[nextIndex()]);
+    }
+
+    // the Hand subclass of the category on its own, e.g. Flush or FullHouse
+    @Benchmark
+    public Hand createHand() {
+        int index = nextIndex();
+        return handRules.createHand(values[index], hands.get(index));
+    }
+}
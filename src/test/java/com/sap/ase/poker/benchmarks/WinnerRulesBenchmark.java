@@ -0,0 +1,86 @@
+package com.sap.ase.poker.benchmarks;
+
+import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.rules.HandRules;
+import com.sap.ase.poker.model.rules.WinnerRules;
+import com.sap.ase.poker.model.rules.Winners;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// one showdown of random deals with the given number of players, or all of them as one batch
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WinnerRulesBenchmark {
+
+    private static final int DEALS = 256;
+
+    @Param({"2", "6", "9"})
+    public int players;
+
+    private final WinnerRules winnerRules = new WinnerRules(new HandRules());
+    private final List<List<Card>> communityCards = new ArrayList<>(DEALS);
+    private final List<List<Player>> activePlayers = new ArrayList<>(DEALS);
+    private int[] boards;
+    private int[] holeCards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+        boards = new int[DEALS * WinnerRules.BOARD_SIZE];
+        holeCards = new int[DEALS * players * 2];
+        for (int deal = 0; deal < DEALS; deal++) {
+            Collections.shuffle(deck, random);
+            communityCards.add(new ArrayList<>(deck.subList(0, 5)));
+            for (int i = 0; i < WinnerRules.BOARD_SIZE; i++) {
+                boards[deal * WinnerRules.BOARD_SIZE + i] = deck.get(i).getIndex();
+            }
+            List<Player> seated = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                Player player = new Player(String.valueOf(i), "Player " + i, 100);
+                player.setHandCards(new ArrayList<>(deck.subList(5 + 2 * i, 7 + 2 * i)));
+                player.setActive();
+                seated.add(player);
+                holeCards[(deal * players + i) * 2] = deck.get(5 + 2 * i).getIndex();
+                holeCards[(deal * players + i) * 2 + 1] = deck.get(6 + 2 * i).getIndex();
+            }
+            activePlayers.add(seated);
+        }
+    }
+
+    @Benchmark
+    public Winners findWinners() {
+        int deal = next;
+        next = deal + 1 == DEALS ? 0 : deal + 1;
+        return winnerRules.findWinners(communityCards.get(deal), activePlayers.get(deal));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public int[] findWinnerMasks() {
+        return winnerRules.findWinnerMasks(players, boards, holeCards);
+    }
+}
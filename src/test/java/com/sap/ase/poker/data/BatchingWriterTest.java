@@ -0,0 +1,85 @@
+package com.sap.ase.poker.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class BatchingWriterTest {
+
+    @Test
+    void close_writesEveryOfferedItemInOrderAndInBatches() {
+        List<Integer> written = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        BatchingWriter<Integer> underTest = new BatchingWriter<>("test-writer", 100, 10, batch -> {
+            written.addAll(batch);
+            batchSizes.add(batch.size());
+        }, (batch, e) -> { });
+        for (int i = 0; i < 100; i++) {
+            assertThat(underTest.offer(i)).isTrue();
+        }
+
+        underTest.close();
+
+        assertThat(written).hasSize(100).isSorted();
+        assertThat(batchSizes).allMatch(size -> size <= 10);
+    }
+
+    @Test
+    void fullQueue_refusesItems() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingWriter<Integer> underTest = new BatchingWriter<>("test-writer", 1, 10, batch -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, (batch, e) -> { });
+        underTest.offer(1);
+        writing.await();
+
+        assertThat(underTest.offer(2)).isTrue();
+        assertThat(underTest.offer(3)).isFalse();
+        release.countDown();
+        underTest.close();
+    }
+
+    @Test
+    void failedBatch_goesToTheFailureHandlerAndTheThreadGoesOn() {
+        List<Integer> written = new ArrayList<>();
+        List<Integer> failed = new ArrayList<>();
+        BatchingWriter<Integer> underTest = new BatchingWriter<>("test-writer", 10, 1, batch -> {
+            if (batch.contains(1)) {
+                throw new IllegalStateException("can't write 1");
+            }
+            written.addAll(batch);
+        }, (batch, e) -> failed.addAll(batch));
+        underTest.offer(1);
+        underTest.offer(2);
+
+        underTest.close();
+
+        assertThat(failed).containsExactly(1);
+        assertThat(written).containsExactly(2);
+    }
+
+    @Test
+    void close_returnsOnceTheThreadIsGone() {
+        BatchingWriter<Integer> underTest = new BatchingWriter<>("test-writer", 1, 10, batch -> {
+            throw new Error("thread dies");
+        }, (batch, e) -> { });
+        // fills the queue once nothing takes from it any more
+        for (int i = 0; underTest.offer(i); i++) {
+            Thread.onSpinWait();
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), underTest::close);
+    }
+}
@@ -0,0 +1,206 @@
+package com.sap.ase.poker.data.bankroll;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileBankrollTest {
+
+    // long enough that only commit and close write
+    static final long NO_FLUSH = 60 * 60 * 1000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void newPlayer_getsInitialAmount() throws IOException {
+        try (FileBankroll underTest = new FileBankroll(directory.resolve("bankroll"), NO_FLUSH)) {
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(100);
+            assertThat(underTest.buyIn("al-capone", "table-1", 100)).isEqualTo(100);
+            underTest.update("al-capone", "table-1", 80);
+            underTest.cashOut("al-capone", "table-1");
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(80);
+        }
+    }
+
+    @Test
+    void buyIn_takesBalanceAwayUntilCashOut() throws IOException {
+        try (FileBankroll underTest = new FileBankroll(directory.resolve("bankroll"), NO_FLUSH)) {
+            assertThat(underTest.buyIn("al-capone", "table-1", 100)).isEqualTo(100);
+            assertThat(underTest.buyIn("al-capone", "table-2", 100)).isZero();
+            underTest.update("al-capone", "table-1", 150);
+            underTest.cashOut("al-capone", "table-1");
+            underTest.cashOut("al-capone", "table-1");
+
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(150);
+            assertThat(underTest.buyIn("al-capone", "table-3", 100)).isEqualTo(150);
+        }
+    }
+
+    @Test
+    void balancesAndSeats_surviveRestart() throws IOException {
+        Path file = directory.resolve("data/bankroll");
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            underTest.buyIn("al-capone", "table-1", 100);
+            underTest.update("al-capone", "table-1", 80);
+            underTest.buyIn("wild-bill", "table-1", 100);
+            underTest.update("wild-bill", "table-1", 120);
+            underTest.cashOut("wild-bill", "table-1");
+            underTest.buyIn("calamity-jane", "table-1", 100);
+            underTest.update("calamity-jane", "table-1", 0);
+        }
+
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            assertThat(underTest.getBalance("wild-bill", 100)).isEqualTo(120);
+            assertThat(underTest.getBalance("al-capone", 100)).isZero();
+            underTest.cashOut("al-capone", "table-1");
+            underTest.cashOut("calamity-jane", "table-1");
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(80);
+            assertThat(underTest.getBalance("calamity-jane", 100)).isZero();
+        }
+    }
+
+    @Test
+    void cashOutUnless_returnsSeatsOfTablesThatAreGone() throws IOException {
+        try (FileBankroll underTest = new FileBankroll(directory.resolve("bankroll"), NO_FLUSH)) {
+            underTest.buyIn("al-capone", "table-1", 100);
+            underTest.buyIn("wild-bill", "table-2", 100);
+
+            underTest.cashOutUnless((playerId, tableId) -> tableId.equals("table-1"));
+
+            assertThat(underTest.getBalance("al-capone", 100)).isZero();
+            assertThat(underTest.getBalance("wild-bill", 100)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void commit_writesBalancesWithoutClose() throws Exception {
+        Path file = directory.resolve("bankroll");
+        FileBankroll crashed = new FileBankroll(file, NO_FLUSH);
+        long size = Files.size(file);
+        crashed.buyIn("al-capone", "table-1", 100);
+        crashed.update("al-capone", "table-1", 80);
+        crashed.cashOut("al-capone", "table-1");
+        crashed.commit();
+        crashed.commit();
+        awaitGrowth(file, size);
+        crashed.buyIn("al-capone", "table-1", 100);
+
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(80);
+        }
+        crashed.close();
+    }
+
+    @Test
+    void commit_completesOnceTheBalancesAreOnDisk() throws Exception {
+        Path file = directory.resolve("bankroll");
+        FileBankroll crashed = new FileBankroll(file, NO_FLUSH);
+        crashed.buyIn("al-capone", "table-1", 100);
+        crashed.update("al-capone", "table-1", 80);
+        crashed.cashOut("al-capone", "table-1");
+
+        crashed.commit().get(5, TimeUnit.SECONDS);
+
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(80);
+        }
+        crashed.close();
+        // close wrote everything, a commit after it has nothing left to wait for
+        assertThat(crashed.commit()).succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void unchangedBalance_isNotWrittenAgain() throws Exception {
+        Path file = directory.resolve("bankroll");
+        FileBankroll underTest = new FileBankroll(file, NO_FLUSH);
+        long size = Files.size(file);
+        underTest.buyIn("al-capone", "table-1", 100);
+        underTest.commit();
+        awaitGrowth(file, size);
+        size = Files.size(file);
+
+        underTest.update("al-capone", "table-1", 100);
+        underTest.close();
+
+        assertThat(Files.size(file)).isEqualTo(size);
+    }
+
+    @Test
+    void changedBalances_areWrittenBehind() throws Exception {
+        Path file = directory.resolve("bankroll");
+        try (FileBankroll underTest = new FileBankroll(file, 10)) {
+            long size = Files.size(file);
+            underTest.buyIn("al-capone", "table-1", 100);
+
+            awaitGrowth(file, size);
+        }
+    }
+
+    @Test
+    void batchCutOffByCrash_isDropped() throws Exception {
+        Path file = directory.resolve("bankroll");
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            long size = Files.size(file);
+            underTest.buyIn("al-capone", "table-1", 100);
+            underTest.update("al-capone", "table-1", 80);
+            underTest.cashOut("al-capone", "table-1");
+            underTest.commit();
+            awaitGrowth(file, size);
+            underTest.buyIn("al-capone", "table-1", 100);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(80);
+        }
+    }
+
+    @Test
+    void growingFile_isCompacted() throws IOException {
+        Path file = directory.resolve("bankroll");
+        try (FileBankroll underTest = new FileBankroll(file, 1)) {
+            underTest.buyIn("al-capone", "table-1", 100);
+            for (int cash = 1; cash < 20_000; cash++) {
+                underTest.update("al-capone", "table-1", cash);
+                underTest.commit();
+            }
+        }
+        long size = Files.size(file);
+        try (FileBankroll underTest = new FileBankroll(file, NO_FLUSH)) {
+            underTest.cashOut("al-capone", "table-1");
+            assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(19_999);
+        }
+
+        // compacted every thousand records or so instead of growing by one per update
+        assertThat(size).isLessThan(2 * 1024 * 30);
+    }
+
+    @Test
+    void none_keepsNothing() {
+        Bankroll underTest = Bankroll.none();
+        assertThat(underTest.buyIn("al-capone", "table-1", 100)).isEqualTo(100);
+        underTest.update("al-capone", "table-1", 80);
+        underTest.cashOut("al-capone", "table-1");
+        underTest.cashOutUnless((playerId, tableId) -> false);
+        underTest.commit();
+
+        assertThat(underTest.getBalance("al-capone", 100)).isEqualTo(100);
+    }
+
+    private static void awaitGrowth(Path file, long size) throws Exception {
+        for (int i = 0; i < 500 && Files.size(file) == size; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(Files.size(file)).isGreaterThan(size);
+    }
+}
@@ -0,0 +1,146 @@
+package com.sap.ase.poker.data.events;
+
+import com.sap.ase.poker.model.GameState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncGameEventLogTest {
+
+    @Test
+    void close_writesEveryAcceptedEventInOrder() throws IOException {
+        RecordingSink sink = new RecordingSink();
+        AsyncGameEventLog underTest = new AsyncGameEventLog(sink, 4 * AsyncGameEventLog.MAX_BATCH);
+        for (int i = 0; i < 3 * AsyncGameEventLog.MAX_BATCH; i++) {
+            underTest.accept(GameEvent.winner("default", i, "01", i));
+        }
+        underTest.close();
+
+        assertThat(sink.events).hasSize(3 * AsyncGameEventLog.MAX_BATCH);
+        assertThat(sink.events.get(sink.events.size() - 1).getAmount()).isEqualTo(3 * AsyncGameEventLog.MAX_BATCH - 1);
+        assertThat(sink.flushes).isPositive();
+        assertThat(sink.closed).isTrue();
+        assertThat(underTest.getDropped()).isZero();
+    }
+
+    @Test
+    void fullBuffer_dropsEventsInsteadOfWaiting() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink() {
+            @Override
+            public void write(GameEvent event) throws IOException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(event);
+            }
+        };
+        AsyncGameEventLog underTest = new AsyncGameEventLog(sink, 2);
+        underTest.accept(GameEvent.street("default", 1, GameState.PRE_FLOP));
+        writing.await();
+
+        for (int i = 0; i < 5; i++) {
+            underTest.accept(GameEvent.street("default", 2, GameState.FLOP));
+        }
+        release.countDown();
+        underTest.close();
+
+        assertThat(underTest.getDropped()).isEqualTo(3);
+        assertThat(sink.events).hasSize(3);
+    }
+
+    @Test
+    void closedLog_dropsEvents() throws IOException {
+        AsyncGameEventLog underTest = new AsyncGameEventLog(new RecordingSink());
+        underTest.close();
+        underTest.close();
+
+        underTest.accept(GameEvent.street("default", 1, GameState.PRE_FLOP));
+
+        assertThat(underTest.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void failedWrite_isReportedByClose() {
+        AsyncGameEventLog underTest = new AsyncGameEventLog(new RecordingSink() {
+            @Override
+            public void flush() throws IOException {
+                throw new IOException("disk full");
+            }
+        });
+        underTest.accept(GameEvent.street("default", 1, GameState.PRE_FLOP));
+
+        assertThatThrownBy(underTest::close).isInstanceOf(IOException.class).hasMessage("disk full");
+    }
+
+    @Test
+    void failedWrite_dropsLaterEvents() throws Exception {
+        AsyncGameEventLog underTest = new AsyncGameEventLog(new RecordingSink() {
+            @Override
+            public void write(GameEvent event) throws IOException {
+                throw new IOException("disk full");
+            }
+        });
+        underTest.accept(GameEvent.street("default", 1, GameState.PRE_FLOP));
+        while (!underTest.isFailed()) {
+            Thread.sleep(1);
+        }
+
+        underTest.accept(GameEvent.street("default", 2, GameState.FLOP));
+
+        assertThat(underTest.getDropped()).isEqualTo(2);
+        assertThatThrownBy(underTest::close).isInstanceOf(IOException.class).hasMessage("disk full");
+    }
+
+    @Test
+    void sinkThrowing_breaksTheLogLikeAFailedWrite() throws Exception {
+        AsyncGameEventLog underTest = new AsyncGameEventLog(new RecordingSink() {
+            @Override
+            public void write(GameEvent event) {
+                throw new IllegalStateException("sink broken");
+            }
+        });
+        underTest.accept(GameEvent.street("default", 1, GameState.PRE_FLOP));
+        while (!underTest.isFailed()) {
+            Thread.sleep(1);
+        }
+
+        underTest.accept(GameEvent.street("default", 2, GameState.FLOP));
+
+        assertThat(underTest.getDropped()).isEqualTo(2);
+        assertThatThrownBy(underTest::close).isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static class RecordingSink implements GameEventSink {
+
+        private final List<GameEvent> events = new ArrayList<>();
+        private int flushes;
+        private boolean closed;
+
+        @Override
+        public void write(GameEvent event) throws IOException {
+            events.add(event);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sap.ase.poker.data.events;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.events.ActionApplied;
+import com.sap.ase.poker.model.events.HandStarted;
+import com.sap.ase.poker.model.events.PlayerJoined;
+import com.sap.ase.poker.model.events.ShowdownResolved;
+import com.sap.ase.poker.model.events.StreetDealt;
+import com.sap.ase.poker.model.events.TableEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class GameEventTranslatorTest {
+
+    private final List<GameEvent> log = new ArrayList<>();
+
+    private final GameEventTranslator underTest = new GameEventTranslator(log::add);
+
+    @Test
+    void accept_logsOneLinePerFact() {
+        Map<String, Integer> payouts = new LinkedHashMap<>();
+        payouts.put("02", 30);
+        payouts.put("01", 10);
+
+        underTest.accept(new PlayerJoined("t", 1, "01", "Batman", 100));
+        underTest.accept(new HandStarted("t", 2, List.of("01", "02")));
+        underTest.accept(new ActionApplied("t", 3, "01", "raise", GameState.PRE_FLOP, 20));
+        underTest.accept(new StreetDealt("t", 4, GameState.FLOP, List.of()));
+        underTest.accept(new ShowdownResolved("t", 5, List.of("02"), List.of(), payouts));
+        underTest.accept(new TableEvent("t", 6) { });
+
+        assertThat(log).extracting(GameEvent::getType, GameEvent::getTimestamp, GameEvent::getPlayerId,
+                GameEvent::getAction, GameEvent::getState, GameEvent::getAmount).containsExactly(
+                tuple(GameEvent.Type.PLAYER_JOINED, 1L, "01", null, null, 100),
+                tuple(GameEvent.Type.STREET, 2L, null, null, GameState.PRE_FLOP, 0),
+                tuple(GameEvent.Type.ACTION, 3L, "01", "raise", GameState.PRE_FLOP, 20),
+                tuple(GameEvent.Type.STREET, 4L, null, null, GameState.FLOP, 0),
+                tuple(GameEvent.Type.WINNER, 5L, "02", null, null, 30),
+                tuple(GameEvent.Type.WINNER, 5L, "01", null, null, 10),
+                tuple(GameEvent.Type.STREET, 5L, null, null, GameState.ENDED, 0));
+        assertThat(log).extracting(GameEvent::getTableId).containsOnly("t");
+        assertThat(log.get(0).getPlayerName()).isEqualTo("Batman");
+    }
+}
@@ -0,0 +1,63 @@
+package com.sap.ase.poker.data.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.ase.poker.model.GameState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_putsOneObjectPerLine() throws IOException {
+        Path file = directory.resolve("logs/events.jsonl");
+        try (JsonLinesSink underTest = JsonLinesSink.toFile(file)) {
+            underTest.write(GameEvent.playerJoined("table-1", 1000, "01", "Bat\"man", 100));
+            underTest.write(GameEvent.action("table-1", 1001, "01", "raise", GameState.FLOP, 20));
+            underTest.write(GameEvent.street("table-1", 1002, GameState.TURN));
+            underTest.write(GameEvent.winner("table-1", 1003, "01", 40));
+            underTest.flush();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(4);
+        JsonNode joined = objectMapper.readTree(lines.get(0));
+        assertThat(joined.get("type").asText()).isEqualTo("PLAYER_JOINED");
+        assertThat(joined.get("name").asText()).isEqualTo("Bat\"man");
+        assertThat(joined.get("amount").asInt()).isEqualTo(100);
+        JsonNode action = objectMapper.readTree(lines.get(1));
+        assertThat(action.get("timestamp").asLong()).isEqualTo(1001);
+        assertThat(action.get("table").asText()).isEqualTo("table-1");
+        assertThat(action.get("player").asText()).isEqualTo("01");
+        assertThat(action.get("action").asText()).isEqualTo("raise");
+        assertThat(action.get("state").asText()).isEqualTo("FLOP");
+        JsonNode street = objectMapper.readTree(lines.get(2));
+        assertThat(street.has("player")).isFalse();
+        assertThat(street.has("amount")).isFalse();
+        assertThat(objectMapper.readTree(lines.get(3)).get("type").asText()).isEqualTo("WINNER");
+    }
+
+    @Test
+    void reopenedFile_isAppendedTo() throws IOException {
+        Path file = directory.resolve("events.jsonl");
+        for (int run = 0; run < 2; run++) {
+            try (JsonLinesSink underTest = JsonLinesSink.toFile(file)) {
+                underTest.write(GameEvent.street("default", run, GameState.PRE_FLOP));
+            }
+        }
+
+        assertThat(Files.readAllLines(file)).hasSize(2);
+    }
+}
@@ -0,0 +1,208 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HandHistoryReaderTest {
+
+    static final long DAY = 24 * 60 * 60 * 1000;
+
+    @TempDir
+    Path directory;
+
+    // al raises and bob calls before the flop, carol folds in the given state, al wins
+    static HandRecord hand(long handNumber, long startedAt, GameState carolFolds) {
+        List<Card> cards = List.of(Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.ACE, Suit.HEARTS));
+        return new HandRecord("table-1", handNumber, startedAt,
+                List.of(new HandRecord.Seat("al", "Al", 100, cards), new HandRecord.Seat("bob", "Bob", 100, cards),
+                        new HandRecord.Seat("carol", "Carol", 100, cards)),
+                List.of(new HandRecord.Action(0, GameState.PRE_FLOP, HandRecord.Action.Type.RAISE, 10),
+                        new HandRecord.Action(1, GameState.PRE_FLOP, HandRecord.Action.Type.CALL, 0),
+                        new HandRecord.Action(2, carolFolds, HandRecord.Action.Type.FOLD, 0)),
+                List.of(Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.THREE, Suit.CLUBS),
+                        Card.of(Kind.NINE, Suit.HEARTS)),
+                List.of(20, 0, 0));
+    }
+
+    // the single segment of a new hand history directory
+    static Path write(Path historyDirectory, HandRecord... hands) throws IOException {
+        try (HandHistoryWriter writer = new HandHistoryWriter(historyDirectory)) {
+            for (HandRecord hand : hands) {
+                writer.accept(hand);
+            }
+        }
+        return HandHistoryWriter.segments(historyDirectory).get(0);
+    }
+
+    @Test
+    void forEach_visitsEveryHandOfEverySegment() throws IOException {
+        Path first = write(directory.resolve("1"), hand(1, 0, GameState.PRE_FLOP), hand(2, 0, GameState.FLOP));
+        Path second = write(directory.resolve("2"), hand(3, 0, GameState.TURN));
+        List<Long> handNumbers = new ArrayList<>();
+
+        long matched = new HandHistoryReader(List.of(first, second))
+                .forEach(HandFilters.all(), cursor -> handNumbers.add(cursor.getHandNumber()));
+
+        assertThat(matched).isEqualTo(3);
+        assertThat(handNumbers).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void cursor_exposesFieldsOfRecord() throws IOException {
+        HandRecord hand = hand(7, 12345, GameState.RIVER);
+        List<HandRecord> records = new ArrayList<>();
+
+        new HandHistoryReader(List.of(write(directory.resolve("1"), hand))).forEach(HandFilters.all(), cursor -> {
+            assertThat(cursor.getTableId()).isEqualTo("table-1");
+            assertThat(cursor.getStartedAt()).isEqualTo(12345);
+            assertThat(cursor.getSeats()).isEqualTo(3);
+            assertThat(cursor.getPlayerId(1)).isEqualTo("bob");
+            assertThat(cursor.getName(2)).isEqualTo("Carol");
+            assertThat(cursor.getStack(0)).isEqualTo(100);
+            assertThat(cursor.getPayout(0)).isEqualTo(20);
+            assertThat(cursor.getActions()).isEqualTo(3);
+            assertThat(cursor.getActionSeat(2)).isEqualTo(2);
+            assertThat(cursor.getActionState(2)).isEqualTo(GameState.RIVER);
+            assertThat(cursor.getActionType(0)).isEqualTo(HandRecord.Action.Type.RAISE);
+            assertThat(cursor.getActionAmount(0)).isEqualTo(10);
+            assertThat(cursor.getBoardSize()).isEqualTo(3);
+            records.add(cursor.toRecord());
+        });
+
+        assertThat(records).singleElement().usingRecursiveComparison().isEqualTo(hand);
+    }
+
+    @Test
+    void cursor_handlesBigHands() throws IOException {
+        List<HandRecord.Seat> seats = new ArrayList<>();
+        List<HandRecord.Action> actions = new ArrayList<>();
+        List<Integer> payouts = new ArrayList<>();
+        for (int seat = 0; seat < 20; seat++) {
+            seats.add(new HandRecord.Seat("player-" + seat, "Player " + seat, 100, List.of()));
+            payouts.add(seat);
+        }
+        for (int action = 0; action < 100; action++) {
+            actions.add(new HandRecord.Action(action % 20, GameState.FLOP, HandRecord.Action.Type.CHECK, 0));
+        }
+        HandRecord big = new HandRecord("table-1", 1, 0, seats, actions, List.of(), payouts);
+        Path file = write(directory.resolve("1"), hand(1, 0, GameState.FLOP), big, hand(3, 0, GameState.FLOP));
+        List<Integer> seatCounts = new ArrayList<>();
+
+        new HandHistoryReader(List.of(file)).forEach(HandFilters.all(), cursor -> seatCounts.add(cursor.getSeats()));
+
+        assertThat(seatCounts).containsExactly(3, 20, 3);
+    }
+
+    @Test
+    void filters_selectMatchingHands() throws IOException {
+        Path file = write(directory.resolve("1"), hand(1, 0, GameState.PRE_FLOP),
+                hand(2, DAY, GameState.FLOP), hand(3, 2 * DAY, GameState.FLOP));
+        HandHistoryReader underTest = new HandHistoryReader(List.of(file));
+
+        assertThat(underTest.forEach(HandFilters.player("carol"), cursor -> { })).isEqualTo(3);
+        assertThat(underTest.forEach(HandFilters.player("car"), cursor -> { })).isZero();
+        assertThat(underTest.forEach(HandFilters.player("dave"), cursor -> { })).isZero();
+        assertThat(underTest.forEach(HandFilters.player("bab"), cursor -> { })).isZero();
+        assertThat(underTest.forEach(HandFilters.foldIn(GameState.FLOP), cursor -> { })).isEqualTo(2);
+        assertThat(underTest.forEach(HandFilters.foldIn(GameState.RIVER), cursor -> { })).isZero();
+        assertThat(underTest.forEach(HandFilters.startedBetween(Instant.ofEpochMilli(DAY),
+                Instant.ofEpochMilli(2 * DAY)), cursor -> { })).isEqualTo(1);
+    }
+
+    @Test
+    void stats_countHandsWinsAndVpip() throws IOException {
+        Path file = write(directory.resolve("1"), hand(1, 0, GameState.PRE_FLOP), hand(2, 0, GameState.FLOP));
+        HandHistoryStats stats = new HandHistoryStats();
+
+        new HandHistoryReader(List.of(file)).forEach(HandFilters.all(), stats);
+
+        assertThat(stats.getPlayerIds()).containsExactly("al", "bob", "carol");
+        assertThat(stats.getHands("al")).isEqualTo(2);
+        assertThat(stats.getWins("al")).isEqualTo(2);
+        assertThat(stats.getWinRate("bob")).isZero();
+        assertThat(stats.getVpip("bob")).isEqualTo(1.0);
+        assertThat(stats.getVpip("carol")).isZero();
+        assertThat(stats.getWinRate("nobody")).isZero();
+    }
+
+    @Test
+    void stats_growWithTable() {
+        HandRecord.Seat seat = new HandRecord.Seat("al", "Al", 100, List.of());
+        List<HandRecord.Seat> seats = new ArrayList<>();
+        List<Integer> payouts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            seats.add(seat);
+            payouts.add(0);
+        }
+        HandHistoryStats stats = new HandHistoryStats();
+
+        HandRecord hand = new HandRecord("table-1", 1, 0, seats, List.of(), List.of(), payouts);
+        ByteBuffer buffer = ByteBuffer.allocate(1024).put(HandRecordCodec.HEADER);
+        buffer = new HandRecordCodec().encode(hand, buffer);
+        buffer.flip();
+        HandCursor cursor = new HandCursor(buffer);
+        cursor.next();
+        stats.accept(cursor);
+
+        assertThat(stats.getHands("al")).isEqualTo(12);
+    }
+
+    @Test
+    void reader_rejectsOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other.bin"), new byte[]{'P', 'K', 'H', 'H', 1});
+        Path empty = Files.write(directory.resolve("empty.bin"), new byte[0]);
+
+        assertThatThrownBy(() -> new HandHistoryReader(List.of(file))).isInstanceOf(CorruptHandHistoryException.class);
+        assertThatThrownBy(() -> new HandHistoryReader(List.of(empty))).isInstanceOf(CorruptHandHistoryException.class);
+    }
+
+    @Test
+    void forEach_rejectsBrokenRecords() throws IOException {
+        Path file = write(directory.resolve("1"), hand(1, 0, GameState.FLOP));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[HandRecordCodec.HEADER.length]--;
+        Path wrongLength = Files.write(directory.resolve("length.bin"), bytes);
+        byte[] overlong = Arrays.copyOf(HandRecordCodec.HEADER, HandRecordCodec.HEADER.length + 10);
+        Arrays.fill(overlong, HandRecordCodec.HEADER.length, overlong.length, (byte) 0x80);
+        Path varint = Files.write(directory.resolve("varint.bin"), overlong);
+
+        for (Path broken : List.of(wrongLength, varint)) {
+            HandHistoryReader underTest = new HandHistoryReader(List.of(broken));
+            assertThatThrownBy(() -> underTest.forEach(HandFilters.all(), cursor -> { }))
+                    .isInstanceOf(CorruptHandHistoryException.class);
+        }
+    }
+
+    @Test
+    void forEach_endsAtRecordCutOffByCrash() throws IOException {
+        Path file = write(directory.resolve("1"), hand(1, 0, GameState.FLOP), hand(2, 0, GameState.FLOP));
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = Files.write(directory.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 1));
+        byte[] cutLength = Arrays.copyOf(HandRecordCodec.HEADER, HandRecordCodec.HEADER.length + 1);
+        cutLength[HandRecordCodec.HEADER.length] = (byte) 0x80;
+        Path noLength = Files.write(directory.resolve("length.bin"), cutLength);
+        List<Long> handNumbers = new ArrayList<>();
+
+        long matched = new HandHistoryReader(List.of(truncated, noLength, file))
+                .forEach(HandFilters.all(), cursor -> handNumbers.add(cursor.getHandNumber()));
+
+        assertThat(matched).isEqualTo(3);
+        assertThat(handNumbers).containsExactly(1L, 1L, 2L);
+    }
+}
@@ -0,0 +1,146 @@
+package com.sap.ase.poker.data.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HandHistoryWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void close_writesEveryAcceptedHand() throws IOException {
+        HandHistoryWriter underTest = new HandHistoryWriter(directory);
+        for (int i = 0; i < 3 * HandHistoryWriter.MAX_BATCH; i++) {
+            underTest.accept(HandRecordCodecTest.hand(i));
+        }
+        underTest.close();
+
+        List<HandRecord> hands = read(directory);
+        assertThat(underTest.getDropped()).isZero();
+        assertThat(hands).hasSize(3 * HandHistoryWriter.MAX_BATCH);
+        assertThat(hands.get(hands.size() - 1).getHandNumber()).isEqualTo(3 * HandHistoryWriter.MAX_BATCH - 1);
+    }
+
+    @Test
+    void reopenedDirectory_continuesInNewSegment() throws IOException {
+        try (HandHistoryWriter first = new HandHistoryWriter(directory)) {
+            first.accept(HandRecordCodecTest.hand(1));
+        }
+        try (HandHistoryWriter second = new HandHistoryWriter(directory)) {
+            second.accept(HandRecordCodecTest.hand(2));
+        }
+
+        assertThat(HandHistoryWriter.segments(directory)).extracting(segment -> segment.getFileName().toString())
+                .containsExactly("hands-00000001.bin", "hands-00000002.bin");
+        assertThat(read(directory)).extracting(HandRecord::getHandNumber).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void fullSegment_isRotated() throws IOException, InterruptedException {
+        try (HandHistoryWriter underTest = new HandHistoryWriter(directory, 1, HandHistoryWriter.DEFAULT_CAPACITY)) {
+            for (int i = 0; i < 3; i++) {
+                underTest.accept(HandRecordCodecTest.hand(i));
+                // one hand per batch
+                while (read(directory).size() <= i) {
+                    Thread.sleep(1);
+                }
+            }
+        }
+
+        assertThat(HandHistoryWriter.segments(directory)).hasSize(3);
+        assertThat(read(directory)).extracting(HandRecord::getHandNumber).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void fullQueue_dropsHands() throws IOException {
+        int total = 10_000;
+        HandHistoryWriter underTest = new HandHistoryWriter(directory, HandHistoryWriter.DEFAULT_SEGMENT_BYTES, 1);
+        for (int i = 0; i < total; i++) {
+            underTest.accept(HandRecordCodecTest.hand(i));
+        }
+        underTest.close();
+
+        assertThat(underTest.getDropped()).isPositive();
+        assertThat(read(directory).size() + underTest.getDropped()).isEqualTo(total);
+    }
+
+    @Test
+    void failedWrite_dropsLaterHandsAndIsRethrownOnClose() throws IOException, InterruptedException {
+        HandHistoryWriter underTest = new HandHistoryWriter(directory.resolve("history"), 1, 1);
+        // the second segment can't be created, so the first rotation fails
+        Files.createDirectory(directory.resolve("history/hands-00000002.bin"));
+        underTest.accept(HandRecordCodecTest.hand(1));
+        while (read(directory.resolve("history")).isEmpty()) {
+            Thread.sleep(1);
+        }
+        underTest.accept(HandRecordCodecTest.hand(2));
+        while (!underTest.isFailed()) {
+            Thread.sleep(1);
+        }
+        underTest.accept(HandRecordCodecTest.hand(3));
+
+        assertThatThrownBy(underTest::close).isInstanceOf(FileAlreadyExistsException.class);
+        assertThat(underTest.getDropped()).isEqualTo(2);
+        assertThat(read(directory.resolve("history"))).extracting(HandRecord::getHandNumber).containsExactly(1L);
+    }
+
+    @Test
+    void handThatCantBeEncoded_breaksTheWriterLikeAFailedWrite() throws IOException, InterruptedException {
+        HandHistoryWriter underTest = new HandHistoryWriter(directory);
+        underTest.accept(new HandRecord(null, 1, 0, List.of(), List.of(), List.of(), List.of()));
+        while (!underTest.isFailed()) {
+            Thread.sleep(1);
+        }
+        underTest.accept(HandRecordCodecTest.hand(2));
+
+        assertThatThrownBy(underTest::close).isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(NullPointerException.class);
+        assertThat(underTest.getDropped()).isEqualTo(2);
+        assertThat(read(directory)).isEmpty();
+    }
+
+    @Test
+    void constructor_rejectsInvalidSegmentSize() {
+        assertThatThrownBy(() -> new HandHistoryWriter(directory, 0, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HandHistoryWriter(directory, HandHistoryWriter.MAX_SEGMENT_BYTES + 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void accept_afterClose_isRejected() throws IOException {
+        HandHistoryWriter underTest = new HandHistoryWriter(directory);
+        underTest.close();
+        underTest.close();
+
+        assertThatThrownBy(() -> underTest.accept(HandRecordCodecTest.hand(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<HandRecord> read(Path directory) throws IOException {
+        List<HandRecord> hands = new ArrayList<>();
+        for (Path segment : HandHistoryWriter.segments(directory)) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+            byte[] header = new byte[HandRecordCodec.HEADER.length];
+            buffer.get(header);
+            assertThat(Arrays.equals(header, HandRecordCodec.HEADER)).isTrue();
+            while (buffer.hasRemaining()) {
+                hands.add(HandRecordCodec.decode(buffer));
+            }
+        }
+        return hands;
+    }
+}
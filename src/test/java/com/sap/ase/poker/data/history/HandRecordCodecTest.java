@@ -0,0 +1,98 @@
+package com.sap.ase.poker.data.history;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HandRecordCodecTest {
+
+    static HandRecord hand(long handNumber) {
+        return new HandRecord("table-1", handNumber, 1_700_000_000_000L,
+                List.of(new HandRecord.Seat("al-capone", "Al Capone", 100,
+                                List.of(Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.ACE, Suit.HEARTS))),
+                        new HandRecord.Seat("stu-ungar", "Stü Ungar", 40,
+                                List.of(Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS)))),
+                List.of(new HandRecord.Action(0, GameState.PRE_FLOP, HandRecord.Action.Type.RAISE, 40),
+                        new HandRecord.Action(1, GameState.PRE_FLOP, HandRecord.Action.Type.CALL, -3),
+                        new HandRecord.Action(0, GameState.FLOP, HandRecord.Action.Type.CHECK, 0),
+                        new HandRecord.Action(1, GameState.RIVER, HandRecord.Action.Type.FOLD, Integer.MIN_VALUE)),
+                List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.NINE, Suit.HEARTS),
+                        Card.of(Kind.THREE, Suit.SPADES)),
+                List.of(80, 0));
+    }
+
+    @Test
+    void encode_decode_roundTrip() {
+        ByteBuffer buffer = new HandRecordCodec().encode(hand(300), ByteBuffer.allocate(1024));
+        buffer.flip();
+
+        HandRecord decoded = HandRecordCodec.decode(buffer);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(hand(300));
+    }
+
+    @Test
+    void encode_growsTooSmallBuffer() {
+        HandRecordCodec codec = new HandRecordCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        for (int i = 0; i < 100; i++) {
+            buffer = codec.encode(hand(i), buffer);
+        }
+        buffer.flip();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(HandRecordCodec.decode(buffer).getHandNumber()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void encode_isCompact() {
+        ByteBuffer buffer = new HandRecordCodec().encode(hand(1), ByteBuffer.allocate(1024));
+
+        assertThat(buffer.position()).isLessThan(100);
+    }
+
+    @Test
+    void decode_rejectsTruncatedRecord() {
+        ByteBuffer buffer = new HandRecordCodec().encode(hand(1), ByteBuffer.allocate(1024));
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+
+        assertThatThrownBy(() -> HandRecordCodec.decode(buffer)).isInstanceOf(CorruptHandHistoryException.class);
+    }
+
+    @Test
+    void decode_rejectsWrongLength() {
+        ByteBuffer buffer = new HandRecordCodec().encode(hand(1), ByteBuffer.allocate(1024));
+        buffer.put(0, (byte) (buffer.get(0) - 1));
+        buffer.flip();
+
+        assertThatThrownBy(() -> HandRecordCodec.decode(buffer)).isInstanceOf(CorruptHandHistoryException.class);
+    }
+
+    @Test
+    void decode_rejectsOverlongVarint() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.put((byte) 0x80);
+        }
+        buffer.flip();
+
+        assertThatThrownBy(() -> HandRecordCodec.decode(buffer)).isInstanceOf(CorruptHandHistoryException.class);
+    }
+
+    @Test
+    void newRecord_needsPayoutPerSeat() {
+        assertThatThrownBy(() -> new HandRecord("table-1", 1, 0, List.of(), List.of(), List.of(), List.of(10)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
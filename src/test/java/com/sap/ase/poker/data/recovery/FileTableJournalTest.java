@@ -0,0 +1,178 @@
+package com.sap.ase.poker.data.recovery;
+
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileTableJournalTest {
+
+    @TempDir
+    Path directory;
+
+    static TableState state(long version) {
+        List<Card> cards = List.of(Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.KING, Suit.HEARTS));
+        Map<String, Integer> contributions = new LinkedHashMap<>();
+        contributions.put("02", 20);
+        contributions.put("01", 10);
+        HandRecord hand = new HandRecord("table-1", 3, 1234,
+                List.of(new HandRecord.Seat("01", "Batman", 100, cards), new HandRecord.Seat("02", "Superman", 100, cards)),
+                List.of(new HandRecord.Action(0, GameState.PRE_FLOP, HandRecord.Action.Type.RAISE, 10)),
+                List.of(), List.of(0, 0));
+        return new TableState(version, GameState.FLOP,
+                List.of(new TableState.PlayerState("01", "Batman", 90, 10, true, cards),
+                        new TableState.PlayerState("02", "Superman", 80, 20, false, cards)),
+                1, new PokerCardsSupplier().get().subList(10, 52), cards, Map.of("01", 10, "02", 20), 20, 30,
+                contributions, Set.of("02"), 1, 1, 7, "", cards, hand);
+    }
+
+    static List<TableCommand> commands() {
+        return List.of(TableCommand.join("01", "Batman", 250), TableCommand.start(),
+                TableCommand.start(new PokerCardsSupplier().get(), 1234), TableCommand.action("raise", 20),
+                TableCommand.deal("01"), TableCommand.nextPlayer(), TableCommand.clearBets());
+    }
+
+    @Test
+    void newJournal_recoversNothing() throws IOException {
+        FileTableJournal underTest = new FileTableJournal(directory.resolve("table-1"), 10);
+
+        assertThat(underTest.getRecoveredState()).isEmpty();
+        assertThat(underTest.getRecoveredCommands()).isEmpty();
+        assertThat(underTest.isSnapshotDue()).isFalse();
+        assertThat(underTest.getCreator()).isEmpty();
+        underTest.close();
+    }
+
+    @Test
+    void creator_isKeptForNextStart() throws IOException {
+        new FileTableJournal(directory, 10, "01").close();
+
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            assertThat(underTest.getCreator()).contains("01");
+        }
+    }
+
+    @Test
+    void appendedCommands_areRecovered() throws IOException {
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            commands().forEach(underTest::append);
+        }
+
+        FileTableJournal recovered = new FileTableJournal(directory, 10);
+
+        assertThat(recovered.getRecoveredState()).isEmpty();
+        assertThat(recovered.getRecoveredCommands()).usingRecursiveComparison().isEqualTo(commands());
+        recovered.close();
+    }
+
+    @Test
+    void snapshot_replacesCommandsBeforeIt() throws IOException {
+        try (FileTableJournal underTest = new FileTableJournal(directory, 2)) {
+            underTest.append(TableCommand.join("01", "Batman", 100));
+            assertThat(underTest.isSnapshotDue()).isFalse();
+            underTest.append(TableCommand.join("02", "Superman", 100));
+            assertThat(underTest.isSnapshotDue()).isTrue();
+            underTest.snapshot(state(5));
+            assertThat(underTest.isSnapshotDue()).isFalse();
+            underTest.append(TableCommand.action("check", 0));
+        }
+
+        FileTableJournal recovered = new FileTableJournal(directory, 2);
+
+        assertThat(recovered.getRecoveredState()).get().usingRecursiveComparison().isEqualTo(state(5));
+        assertThat(recovered.getRecoveredCommands()).usingRecursiveComparison()
+                .isEqualTo(List.of(TableCommand.action("check", 0)));
+        assertThat(recovered.isSnapshotDue()).isFalse();
+        recovered.close();
+    }
+
+    @Test
+    void commandsOlderThanSnapshot_areSkipped() throws IOException {
+        // as if the server crashed after the snapshot was written but before the log was emptied
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            underTest.append(TableCommand.join("01", "Batman", 100));
+            byte[] log = Files.readAllBytes(directory.resolve(FileTableJournal.LOG_FILE));
+            underTest.snapshot(state(1));
+            Files.write(directory.resolve(FileTableJournal.LOG_FILE), log);
+        }
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            assertThat(underTest.getRecoveredCommands()).isEmpty();
+            underTest.append(TableCommand.join("02", "Superman", 100));
+        }
+
+        FileTableJournal recovered = new FileTableJournal(directory, 10);
+
+        assertThat(recovered.getRecoveredCommands()).extracting(TableCommand::getPlayerId).containsExactly("02");
+        recovered.close();
+    }
+
+    @Test
+    void commandCutOffByCrash_isDropped() throws IOException {
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            underTest.append(TableCommand.join("01", "Batman", 100));
+            underTest.append(TableCommand.join("02", "Superman", 100));
+        }
+        Path log = directory.resolve(FileTableJournal.LOG_FILE);
+        byte[] bytes = Files.readAllBytes(log);
+        Files.write(log, Arrays.copyOf(bytes, bytes.length - 1));
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            assertThat(underTest.getRecoveredCommands()).extracting(TableCommand::getPlayerId).containsExactly("01");
+            underTest.append(TableCommand.join("03", "Hulk", 100));
+        }
+
+        FileTableJournal recovered = new FileTableJournal(directory, 10);
+
+        assertThat(recovered.getRecoveredCommands()).extracting(TableCommand::getPlayerId).containsExactly("01", "03");
+        recovered.close();
+    }
+
+    @Test
+    void brokenSnapshot_isRejected() throws IOException {
+        try (FileTableJournal underTest = new FileTableJournal(directory, 10)) {
+            underTest.snapshot(state(1));
+        }
+        Path snapshot = directory.resolve(FileTableJournal.SNAPSHOT_FILE);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2]++;
+        Files.write(snapshot, bytes);
+
+        assertThatThrownBy(() -> new FileTableJournal(directory, 10)).isInstanceOf(CorruptJournalException.class);
+        Files.write(snapshot, new byte[3]);
+        assertThatThrownBy(() -> new FileTableJournal(directory, 10)).isInstanceOf(CorruptJournalException.class);
+    }
+
+    @Test
+    void delete_removesJournal() throws IOException {
+        Path table = directory.resolve("table-1");
+        FileTableJournal underTest = new FileTableJournal(table, 10, "01");
+        underTest.append(TableCommand.join("01", "Batman", 100));
+        underTest.snapshot(state(1));
+
+        underTest.delete();
+
+        assertThat(table).doesNotExist();
+        assertThatThrownBy(() -> underTest.append(TableCommand.nextPlayer())).isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void snapshotInterval_mustBePositive() {
+        assertThatThrownBy(() -> new FileTableJournal(directory, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
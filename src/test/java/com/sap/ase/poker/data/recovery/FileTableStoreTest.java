@@ -0,0 +1,61 @@
+package com.sap.ase.poker.data.recovery;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileTableStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void open_keepsJournalOfTableForNextStart() throws IOException {
+        try (FileTableStore underTest = new FileTableStore(directory.resolve("tables"), 10)) {
+            assertThat(underTest.getTableIds()).isEmpty();
+            underTest.create("table-2", "01").append(TableCommand.join("01", "Batman", 100));
+            underTest.open("default");
+        }
+        Files.writeString(directory.resolve("tables/notes.txt"), "not a table");
+
+        try (FileTableStore underTest = new FileTableStore(directory.resolve("tables"), 10)) {
+            assertThat(underTest.getTableIds()).containsExactly("default", "table-2");
+            TableJournal journal = underTest.open("table-2");
+            assertThat(journal.getRecoveredCommands()).hasSize(1);
+            assertThat(journal.getCreator()).contains("01");
+            assertThat(underTest.open("default").getCreator()).isEmpty();
+        }
+    }
+
+    @Test
+    void delete_letsGoOfTheJournal() throws IOException {
+        try (FileTableStore underTest = new FileTableStore(directory.resolve("tables"), 10)) {
+            TableJournal retired = underTest.create("table-2", "01");
+            underTest.create("table-3", "01");
+            retired.delete();
+
+            assertThat(underTest.getOpenTableIds()).containsExactly("table-3");
+            assertThat(underTest.getTableIds()).containsExactly("table-3");
+        }
+    }
+
+    @Test
+    void none_keepsNothing() {
+        TableStore underTest = TableStore.none();
+        TableJournal journal = underTest.create("table-1", "01");
+        journal.append(TableCommand.nextPlayer());
+        journal.snapshot(FileTableJournalTest.state(1));
+        journal.delete();
+
+        assertThat(underTest.getTableIds()).isEmpty();
+        assertThat(journal.isSnapshotDue()).isFalse();
+        assertThat(journal.getCreator()).isEmpty();
+        assertThat(journal.getRecoveredState()).isEmpty();
+        assertThat(journal.getRecoveredCommands()).isEmpty();
+    }
+}
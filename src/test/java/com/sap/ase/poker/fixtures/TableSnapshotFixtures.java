@@ -0,0 +1,27 @@
+package com.sap.ase.poker.fixtures;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.TableSnapshot;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+public class TableSnapshotFixtures {
+    public static final String EPOCH = "epoch";
+    // of the tables below
+    public static final String VERSION_TAG = EPOCH + "-1";
+
+    public static TableSnapshot emptyTable() {
+        return tableWith(GameState.OPEN);
+    }
+
+    public static TableSnapshot tableWith(GameState state, Player... players) {
+        return new TableSnapshot(EPOCH, 1, state,
+                Arrays.stream(players).map(PlayerSnapshot::new).collect(Collectors.toList()),
+                null, 0, Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap(),
+                null, Collections.emptyList());
+    }
+}
@@ -2,6 +2,8 @@ package com.sap.ase.poker.model.deck;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class CardTest {
@@ -54,4 +56,48 @@ class CardTest {
         assertThat(kingDiamond.equals(sevenDiamond)).isFalse();
         assertThat(kingDiamond.equals(kingHearts)).isFalse();
     }
+
+    @Test
+    void fromIndex_returnsEqualCardForEveryIndex() {
+        for (Card card : new PokerCardsSupplier().get()) {
+            assertThat(Card.fromIndex(card.getIndex())).isEqualTo(card);
+            assertThat(card.getIndex()).isBetween(0, Card.DECK_SIZE - 1);
+        }
+    }
+
+    @Test
+    void fromIndex_returnsSameInstance() {
+        Card kingDiamond = new Card(Kind.KING, Suit.DIAMONDS);
+
+        assertThat(Card.fromIndex(kingDiamond.getIndex())).isSameAs(Card.fromIndex(kingDiamond.getIndex()));
+    }
+
+    @Test
+    void toMask_setsOneBitPerCard() {
+        Card kingDiamond = new Card(Kind.KING, Suit.DIAMONDS);
+        Card twoClubs = new Card(Kind.TWO, Suit.CLUBS);
+
+        long mask = Card.toMask(Arrays.asList(kingDiamond, twoClubs));
+
+        assertThat(Long.bitCount(mask)).isEqualTo(2);
+        assertThat(mask & kingDiamond.getMask()).isNotZero();
+        assertThat(mask & twoClubs.getMask()).isNotZero();
+    }
+
+    @Test
+    void of_returnsSharedInstanceEqualToNewCard() {
+        Card kingDiamond = Card.of(Kind.KING, Suit.DIAMONDS);
+
+        assertThat(kingDiamond).isSameAs(Card.of(Kind.KING, Suit.DIAMONDS));
+        assertThat(kingDiamond).isEqualTo(new Card(Kind.KING, Suit.DIAMONDS));
+        assertThat(kingDiamond).isSameAs(Card.fromIndex(kingDiamond.getIndex()));
+    }
+
+    @Test
+    void pokerCardsSupplier_returnsSharedInstances() {
+        assertThat(new PokerCardsSupplier().get()).hasSize(Card.DECK_SIZE);
+        for (Card card : new PokerCardsSupplier().get()) {
+            assertThat(card).isSameAs(Card.of(card.getKind(), card.getSuit()));
+        }
+    }
 }
\ No newline at end of file
@@ -4,7 +4,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -62,4 +66,52 @@ class DeckTest {
         deck.shuffle();
         assertThat(deck.getCards().size()).isEqualTo(EXPECTED_DECK_SIZE);
     }
-}
\ No newline at end of file
+
+    @Test
+    void drawShouldFollowOrderReturnedByShuffler() {
+        List<Card> reversed = new ArrayList<>(new PokerCardsSupplier().get());
+        Collections.reverse(reversed);
+        Mockito.when(shuffler.shuffle(Mockito.anyList())).thenReturn(reversed);
+
+        deck.shuffle();
+
+        assertThat(deck.draw()).isEqualTo(reversed.get(0));
+        assertThat(deck.getCards()).isEqualTo(reversed.subList(1, EXPECTED_DECK_SIZE));
+    }
+
+    @Test
+    void shuffleInPlaceShouldKeepEveryCardOnce() {
+        deck = new Deck(new PokerCardsSupplier().get(), new RandomCardShuffler());
+
+        for (int hand = 0; hand < 3; hand++) {
+            deck.shuffle();
+            Set<Card> drawn = new HashSet<>();
+            IntStream.range(0, EXPECTED_DECK_SIZE).forEach(drawAmounts -> drawn.add(deck.draw()));
+
+            assertThat(drawn).containsExactlyInAnyOrderElementsOf(new PokerCardsSupplier().get());
+        }
+    }
+
+    @Test
+    void restoreShouldDrawGivenCardsUntilNextShuffle() {
+        deck = new Deck(new PokerCardsSupplier().get(), new RandomCardShuffler());
+        List<Card> remaining = List.of(Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.TWO, Suit.CLUBS));
+
+        deck.restore(remaining);
+
+        assertThat(deck.getCards()).containsExactlyElementsOf(remaining);
+        assertThat(deck.draw()).isEqualTo(remaining.get(0));
+        assertThat(deck.draw()).isEqualTo(remaining.get(1));
+        assertThatThrownBy(() -> deck.draw()).isInstanceOf(OutOfCardsException.class);
+        deck.shuffle();
+        assertThat(deck.getCards()).hasSize(EXPECTED_DECK_SIZE);
+    }
+
+    @Test
+    void restoreShouldRejectMoreCardsThanTheDeckHas() {
+        List<Card> tooMany = new ArrayList<>(new PokerCardsSupplier().get());
+        tooMany.add(Card.of(Kind.ACE, Suit.SPADES));
+
+        assertThatThrownBy(() -> deck.restore(tooMany)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
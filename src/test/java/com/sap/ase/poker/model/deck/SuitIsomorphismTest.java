@@ -0,0 +1,114 @@
+package com.sap.ase.poker.model.deck;
+
+import com.sap.ase.poker.model.rules.HandEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SuitIsomorphismTest {
+
+    private static final long ACE_KING_HEARTS = mask(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.KING, Suit.HEARTS));
+    private static final long FLOP = mask(Card.of(Kind.QUEEN, Suit.HEARTS), Card.of(Kind.SEVEN, Suit.CLUBS),
+            Card.of(Kind.TWO, Suit.DIAMONDS));
+
+    @Test
+    void everySuitPermutation_hasTheSameRepresentative() {
+        long[] representative = SuitIsomorphism.canonical(ACE_KING_HEARTS, FLOP);
+        long index = SuitIsomorphism.index(ACE_KING_HEARTS, FLOP);
+
+        List<int[]> permutations = allPermutations();
+        for (int[] permutation : permutations) {
+            long hole = SuitIsomorphism.permute(ACE_KING_HEARTS, permutation);
+            long board = SuitIsomorphism.permute(FLOP, permutation);
+
+            assertThat(SuitIsomorphism.canonical(hole, board)).containsExactly(representative);
+            assertThat(SuitIsomorphism.index(hole, board)).isEqualTo(index);
+            assertThat(HandEvaluator.evaluate(hole | board)).isEqualTo(HandEvaluator.evaluate(ACE_KING_HEARTS | FLOP));
+        }
+        assertThat(permutations).hasSize(SuitIsomorphism.PERMUTATIONS);
+        assertThat(SuitIsomorphism.permutations(ACE_KING_HEARTS, FLOP)).isEqualTo(24);
+    }
+
+    @Test
+    void index_tellsApartWhichSuitTheHoleCardsShare() {
+        long flushDraw = SuitIsomorphism.index(ACE_KING_HEARTS, FLOP);
+        long otherSuitOnBoard = SuitIsomorphism.index(ACE_KING_HEARTS,
+                mask(Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.HEARTS), Card.of(Kind.TWO, Suit.DIAMONDS)));
+        long swappedHoleAndBoard = SuitIsomorphism.index(
+                mask(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.QUEEN, Suit.HEARTS)),
+                mask(Card.of(Kind.KING, Suit.HEARTS), Card.of(Kind.SEVEN, Suit.CLUBS), Card.of(Kind.TWO, Suit.DIAMONDS)));
+
+        assertThat(flushDraw).isNotEqualTo(otherSuitOnBoard).isNotEqualTo(swappedHoleAndBoard);
+    }
+
+    @Test
+    void holeCards_fallInto169Classes() {
+        Set<Long> classes = new HashSet<>();
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                classes.add(SuitIsomorphism.index(1L << first | 1L << second, 0));
+            }
+        }
+
+        assertThat(classes).hasSize(169);
+    }
+
+    @Test
+    void flops_fallInto1755ClassesOfTheirPermutationCount() {
+        Map<Long, Integer> flops = new HashMap<>();
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                for (int third = second + 1; third < Card.DECK_SIZE; third++) {
+                    flops.merge(SuitIsomorphism.canonical(1L << first | 1L << second | 1L << third), 1, Integer::sum);
+                }
+            }
+        }
+
+        assertThat(flops).hasSize(1755);
+        flops.forEach((flop, count) -> assertThat(SuitIsomorphism.permutations(flop)).isEqualTo(count));
+    }
+
+    @Test
+    void permutations_dividesBySuitsThatLookAlike() {
+        assertThat(SuitIsomorphism.permutations(0)).isEqualTo(1);
+        assertThat(SuitIsomorphism.permutations(ACE_KING_HEARTS)).isEqualTo(4);
+        assertThat(SuitIsomorphism.permutations(
+                mask(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.ACE, Suit.SPADES)))).isEqualTo(6);
+        assertThat(SuitIsomorphism.permutations(ACE_KING_HEARTS, FLOP)).isEqualTo(24);
+    }
+
+    @Test
+    void index_rejectsCardsThatCantBeDealt() {
+        assertThatThrownBy(() -> SuitIsomorphism.index(ACE_KING_HEARTS, ACE_KING_HEARTS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SuitIsomorphism.index(ACE_KING_HEARTS, (1L << 13) - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long mask(Card... cards) {
+        return Card.toMask(List.of(cards));
+    }
+
+    private static List<int[]> allPermutations() {
+        List<int[]> permutations = new ArrayList<>();
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a != b && a != c && b != c && d >= 0 && d < 4 && d != a && d != b && d != c) {
+                        permutations.add(new int[]{a, b, c, d});
+                    }
+                }
+            }
+        }
+        return permutations;
+    }
+}
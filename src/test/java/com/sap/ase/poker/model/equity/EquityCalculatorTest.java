@@ -0,0 +1,333 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class EquityCalculatorTest {
+
+    private static final List<Card> ACES = List.of(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.ACE, Suit.SPADES));
+    private static final List<Card> KINGS = List.of(Card.of(Kind.KING, Suit.HEARTS), Card.of(Kind.KING, Suit.SPADES));
+
+    private final EquityCalculator underTest = new EquityCalculator();
+
+    @Test
+    void sample_acesAgainstKingsPreflop() {
+        Equity equity = underTest.sample(List.of(ACES, KINGS), List.of(), List.of(), 200_000, Duration.ofSeconds(5));
+
+        assertThat(equity.getShowdowns()).isEqualTo(200_000);
+        assertThat(equity.getPlayers()).isEqualTo(2);
+        assertThat(equity.getEquity(0)).isCloseTo(0.82, within(0.01));
+        assertThat(equity.getEquity(0) + equity.getEquity(1)).isCloseTo(1.0, within(1e-9));
+        assertThat(equity.getWins(0) + equity.getTies(0) + equity.getLosses(0)).isEqualTo(200_000);
+    }
+
+    @Test
+    void sample_completeBoard_hasOnlyOneOutcome() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.NINE, Suit.SPADES));
+
+        Equity equity = underTest.sample(List.of(ACES, KINGS), board, List.of(), 1001, Duration.ofSeconds(5));
+
+        assertThat(equity.getShowdowns()).isEqualTo(1001);
+        assertThat(equity.getWinProbability(1)).isEqualTo(1.0);
+        assertThat(equity.getLosses(0)).isEqualTo(1001);
+        assertThat(equity.getEquity(0)).isZero();
+    }
+
+    @Test
+    void sample_sameHandsOnBoardPlay_splitThePot() {
+        List<Card> board = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.JACK, Suit.CLUBS),
+                Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+
+        Equity equity = underTest.sample(List.of(ACES, KINGS), board, List.of(), 10, Duration.ofSeconds(5));
+
+        assertThat(equity.getTieProbability(0)).isEqualTo(1.0);
+        assertThat(equity.getTies(1)).isEqualTo(10);
+        assertThat(equity.getEquity(0)).isEqualTo(0.5);
+        assertThat(equity.getEquity(1)).isEqualTo(0.5);
+    }
+
+    @Test
+    void sample_threeWayTie_splitsIntoThirds() {
+        List<Card> board = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.JACK, Suit.CLUBS),
+                Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+        List<Card> deuces = List.of(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.TWO, Suit.SPADES));
+
+        Equity equity = new EquityCalculator(new ForkJoinPool(2))
+                .sample(List.of(ACES, KINGS, deuces), board, List.of(), 3, Duration.ofSeconds(5));
+
+        assertThat(equity.getShowdowns()).isEqualTo(3);
+        assertThat(equity.getEquity(2)).isCloseTo(1.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void sample_deadCardsAreNotDealt() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.TWO, Suit.CLUBS));
+        List<Card> dead = List.of(Card.of(Kind.ACE, Suit.CLUBS), Card.of(Kind.ACE, Suit.DIAMONDS));
+
+        Equity equity = underTest.sample(List.of(ACES, KINGS), board, dead, 10_000, Duration.ofSeconds(5));
+
+        // aces can't improve any more, kings have won already
+        assertThat(equity.getWinProbability(1)).isEqualTo(1.0);
+    }
+
+    @Test
+    void sample_stopsWhenBudgetIsUsedUp() {
+        Equity equity = underTest.sample(List.of(ACES, KINGS), List.of(), List.of(), 1000, Duration.ZERO);
+
+        assertThat(equity.getShowdowns()).isZero();
+        assertThat(equity.getEquity(0)).isZero();
+        assertThat(equity.getWinProbability(0)).isZero();
+    }
+
+    @Test
+    void sample_capsIterations() {
+        Equity equity = underTest.sample(List.of(ACES, KINGS), List.of(), List.of(), Long.MAX_VALUE,
+                Duration.ofMillis(50));
+
+        assertThat(equity.getShowdowns()).isLessThanOrEqualTo(EquityCalculator.MAX_ITERATIONS);
+    }
+
+    @Test
+    void enumerate_turn_countsEveryRiverCard() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.TWO, Suit.CLUBS));
+
+        Equity equity = underTest.enumerate(List.of(ACES, KINGS), board, List.of());
+
+        // the aces need one of the two aces left in 44 cards
+        assertThat(equity.isExact()).isTrue();
+        assertThat(equity.getShowdowns()).isEqualTo(44);
+        assertThat(equity.getWins(0)).isEqualTo(2);
+        assertThat(equity.getWins(1)).isEqualTo(42);
+        assertThat(equity.getTies(0)).isZero();
+    }
+
+    @Test
+    void enumerate_flop_countsEveryTurnAndRiver() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS));
+        List<Card> dead = List.of(Card.of(Kind.TWO, Suit.CLUBS));
+
+        Equity first = new EquityCalculator(new ForkJoinPool(3)).enumerate(List.of(ACES, KINGS), board, dead);
+        Equity second = underTest.enumerate(List.of(ACES, KINGS), board, dead);
+
+        assertThat(first.getShowdowns()).isEqualTo(44 * 43 / 2);
+        assertThat(first.getWins(0)).isEqualTo(second.getWins(0));
+        assertThat(first.getTies(1)).isEqualTo(second.getTies(1));
+        assertThat(first.getEquity(1)).isEqualTo(second.getEquity(1));
+    }
+
+    @Test
+    void enumerate_river_hasOneShowdown() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+
+        Equity equity = underTest.enumerate(List.of(ACES, KINGS), board, List.of());
+
+        assertThat(equity.isExact()).isTrue();
+        assertThat(equity.getShowdowns()).isEqualTo(1);
+        assertThat(equity.getWinProbability(0)).isEqualTo(1.0);
+    }
+
+    @Test
+    void enumerate_preflop_isRejected() {
+        assertThatThrownBy(() -> underTest.enumerate(List.of(ACES, KINGS), List.of(), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void calculate_enumeratesFromTheFlopOn() {
+        List<Card> flop = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS));
+
+        Equity equity = underTest.calculate(List.of(ACES, KINGS), flop, List.of(), 10, Duration.ofSeconds(1));
+
+        assertThat(equity.isExact()).isTrue();
+        assertThat(equity.getShowdowns()).isEqualTo(45 * 44 / 2);
+    }
+
+    @Test
+    void calculate_samplesBeforeTheFlop() {
+        Equity equity = underTest.calculate(List.of(ACES, KINGS), List.of(), List.of(), 10, Duration.ofSeconds(1));
+
+        assertThat(equity.isExact()).isFalse();
+        assertThat(equity.getShowdowns()).isEqualTo(10);
+    }
+
+    @Test
+    void sampleAgainstRandomHands_acesPreflop() {
+        Equity equity = underTest.sampleAgainstRandomHands(ACES, 1, List.of(), 200_000, Duration.ofSeconds(5));
+
+        assertThat(equity.isExact()).isFalse();
+        assertThat(equity.getPlayers()).isEqualTo(2);
+        assertThat(equity.getShowdowns()).isEqualTo(200_000);
+        assertThat(equity.getEquity(0)).isCloseTo(0.85, within(0.01));
+    }
+
+    @Test
+    void sampleAgainstRandomHands_moreOpponentsWinMoreOften() {
+        List<Card> flop = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS));
+
+        Equity headsUp = underTest.sampleAgainstRandomHands(ACES, 1, flop, 100_000, Duration.ofSeconds(5));
+        Equity fourWay = underTest.sampleAgainstRandomHands(ACES, 3, flop, 100_000, Duration.ofSeconds(5));
+
+        assertThat(fourWay.getPlayers()).isEqualTo(4);
+        assertThat(fourWay.getEquity(0)).isLessThan(headsUp.getEquity(0) - 0.1);
+        assertThat(fourWay.getEquity(0) + fourWay.getEquity(1) + fourWay.getEquity(2) + fourWay.getEquity(3))
+                .isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void sampleAgainstRandomHands_completeBoard_dealsOnlyOpponents() {
+        // a royal flush on the board, every opponent ties
+        List<Card> board = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.JACK, Suit.CLUBS),
+                Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+
+        Equity equity = underTest.sampleAgainstRandomHands(ACES, 2, board, 100, Duration.ofSeconds(5));
+
+        assertThat(equity.getTieProbability(0)).isEqualTo(1.0);
+        assertThat(equity.getEquity(0)).isCloseTo(1.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void sampleAgainstRandomHands_rejectsInvalidDeals() {
+        Duration budget = Duration.ofSeconds(1);
+
+        assertThatThrownBy(() -> underTest.sampleAgainstRandomHands(ACES, 0, List.of(), 10, budget))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.sampleAgainstRandomHands(ACES.subList(0, 1), 1, List.of(), 10, budget))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 50 cards left, 23 opponents and the board would need 51
+        assertThatThrownBy(() -> underTest.sampleAgainstRandomHands(ACES, 23, List.of(), 10, budget))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("23 opponents");
+    }
+
+    @Test
+    void enumerateAgainstRandomHands_onTheRiver_addsUpEveryHandTheOpponentCanHold() {
+        List<Card> board = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.NINE, Suit.SPADES));
+        long[] known = {Card.toMask(ACES)};
+        int[] deck = EquityCalculator.remainingDeck(known, Card.toMask(board), board.size(), 0);
+        long wins = 0;
+        long ties = 0;
+        for (int first = 0; first < deck.length; first++) {
+            for (int second = first + 1; second < deck.length; second++) {
+                List<Card> opponent = List.of(Card.fromIndex(deck[first]), Card.fromIndex(deck[second]));
+                Equity showdown = underTest.enumerate(List.of(ACES, opponent), board, List.of());
+                wins += showdown.getWins(0);
+                ties += showdown.getTies(0);
+            }
+        }
+
+        Equity equity = underTest.enumerateAgainstRandomHands(ACES, 1, board);
+
+        assertThat(equity.isExact()).isTrue();
+        assertThat(equity.getShowdowns()).isEqualTo(45 * 44 / 2);
+        assertThat(equity.getWins(0)).isEqualTo(wins);
+        assertThat(equity.getTies(0)).isEqualTo(ties);
+    }
+
+    @Test
+    void enumerateAgainstRandomHands_dealsEveryOpponentAroundTheOthers() {
+        // a royal flush on the board, every opponent ties
+        List<Card> board = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.JACK, Suit.CLUBS),
+                Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+
+        Equity equity = underTest.calculateAgainstRandomHands(ACES, 2, board, 100, Duration.ofSeconds(5));
+
+        assertThat(equity.isExact()).isTrue();
+        assertThat(equity.getShowdowns()).isEqualTo(990 * 903);
+        assertThat(equity.getTieProbability(0)).isEqualTo(1.0);
+        assertThat(equity.getEquity(2)).isCloseTo(1.0 / 3, within(1e-9));
+    }
+
+    @Test
+    void calculateAgainstRandomHands_walksTheTurnAndSamplesTheFlop() {
+        List<Card> flop = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS));
+        List<Card> turn = List.of(flop.get(0), flop.get(1), flop.get(2), Card.of(Kind.KING, Suit.CLUBS));
+
+        Equity onTheTurn = underTest.calculateAgainstRandomHands(ACES, 1, turn, 10_000, Duration.ofSeconds(5));
+        Equity onTheFlop = underTest.calculateAgainstRandomHands(ACES, 1, flop, 10_000, Duration.ofSeconds(5));
+
+        assertThat(onTheTurn.isExact()).isTrue();
+        assertThat(onTheTurn.getShowdowns()).isEqualTo(1035 * 44);
+        assertThat(onTheTurn.getEquity(0) + onTheTurn.getEquity(1)).isCloseTo(1.0, within(1e-9));
+        assertThat(onTheFlop.isExact()).isFalse();
+        assertThat(onTheFlop.getShowdowns()).isEqualTo(10_000);
+    }
+
+    @Test
+    void countDeals_multipliesHandsAndRunouts() {
+        assertThat(EquityCalculator.countDeals(46, 1, 1)).isEqualTo(1035 * 44);
+        assertThat(EquityCalculator.countDeals(45, 2, 0)).isEqualTo(990 * 903);
+        assertThat(EquityCalculator.countDeals(47, 1, 2)).isGreaterThan(EquityCalculator.MAX_ENUMERATED_SHOWDOWNS);
+        assertThat(EquityCalculator.countDeals(50, 9, 5)).isGreaterThan(EquityCalculator.MAX_ENUMERATED_SHOWDOWNS);
+    }
+
+    @Test
+    void close_shutsDownThePool() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+
+        new EquityCalculator(pool).close();
+
+        assertThat(pool.isShutdown()).isTrue();
+    }
+
+    @Test
+    void sample_needsTwoHands() {
+        assertThatThrownBy(() -> underTest.sample(List.of(ACES), List.of(), List.of(), 10, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sample_needsTwoCardsPerHand() {
+        List<Card> oneCard = List.of(Card.of(Kind.TWO, Suit.HEARTS));
+
+        assertThatThrownBy(() -> underTest.sample(List.of(ACES, oneCard), List.of(), List.of(), 10,
+                Duration.ofSeconds(1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void remainingDeck_rejectsInvalidBoard() {
+        long[] hands = {Card.toMask(ACES), Card.toMask(KINGS)};
+
+        assertThatThrownBy(() -> EquityCalculator.remainingDeck(hands, 0b111111L, 6, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EquityCalculator.remainingDeck(hands, 0b1L, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void remainingDeck_rejectsCardsInTwoPlaces() {
+        long aces = Card.toMask(ACES);
+
+        assertThatThrownBy(() -> EquityCalculator.remainingDeck(new long[]{aces, aces}, 0, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EquityCalculator.remainingDeck(new long[]{aces, 1L}, 0, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void remainingDeck_leavesOutUsedCards() {
+        int[] deck = EquityCalculator.remainingDeck(new long[]{Card.toMask(ACES), Card.toMask(KINGS)}, 0, 0,
+                Card.of(Kind.TWO, Suit.CLUBS).getMask());
+
+        assertThat(deck).hasSize(Card.DECK_SIZE - 5)
+                .doesNotContain(Card.of(Kind.ACE, Suit.HEARTS).getIndex(), Card.of(Kind.TWO, Suit.CLUBS).getIndex());
+    }
+}
@@ -0,0 +1,37 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.SuitIsomorphism;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreflopEquityGeneratorTest {
+
+    @Test
+    void canonicalBoards_groupEveryBoardByItsSuits() {
+        Map<Long, Integer> boards = PreflopEquityGenerator.canonicalBoards();
+
+        assertThat(boards).hasSize(134_459);
+        assertThat(boards.values().stream().mapToLong(Integer::longValue).sum()).isEqualTo(2_598_960);
+        boards.forEach((board, weight) -> assertThat(weight).isEqualTo(SuitIsomorphism.permutations(board)));
+    }
+
+    @Test
+    void tally_splitsBoardsIntoTasks() {
+        Map<Long, Integer> boards = Map.of(0b11111L, 4, 0b11111L << 20, 1, 0b10101L << 30, 3);
+        PreflopTally expected = new PreflopTally();
+        boards.forEach(expected::record);
+
+        PreflopTally tally = PreflopEquityGenerator.tally(new ForkJoinPool(2), boards);
+
+        for (int hand = 0; hand < StartingHands.CLASSES; hand += 7) {
+            for (int opponent = 0; opponent < StartingHands.CLASSES; opponent += 5) {
+                assertThat(tally.getWins(hand, opponent)).isEqualTo(expected.getWins(hand, opponent));
+                assertThat(tally.getTies(hand, opponent)).isEqualTo(expected.getTies(hand, opponent));
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class PreflopEquityTest {
+
+    private static final PreflopEquity underTest = PreflopEquity.load(PreflopEquity.RESOURCE);
+
+    private static final List<Card> ACES = List.of(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.ACE, Suit.SPADES));
+    private static final List<Card> KINGS = List.of(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.KING, Suit.DIAMONDS));
+
+    @Test
+    void shippedTable_knowsTheClassicMatchups() {
+        int aces = StartingHands.classOf(ACES.get(0), ACES.get(1));
+        int kings = StartingHands.classOf(KINGS.get(0), KINGS.get(1));
+
+        assertThat(underTest.getEquity(aces, kings)).isCloseTo(0.82, within(0.005));
+        assertThat(underTest.getEquity(aces, aces)).isCloseTo(0.5, within(0.0001));
+        assertThat(underTest.getTieProbability(aces, aces)).isGreaterThan(0.95);
+    }
+
+    @Test
+    void everyMatchup_addsUpToOne() {
+        for (int hand = 0; hand < StartingHands.CLASSES; hand++) {
+            for (int opponent = 0; opponent < StartingHands.CLASSES; opponent++) {
+                double total = underTest.getEquity(hand, opponent) + underTest.getEquity(opponent, hand);
+                assertThat(total).as("%s vs %s", StartingHands.name(hand), StartingHands.name(opponent))
+                        .isCloseTo(1, within(0.0001));
+            }
+        }
+    }
+
+    @Test
+    void lookup_isCloseToSimulationOfTheActualCards() {
+        Equity sampled = new EquityCalculator().sample(List.of(ACES, KINGS), List.of(), List.of(), 200_000,
+                Duration.ofSeconds(5));
+
+        Equity equity = underTest.lookup(ACES, KINGS);
+
+        assertThat(equity.isExact()).isFalse();
+        assertThat(equity.getShowdowns()).isZero();
+        assertThat(equity.getEquity(0)).isCloseTo(sampled.getEquity(0), within(0.01));
+        assertThat(equity.getEquity(1)).isCloseTo(sampled.getEquity(1), within(0.01));
+        assertThat(equity.getTieProbability(1)).isEqualTo(equity.getTieProbability(0));
+    }
+
+    @Test
+    void lookupAgainstRandomHand_isCloseToSimulation() {
+        Equity sampled = new EquityCalculator().sampleAgainstRandomHands(KINGS, 1, List.of(), 200_000,
+                Duration.ofSeconds(5));
+
+        Equity equity = underTest.lookupAgainstRandomHand(KINGS);
+
+        // a lookup plays out no showdowns
+        assertThat(equity.getShowdowns()).isZero();
+        assertThat(equity.getLosses(0)).isEqualTo(
+                PreflopEquity.RANDOM_HANDS * PreflopEquity.SCALE - equity.getWins(0) - equity.getTies(0));
+        assertThat(equity.getEquity(0)).isCloseTo(sampled.getEquity(0), within(0.01));
+        assertThat(equity.getEquity(0) + equity.getEquity(1)).isCloseTo(1.0, within(0.0001));
+        assertThat(underTest.lookupAgainstRandomHand(ACES).getEquity(0)).isCloseTo(0.85, within(0.005));
+    }
+
+    @Test
+    void lookupAgainstRandomHand_averagesTheLookupsOfEveryOpponentHand() {
+        List<Card> suitedConnectors = List.of(Card.of(Kind.SEVEN, Suit.CLUBS), Card.of(Kind.EIGHT, Suit.CLUBS));
+        for (List<Card> hand : List.of(ACES, KINGS, suitedConnectors)) {
+            long known = Card.toMask(hand);
+            double equity = 0;
+            for (int first = 0; first < Card.DECK_SIZE; first++) {
+                for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                    if ((known & (1L << first | 1L << second)) == 0) {
+                        equity += underTest.lookup(hand, List.of(Card.fromIndex(first), Card.fromIndex(second)))
+                                .getEquity(0);
+                    }
+                }
+            }
+
+            assertThat(underTest.lookupAgainstRandomHand(hand).getEquity(0))
+                    .isCloseTo(equity / PreflopEquity.RANDOM_HANDS, within(1e-9));
+        }
+    }
+
+    @Test
+    void lookupAgainstRandomHand_needsTwoCards() {
+        assertThatThrownBy(() -> underTest.lookupAgainstRandomHand(ACES.subList(0, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void lookup_needsTwoCardsPerHand() {
+        assertThatThrownBy(() -> underTest.lookup(ACES.subList(0, 1), KINGS))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.lookup(ACES, KINGS.subList(0, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writtenTable_readsBackTheSame() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        underTest.write(out);
+
+        PreflopEquity read = PreflopEquity.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(out.size()).isEqualTo(12 + 4 * StartingHands.CLASSES * StartingHands.CLASSES);
+        assertThat(read.getWinProbability(100, 3)).isEqualTo(underTest.getWinProbability(100, 3));
+        assertThat(read.getTieProbability(3, 100)).isEqualTo(underTest.getTieProbability(3, 100));
+    }
+
+    @Test
+    void read_rejectsOtherFiles() throws IOException {
+        assertThatThrownBy(() -> PreflopEquity.read(new ByteArrayInputStream(new byte[12])))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> PreflopEquity.read(header(PreflopEquity.VERSION + 1, StartingHands.CLASSES)))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> PreflopEquity.read(header(PreflopEquity.VERSION, 13)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void load_failsWithoutTheResource() {
+        assertThatThrownBy(() -> PreflopEquity.load("equity/missing.bin"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PreflopEquityGenerator");
+    }
+
+    private static ByteArrayInputStream header(int version, int classes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(PreflopEquity.MAGIC);
+        data.writeInt(version);
+        data.writeInt(classes);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+}
@@ -0,0 +1,94 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import com.sap.ase.poker.model.rules.HandEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreflopTallyTest {
+
+    @Test
+    void record_countsEveryPairOfCombinationsThatCanMeet() {
+        Random random = new Random(24);
+        for (int round = 0; round < 3; round++) {
+            long board = 0;
+            while (Long.bitCount(board) < 5) {
+                board |= 1L << random.nextInt(52);
+            }
+            PreflopTally underTest = new PreflopTally();
+            underTest.record(board, 2);
+
+            long[][] wins = new long[StartingHands.CLASSES][StartingHands.CLASSES];
+            long[][] ties = new long[StartingHands.CLASSES][StartingHands.CLASSES];
+            List<long[]> combos = liveCombos(board);
+            for (long[] hand : combos) {
+                for (long[] opponent : combos) {
+                    if ((hand[0] & opponent[0]) != 0) {
+                        continue;
+                    }
+                    if (hand[1] > opponent[1]) {
+                        wins[(int) hand[2]][(int) opponent[2]] += 2;
+                    } else if (hand[1] == opponent[1]) {
+                        ties[(int) hand[2]][(int) opponent[2]] += 2;
+                    }
+                }
+            }
+            for (int hand = 0; hand < StartingHands.CLASSES; hand++) {
+                for (int opponent = 0; opponent < StartingHands.CLASSES; opponent++) {
+                    assertThat(underTest.getWins(hand, opponent)).isEqualTo(wins[hand][opponent]);
+                    assertThat(underTest.getTies(hand, opponent)).isEqualTo(ties[hand][opponent]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void add_sumsCounts() {
+        PreflopTally first = new PreflopTally();
+        first.record(0b11111L, 1);
+        PreflopTally total = new PreflopTally();
+
+        total.add(first);
+        total.add(first);
+
+        assertThat(total.getWins(StartingHands.CLASSES - 1, 0)).isEqualTo(2 * first.getWins(StartingHands.CLASSES - 1, 0));
+        assertThat(total.getTies(0, 0)).isEqualTo(2 * first.getTies(0, 0));
+    }
+
+    @Test
+    void toPreflopEquity_turnsCountsIntoProbabilities() {
+        PreflopTally tally = new PreflopTally();
+        // royal flush in spades on the board, every showdown is a tie
+        long royalFlush = Card.toMask(List.of(Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.KING, Suit.SPADES),
+                Card.of(Kind.QUEEN, Suit.SPADES), Card.of(Kind.JACK, Suit.SPADES), Card.of(Kind.TEN, Suit.SPADES)));
+        tally.record(royalFlush, 3);
+
+        PreflopEquity equity = tally.toPreflopEquity();
+
+        assertThat(equity.getTieProbability(0, 168)).isEqualTo(1.0);
+        assertThat(equity.getWinProbability(0, 168)).isZero();
+        assertThat(equity.getEquity(168, 0)).isEqualTo(0.5);
+    }
+
+    // cards, value and class of every combination that doesn't use a card of the board
+    private static List<long[]> liveCombos(long board) {
+        List<long[]> combos = new ArrayList<>();
+        for (int first = 0; first < 52; first++) {
+            for (int second = first + 1; second < 52; second++) {
+                long cards = 1L << first | 1L << second;
+                if ((cards & board) == 0) {
+                    combos.add(new long[]{cards, HandEvaluator.evaluate(cards | board),
+                            StartingHands.classOf(first, second)});
+                }
+            }
+        }
+        return combos;
+    }
+}
@@ -0,0 +1,51 @@
+package com.sap.ase.poker.model.equity;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StartingHandsTest {
+
+    @Test
+    void classOf_ignoresSuitsAndOrderOfCards() {
+        int aceKingSuited = StartingHands.classOf(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.KING, Suit.HEARTS));
+
+        assertThat(StartingHands.classOf(Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS)))
+                .isEqualTo(aceKingSuited);
+        assertThat(StartingHands.name(aceKingSuited)).isEqualTo("AKs");
+        assertThat(StartingHands.name(StartingHands.classOf(Card.of(Kind.TEN, Suit.HEARTS),
+                Card.of(Kind.NINE, Suit.SPADES)))).isEqualTo("T9o");
+        assertThat(StartingHands.name(StartingHands.classOf(Card.of(Kind.TWO, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.SPADES)))).isEqualTo("22");
+    }
+
+    @Test
+    void everyCombination_fallsIntoOneOf169Classes() {
+        int[] combos = new int[StartingHands.CLASSES];
+        Set<String> names = new HashSet<>();
+        for (int first = 0; first < Card.DECK_SIZE; first++) {
+            for (int second = first + 1; second < Card.DECK_SIZE; second++) {
+                combos[StartingHands.classOf(first, second)]++;
+            }
+        }
+        for (int handClass = 0; handClass < StartingHands.CLASSES; handClass++) {
+            String name = StartingHands.name(handClass);
+            names.add(name);
+            int expected = name.length() == 2 ? 6 : name.endsWith("s") ? 4 : 12;
+            assertThat(combos[handClass]).as(name).isEqualTo(expected);
+        }
+        assertThat(names).hasSize(StartingHands.CLASSES);
+    }
+
+    @Test
+    void classOf_rejectsSameCardTwice() {
+        assertThatThrownBy(() -> StartingHands.classOf(7, 7)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
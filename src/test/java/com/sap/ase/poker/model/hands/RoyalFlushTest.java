@@ -1,5 +1,6 @@
 package com.sap.ase.poker.model.hands;
 
+import com.sap.ase.poker.fixtures.HandFixtures;
 import com.sap.ase.poker.model.InvalidHandException;
 import com.sap.ase.poker.model.deck.Card;
 import com.sap.ase.poker.model.deck.Kind;
@@ -47,6 +48,13 @@ class RoyalFlushTest {
         assertThatThrownBy(() -> new RoyalFlush(cards)).isInstanceOf(InvalidHandException.class);
     }
 
+    @Test
+    void constructor_shouldThrowException_IfOnlyStraightFlushPresent() {
+        List<Card> cards = HandFixtures.straightFlushWithKing();
+
+        assertThatThrownBy(() -> new RoyalFlush(cards)).isInstanceOf(InvalidHandException.class);
+    }
+
     @Test
     void constructor_shouldAddRoyalFlushToCards() {
         RoyalFlush result = new RoyalFlush(royalFlushOne);
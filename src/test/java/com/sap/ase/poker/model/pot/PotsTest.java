@@ -0,0 +1,147 @@
+package com.sap.ase.poker.model.pot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class PotsTest {
+
+    private final Pots underTest = new Pots(List.of("al", "pat", "bob"));
+
+    @Test
+    void getPots_equalContributions_giveOneMainPot() {
+        underTest.contribute("al", 20);
+        underTest.contribute("pat", 20);
+        underTest.contribute("bob", 20);
+
+        List<Pot> pots = underTest.getPots();
+
+        assertThat(pots).hasSize(1);
+        assertThat(pots.get(0).getAmount()).isEqualTo(60);
+        assertThat(pots.get(0).getLevel()).isEqualTo(20);
+        assertThat(pots.get(0).getEligiblePlayerIds()).containsExactly("al", "pat", "bob");
+    }
+
+    @Test
+    void getPots_allInForLess_givesSidePot() {
+        underTest.contribute("al", 30);
+        underTest.contribute("pat", 80);
+        underTest.contribute("bob", 80);
+
+        List<Pot> pots = underTest.getPots();
+
+        assertThat(pots).extracting(Pot::getAmount).containsExactly(90, 100);
+        assertThat(pots).extracting(Pot::getLevel).containsExactly(30, 80);
+        assertThat(pots.get(1).getEligiblePlayerIds()).containsExactlyInAnyOrder("pat", "bob");
+        assertThat(underTest.getTotal()).isEqualTo(190);
+    }
+
+    @Test
+    void getPots_foldedChipsStayInThePots() {
+        underTest.contribute("al", 50);
+        underTest.contribute("pat", 20);
+        underTest.contribute("bob", 40);
+        underTest.fold("al");
+
+        List<Pot> pots = underTest.getPots();
+
+        // al folded after putting in more than anybody else, the rest goes to the highest pot
+        assertThat(pots).extracting(Pot::getAmount).containsExactly(60, 50);
+        assertThat(pots.get(0).getEligiblePlayerIds()).containsExactly("bob", "pat");
+        assertThat(pots.get(1).getEligiblePlayerIds()).containsExactly("bob");
+    }
+
+    @Test
+    void getPots_withoutBets_givesEmptyPotForEverybody() {
+        List<Pot> pots = underTest.getPots();
+
+        assertThat(pots).hasSize(1);
+        assertThat(pots.get(0).getAmount()).isZero();
+        assertThat(pots.get(0).getEligiblePlayerIds()).hasSize(3);
+    }
+
+    @Test
+    void settle_paysMainAndSidePotToDifferentWinners() {
+        underTest.contribute("al", 30);
+        underTest.contribute("pat", 80);
+        underTest.contribute("bob", 80);
+
+        Map<String, Integer> payouts = underTest.settle(Map.of("al", 300, "pat", 200, "bob", 100));
+
+        assertThat(payouts).containsExactlyInAnyOrderEntriesOf(Map.of("al", 90, "pat", 100));
+    }
+
+    @Test
+    void settle_bestHandWinsEverythingItCovers() {
+        underTest.contribute("al", 30);
+        underTest.contribute("pat", 80);
+        underTest.contribute("bob", 80);
+
+        Map<String, Integer> payouts = underTest.settle(Map.of("al", 100, "pat", 300, "bob", 200));
+
+        assertThat(payouts).containsExactlyInAnyOrderEntriesOf(Map.of("pat", 190));
+    }
+
+    @Test
+    void settle_splitsTiesAndGivesOddChipsInSeatOrder() {
+        Pots pots = new Pots(List.of("al", "pat", "bob", "joe"));
+        pots.contribute("al", 25);
+        pots.contribute("pat", 25);
+        pots.contribute("bob", 25);
+        pots.contribute("joe", 25);
+        pots.fold("pat");
+
+        Map<String, Integer> payouts = pots.settle(Map.of("al", 100, "bob", 100, "joe", 100));
+
+        assertThat(payouts).containsExactlyInAnyOrderEntriesOf(Map.of("al", 34, "bob", 33, "joe", 33));
+    }
+
+    @Test
+    void settle_tieInMainPotOnly() {
+        underTest.contribute("al", 10);
+        underTest.contribute("pat", 30);
+        underTest.contribute("bob", 30);
+
+        Map<String, Integer> payouts = underTest.settle(Map.of("al", 200, "pat", 200, "bob", 100));
+
+        assertThat(payouts).containsExactlyInAnyOrderEntriesOf(Map.of("al", 15, "pat", 55));
+    }
+
+    @Test
+    void settle_needsValueOfEveryHandStillIn() {
+        underTest.fold("bob");
+
+        assertThatThrownBy(() -> underTest.settle(Map.of("al", 100)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void contribute_addsUpPerPlayer() {
+        underTest.contribute("al", 10);
+        underTest.contribute("al", 15);
+        underTest.contribute("joe", 5);
+
+        assertThat(underTest.getContribution("al")).isEqualTo(25);
+        assertThat(underTest.getContribution("joe")).isEqualTo(5);
+        assertThat(underTest.getContribution("nobody")).isZero();
+    }
+
+    @Test
+    void restoredPots_continueWhereTheOriginalWas() {
+        underTest.contribute("al", 30);
+        underTest.contribute("pat", 80);
+        underTest.contribute("bob", 80);
+        underTest.fold("bob");
+
+        Pots restored = new Pots(underTest.getContributions(), underTest.getFolded());
+
+        assertThat(restored.getContributions()).containsExactly(entry("al", 30), entry("pat", 80), entry("bob", 80));
+        assertThat(restored.getFolded()).containsExactly("bob");
+        assertThat(restored.getPots()).usingRecursiveComparison().isEqualTo(underTest.getPots());
+    }
+}
@@ -0,0 +1,130 @@
+package com.sap.ase.poker.model.rules;
+
+import com.sap.ase.poker.fixtures.HandFixtures;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.Suit;
+import com.sap.ase.poker.model.hands.Hand;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandEvaluatorTest {
+
+    private final HandRules handRules = new HandRules();
+
+    @Test
+    void evaluate_shouldFindCategoryOfEveryHand() {
+        assertThat(categoryOf(HandFixtures.highCardOfAce())).isEqualTo(HandEvaluator.HIGH_CARD);
+        assertThat(categoryOf(HandFixtures.pairOfSevens())).isEqualTo(HandEvaluator.PAIR);
+        assertThat(categoryOf(HandFixtures.twoPairsOfSevensAndAces())).isEqualTo(HandEvaluator.TWO_PAIRS);
+        assertThat(categoryOf(HandFixtures.threeOfAKindOfSevens())).isEqualTo(HandEvaluator.THREE_OF_A_KIND);
+        assertThat(categoryOf(HandFixtures.straightWithAce())).isEqualTo(HandEvaluator.STRAIGHT);
+        assertThat(categoryOf(HandFixtures.FlushWithKing())).isEqualTo(HandEvaluator.FLUSH);
+        assertThat(categoryOf(HandFixtures.fullHouseWithSevens())).isEqualTo(HandEvaluator.FULL_HOUSE);
+        assertThat(categoryOf(HandFixtures.fourOfAKindOfSevens())).isEqualTo(HandEvaluator.FOUR_OF_A_KIND);
+        assertThat(categoryOf(HandFixtures.straightFlushWithKing())).isEqualTo(HandEvaluator.STRAIGHT_FLUSH);
+        assertThat(categoryOf(HandFixtures.royalFlush())).isEqualTo(HandEvaluator.ROYAL_FLUSH);
+    }
+
+    @Test
+    void evaluate_shouldMatchRankOfHand() {
+        assertThat(categoryOf(HandFixtures.fullHouseWithAces()))
+                .isEqualTo(handRules.findBestHand(HandFixtures.fullHouseWithAces()).getRank());
+    }
+
+    @Test
+    void evaluate_shouldNotCountAceAsLowCardOfStraight() {
+        List<Card> cards = Arrays.asList(
+                new Card(Kind.ACE, Suit.DIAMONDS),
+                new Card(Kind.TWO, Suit.HEARTS),
+                new Card(Kind.THREE, Suit.CLUBS),
+                new Card(Kind.FOUR, Suit.SPADES),
+                new Card(Kind.FIVE, Suit.DIAMONDS),
+                new Card(Kind.NINE, Suit.HEARTS),
+                new Card(Kind.JACK, Suit.CLUBS));
+
+        assertThat(categoryOf(cards)).isEqualTo(HandEvaluator.HIGH_CARD);
+    }
+
+    @Test
+    void evaluate_shouldPreferFullHouseOverFlush() {
+        List<Card> cards = Arrays.asList(
+                new Card(Kind.SEVEN, Suit.HEARTS),
+                new Card(Kind.SEVEN, Suit.CLUBS),
+                new Card(Kind.SEVEN, Suit.SPADES),
+                new Card(Kind.TWO, Suit.HEARTS),
+                new Card(Kind.TWO, Suit.CLUBS),
+                new Card(Kind.NINE, Suit.HEARTS),
+                new Card(Kind.JACK, Suit.HEARTS));
+
+        assertThat(categoryOf(cards)).isEqualTo(HandEvaluator.FULL_HOUSE);
+    }
+
+    @Test
+    void evaluate_shouldUseHighestTripsOfTwoAsFullHouse() {
+        List<Card> sevensAndTwos = Arrays.asList(
+                new Card(Kind.SEVEN, Suit.HEARTS),
+                new Card(Kind.SEVEN, Suit.CLUBS),
+                new Card(Kind.SEVEN, Suit.SPADES),
+                new Card(Kind.TWO, Suit.HEARTS),
+                new Card(Kind.TWO, Suit.CLUBS),
+                new Card(Kind.TWO, Suit.SPADES),
+                new Card(Kind.JACK, Suit.HEARTS));
+        List<Card> sevensAndJacks = new ArrayList<>(sevensAndTwos.subList(0, 3));
+        sevensAndJacks.addAll(Arrays.asList(
+                new Card(Kind.JACK, Suit.CLUBS),
+                new Card(Kind.JACK, Suit.SPADES),
+                new Card(Kind.TWO, Suit.HEARTS),
+                new Card(Kind.THREE, Suit.HEARTS)));
+
+        assertThat(HandEvaluator.evaluate(sevensAndTwos)).isLessThan(HandEvaluator.evaluate(sevensAndJacks));
+    }
+
+    @Test
+    void evaluate_shouldFindFlushInEverySuit() {
+        for (Suit suit : Suit.values()) {
+            List<Card> cards = Arrays.asList(
+                    new Card(Kind.TWO, suit),
+                    new Card(Kind.FOUR, suit),
+                    new Card(Kind.SIX, suit),
+                    new Card(Kind.EIGHT, suit),
+                    new Card(Kind.TEN, suit));
+
+            assertThat(categoryOf(cards)).isEqualTo(HandEvaluator.FLUSH);
+        }
+    }
+
+    @Test
+    void evaluate_shouldOrderRandomHandsLikeHandCompareTo() {
+        Random random = new Random(42);
+        List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+
+        for (int i = 0; i < 5000; i++) {
+            Collections.shuffle(deck, random);
+            List<Card> first = new ArrayList<>(deck.subList(0, 7));
+            List<Card> second = new ArrayList<>(deck.subList(7, 14));
+
+            Hand firstHand = handRules.findBestHand(first);
+            Hand secondHand = handRules.findBestHand(second);
+            int firstValue = HandEvaluator.evaluate(first);
+            int secondValue = HandEvaluator.evaluate(second);
+
+            assertThat(HandEvaluator.category(firstValue)).isEqualTo(firstHand.getRank());
+            assertThat(Integer.signum(Integer.compare(firstValue, secondValue)))
+                    .as("%s vs %s", first, second)
+                    .isEqualTo(Integer.signum(firstHand.compareTo(secondHand)));
+        }
+    }
+
+    private int categoryOf(List<Card> cards) {
+        return HandEvaluator.category(HandEvaluator.evaluate(cards));
+    }
+}
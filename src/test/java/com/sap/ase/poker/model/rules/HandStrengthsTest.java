@@ -0,0 +1,76 @@
+package com.sap.ase.poker.model.rules;
+
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.Suit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandStrengthsTest {
+
+    private final HandStrengths underTest = new HandStrengths();
+
+    @Test
+    void everyStreet_ranksPlayersWithTheCardsSoFar() {
+        Random random = new Random(23);
+        for (int deal = 0; deal < 1000; deal++) {
+            List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+            Collections.shuffle(deck, random);
+            List<Card> first = deck.subList(0, 2);
+            List<Card> second = deck.subList(2, 4);
+            underTest.clear();
+            underTest.deal("01", first);
+            underTest.deal("02", second);
+            assertThat(underTest.getValue("01")).isEqualTo(HandStrengths.UNRANKED);
+
+            // the flop, then turn and river one card each
+            for (int boardSize = 3; boardSize <= 5; boardSize++) {
+                int dealt = boardSize == 3 ? 0 : boardSize - 1;
+                underTest.addToBoard(deck.subList(4 + dealt, 4 + boardSize));
+                List<Card> board = deck.subList(4, 4 + boardSize);
+                assertThat(underTest.getValue("01")).isEqualTo(HandEvaluator.evaluate(with(first, board)));
+                assertThat(underTest.getValue("02")).isEqualTo(HandEvaluator.evaluate(with(second, board)));
+            }
+            assertThat(underTest.getValues()).hasSize(2);
+        }
+    }
+
+    @Test
+    void dealingAgain_replacesHoleCards() {
+        List<Card> board = List.of(Card.of(Kind.SEVEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.SPADES));
+        underTest.deal("01", List.of(Card.of(Kind.ACE, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS)));
+        underTest.addToBoard(board);
+
+        underTest.deal("01", List.of(Card.of(Kind.SEVEN, Suit.DIAMONDS), Card.of(Kind.SEVEN, Suit.SPADES)));
+
+        assertThat(HandEvaluator.category(underTest.getValue("01"))).isEqualTo(HandEvaluator.FOUR_OF_A_KIND);
+    }
+
+    @Test
+    void clear_forgetsPlayersAndBoard() {
+        underTest.deal("01", List.of(Card.of(Kind.ACE, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS)));
+        underTest.addToBoard(List.of(Card.of(Kind.SEVEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.SPADES)));
+
+        underTest.clear();
+        underTest.deal("02", List.of(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.KING, Suit.HEARTS)));
+
+        assertThat(underTest.getValues()).isEqualTo(Map.of());
+        assertThat(underTest.getValue("01")).isEqualTo(HandStrengths.UNRANKED);
+    }
+
+    private static List<Card> with(List<Card> holeCards, List<Card> board) {
+        List<Card> cards = new ArrayList<>(holeCards);
+        cards.addAll(board);
+        return cards;
+    }
+}
@@ -5,17 +5,21 @@ import com.sap.ase.poker.fixtures.PlayerFixtures;
 import com.sap.ase.poker.model.Player;
 import com.sap.ase.poker.model.deck.Card;
 import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
 import com.sap.ase.poker.model.deck.Suit;
 import com.sap.ase.poker.model.hands.HighCard;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 
 @ExtendWith(MockitoExtension.class)
@@ -199,6 +203,162 @@ class WinnerRulesTest {
 
         assertThat(winners.getWinners()).contains(patWithTwoPairsOfKingsAndTens);
         assertThat(winners.getWinners()).doesNotContain(alWithTwoPairsOfTensAndThrees);
+        assertThat(winners.getHandValues().get(patWithTwoPairsOfKingsAndTens.getId()))
+                .isGreaterThan(winners.getHandValues().get(alWithTwoPairsOfTensAndThrees.getId()));
     }
 
+    @Test
+    void whenNoPlayersPresent_findWinners_shouldReturnNoWinningHand() {
+        Winners winners = underTest.findWinners(HandFixtures.communityCardsWithPairOfTens(), Collections.emptyList());
+
+        assertThat(winners.getWinners()).isEmpty();
+        assertThat(winners.getWinningHand()).isEmpty();
+    }
+
+    @Test
+    void findWinnerMasks_agreesWithFindWinners() {
+        int players = 6;
+        int deals = 500;
+        int[] boards = new int[deals * WinnerRules.BOARD_SIZE];
+        int[] holeCards = new int[deals * players * 2];
+        List<Winners> expected = new ArrayList<>();
+        Random random = new Random(7);
+        List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+        for (int deal = 0; deal < deals; deal++) {
+            Collections.shuffle(deck, random);
+            for (int i = 0; i < WinnerRules.BOARD_SIZE; i++) {
+                boards[deal * WinnerRules.BOARD_SIZE + i] = deck.get(i).getIndex();
+            }
+            List<Player> seated = new ArrayList<>();
+            for (int player = 0; player < players; player++) {
+                Player seat = new Player(String.valueOf(player), "Player " + player, 100);
+                seat.setHandCards(deck.subList(5 + 2 * player, 7 + 2 * player));
+                seated.add(seat);
+                holeCards[(deal * players + player) * 2] = deck.get(5 + 2 * player).getIndex();
+                holeCards[(deal * players + player) * 2 + 1] = deck.get(6 + 2 * player).getIndex();
+            }
+            expected.add(underTest.findWinners(deck.subList(0, 5), seated));
+        }
+
+        int[] masks = underTest.findWinnerMasks(players, boards, holeCards);
+
+        assertThat(underTest.parallelFindWinnerMasks(players, boards, holeCards)).isEqualTo(masks);
+        for (int deal = 0; deal < deals; deal++) {
+            int mask = 0;
+            for (Player winner : expected.get(deal).getWinners()) {
+                mask |= 1 << Integer.parseInt(winner.getId());
+            }
+            assertThat(masks[deal]).as("deal %d", deal).isEqualTo(mask);
+        }
+    }
+
+    @Test
+    void whenBoardPlays_findWinnerMasks_shouldSetAllPlayers() {
+        int[] royalFlush = indices(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.JACK, Suit.CLUBS),
+                Card.of(Kind.QUEEN, Suit.CLUBS), Card.of(Kind.KING, Suit.CLUBS), Card.of(Kind.ACE, Suit.CLUBS));
+        int[] holeCards = indices(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.THREE, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.SPADES), Card.of(Kind.THREE, Suit.SPADES));
+
+        assertThat(underTest.findWinnerMasks(2, royalFlush, holeCards)).containsExactly(0b11);
+    }
+
+    @Test
+    void withTrackedValues_findWinners_shouldMatchRankingFromScratch() {
+        Random random = new Random(42);
+        HandStrengths handStrengths = new HandStrengths();
+        for (int deal = 0; deal < 200; deal++) {
+            List<Card> deck = new ArrayList<>(new PokerCardsSupplier().get());
+            Collections.shuffle(deck, random);
+            List<Player> players = new ArrayList<>();
+            handStrengths.clear();
+            for (int i = 0; i < 4; i++) {
+                Player player = new Player(String.valueOf(i), "player " + i, 100);
+                player.setHandCards(deck.subList(2 * i, 2 * i + 2));
+                handStrengths.deal(player.getId(), player.getHandCards());
+                players.add(player);
+            }
+            List<Card> board = deck.subList(8, 13);
+            handStrengths.addToBoard(board);
+
+            Winners expected = underTest.findWinners(board, players);
+            Winners winners = underTest.findWinners(board, players, handStrengths.getValues());
+
+            assertThat(winners.getWinners()).isEqualTo(expected.getWinners());
+            assertThat(winners.getHandValues()).isEqualTo(expected.getHandValues());
+            assertThat(winners.getWinningHand().get().getCards())
+                    .isEqualTo(expected.getWinningHand().get().getCards());
+        }
+    }
+
+    @Test
+    void withoutTrackedValueOfPlayer_findWinners_shouldFail() {
+        Player alWithHighCard = PlayerFixtures.AL_CAPONE();
+        alWithHighCard.setHandCards(HandFixtures.highCardOfKing());
+
+        assertThatThrownBy(() -> underTest.findWinners(Collections.emptyList(), List.of(alWithHighCard),
+                Collections.emptyMap())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findWinnerMasks_shouldRejectMalformedBatches() {
+        assertThatThrownBy(() -> underTest.findWinnerMasks(0, new int[0], new int[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.findWinnerMasks(32, new int[0], new int[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.findWinnerMasks(2, new int[4], new int[4]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> underTest.parallelFindWinnerMasks(2, new int[5], new int[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+        // more players than one deck has hole cards for
+        assertThatThrownBy(() -> underTest.findWinnerMasks(24, new int[5], new int[48]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 to 23 players");
+    }
+
+    @Test
+    void findWinnerMasks_shouldRejectCardsOutsideTheDeck() {
+        int[] board = indices(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.FIVE, Suit.CLUBS),
+                Card.of(Kind.NINE, Suit.SPADES), Card.of(Kind.JACK, Suit.DIAMONDS), Card.of(Kind.KING, Suit.HEARTS));
+        int[] holeCards = indices(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.ACE, Suit.SPADES),
+                Card.of(Kind.QUEEN, Suit.HEARTS), Card.of(Kind.QUEEN, Suit.SPADES));
+
+        holeCards[3] = Card.DECK_SIZE;
+        assertThatThrownBy(() -> underTest.findWinnerMasks(2, board, holeCards))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Deal 0 has a card index outside the deck: 52");
+        // 1L << 64 would be the same bit as 1L << 0
+        holeCards[3] = 64;
+        assertThatThrownBy(() -> underTest.findWinnerMasks(2, board, holeCards))
+                .isInstanceOf(IllegalArgumentException.class);
+        board[0] = -1;
+        assertThatThrownBy(() -> underTest.parallelFindWinnerMasks(2, board, holeCards))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("-1");
+    }
+
+    @Test
+    void findWinnerMasks_shouldRejectCardsDealtTwice() {
+        Card aceOfHearts = Card.of(Kind.ACE, Suit.HEARTS);
+        int[] board = indices(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.FIVE, Suit.CLUBS),
+                Card.of(Kind.NINE, Suit.SPADES), Card.of(Kind.JACK, Suit.DIAMONDS), Card.of(Kind.KING, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.FIVE, Suit.CLUBS), Card.of(Kind.NINE, Suit.SPADES),
+                Card.of(Kind.JACK, Suit.DIAMONDS), aceOfHearts);
+        // the second deal gives the ace of hearts to the board and to the first player
+        int[] holeCards = indices(aceOfHearts, Card.of(Kind.ACE, Suit.SPADES),
+                Card.of(Kind.QUEEN, Suit.HEARTS), Card.of(Kind.QUEEN, Suit.SPADES),
+                aceOfHearts, Card.of(Kind.ACE, Suit.SPADES),
+                Card.of(Kind.QUEEN, Suit.HEARTS), Card.of(Kind.QUEEN, Suit.SPADES));
+
+        assertThatThrownBy(() -> underTest.findWinnerMasks(2, board, holeCards))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Deal 1 has " + aceOfHearts + " twice");
+        int[] pairOnBoard = indices(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.TWO, Suit.HEARTS),
+                Card.of(Kind.NINE, Suit.SPADES), Card.of(Kind.JACK, Suit.DIAMONDS), Card.of(Kind.KING, Suit.HEARTS));
+        assertThatThrownBy(() -> underTest.findWinnerMasks(2, pairOnBoard, Arrays.copyOf(holeCards, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static int[] indices(Card... cards) {
+        return Arrays.stream(cards).mapToInt(Card::getIndex).toArray();
+    }
 }
\ No newline at end of file
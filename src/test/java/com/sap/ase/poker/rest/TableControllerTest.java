@@ -4,8 +4,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sap.ase.poker.data.PlayerNamesRepository;
 import com.sap.ase.poker.dto.BetRequestDto;
 import com.sap.ase.poker.dto.GetTableResponseDto;
+import com.sap.ase.poker.fixtures.TableSnapshotFixtures;
 import com.sap.ase.poker.model.GameState;
 import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.equity.EquityCalculator;
+import com.sap.ase.poker.model.equity.PreflopEquity;
+import com.sap.ase.poker.service.TableRegistry;
 import com.sap.ase.poker.service.TableService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -16,13 +20,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
-import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest
@@ -48,15 +55,26 @@ public class TableControllerTest {
     @MockBean
     PlayerNamesRepository playerNamesRepository;
 
+    @MockBean
+    TableRegistry tableRegistry;
+
+    @MockBean
+    TableUpdates tableUpdates;
+
+    @MockBean
+    EquityCalculator equityCalculator;
+
+    @MockBean
+    PreflopEquity preflopEquity;
+
     @Test
     void getTable_returnsGetTableResponseDtoWithTableStatus() throws Exception {
         Principal mockPrincipal = Mockito.mock(Principal.class);
         Mockito.when(mockPrincipal.getName()).thenReturn(ALICE_ID);
 
-        Mockito.when(tableService.getPlayers()).thenReturn(Arrays.asList(
+        Mockito.when(tableService.getSnapshot()).thenReturn(TableSnapshotFixtures.tableWith(GameState.FLOP,
                 new Player(ALICE_ID, "Alice", 100),
                 new Player("bob", "Bob", 100)));
-        Mockito.when(tableService.getState()).thenReturn(GameState.FLOP);
 
         MockHttpServletResponse response = mockMvc.perform(get(PATH).principal(mockPrincipal))
                 .andExpect(status().isOk()).andReturn().getResponse();
@@ -66,6 +84,54 @@ public class TableControllerTest {
         assertThat(result.getPlayers()).hasSize(2);
         assertThat(result.getState()).isEqualTo(GameState.FLOP.getValue());
     }
+    @Test
+    void getTable_returnsVersionAsETag() throws Exception {
+        Principal mockPrincipal = Mockito.mock(Principal.class);
+        Mockito.when(mockPrincipal.getName()).thenReturn(ALICE_ID);
+        Mockito.when(tableService.getSnapshot()).thenReturn(TableSnapshotFixtures.emptyTable());
+
+        mockMvc.perform(get(PATH).principal(mockPrincipal))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + TableSnapshotFixtures.VERSION_TAG + "\""));
+    }
+
+    @Test
+    void getTable_withCurrentETag_returnsNotModified() throws Exception {
+        Principal mockPrincipal = Mockito.mock(Principal.class);
+        Mockito.when(mockPrincipal.getName()).thenReturn(ALICE_ID);
+        Mockito.when(tableService.getSnapshot()).thenReturn(TableSnapshotFixtures.emptyTable());
+
+        MockHttpServletResponse response = mockMvc.perform(get(PATH).principal(mockPrincipal)
+                        .header("If-None-Match", "\"" + TableSnapshotFixtures.VERSION_TAG + "\""))
+                .andExpect(status().isNotModified()).andReturn().getResponse();
+
+        assertThat(response.getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void getTable_withSinceVersion_waitsForNewerTable() throws Exception {
+        Principal mockPrincipal = Mockito.mock(Principal.class);
+        Mockito.when(mockPrincipal.getName()).thenReturn(ALICE_ID);
+        Mockito.when(tableUpdates.poll(tableService, ALICE_ID, "epoch-3")).thenReturn(new DeferredResult<>());
+
+        mockMvc.perform(get(PATH).param("sinceVersion", "epoch-3").principal(mockPrincipal))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(tableUpdates).poll(tableService, ALICE_ID, "epoch-3");
+    }
+
+    @Test
+    void subscribe_streamsUpdatesOfTable() throws Exception {
+        Principal mockPrincipal = Mockito.mock(Principal.class);
+        Mockito.when(mockPrincipal.getName()).thenReturn(ALICE_ID);
+        Mockito.when(tableUpdates.subscribe(tableService, ALICE_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(PATH + "/events").principal(mockPrincipal))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(tableUpdates).subscribe(tableService, ALICE_ID);
+    }
+
     @Test
     void joinTable_adsValidPlayerToTable() throws Exception {
         Principal mockPrincipal = Mockito.mock(Principal.class);
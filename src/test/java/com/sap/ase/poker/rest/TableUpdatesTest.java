@@ -0,0 +1,251 @@
+package com.sap.ase.poker.rest;
+
+import com.sap.ase.poker.dto.GetTableResponseDto;
+import com.sap.ase.poker.fixtures.TableSnapshotFixtures;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.TableSnapshot;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.RandomCardShuffler;
+import com.sap.ase.poker.model.deck.ShuffledDeckSupplier;
+import com.sap.ase.poker.service.TableRegistry;
+import com.sap.ase.poker.service.TableService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableUpdatesTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final TableService table = new TableService(
+            new ShuffledDeckSupplier(new PokerCardsSupplier(), new RandomCardShuffler()));
+
+    @Test
+    void subscribe_sendsCurrentTable() {
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        new TableUpdates(Runnable::run).subscribe(table, "01", emitter);
+
+        assertThat(emitter.tables).hasSize(1);
+        assertThat(emitter.events.get(0)).contains("id:" + table.getSnapshot().getVersionTag(), "event:table");
+    }
+
+    @Test
+    void subscribe_returnsEmitterWithTimeout() {
+        SseEmitter emitter = new TableUpdates(tasks::add).subscribe(table, "01");
+
+        assertThat(emitter.getTimeout()).isEqualTo(TableUpdates.TIMEOUT_MILLIS);
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void tableChange_sendsNewTable() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        new TableUpdates(Runnable::run).subscribe(table, "01", emitter);
+
+        table.addPlayer("01", "Batman");
+
+        assertThat(emitter.tables).hasSize(2);
+        assertThat(emitter.tables.get(1).getPlayers()).extracting("name").containsExactly("Batman");
+    }
+
+    @Test
+    void slowClient_getsOnlyLatestTable() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        new TableUpdates(tasks::add).subscribe(table, "01", emitter);
+
+        table.addPlayer("01", "Batman");
+        table.addPlayer("02", "Superman");
+        assertThat(tasks).hasSize(1);
+        tasks.get(0).run();
+
+        assertThat(emitter.tables).hasSize(1);
+        assertThat(emitter.tables.get(0).getPlayers()).hasSize(2);
+    }
+
+    @Test
+    void changeWhileSending_isSentAfterwards() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.onSend = () -> {
+            if (emitter.tables.size() == 1) {
+                table.addPlayer("01", "Batman");
+            }
+        };
+
+        new TableUpdates(Runnable::run).subscribe(table, "01", emitter);
+
+        assertThat(emitter.tables).hasSize(2);
+        assertThat(emitter.tables.get(1).getPlayers()).hasSize(1);
+    }
+
+    @Test
+    void olderTable_isNotSentAfterNewerOne() {
+        TableSnapshot older = TableSnapshotFixtures.emptyTable();
+        TableSnapshot newer = new TableSnapshot(TableSnapshotFixtures.EPOCH, 2, GameState.OPEN, List.of(), null, 0,
+                Map.of(), List.of(), Map.of(), null, List.of());
+        TableService mockedTable = Mockito.mock(TableService.class);
+        Mockito.when(mockedTable.getSnapshot()).thenReturn(older);
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<TableSnapshot>>getArgument(0).accept(newer);
+            return null;
+        }).when(mockedTable).addSnapshotListener(Mockito.any());
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        new TableUpdates(Runnable::run).subscribe(mockedTable, "01", emitter);
+
+        assertThat(emitter.events).hasSize(1);
+        assertThat(emitter.events.get(0)).contains("id:epoch-2");
+    }
+
+    @Test
+    void failedSend_unsubscribes() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        new TableUpdates(Runnable::run).subscribe(table, "01", emitter);
+
+        table.addPlayer("01", "Batman");
+
+        assertThat(emitter.attempts).isEqualTo(1);
+    }
+
+    @Test
+    void completedEmitter_unsubscribes() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        new TableUpdates(Runnable::run).subscribe(table, "01", emitter);
+
+        emitter.completion.run();
+        table.addPlayer("01", "Batman");
+        emitter.timeout.run();
+        emitter.error.accept(new IOException("broken pipe"));
+        table.addPlayer("02", "Superman");
+
+        assertThat(emitter.tables).hasSize(1);
+    }
+
+    @Test
+    void poll_answersAtOnceIfTableIsNewer() {
+        DeferredResult<ResponseEntity<GetTableResponseDto>> result =
+                new TableUpdates(Runnable::run).poll(table, "01", "none");
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + table.getSnapshot().getVersionTag() + "\"");
+    }
+
+    @Test
+    void poll_waitsUntilTableChanges() {
+        DeferredResult<ResponseEntity<GetTableResponseDto>> result =
+                new TableUpdates(Runnable::run).poll(table, "01", table.getSnapshot().getVersionTag());
+        assertThat(result.hasResult()).isFalse();
+
+        table.addPlayer("01", "Batman");
+
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertThat(((GetTableResponseDto) response.getBody()).getPlayers()).hasSize(1);
+    }
+
+    @Test
+    void poll_answersAtOnceForTagOfEarlierEpoch() {
+        // e.g. the server restarted without a journal and the table counts versions from the start
+        String tagBeforeRestart = table.getSnapshot().getVersionTag();
+        TableService recreated = new TableService(
+                new ShuffledDeckSupplier(new PokerCardsSupplier(), new RandomCardShuffler()));
+
+        DeferredResult<ResponseEntity<GetTableResponseDto>> result =
+                new TableUpdates(Runnable::run).poll(recreated, "01", tagBeforeRestart);
+
+        assertThat(recreated.getSnapshot().getVersion()).isEqualTo(table.getSnapshot().getVersion());
+        assertThat(((ResponseEntity<?>) result.getResult()).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void poll_answersAtOnceForVersionTheTableNeverPublished() {
+        TableSnapshot snapshot = table.getSnapshot();
+
+        DeferredResult<ResponseEntity<GetTableResponseDto>> result = new TableUpdates(Runnable::run)
+                .poll(table, "01", snapshot.getEpoch() + "-" + (snapshot.getVersion() + 5));
+
+        assertThat(((ResponseEntity<?>) result.getResult()).getHeaders().getETag())
+                .isEqualTo("\"" + snapshot.getVersionTag() + "\"");
+    }
+
+    @Test
+    void retiredTable_completesStreamsAndAnswersPolls() {
+        TableRegistry registry = new TableRegistry(
+                new ShuffledDeckSupplier(new PokerCardsSupplier(), new RandomCardShuffler()));
+        TableService retired = registry.create("01");
+        TableUpdates underTest = new TableUpdates(Runnable::run);
+        RecordingEmitter emitter = new RecordingEmitter();
+        underTest.subscribe(retired, "01", emitter);
+        DeferredResult<ResponseEntity<GetTableResponseDto>> poll =
+                underTest.poll(retired, "01", retired.getSnapshot().getVersionTag());
+
+        registry.retire(retired.getId(), "01");
+
+        assertThat(emitter.completed).isTrue();
+        assertThat(((ResponseEntity<?>) poll.getResult()).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<GetTableResponseDto> tables = new ArrayList<>();
+        private Runnable onSend = () -> {
+        };
+        private boolean failing;
+        private int attempts;
+        private Runnable completion;
+        private Runnable timeout;
+        private Consumer<Throwable> error;
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof GetTableResponseDto table) {
+                    tables.add(table);
+                } else {
+                    event.append(data.getData());
+                }
+            }
+            events.add(event.toString());
+            onSend.run();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        @Override
+        public synchronized void onTimeout(Runnable callback) {
+            timeout = callback;
+        }
+
+        @Override
+        public synchronized void onError(Consumer<Throwable> callback) {
+            error = callback;
+        }
+    }
+}
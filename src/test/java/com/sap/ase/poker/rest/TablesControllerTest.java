@@ -0,0 +1,368 @@
+package com.sap.ase.poker.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sap.ase.poker.data.PlayerNamesRepository;
+import com.sap.ase.poker.dto.BetRequestDto;
+import com.sap.ase.poker.dto.GetTableResponseDto;
+import com.sap.ase.poker.fixtures.TableSnapshotFixtures;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.TableSnapshot;
+import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import com.sap.ase.poker.model.equity.Equity;
+import com.sap.ase.poker.model.equity.EquityCalculator;
+import com.sap.ase.poker.model.equity.PreflopEquity;
+import com.sap.ase.poker.service.TableAccessDeniedException;
+import com.sap.ase.poker.service.TableNotFoundException;
+import com.sap.ase.poker.service.TableRegistry;
+import com.sap.ase.poker.service.TableService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TablesController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TablesControllerTest {
+
+    private static final String PATH = "/api/v1/tables";
+    public static final String TABLE_ID = "table-1";
+    public static final String ALICE_ID = "alice";
+    public static final String ALICE_NAME = "aliceName";
+
+    private static final List<Card> ACES = List.of(Card.of(Kind.ACE, Suit.HEARTS), Card.of(Kind.ACE, Suit.SPADES));
+    private static final List<Card> KINGS = List.of(Card.of(Kind.KING, Suit.HEARTS), Card.of(Kind.KING, Suit.SPADES));
+    private static final List<Card> LOW_CARDS = List.of(Card.of(Kind.TWO, Suit.HEARTS), Card.of(Kind.THREE, Suit.SPADES));
+    private static final List<Card> FLOP = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+            Card.of(Kind.FOUR, Suit.HEARTS));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    TableRegistry tableRegistry;
+
+    @MockBean
+    PlayerNamesRepository playerNamesRepository;
+
+    @MockBean
+    TableUpdates tableUpdates;
+
+    @MockBean
+    EquityCalculator equityCalculator;
+
+    @MockBean
+    PreflopEquity preflopEquity;
+
+    private final TableService table = Mockito.mock(TableService.class);
+
+    private final Principal principal = Mockito.mock(Principal.class);
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(principal.getName()).thenReturn(ALICE_ID);
+        Mockito.when(table.getId()).thenReturn(TABLE_ID);
+        Mockito.when(table.getBuyIn()).thenReturn(100);
+        Mockito.when(table.getSnapshot()).thenReturn(TableSnapshotFixtures.emptyTable());
+        Mockito.when(tableRegistry.get(TABLE_ID)).thenReturn(table);
+        Mockito.when(tableRegistry.get("unknown")).thenThrow(new TableNotFoundException("unknown"));
+    }
+
+    @Test
+    void getLobby_listsAllTables() throws Exception {
+        Mockito.when(table.getSnapshot()).thenReturn(
+                TableSnapshotFixtures.tableWith(GameState.OPEN, new Player(ALICE_ID, "Alice", 100)));
+        Mockito.when(tableRegistry.getTables()).thenReturn(Collections.singletonList(table));
+
+        mockMvc.perform(get(PATH).principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(TABLE_ID))
+                .andExpect(jsonPath("$[0].players").value("1"))
+                .andExpect(jsonPath("$[0].stakes").value("100"));
+    }
+
+    @Test
+    void createTable_returnsLobbyEntryOfNewTable() throws Exception {
+        Mockito.when(tableRegistry.create(ALICE_ID)).thenReturn(table);
+
+        mockMvc.perform(post(PATH).principal(principal))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", PATH + "/" + TABLE_ID))
+                .andExpect(jsonPath("$.id").value(TABLE_ID));
+    }
+
+    @Test
+    void retireTable_removesTableFromRegistry() throws Exception {
+        mockMvc.perform(delete(PATH + "/" + TABLE_ID).principal(principal))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(tableRegistry).retire(TABLE_ID, ALICE_ID);
+    }
+
+    @Test
+    void retireTable_ofAnotherPlayer_returnsForbidden() throws Exception {
+        Mockito.doThrow(new TableAccessDeniedException("not yours")).when(tableRegistry).retire(TABLE_ID, ALICE_ID);
+
+        mockMvc.perform(delete(PATH + "/" + TABLE_ID).principal(principal))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getTable_returnsStatusOfRequestedTable() throws Exception {
+        Mockito.when(table.getSnapshot()).thenReturn(TableSnapshotFixtures.tableWith(GameState.FLOP,
+                new Player(ALICE_ID, "Alice", 100),
+                new Player("bob", "Bob", 100)));
+
+        MockHttpServletResponse response = mockMvc.perform(get(PATH + "/" + TABLE_ID).principal(principal))
+                .andExpect(status().isOk()).andReturn().getResponse();
+
+        GetTableResponseDto result = objectMapper.readValue(response.getContentAsString(), GetTableResponseDto.class);
+        assertThat(result.getPlayers()).hasSize(2);
+        assertThat(result.getState()).isEqualTo(GameState.FLOP.getValue());
+    }
+
+    @Test
+    void getTable_returnsNotFoundForUnknownTable() throws Exception {
+        mockMvc.perform(get(PATH + "/unknown").principal(principal))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getTable_withCurrentETag_returnsNotModified() throws Exception {
+        mockMvc.perform(get(PATH + "/" + TABLE_ID).principal(principal)
+                        .header("If-None-Match", "\"" + TableSnapshotFixtures.VERSION_TAG + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getTable_withSinceVersion_waitsForNewerTable() throws Exception {
+        Mockito.when(tableUpdates.poll(table, ALICE_ID, "epoch-3")).thenReturn(new DeferredResult<>());
+
+        mockMvc.perform(get(PATH + "/" + TABLE_ID).param("sinceVersion", "epoch-3").principal(principal))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(tableUpdates).poll(table, ALICE_ID, "epoch-3");
+    }
+
+    @Test
+    void subscribe_streamsUpdatesOfRequestedTable() throws Exception {
+        Mockito.when(tableUpdates.subscribe(table, ALICE_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/events").principal(principal))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(tableUpdates).subscribe(table, ALICE_ID);
+    }
+
+    @Test
+    void getEquity_returnsCallersEquityAgainstRandomHands() throws Exception {
+        Mockito.when(table.getSnapshot()).thenReturn(handOnTheFlop());
+        Equity equity = Mockito.mock(Equity.class);
+        Mockito.when(equity.getShowdowns()).thenReturn(1000L);
+        Mockito.when(equity.getWinProbability(0)).thenReturn(0.9);
+        Mockito.when(equity.getEquity(0)).thenReturn(0.91);
+        Mockito.when(equityCalculator.calculateAgainstRandomHands(ACES, 1, FLOP, TablesController.EQUITY_ITERATIONS,
+                Duration.ofMillis(TablesController.EQUITY_MILLIS))).thenReturn(equity);
+
+        // the server decides how much a calculation may cost
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").param("iterations", "1000000000")
+                        .param("millis", "60000").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.showdowns").value(1000))
+                .andExpect(jsonPath("$.exact").value(false))
+                .andExpect(jsonPath("$.players.length()").value(1))
+                .andExpect(jsonPath("$.players[0].id").value(ALICE_ID))
+                .andExpect(jsonPath("$.players[0].win").value(0.9))
+                .andExpect(jsonPath("$.players[0].equity").value(0.91));
+    }
+
+    @Test
+    void getEquity_otherPlayersCannotSeeASeatsEquityDuringTheHand() throws Exception {
+        Mockito.when(table.getSnapshot()).thenReturn(handOnTheFlop());
+        Mockito.when(equityCalculator.calculateAgainstRandomHands(Mockito.any(), Mockito.anyInt(), Mockito.any(),
+                Mockito.anyLong(), Mockito.any())).thenReturn(Mockito.mock(Equity.class));
+
+        Mockito.when(principal.getName()).thenReturn("bob");
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.players.length()").value(1))
+                .andExpect(jsonPath("$.players[0].id").value("bob"));
+        Mockito.when(principal.getName()).thenReturn("carol");
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isBadRequest());
+        Mockito.when(principal.getName()).thenReturn("spectator");
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isBadRequest());
+
+        // only bob's own cards and the board went into the calculation
+        Mockito.verify(equityCalculator).calculateAgainstRandomHands(Mockito.eq(KINGS), Mockito.eq(1),
+                Mockito.eq(FLOP), Mockito.anyLong(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(equityCalculator);
+    }
+
+    @Test
+    void getEquity_headsUpBeforeFlop_looksUpPreflopTable() throws Exception {
+        Player alice = new Player(ALICE_ID, "Alice", 100);
+        alice.setActive();
+        Player bob = new Player("bob", "Bob", 100);
+        bob.setActive();
+        Player carol = new Player("carol", "Carol", 100);
+        Mockito.when(table.getSnapshot()).thenReturn(new TableSnapshot(TableSnapshotFixtures.EPOCH, 1,
+                GameState.PRE_FLOP,
+                List.of(new PlayerSnapshot(alice), new PlayerSnapshot(bob), new PlayerSnapshot(carol)), null, 0,
+                Map.of(), List.of(), Map.of(ALICE_ID, ACES, "bob", KINGS, "carol", LOW_CARDS), null, List.of()));
+        Equity equity = Mockito.mock(Equity.class);
+        Mockito.when(equity.getEquity(0)).thenReturn(0.85);
+        Mockito.when(preflopEquity.lookupAgainstRandomHand(ACES)).thenReturn(equity);
+
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exact").value(false))
+                .andExpect(jsonPath("$.players[0].equity").value(0.85));
+        Mockito.verifyNoInteractions(equityCalculator);
+    }
+
+    @Test
+    void getEquity_beforeFlopWithMorePlayers_calculates() throws Exception {
+        Player alice = new Player(ALICE_ID, "Alice", 100);
+        alice.setActive();
+        Player bob = new Player("bob", "Bob", 100);
+        bob.setActive();
+        Player carol = new Player("carol", "Carol", 100);
+        carol.setActive();
+        Mockito.when(table.getSnapshot()).thenReturn(new TableSnapshot(TableSnapshotFixtures.EPOCH, 1,
+                GameState.PRE_FLOP,
+                List.of(new PlayerSnapshot(alice), new PlayerSnapshot(bob), new PlayerSnapshot(carol)), null, 0,
+                Map.of(), List.of(), Map.of(ALICE_ID, ACES, "bob", KINGS, "carol", LOW_CARDS), null, List.of()));
+        Mockito.when(equityCalculator.calculateAgainstRandomHands(Mockito.any(), Mockito.anyInt(), Mockito.any(),
+                Mockito.anyLong(), Mockito.any())).thenReturn(Mockito.mock(Equity.class));
+
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isOk());
+
+        Mockito.verify(equityCalculator).calculateAgainstRandomHands(Mockito.eq(ACES), Mockito.eq(2),
+                Mockito.eq(List.of()), Mockito.anyLong(), Mockito.any());
+        Mockito.verifyNoInteractions(preflopEquity);
+    }
+
+    @Test
+    void getEquity_onTheTurn_walksEveryHiddenHand() throws Exception {
+        Player alice = new Player(ALICE_ID, "Alice", 100);
+        alice.setActive();
+        Player bob = new Player("bob", "Bob", 100);
+        bob.setActive();
+        List<Card> turn = List.of(Card.of(Kind.TEN, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS),
+                Card.of(Kind.FOUR, Suit.HEARTS), Card.of(Kind.KING, Suit.CLUBS));
+        Mockito.when(table.getSnapshot()).thenReturn(new TableSnapshot(TableSnapshotFixtures.EPOCH, 1,
+                GameState.TURN, List.of(new PlayerSnapshot(alice), new PlayerSnapshot(bob)), null, 0, Map.of(), turn,
+                Map.of(ALICE_ID, ACES, "bob", KINGS), null, List.of()));
+        try (EquityCalculator calculator = new EquityCalculator()) {
+            Mockito.when(equityCalculator.calculateAgainstRandomHands(Mockito.any(), Mockito.anyInt(), Mockito.any(),
+                    Mockito.anyLong(), Mockito.any())).thenAnswer(invocation -> calculator.calculateAgainstRandomHands(
+                    invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                    invocation.getArgument(3), invocation.getArgument(4)));
+
+            // bob's kings are hidden, alice's aces meet each of the 1035 hands he can hold on each of 44 rivers
+            mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.exact").value(true))
+                    .andExpect(jsonPath("$.showdowns").value(1035 * 44));
+        }
+    }
+
+    @Test
+    void getEquity_withoutTwoPlayersInHand_returnsBadRequest() throws Exception {
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isBadRequest());
+        Player alice = new Player(ALICE_ID, "Alice", 100);
+        alice.setActive();
+        Mockito.when(table.getSnapshot()).thenReturn(new TableSnapshot(TableSnapshotFixtures.EPOCH, 1,
+                GameState.FLOP, List.of(new PlayerSnapshot(alice), new PlayerSnapshot(new Player("bob", "Bob", 100))),
+                null, 0, Map.of(), FLOP, Map.of(ALICE_ID, ACES, "bob", KINGS), null, List.of()));
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isBadRequest());
+        Player bob = new Player("bob", "Bob", 100);
+        bob.setActive();
+        Mockito.when(table.getSnapshot()).thenReturn(new TableSnapshot(TableSnapshotFixtures.EPOCH, 2,
+                GameState.FLOP, List.of(new PlayerSnapshot(alice), new PlayerSnapshot(bob)), null, 0, Map.of(), FLOP,
+                Map.of("bob", KINGS), null, List.of()));
+        mockMvc.perform(get(PATH + "/" + TABLE_ID + "/equity").principal(principal))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(equityCalculator);
+    }
+
+    // alice and bob are in the hand, carol folded
+    private static TableSnapshot handOnTheFlop() {
+        Player alice = new Player(ALICE_ID, "Alice", 100);
+        alice.setActive();
+        Player bob = new Player("bob", "Bob", 100);
+        bob.setActive();
+        Player carol = new Player("carol", "Carol", 100);
+        return new TableSnapshot(TableSnapshotFixtures.EPOCH, 1, GameState.FLOP,
+                List.of(new PlayerSnapshot(alice), new PlayerSnapshot(bob), new PlayerSnapshot(carol)), null, 0,
+                Map.of(), FLOP, Map.of(ALICE_ID, ACES, "bob", KINGS, "carol", LOW_CARDS), null, List.of());
+    }
+
+    @Test
+    void joinTable_addsPlayerToRequestedTable() throws Exception {
+        Mockito.when(playerNamesRepository.getNameForId(ALICE_ID)).thenReturn(ALICE_NAME);
+
+        mockMvc.perform(post(PATH + "/" + TABLE_ID + "/players").principal(principal))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(table).addPlayer(ALICE_ID, ALICE_NAME);
+    }
+
+    @Test
+    void start_startsRequestedTable() throws Exception {
+        mockMvc.perform(post(PATH + "/" + TABLE_ID + "/start").principal(principal))
+                .andExpect(status().isNoContent());
+
+        Mockito.verify(table).start();
+    }
+
+    @Test
+    void placeBet_performsActionOnRequestedTable() throws Exception {
+        BetRequestDto betRequest = new BetRequestDto();
+        betRequest.setType("raise");
+        betRequest.setArgs(new int[]{10});
+
+        mockMvc.perform(post(PATH + "/" + TABLE_ID + "/actions")
+                        .principal(principal)
+                        .content(objectMapper.writeValueAsString(betRequest))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        Mockito.verify(table).performAction("raise", 10);
+    }
+}
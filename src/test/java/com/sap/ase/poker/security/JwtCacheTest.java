@@ -0,0 +1,106 @@
+package com.sap.ase.poker.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtCacheTest {
+
+	private static final Instant NOW = Instant.now();
+
+	private final JwtTools jwtTools = new JwtTools("test-secret");
+
+	private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+	private final JwtCache underTest = new JwtCache(jwtTools, 2, Duration.ofMinutes(5), new Clock() {
+		@Override
+		public ZoneOffset getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(java.time.ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return clock.instant();
+		}
+	});
+
+	@Test
+	public void repeatedToken_isVerifiedOnce() {
+		String jwt = jwtTools.create("john-doe", "John Doe");
+
+		assertSame(underTest.verifyAndDecode(jwt), underTest.verifyAndDecode(jwt));
+		assertEquals("john-doe", underTest.verifyAndDecode(jwt).getClaim("user_id").asString());
+		assertEquals(1, underTest.getMisses());
+		assertEquals(2, underTest.getHits());
+	}
+
+	@Test
+	public void cachedToken_expiresAfterTtl() {
+		String jwt = jwtTools.create("john-doe", "John Doe");
+		underTest.verifyAndDecode(jwt);
+
+		clock = Clock.offset(clock, Duration.ofMinutes(5));
+		underTest.verifyAndDecode(jwt);
+
+		assertEquals(2, underTest.getMisses());
+		assertEquals(0, underTest.getHits());
+	}
+
+	@Test
+	public void cachedToken_doesNotOutliveItsExpiry() {
+		String jwt = JWT.create().withClaim("user_id", "john-doe")
+				.withExpiresAt(NOW.plus(Duration.ofMinutes(1))).sign(Algorithm.HMAC256("test-secret"));
+		underTest.verifyAndDecode(jwt);
+
+		clock = Clock.offset(clock, Duration.ofSeconds(30));
+		underTest.verifyAndDecode(jwt);
+		clock = Clock.offset(clock, Duration.ofSeconds(30));
+
+		underTest.verifyAndDecode(jwt);
+
+		assertEquals(1, underTest.getHits());
+		assertEquals(2, underTest.getMisses());
+	}
+
+	@Test
+	public void fullCache_evictsLeastRecentlyUsedToken() {
+		String first = jwtTools.create("first", "First");
+		String second = jwtTools.create("second", "Second");
+		underTest.verifyAndDecode(first);
+		underTest.verifyAndDecode(second);
+		underTest.verifyAndDecode(first);
+
+		underTest.verifyAndDecode(jwtTools.create("third", "Third"));
+		underTest.verifyAndDecode(first);
+		underTest.verifyAndDecode(second);
+
+		assertEquals(2, underTest.getSize());
+		assertEquals(2, underTest.getHits());
+		assertEquals(4, underTest.getMisses());
+	}
+
+	@Test
+	public void invalidToken_isNotCached() {
+		String jwt = new JwtTools("other-secret").create("john-doe", "John Doe");
+
+		assertThrows(SignatureVerificationException.class, () -> underTest.verifyAndDecode(jwt));
+		assertThrows(SignatureVerificationException.class, () -> underTest.verifyAndDecode(jwt));
+		assertEquals(0, underTest.getSize());
+		assertEquals(2, underTest.getMisses());
+	}
+}
@@ -0,0 +1,165 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.events.HandStarted;
+import com.sap.ase.poker.model.events.StreetDealt;
+import com.sap.ase.poker.model.events.TableEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableEventBusTest {
+
+    private final List<Runnable> deliveries = new ArrayList<>();
+
+    @Test
+    void publish_deliversEventsOfSubscribedType() {
+        TableEventBus underTest = new TableEventBus(Runnable::run);
+        List<TableEvent> all = new ArrayList<>();
+        List<StreetDealt> streets = new ArrayList<>();
+        underTest.subscribe(TableEvent.class, all::add, 16, TableEventBus.Overflow.DROP);
+        underTest.subscribe(StreetDealt.class, streets::add, 16, TableEventBus.Overflow.DROP);
+
+        underTest.publish(handStarted());
+        underTest.publish(flop());
+
+        assertThat(all).hasSize(2);
+        assertThat(streets).extracting(StreetDealt::getStreet).containsExactly(GameState.FLOP);
+    }
+
+    @Test
+    void publish_doesNotWaitForSubscriber() {
+        TableEventBus underTest = new TableEventBus(deliveries::add);
+        List<TableEvent> events = new ArrayList<>();
+        underTest.subscribe(TableEvent.class, events::add, 16, TableEventBus.Overflow.DROP);
+
+        underTest.publish(handStarted());
+        underTest.publish(flop());
+
+        assertThat(events).isEmpty();
+        assertThat(deliveries).hasSize(1);
+        deliveries.remove(0).run();
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void fullQueue_dropsEventsOfDropSubscriber() {
+        TableEventBus underTest = new TableEventBus(deliveries::add);
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus.Subscription<TableEvent> subscription =
+                underTest.subscribe(TableEvent.class, events::add, 2, TableEventBus.Overflow.DROP);
+
+        for (int i = 0; i < 5; i++) {
+            underTest.publish(handStarted());
+        }
+        deliveries.remove(0).run();
+
+        assertThat(events).hasSize(2);
+        assertThat(subscription.getDropped()).isEqualTo(3);
+    }
+
+    @Test
+    void fullQueue_makesPublisherWaitForBlockSubscriber() throws Exception {
+        TableEventBus underTest = new TableEventBus();
+        CountDownLatch release = new CountDownLatch(1);
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus.Subscription<TableEvent> subscription = underTest.subscribe(TableEvent.class, event -> {
+            await(release);
+            events.add(event);
+        }, 1, TableEventBus.Overflow.BLOCK);
+
+        CompletableFuture<Void> publisher = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 3; i++) {
+                underTest.publish(handStarted());
+            }
+        });
+        Thread.sleep(200);
+        assertThat(publisher).isNotDone();
+        release.countDown();
+        publisher.get(5, TimeUnit.SECONDS);
+
+        subscription.close();
+        assertThat(subscription.getDropped()).isZero();
+    }
+
+    @Test
+    void interruptedPublisher_dropsEventOfBlockSubscriber() {
+        TableEventBus underTest = new TableEventBus(deliveries::add);
+        TableEventBus.Subscription<TableEvent> subscription =
+                underTest.subscribe(TableEvent.class, event -> { }, 1, TableEventBus.Overflow.BLOCK);
+        underTest.publish(handStarted());
+
+        Thread.currentThread().interrupt();
+        underTest.publish(handStarted());
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(subscription.getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    void manyEvents_areDeliveredInBatches() {
+        TableEventBus underTest = new TableEventBus(deliveries::add);
+        List<TableEvent> events = new ArrayList<>();
+        underTest.subscribe(TableEvent.class, events::add, 1000, TableEventBus.Overflow.DROP);
+        for (int i = 0; i < 100; i++) {
+            underTest.publish(handStarted());
+        }
+
+        deliveries.remove(0).run();
+        assertThat(events).hasSize(64);
+        deliveries.remove(0).run();
+
+        assertThat(events).hasSize(100);
+        assertThat(deliveries).isEmpty();
+    }
+
+    @Test
+    void failingSubscriber_missesOnlyItsEvent() {
+        TableEventBus underTest = new TableEventBus(Runnable::run);
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus.Subscription<TableEvent> failing = underTest.subscribe(TableEvent.class, event -> {
+            throw new IllegalStateException("broken");
+        }, 16, TableEventBus.Overflow.DROP);
+        underTest.subscribe(TableEvent.class, events::add, 16, TableEventBus.Overflow.DROP);
+
+        underTest.publish(handStarted());
+
+        assertThat(failing.getFailed()).isEqualTo(1);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void closedSubscription_getsNoMoreEvents() {
+        TableEventBus underTest = new TableEventBus(Runnable::run);
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus.Subscription<TableEvent> subscription =
+                underTest.subscribe(TableEvent.class, events::add, 16, TableEventBus.Overflow.DROP);
+
+        subscription.close();
+        underTest.publish(handStarted());
+
+        assertThat(events).isEmpty();
+    }
+
+    private static HandStarted handStarted() {
+        return new HandStarted("default", 1, List.of("01", "02"));
+    }
+
+    private static StreetDealt flop() {
+        return new StreetDealt("default", 2, GameState.FLOP, List.of());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
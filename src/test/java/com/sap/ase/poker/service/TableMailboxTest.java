@@ -0,0 +1,124 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.model.IllegalActionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TableMailboxTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void call_appliesConcurrentCommandsOneAfterTheOther() {
+        TableMailbox underTest = new TableMailbox(TableMailbox.SHARED_EXECUTOR);
+        int[] counter = new int[1];
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    underTest.run(() -> counter[0]++);
+                }
+            }, callers));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(underTest.call(() -> counter[0])).isEqualTo(8000);
+    }
+
+    @Test
+    void call_rethrowsExceptionOfCommand() {
+        TableMailbox underTest = new TableMailbox(TableMailbox.SHARED_EXECUTOR);
+
+        assertThatThrownBy(() -> underTest.run(() -> {
+            throw new IllegalActionException("not your turn");
+        })).isInstanceOf(IllegalActionException.class).hasMessage("not your turn");
+    }
+
+    @Test
+    void call_wrapsCheckedFailureOfCommand() {
+        TableMailbox underTest = new TableMailbox(TableMailbox.SHARED_EXECUTOR);
+
+        assertThatThrownBy(() -> underTest.run(() -> {
+            throw new AssertionError("broken");
+        })).isInstanceOf(CompletionException.class).hasCauseInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    void newExecutor_appliesCommandsOnDaemonTableThreads() {
+        ExecutorService executor = TableMailbox.newExecutor(1);
+        TableMailbox underTest = new TableMailbox(executor);
+
+        Thread writer = underTest.call(Thread::currentThread);
+
+        assertThat(writer.getName()).isEqualTo("table-1");
+        assertThat(writer.isDaemon()).isTrue();
+        executor.shutdown();
+    }
+
+    @Test
+    void call_runsNestedCommandInline() {
+        TableMailbox underTest = new TableMailbox(TableMailbox.SHARED_EXECUTOR);
+
+        assertThat(underTest.call(() -> underTest.call(() -> "nested"))).isEqualTo("nested");
+    }
+
+    @Test
+    void call_drainsMoreCommandsThanOneBatch() throws Exception {
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        ExecutorService manyCallers = Executors.newCachedThreadPool();
+        TableMailbox underTest = new TableMailbox(writer);
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch submitted = new CountDownLatch(100);
+        int[] counter = new int[1];
+
+        CompletableFuture<Void> blocking = CompletableFuture.runAsync(() -> underTest.run(() -> {
+            writerBusy.countDown();
+            await(release);
+        }), manyCallers);
+        writerBusy.await();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                submitted.countDown();
+                underTest.run(() -> counter[0]++);
+            }, manyCallers));
+        }
+        submitted.await();
+        Thread.sleep(200);
+        release.countDown();
+        blocking.join();
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(counter[0]).isEqualTo(100);
+        manyCallers.shutdown();
+        writer.shutdown();
+        assertThat(writer.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
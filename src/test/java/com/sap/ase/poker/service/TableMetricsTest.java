@@ -0,0 +1,41 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.RandomCardShuffler;
+import com.sap.ase.poker.model.deck.ShuffledDeckSupplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableMetricsTest {
+
+    private final TableRegistry tableRegistry = new TableRegistry(
+            new ShuffledDeckSupplier(new PokerCardsSupplier(), new RandomCardShuffler()));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        new TableMetrics(tableRegistry).bindTo(meterRegistry);
+    }
+
+    @Test
+    void gauges_followTables() {
+        assertThat(meterRegistry.get("poker.tables").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("poker.players").gauge().value()).isEqualTo(0);
+        assertThat(meterRegistry.get("poker.table.chips").gauge().value()).isEqualTo(0);
+
+        TableService table = tableRegistry.create("01");
+        table.addPlayer("01", "Batman");
+        table.addPlayer("02", "Superman");
+        tableRegistry.getDefaultTable().addPlayer("03", "Wonder Woman");
+        table.start();
+        table.performAction("raise", 10);
+
+        assertThat(meterRegistry.get("poker.tables").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("poker.players").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("poker.table.chips").gauge().value()).isEqualTo(10);
+    }
+}
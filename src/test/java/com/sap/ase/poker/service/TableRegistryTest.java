@@ -0,0 +1,353 @@
+package com.sap.ase.poker.service;
+
+import com.sap.ase.poker.data.bankroll.Bankroll;
+import com.sap.ase.poker.data.bankroll.FileBankroll;
+import com.sap.ase.poker.data.recovery.FileTableStore;
+import com.sap.ase.poker.data.recovery.TableCommand;
+import com.sap.ase.poker.data.recovery.TableJournal;
+import com.sap.ase.poker.data.recovery.TableStore;
+import com.sap.ase.poker.model.GameState;
+import com.sap.ase.poker.model.IllegalActionException;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.deck.Deck;
+import com.sap.ase.poker.model.deck.PokerCardsSupplier;
+import com.sap.ase.poker.model.deck.RandomCardShuffler;
+import com.sap.ase.poker.model.deck.ShuffledDeckSupplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TableRegistryTest {
+
+    private final Supplier<Deck> deckSupplier = new ShuffledDeckSupplier(new PokerCardsSupplier(), new RandomCardShuffler());
+
+    private TableRegistry underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TableRegistry(deckSupplier);
+    }
+
+    @Test
+    void newRegistry_containsOnlyDefaultTable() {
+        assertThat(underTest.getTables()).containsExactly(underTest.getDefaultTable());
+        assertThat(underTest.getDefaultTable().getId()).isEqualTo(TableRegistry.DEFAULT_TABLE_ID);
+    }
+
+    @Test
+    void create_registersTableWithNewId() {
+        TableService first = underTest.create("01");
+        TableService second = underTest.create("01");
+
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+        assertThat(underTest.get(first.getId())).isSameAs(first);
+        assertThat(underTest.getTables()).hasSize(3);
+    }
+
+    @Test
+    void tables_doNotShareState() {
+        TableService first = underTest.create("01");
+        TableService second = underTest.create("01");
+        first.addPlayer("01", "Batman");
+        first.addPlayer("02", "Superman");
+
+        first.start();
+
+        assertThat(first.getState()).isEqualTo(GameState.PRE_FLOP);
+        assertThat(second.getState()).isEqualTo(GameState.OPEN);
+        assertThat(second.getPlayers()).isEmpty();
+    }
+
+    @Test
+    void close_stopsOnlyTheThreadsTheRegistryStarted() {
+        TableRegistry ownThreads = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), Bankroll.none(),
+                new TableEventBus(), 1, TableRegistry.MAX_TABLES, TableRegistry.MAX_TABLES_PER_PLAYER,
+                new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TableRegistry givenThreads = new TableRegistry(deckSupplier, record -> { }, TableStore.none(),
+                Bankroll.none(), new TableEventBus(), executor, TableRegistry.MAX_TABLES,
+                TableRegistry.MAX_TABLES_PER_PLAYER);
+        ownThreads.getDefaultTable().addPlayer("01", "Batman");
+
+        ownThreads.close();
+        givenThreads.close();
+
+        TableService table = ownThreads.create("01");
+        assertThatThrownBy(() -> table.addPlayer("02", "Superman")).isInstanceOf(RejectedExecutionException.class);
+        givenThreads.getDefaultTable().addPlayer("01", "Batman");
+        assertThat(executor.isShutdown()).isFalse();
+        executor.shutdown();
+    }
+
+    @Test
+    void get_throwsForUnknownTable() {
+        assertThatThrownBy(() -> underTest.get("unknown")).isInstanceOf(TableNotFoundException.class);
+    }
+
+    @Test
+    void retire_removesTable() {
+        TableService table = underTest.create("01");
+
+        underTest.retire(table.getId(), "01");
+
+        assertThatThrownBy(() -> underTest.get(table.getId())).isInstanceOf(TableNotFoundException.class);
+        assertThatThrownBy(() -> underTest.retire(table.getId(), "01")).isInstanceOf(TableNotFoundException.class);
+    }
+
+    @Test
+    void retire_keepsDefaultTable() {
+        assertThatThrownBy(() -> underTest.retire(TableRegistry.DEFAULT_TABLE_ID, "01"))
+                .isInstanceOf(IllegalActionException.class);
+        assertThat(underTest.getDefaultTable()).isNotNull();
+    }
+
+    @Test
+    void create_limitsTablesPerPlayerAndInAll() {
+        underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), Bankroll.none(),
+                new TableEventBus(), 3, 2);
+        underTest.create("01");
+        TableService second = underTest.create("01");
+
+        assertThatThrownBy(() -> underTest.create("01")).isInstanceOf(IllegalActionException.class);
+        underTest.create("02");
+        assertThatThrownBy(() -> underTest.create("03")).isInstanceOf(IllegalActionException.class);
+
+        underTest.retire(second.getId(), "01");
+        assertThat(underTest.create("01").getId()).isEqualTo("table-4");
+    }
+
+    @Test
+    void retire_onlyByCreator() {
+        TableService table = underTest.create("01");
+
+        assertThatThrownBy(() -> underTest.retire(table.getId(), "02")).isInstanceOf(TableAccessDeniedException.class);
+        assertThat(underTest.get(table.getId())).isSameAs(table);
+    }
+
+    @Test
+    void retire_doesNotHoldUpCreatingTablesWhileTheBankrollIsWritten() throws Exception {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Bankroll bankroll = Mockito.mock(Bankroll.class);
+        Mockito.when(bankroll.commit()).thenReturn(written);
+        underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+        TableService table = underTest.create("01");
+
+        CompletableFuture<Void> retired = CompletableFuture.runAsync(() -> underTest.retire(table.getId(), "01"));
+        assertThatThrownBy(() -> retired.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        assertThat(underTest.create("02").getId()).isEqualTo("table-2");
+        assertThatThrownBy(() -> underTest.get(table.getId())).isInstanceOf(TableNotFoundException.class);
+        written.complete(null);
+        retired.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void retire_inTheMiddleOfAHand_givesBackThePotAndCompletesSubscribers() {
+        TableService table = underTest.create("01");
+        table.addPlayer("01", "Batman");
+        table.addPlayer("02", "Superman");
+        table.start();
+        table.performAction("raise", 30);
+        table.performAction("call", 0);
+        List<String> calls = new ArrayList<>();
+        table.addRetireListener(() -> calls.add("stream"));
+
+        underTest.retire(table.getId(), "01");
+
+        assertThat(calls).containsExactly("stream");
+        assertThat(table.getSnapshot().getPlayers()).extracting(PlayerSnapshot::getCash).containsExactly(100, 100);
+        assertThat(table.getSnapshot().getPot()).isZero();
+        assertThatThrownBy(() -> table.performAction("check", 0)).isInstanceOf(TableNotFoundException.class);
+        table.addRetireListener(() -> calls.add("late"));
+        assertThat(calls).containsExactly("stream", "late");
+    }
+
+    @Test
+    void tableRecoveredAfterRestart_keepsItsCreator(@TempDir Path directory) throws IOException {
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            new TableRegistry(deckSupplier, record -> { }, store).create("01");
+        }
+
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, store, Bankroll.none(), new TableEventBus(),
+                    10, 1);
+
+            assertThatThrownBy(() -> underTest.retire("table-1", "02")).isInstanceOf(TableAccessDeniedException.class);
+            assertThatThrownBy(() -> underTest.create("01")).isInstanceOf(IllegalActionException.class);
+            underTest.retire("table-1", "01");
+            assertThat(store.getTableIds()).containsExactly(TableRegistry.DEFAULT_TABLE_ID);
+        }
+    }
+
+    @Test
+    void tableWithoutKnownCreator_isNotRetired(@TempDir Path directory) throws IOException {
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            new TableRegistry(deckSupplier, record -> { }, store).create("01");
+        }
+        // journaled before creators were kept
+        Files.delete(directory.resolve("table-1").resolve("creator"));
+
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, store);
+
+            assertThatThrownBy(() -> underTest.retire("table-1", "01")).isInstanceOf(TableAccessDeniedException.class);
+            assertThat(underTest.get("table-1")).isNotNull();
+        }
+    }
+
+    @Test
+    void tableThatCantBeRecovered_isLeftOutAndKeepsItsSeats() {
+        TableJournal broken = Mockito.mock(TableJournal.class);
+        Mockito.when(broken.getRecoveredCommands()).thenReturn(List.of(TableCommand.join("01", "Batman", 100),
+                TableCommand.join("02", "Superman", 100), TableCommand.start(), TableCommand.action(null, 0)));
+        TableStore store = Mockito.mock(TableStore.class);
+        Mockito.when(store.getTableIds()).thenReturn(List.of("table-2"));
+        Mockito.when(store.open("table-2")).thenReturn(broken);
+        Mockito.when(store.open(TableRegistry.DEFAULT_TABLE_ID)).thenReturn(TableJournal.none());
+        Mockito.when(store.create(Mockito.anyString(), Mockito.anyString())).thenReturn(TableJournal.none());
+        Bankroll bankroll = Mockito.mock(Bankroll.class);
+
+        underTest = new TableRegistry(deckSupplier, record -> { }, store, bankroll);
+
+        assertThatThrownBy(() -> underTest.get("table-2")).isInstanceOf(TableNotFoundException.class);
+        assertThat(underTest.create("01").getId()).isEqualTo("table-3");
+        ArgumentCaptor<BiPredicate<String, String>> seated = ArgumentCaptor.forClass(BiPredicate.class);
+        Mockito.verify(bankroll).cashOutUnless(seated.capture());
+        assertThat(seated.getValue().test("01", "table-2")).isTrue();
+        assertThat(seated.getValue().test("01", "table-1")).isFalse();
+    }
+
+    @Test
+    void tablesOpenBeforeRestart_areRestored(@TempDir Path directory) throws IOException {
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            TableRegistry before = new TableRegistry(deckSupplier, record -> { }, store);
+            before.create("01");
+            before.create("01").addPlayer("01", "Batman");
+            before.getDefaultTable().addPlayer("02", "Superman");
+        }
+
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, store);
+
+            assertThat(underTest.getTables()).extracting(TableService::getId)
+                    .containsExactlyInAnyOrder(TableRegistry.DEFAULT_TABLE_ID, "table-1", "table-2");
+            assertThat(underTest.get("table-2").getPlayers()).extracting(PlayerSnapshot::getName).containsExactly("Batman");
+            assertThat(underTest.getDefaultTable().getPlayers()).extracting(PlayerSnapshot::getName)
+                    .containsExactly("Superman");
+            assertThat(underTest.create("01").getId()).isEqualTo("table-3");
+        }
+    }
+
+    @Test
+    void retire_deletesJournalOfTable(@TempDir Path directory) throws IOException {
+        try (FileTableStore store = new FileTableStore(directory, 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, store);
+            TableService table = underTest.create("01");
+
+            underTest.retire(table.getId(), "01");
+
+            assertThat(store.getTableIds()).containsExactly(TableRegistry.DEFAULT_TABLE_ID);
+        }
+    }
+
+    @Test
+    void playerAtTwoTables_bringsBalanceOnlyOnce(@TempDir Path directory) throws IOException {
+        try (FileBankroll bankroll = new FileBankroll(directory.resolve("bankroll"), 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+            TableService first = underTest.create("01");
+            TableService second = underTest.create("01");
+            first.addPlayer("01", "Batman");
+            second.addPlayer("01", "Batman");
+
+            assertThat(first.getPlayers()).extracting(PlayerSnapshot::getCash).containsExactly(100);
+            assertThat(second.getPlayers()).extracting(PlayerSnapshot::getCash).containsExactly(0);
+            underTest.retire(first.getId(), "01");
+            assertThat(bankroll.getBalance("01", 0)).isEqualTo(100);
+            underTest.retire(second.getId(), "01");
+            assertThat(bankroll.getBalance("01", 0)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void joiningTableTwice_isRejectedAndKeepsTheSeat(@TempDir Path directory) throws IOException {
+        try (FileBankroll bankroll = new FileBankroll(directory.resolve("bankroll"), 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+            TableService table = underTest.create("01");
+            table.addPlayer("01", "Batman");
+
+            assertThatThrownBy(() -> table.addPlayer("01", "Batman")).isInstanceOf(IllegalActionException.class);
+            assertThat(table.getPlayers()).extracting(PlayerSnapshot::getCash).containsExactly(100);
+            underTest.retire(table.getId(), "01");
+            assertThat(bankroll.getBalance("01", 0)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void joiningRetiredTable_keepsBalance(@TempDir Path directory) throws IOException {
+        try (FileBankroll bankroll = new FileBankroll(directory.resolve("bankroll"), 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+            TableService played = underTest.create("01");
+            played.addPlayer("01", "Batman");
+            underTest.retire(played.getId(), "01");
+            TableService table = underTest.create("01");
+            underTest.retire(table.getId(), "01");
+
+            assertThatThrownBy(() -> table.addPlayer("01", "Batman")).isInstanceOf(TableNotFoundException.class);
+            assertThat(bankroll.getBalance("01", 0)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void seatsOfTablesGoneAfterRestart_areCashedOut(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("bankroll");
+        try (FileBankroll bankroll = new FileBankroll(file, 1000)) {
+            TableRegistry before = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+            before.create("01").addPlayer("01", "Batman");
+            before.getDefaultTable().addPlayer("02", "Superman");
+        }
+
+        try (FileBankroll bankroll = new FileBankroll(file, 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, TableStore.none(), bankroll);
+
+            assertThat(bankroll.getBalance("01", 0)).isEqualTo(100);
+            assertThat(bankroll.getBalance("02", 0)).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void seatsOfRecoveredTables_stayAtTheTable(@TempDir Path directory) throws IOException {
+        try (FileTableStore store = new FileTableStore(directory.resolve("tables"), 1000);
+             FileBankroll bankroll = new FileBankroll(directory.resolve("bankroll"), 1000)) {
+            TableRegistry before = new TableRegistry(deckSupplier, record -> { }, store, bankroll);
+            before.getDefaultTable().addPlayer("02", "Superman");
+        }
+
+        try (FileTableStore store = new FileTableStore(directory.resolve("tables"), 1000);
+             FileBankroll bankroll = new FileBankroll(directory.resolve("bankroll"), 1000)) {
+            underTest = new TableRegistry(deckSupplier, record -> { }, store, bankroll);
+
+            assertThat(bankroll.getBalance("02", 100)).isZero();
+            assertThat(underTest.getDefaultTable().getPlayers()).extracting(PlayerSnapshot::getCash).containsExactly(100);
+        }
+    }
+}
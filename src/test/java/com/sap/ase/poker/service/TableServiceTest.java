@@ -1,24 +1,54 @@
 package com.sap.ase.poker.service;
 
+import com.sap.ase.poker.data.bankroll.Bankroll;
+import com.sap.ase.poker.data.history.HandRecord;
+import com.sap.ase.poker.data.recovery.FileTableJournal;
+import com.sap.ase.poker.data.recovery.TableCommand;
+import com.sap.ase.poker.data.recovery.TableJournal;
 import com.sap.ase.poker.model.IllegalActionException;
 import com.sap.ase.poker.model.IllegalAmountException;
-import com.sap.ase.poker.model.Player;
+import com.sap.ase.poker.model.PlayerSnapshot;
+import com.sap.ase.poker.model.TableSnapshot;
 import com.sap.ase.poker.model.deck.Card;
+import com.sap.ase.poker.model.deck.Kind;
+import com.sap.ase.poker.model.deck.Suit;
+import com.sap.ase.poker.model.events.ActionApplied;
+import com.sap.ase.poker.model.events.HandStarted;
+import com.sap.ase.poker.model.events.PlayerJoined;
+import com.sap.ase.poker.model.events.ShowdownResolved;
+import com.sap.ase.poker.model.events.StreetDealt;
+import com.sap.ase.poker.model.events.TableEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import com.sap.ase.poker.model.deck.Deck;
 import org.junit.jupiter.api.Test;
 import com.sap.ase.poker.model.GameState;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -43,18 +73,101 @@ class TableServiceTest {
     }
     @Test
     void getPlayerShouldGiveEmptyPlayer(){
-        List<Player> players = tableService.getPlayers();
+        List<PlayerSnapshot> players = tableService.getPlayers();
         assertEquals(players, new ArrayList<>());
     }
 
     @Test
     void addPlayerAndCallGetPlayer() {
         tableService.addPlayer("01","Batman");
-        List<Player> players = tableService.getPlayers();
+        List<PlayerSnapshot> players = tableService.getPlayers();
         assertEquals( "Batman", players.get(0).getName());
         assertFalse(players.get(0).isActive());
     }
 
+    @Test
+    void addPlayerConcurrentlyShouldKeepEveryPlayer() {
+        List<CompletableFuture<Void>> joins = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String id = String.valueOf(i);
+            joins.add(CompletableFuture.runAsync(() -> tableService.addPlayer(id, "Player " + id)));
+        }
+        joins.forEach(CompletableFuture::join);
+        assertEquals(50, tableService.getPlayers().size());
+    }
+
+    @Test
+    void snapshotShouldFollowEveryCommand() {
+        TableSnapshot initial = tableService.getSnapshot();
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+
+        TableSnapshot started = tableService.getSnapshot();
+        assertEquals(GameState.OPEN, initial.getState());
+        assertTrue(initial.getPlayers().isEmpty());
+        assertEquals(initial.getVersion() + 3, started.getVersion());
+        assertEquals(GameState.PRE_FLOP, started.getState());
+        assertEquals("01", started.getCurrentPlayer().get().getId());
+        assertEquals(2, started.getPlayerCards("02").size());
+        assertTrue(started.getPlayerCards("unknown").isEmpty());
+        assertFalse(started.getWinner().isPresent());
+    }
+
+    @Test
+    void snapshotShouldNotChangeWithTable() {
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        TableSnapshot started = tableService.getSnapshot();
+
+        tableService.performAction("raise", 10);
+
+        assertEquals(0, started.getPlayers().get(0).getBet());
+        assertEquals(0, started.getBets().get("01"));
+        assertEquals(10, tableService.getSnapshot().getPlayers().get(0).getBet());
+        assertTrue(tableService.getSnapshot().getPlayers().get(0).isActive());
+        assertThrows(UnsupportedOperationException.class, () -> started.getPlayers().clear());
+    }
+
+    @Test
+    void snapshotListenerShouldGetEveryPublishedSnapshot() {
+        List<TableSnapshot> published = new ArrayList<>();
+        Consumer<TableSnapshot> listener = published::add;
+        tableService.addSnapshotListener(listener);
+        tableService.addPlayer("01", "Batman");
+        tableService.removeSnapshotListener(listener);
+        tableService.addPlayer("02", "Superman");
+
+        assertEquals(1, published.size());
+        assertEquals(1, published.get(0).getPlayers().size());
+    }
+
+    @Test
+    void snapshotShouldBePublishedAfterFailedCommand() {
+        long version = tableService.getSnapshot().getVersion();
+        assertThrows(IllegalActionException.class, () -> tableService.start());
+        assertEquals(version + 1, tableService.getSnapshot().getVersion());
+    }
+
+    @Test
+    void snapshotShouldShowWinnerAfterFold() {
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("fold", 0);
+
+        TableSnapshot ended = tableService.getSnapshot();
+        assertEquals(GameState.ENDED, ended.getState());
+        PlayerSnapshot winner = tableService.getWinner().get();
+        assertEquals(winner.getId(), ended.getWinner().get().getId());
+        assertEquals(winner.getName(), ended.getWinner().get().getName());
+        assertEquals(winner.getCash(), ended.getWinner().get().getCash());
+        assertEquals(0, ended.getPot());
+        assertTrue(ended.getCommunityCards().isEmpty());
+        assertTrue(ended.getWinnerHand().isEmpty());
+    }
+
     @Test
     void startGameWithPlayerLessThanTwo(){
         //tableService.start();
@@ -235,10 +348,6 @@ class TableServiceTest {
         tableService.performAction("Call",0);
         assertFalse(tableService.getWinner().isEmpty());
         assertFalse(tableService.getWinnerHand().isEmpty());
-        assertFalse(tableService.getWinnersList().getWinners().isEmpty());
-        tableService.getActivePlayer().get(0).setInactive();
-        tableService.getActivePlayer().get(1).setInactive();
-        assertTrue(tableService.getWinnerHand().isEmpty());
     }
 
     @Test
@@ -250,7 +359,7 @@ class TableServiceTest {
     @Test
     void playHandTwoTimes(){
         testforWinner();
-        startGameWithThreePlayer();
+        tableService.start();
         assertEquals(tableService.getPot(), 0);
         assertEquals(tableService.getCommunityCards().size(), 0);
     }
@@ -266,10 +375,155 @@ class TableServiceTest {
         assertThrows(IllegalAmountException.class, () -> tableService.performAction("Raise", 110)
         );
         tableService.performAction("Raise", 50);
-        assertThrows(IllegalAmountException.class, () -> tableService.performAction("Raise", 60)
+        assertThrows(IllegalAmountException.class, () -> tableService.performAction("Raise", 101)
         );
     }
 
+    @Test
+    void shortStackCallsAllInAndOnlyWinsMainPot(){
+        tableService = new TableService("table-1", () -> new Deck(List.of(
+                Card.of(Kind.KING, Suit.SPADES), Card.of(Kind.KING, Suit.HEARTS),
+                Card.of(Kind.ACE, Suit.SPADES), Card.of(Kind.ACE, Suit.HEARTS),
+                Card.of(Kind.QUEEN, Suit.SPADES), Card.of(Kind.QUEEN, Suit.HEARTS),
+                Card.of(Kind.TWO, Suit.CLUBS), Card.of(Kind.SEVEN, Suit.DIAMONDS), Card.of(Kind.NINE, Suit.HEARTS),
+                Card.of(Kind.THREE, Suit.SPADES), Card.of(Kind.FOUR, Suit.DIAMONDS)), cards -> cards),
+                record -> { }, TableJournal.none(), buyIns(Map.of("02", 30)));
+        startGameWithThreePlayer();
+
+        tableService.performAction("Raise", 80);
+        tableService.performAction("Call", 0);
+        tableService.performAction("Call", 0);
+        assertEquals(0, tableService.getPlayers().get(1).getCash());
+        assertEquals(GameState.FLOP, tableService.getState());
+        assertEquals(190, tableService.getPot());
+        for (int i = 0; i < 9; i++) {
+            tableService.performAction("Check", 0);
+        }
+
+        assertEquals(GameState.ENDED, tableService.getState());
+        assertEquals("02", tableService.getWinner().get().getId());
+        assertEquals(120, tableService.getPlayers().get(0).getCash());
+        assertEquals(90, tableService.getPlayers().get(1).getCash());
+        assertEquals(20, tableService.getPlayers().get(2).getCash());
+    }
+
+    @Test
+    void lastPlayerInWinsEverythingBetSoFar(){
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Raise", 20);
+        tableService.performAction("Fold", 0);
+
+        assertEquals("01", tableService.getWinner().get().getId());
+        assertEquals(100, tableService.getPlayers().get(0).getCash());
+        assertEquals(0, tableService.getPot());
+        assertTrue(tableService.getWinnerHand().isEmpty());
+    }
+
+    @Test
+    void betOfAFoldedHandIsNotCarriedIntoTheNext(){
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Raise", 20);
+        tableService.performAction("Fold", 0);
+        assertEquals(0, tableService.getPlayerWithId("01").getBet());
+
+        tableService.start();
+        tableService.performAction("Raise", 20);
+        assertEquals(80, tableService.getPlayerWithId("01").getCash());
+        tableService.performAction("Call", 0);
+        assertEquals(80, tableService.getPlayerWithId("02").getCash());
+        assertEquals(40, tableService.getPot());
+        tableService.performAction("Raise", 10);
+        tableService.performAction("Fold", 0);
+
+        // the pot of 50 holds 30 from the raiser and 20 from the caller
+        assertEquals("01", tableService.getWinner().get().getId());
+        assertEquals(120, tableService.getPlayerWithId("01").getCash());
+        assertEquals(80, tableService.getPlayerWithId("02").getCash());
+    }
+
+    @Test
+    void foldedHandIsPassedToHandHistory(){
+        List<HandRecord> hands = new ArrayList<>();
+        tableService = new TableService("table-1", deckSupplier, hands::add);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Raise", 20);
+        tableService.performAction("Throw", 0);
+        tableService.performAction("Fold", 0);
+
+        assertEquals(1, hands.size());
+        HandRecord hand = hands.get(0);
+        assertEquals("table-1", hand.getTableId());
+        assertEquals(1, hand.getHandNumber());
+        assertEquals("Superman", hand.getSeats().get(1).getName());
+        assertEquals(100, hand.getSeats().get(0).getStack());
+        assertEquals(tableService.getPlayerCards("01"), hand.getSeats().get(0).getHoleCards());
+        assertThat(hand.getActions()).extracting(HandRecord.Action::getSeat, HandRecord.Action::getType,
+                HandRecord.Action::getAmount).containsExactly(
+                tuple(0, HandRecord.Action.Type.RAISE, 20), tuple(1, HandRecord.Action.Type.FOLD, 0));
+        assertEquals(List.of(20, 0), hand.getPayouts());
+    }
+
+    @Test
+    void callIsRecordedWithTheChipsItMoved(){
+        List<HandRecord> hands = new ArrayList<>();
+        tableService = new TableService("table-1", deckSupplier, hands::add, TableJournal.none(),
+                buyIns(Map.of("03", 15)));
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.addPlayer("03", "Wonder Woman");
+        tableService.start();
+        tableService.performAction("Raise", 20);
+        tableService.performAction("Raise", 40);
+        tableService.performAction("Call", 0);
+        tableService.performAction("Call", 0);
+        tableService.performAction("Fold", 0);
+        tableService.performAction("Fold", 0);
+
+        assertEquals(1, hands.size());
+        // the short stack calls all-in with the 15 it has, the raiser only adds the 20 still missing
+        assertThat(hands.get(0).getActions()).extracting(HandRecord.Action::getType, HandRecord.Action::getAmount)
+                .containsExactly(tuple(HandRecord.Action.Type.RAISE, 20), tuple(HandRecord.Action.Type.RAISE, 40),
+                        tuple(HandRecord.Action.Type.CALL, 15), tuple(HandRecord.Action.Type.CALL, 20),
+                        tuple(HandRecord.Action.Type.FOLD, 0), tuple(HandRecord.Action.Type.FOLD, 0));
+    }
+
+    @Test
+    void showdownIsPassedToHandHistory(){
+        List<HandRecord> hands = new ArrayList<>();
+        tableService = new TableService("table-1", deckSupplier, hands::add);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        for (int hand = 1; hand <= 2; hand++) {
+            tableService.start();
+            for (int i = 0; i < 8; i++) {
+                tableService.performAction("Check", 0);
+            }
+        }
+
+        assertEquals(2, hands.size());
+        assertEquals(2, hands.get(1).getHandNumber());
+        assertEquals(8, hands.get(1).getActions().size());
+        assertEquals(tableService.getCommunityCards(), hands.get(1).getBoard());
+        assertEquals(List.of(0, 0), hands.get(1).getPayouts());
+    }
+
+    @Test
+    void raiseAboveOtherStacksIsAllowed(){
+        tableService = new TableService("table-1", deckSupplier, record -> { }, TableJournal.none(),
+                buyIns(Map.of("02", 30)));
+        startGameWithThreePlayer();
+
+        tableService.performAction("Raise", 100);
+
+        assertEquals(0, tableService.getPlayers().get(0).getCash());
+    }
+
     @Test
     void differentCaseForDetermineNextPlayer(){
         startGameWithThreePlayer();
@@ -295,6 +549,344 @@ class TableServiceTest {
         tableService.performAction("Call",0);
     }
 
+    @Test
+    void tableContinuesAfterRestart(@TempDir Path directory) throws IOException {
+        List<HandRecord> hands = new ArrayList<>();
+        tableService = new TableService("table-1", deckSupplier, hands::add,
+                new FileTableJournal(directory.resolve("running"), 3));
+        startGameWithThreePlayer();
+        tableService.performAction("Raise", 10);
+        assertThrows(IllegalActionException.class, () -> tableService.performAction("Check", 0));
+        tableService.performAction("Call", 0);
+        tableService.performAction("Fold", 0);
+        // the running table goes on, the copy of its journal is what a restarted server finds
+        Files.createDirectory(directory.resolve("restarted"));
+        for (String file : List.of("snapshot", "log")) {
+            Files.copy(directory.resolve("running").resolve(file), directory.resolve("restarted").resolve(file));
+        }
+
+        TableService restored = new TableService("table-1", deckSupplier, hands::add,
+                new FileTableJournal(directory.resolve("restarted"), 3));
+
+        assertThat(restored.getSnapshot()).usingRecursiveComparison().ignoringFields("epoch")
+                .isEqualTo(tableService.getSnapshot());
+        for (TableService table : List.of(tableService, restored)) {
+            for (int i = 0; i < 6; i++) {
+                table.performAction("Check", 0);
+            }
+        }
+        assertThat(restored.getSnapshot()).usingRecursiveComparison().ignoringFields("epoch")
+                .isEqualTo(tableService.getSnapshot());
+        assertEquals(2, hands.size());
+        assertThat(hands.get(1)).usingRecursiveComparison().isEqualTo(hands.get(0));
+    }
+
+    @Test
+    void handEndedBeforeRestartIsNotPassedToHandHistoryAgain(@TempDir Path directory) throws IOException {
+        List<HandRecord> hands = new ArrayList<>();
+        // the last check is snapshotted
+        FileTableJournal journal = new FileTableJournal(directory, 11);
+        tableService = new TableService("table-1", deckSupplier, hands::add, journal);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        for (int i = 0; i < 8; i++) {
+            tableService.performAction("Check", 0);
+        }
+        journal.close();
+
+        TableService restored = new TableService("table-1", deckSupplier, hands::add,
+                new FileTableJournal(directory, 11));
+
+        assertEquals(1, hands.size());
+        assertEquals(GameState.ENDED, restored.getState());
+        assertThat(restored.getWinner()).usingRecursiveComparison().isEqualTo(tableService.getWinner());
+        assertEquals(tableService.getWinnerHand(), restored.getWinnerHand());
+    }
+
+    @Test
+    void foldedHandIsRestored(@TempDir Path directory) throws IOException {
+        FileTableJournal journal = new FileTableJournal(directory, 4);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, journal);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Fold", 0);
+        journal.close();
+
+        TableService restored = new TableService("table-1", deckSupplier, record -> { },
+                new FileTableJournal(directory, 4));
+
+        assertThat(restored.getSnapshot()).usingRecursiveComparison().ignoringFields("epoch")
+                .isEqualTo(tableService.getSnapshot());
+        assertEquals(Optional.of("02"), restored.getWinner().map(PlayerSnapshot::getId));
+    }
+
+    @Test
+    void everyCommandIsReplayed(@TempDir Path directory) throws IOException {
+        FileTableJournal journal = new FileTableJournal(directory, 1000);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, journal);
+        startGameWithThreePlayer();
+        tableService.performAction("Raise", 10);
+        tableService.clearBetMap();
+        tableService.determineNextActivePlayer();
+        tableService.initializePlayer("02");
+        assertThrows(IllegalActionException.class, () -> tableService.initializePlayer("04"));
+        journal.close();
+
+        TableService restored = new TableService("table-1", deckSupplier, record -> { },
+                new FileTableJournal(directory, 1000));
+
+        assertThat(restored.getSnapshot()).usingRecursiveComparison().ignoringFields("epoch")
+                .isEqualTo(tableService.getSnapshot());
+        assertEquals(tableService.getPlayerCards("02"), restored.getPlayerCards("02"));
+    }
+
+    @Test
+    void cashIsKeptInBankrollAndCommittedAtHandEnd() {
+        Map<String, Integer> balances = new HashMap<>(Map.of("01", 250));
+        Map<String, Integer> seats = new HashMap<>();
+        List<Map<String, Integer>> commits = new ArrayList<>();
+        Bankroll bankroll = new Bankroll() {
+            @Override
+            public int getBalance(String playerId, int initialAmount) {
+                return balances.getOrDefault(playerId, initialAmount);
+            }
+
+            @Override
+            public int buyIn(String playerId, String tableId, int initialAmount) {
+                int cash = getBalance(playerId, initialAmount);
+                balances.put(playerId, 0);
+                seats.put(playerId, cash);
+                return cash;
+            }
+
+            @Override
+            public void update(String playerId, String tableId, int cash) {
+                assertEquals("table-1", tableId);
+                seats.put(playerId, cash);
+            }
+
+            @Override
+            public void cashOut(String playerId, String tableId) {
+                balances.merge(playerId, seats.remove(playerId), Integer::sum);
+            }
+
+            @Override
+            public void cashOutUnless(BiPredicate<String, String> seated) {
+            }
+
+            @Override
+            public CompletableFuture<Void> commit() {
+                commits.add(new HashMap<>(seats));
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        tableService = new TableService("table-1", deckSupplier, record -> { }, TableJournal.none(), bankroll);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Raise", 20);
+
+        assertEquals(230, seats.get("01"));
+        assertEquals(0, balances.get("01"));
+        assertThat(commits).isEmpty();
+        tableService.performAction("Fold", 0);
+        tableService.performAction("Check", 0);
+
+        assertThat(commits).containsExactly(Map.of("01", 250, "02", 100));
+        tableService.retire();
+
+        assertThat(seats).isEmpty();
+        assertThat(balances).isEqualTo(Map.of("01", 250, "02", 100));
+    }
+
+    @Test
+    void handEndIsAnsweredOnceTheBankrollIsOnDisk() throws Exception {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        Bankroll bankroll = Mockito.mock(Bankroll.class);
+        Mockito.when(bankroll.buyIn(Mockito.anyString(), Mockito.anyString(), Mockito.anyInt())).thenReturn(100);
+        Mockito.when(bankroll.commit()).thenReturn(written);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, TableJournal.none(), bankroll);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+
+        CompletableFuture<Void> fold = CompletableFuture.runAsync(() -> tableService.performAction("Fold", 0));
+
+        assertThrows(TimeoutException.class, () -> fold.get(100, TimeUnit.MILLISECONDS));
+        // only the caller waits, the table already took the next command
+        assertEquals(GameState.ENDED, tableService.getState());
+        written.complete(null);
+        fold.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void eventsFollowTheHand() {
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus bus = new TableEventBus(Runnable::run);
+        bus.subscribe(TableEvent.class, events::add, 64, TableEventBus.Overflow.BLOCK);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, TableJournal.none(),
+                Bankroll.none(), bus);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Check", 0);
+        tableService.performAction("Check", 0);
+        tableService.performAction("Raise", 20);
+        assertThrows(IllegalActionException.class, () -> tableService.performAction("Check", 0));
+        tableService.performAction("Call", 0);
+        tableService.performAction("Raise", 30);
+        tableService.performAction("Fold", 0);
+
+        assertThat(events).allMatch(event -> event.getTableId().equals("table-1") && event.getTimestamp() > 0);
+        assertThat(events).extracting(Object::getClass).containsExactly(PlayerJoined.class, PlayerJoined.class,
+                HandStarted.class, ActionApplied.class, ActionApplied.class, StreetDealt.class,
+                ActionApplied.class, ActionApplied.class, StreetDealt.class, ActionApplied.class,
+                ActionApplied.class, ShowdownResolved.class);
+        PlayerJoined joined = (PlayerJoined) events.get(1);
+        assertEquals("Superman", joined.getPlayerName());
+        assertEquals(100, joined.getCash());
+        assertEquals(List.of("01", "02"), ((HandStarted) events.get(2)).getPlayerIds());
+        assertThat(events).filteredOn(ActionApplied.class::isInstance).extracting(
+                event -> tuple(((ActionApplied) event).getPlayerId(), ((ActionApplied) event).getAction(),
+                        ((ActionApplied) event).getStreet(), ((ActionApplied) event).getAmount()))
+                .containsExactly(tuple("01", "check", GameState.PRE_FLOP, 0), tuple("02", "check", GameState.PRE_FLOP, 0),
+                        tuple("01", "raise", GameState.FLOP, 20), tuple("02", "call", GameState.FLOP, 20),
+                        tuple("01", "raise", GameState.TURN, 30), tuple("02", "fold", GameState.TURN, 0));
+        StreetDealt turn = (StreetDealt) events.get(8);
+        assertEquals(GameState.TURN, turn.getStreet());
+        assertEquals(tableService.getCommunityCards(), turn.getBoard());
+        ShowdownResolved resolved = (ShowdownResolved) events.get(11);
+        assertEquals(List.of("01"), resolved.getWinnerIds());
+        assertThat(resolved.getWinningCards()).isEmpty();
+        assertEquals(Map.of("01", 70), resolved.getPayouts());
+    }
+
+    @Test
+    void showdownIsPublishedAndReplayPublishesNothing(@TempDir Path directory) throws IOException {
+        List<TableEvent> events = new ArrayList<>();
+        TableEventBus bus = new TableEventBus(Runnable::run);
+        bus.subscribe(TableEvent.class, events::add, 64, TableEventBus.Overflow.BLOCK);
+        FileTableJournal journal = new FileTableJournal(directory, 1000);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, journal, Bankroll.none(), bus);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        for (int i = 0; i < 8; i++) {
+            tableService.performAction("Check", 0);
+        }
+        journal.close();
+
+        assertThat(events).filteredOn(StreetDealt.class::isInstance).extracting(
+                event -> ((StreetDealt) event).getStreet()).containsExactly(GameState.FLOP, GameState.TURN, GameState.RIVER);
+        ShowdownResolved resolved = (ShowdownResolved) events.get(events.size() - 1);
+        assertEquals(tableService.getWinnerHand(), resolved.getWinningCards());
+        assertThat(resolved.getWinnerIds()).isNotEmpty();
+        events.clear();
+        new TableService("table-1", deckSupplier, record -> { }, new FileTableJournal(directory, 1000),
+                Bankroll.none(), bus);
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void replayFailingOtherThanBeforeTheRestart_failsTheRecovery() {
+        TableJournal journal = Mockito.mock(TableJournal.class);
+        Mockito.when(journal.getRecoveredCommands()).thenReturn(List.of(TableCommand.join("01", "Batman", 100),
+                TableCommand.join("02", "Superman", 100), TableCommand.start(), TableCommand.action("check", 0),
+                TableCommand.action("call", 0), TableCommand.action(null, 0)));
+
+        TableRecoveryException failure = assertThrows(TableRecoveryException.class,
+                () -> new TableService("table-1", deckSupplier, record -> { }, journal));
+
+        // the call failed before the restart as well, the action without a name couldn't have
+        assertThat(failure).hasCauseInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void failingJournalStillPublishesTheTable() {
+        TableJournal journal = Mockito.mock(TableJournal.class);
+        Mockito.doThrow(new UncheckedIOException(new IOException("disk full")))
+                .when(journal).append(Mockito.any());
+        tableService = new TableService("table-1", deckSupplier, record -> { }, journal);
+
+        assertThrows(UncheckedIOException.class, () -> tableService.addPlayer("01", "Batman"));
+        IllegalActionException failure = assertThrows(IllegalActionException.class, () -> tableService.start());
+
+        assertThat(tableService.getSnapshot().getPlayers()).extracting(PlayerSnapshot::getId).containsExactly("01");
+        // the journal failed as well, but the command says why it failed
+        assertThat(failure.getSuppressed()).singleElement().isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void actionIsJournaledAsOneTheTableKnows() {
+        TableJournal journal = Mockito.mock(TableJournal.class);
+        tableService = new TableService("table-1", deckSupplier, record -> { }, journal);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+
+        tableService.performAction("x".repeat(70_000), 0);
+        tableService.performAction("Check", 0);
+
+        ArgumentCaptor<TableCommand> journaled = ArgumentCaptor.forClass(TableCommand.class);
+        Mockito.verify(journal, Mockito.times(5)).append(journaled.capture());
+        assertThat(journaled.getAllValues()).filteredOn(command -> command.getType() == TableCommand.Type.ACTION)
+                .extracting(TableCommand::getAction).containsExactly("unknown", "check");
+    }
+
+    @Test
+    void metersGoToTheGivenRegistry() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        tableService = new TableService("table-1", deckSupplier, record -> { }, TableJournal.none(),
+                Bankroll.none(), new TableEventBus(), Runnable::run, meterRegistry);
+        tableService.addPlayer("01", "Batman");
+        tableService.addPlayer("02", "Superman");
+        tableService.start();
+        tableService.performAction("Raise", 10);
+        tableService.performAction("Call", 0);
+        for (int i = 0; i < 6; i++) {
+            tableService.performAction("Check", 0);
+        }
+
+        assertEquals(6, meterRegistry.get("poker.table.commands").tag("command", "check").timer().count());
+        assertEquals(1, meterRegistry.get("poker.showdown").timer().count());
+        assertEquals(20, meterRegistry.get("poker.hand.pot").summary().totalAmount());
+    }
+
+    // players buy in with the given cash, the others with what a new player gets
+    private static Bankroll buyIns(Map<String, Integer> cash) {
+        return new Bankroll() {
+            @Override
+            public int getBalance(String playerId, int initialAmount) {
+                return cash.getOrDefault(playerId, initialAmount);
+            }
+
+            @Override
+            public int buyIn(String playerId, String tableId, int initialAmount) {
+                return getBalance(playerId, initialAmount);
+            }
+
+            @Override
+            public void update(String playerId, String tableId, int cash) {
+            }
+
+            @Override
+            public void cashOut(String playerId, String tableId) {
+            }
+
+            @Override
+            public void cashOutUnless(BiPredicate<String, String> seated) {
+            }
+
+            @Override
+            public CompletableFuture<Void> commit() {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+
     public void startGameWithThreePlayer(){
         tableService.addPlayer("01", "Batman");
         tableService.addPlayer("02", "Superman");
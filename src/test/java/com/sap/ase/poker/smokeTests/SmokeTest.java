@@ -11,7 +11,9 @@ import org.junit.jupiter.api.Disabled;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.security.Principal;
 
@@ -93,7 +95,8 @@ public class SmokeTest {
     }
 
     GetTableResponseDto getTableResponseDtoForPlayer(String id) {
-        return underTest.getTable(createMockPrincipalWithId(id));
+        return underTest.getTable(createMockPrincipalWithId(id), new ServletWebRequest(new MockHttpServletRequest()))
+                .getBody();
     }
 
 